@@ -65,6 +65,19 @@ public interface GraphComputer {
         EDGES
     }
 
+    public enum Execution {
+        /**
+         * Each iteration receives the messages sent in the iteration before it and all vertices are executed before
+         * the next iteration starts.
+         */
+        SYNCHRONOUS,
+        /**
+         * Messages are received as soon as they are sent, possibly in the same iteration, and each message is
+         * received only once. Only a {@link VertexProgram} that supports asynchronous execution can be executed so.
+         */
+        ASYNCHRONOUS
+    }
+
     /**
      * Set the {@link ResultGraph} of the computation. If this is not set explicitly by the user, then the
      * {@link VertexProgram} can choose the most efficient result for its intended use. If there is no declared
@@ -85,6 +98,20 @@ public interface GraphComputer {
      */
     public GraphComputer persist(final Persist persist);
 
+    /**
+     * Set the {@link Execution} of the computation. If this is not set explicitly by the user, then the computation
+     * is executed {@link Execution#SYNCHRONOUS}. The default implementation only supports synchronous execution.
+     *
+     * @param execution how the vertex program is to be executed
+     * @return the updated GraphComputer with newly set execution
+     * @throws UnsupportedOperationException if the computer does not support the execution
+     */
+    public default GraphComputer execution(final Execution execution) {
+        if (Execution.SYNCHRONOUS != execution)
+            throw Exceptions.executionNotSupported(execution);
+        return this;
+    }
+
     /**
      * Set the {@link VertexProgram} to be executed by the {@link GraphComputer}.
      * There can only be one VertexProgram for the GraphComputer.
@@ -228,6 +255,10 @@ public interface GraphComputer {
             return true;
         }
 
+        public default boolean supportsAsynchronousExecution() {
+            return false;
+        }
+
         /**
          * Supports {@link VertexProgram} and {@link MapReduce} parameters to be direct referenced Java objects
          * (no serialization required). This is typically true for single machine graph computer engines. For cluster
@@ -259,6 +290,14 @@ public interface GraphComputer {
             return new UnsupportedOperationException("The computer does not support graph filter");
         }
 
+        public static UnsupportedOperationException executionNotSupported(final Execution execution) {
+            return new UnsupportedOperationException("The computer does not support the following execution: " + execution);
+        }
+
+        public static IllegalStateException vertexProgramDoesNotSupportExecution(final VertexProgram vertexProgram, final Execution execution) {
+            return new IllegalStateException("The vertex program does not support the following execution: " + execution + " [" + vertexProgram + "]");
+        }
+
         public static IllegalArgumentException providedKeyIsNotAnElementComputeKey(final String key) {
             return new IllegalArgumentException("The provided key is not an element compute key: " + key);
         }
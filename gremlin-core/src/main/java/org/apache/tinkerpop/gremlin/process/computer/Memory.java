@@ -110,6 +110,16 @@ public interface Memory {
         return this.getIteration() == 0;
     }
 
+    /**
+     * A helper method that states whether the {@link GraphComputer} executes asynchronously, in which case messages
+     * sent in the current iteration may already be received in it.
+     *
+     * @return whether the computation is {@link GraphComputer.Execution#ASYNCHRONOUS}
+     */
+    public default boolean isAsynchronous() {
+        return false;
+    }
+
     /**
      * The Admin interface is used by the {@link GraphComputer} to update the Memory.
      * The developer should never need to type-cast the provided Memory to Memory.Admin.
@@ -46,4 +46,13 @@ public interface Messenger<M> {
      */
     public void sendMessage(final MessageScope messageScope, final M message);
 
+    /**
+     * The currently executing vertex declares that it has nothing left to do unless it is sent a message. If the
+     * {@link VertexProgram#allowsVoteToHalt(Memory)} for the next iteration, the {@link GraphComputer} may skip
+     * the vertex in that iteration and those after it until a message is sent to it. A vertex program must compute
+     * the same result whether halted vertices are skipped or not. The default implementation is a no-op.
+     */
+    public default void voteToHalt() {
+    }
+
 }
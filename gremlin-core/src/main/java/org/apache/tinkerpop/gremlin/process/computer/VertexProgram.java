@@ -162,6 +162,19 @@ public interface VertexProgram<M> extends Cloneable {
         return Optional.empty();
     }
 
+    /**
+     * Whether vertices that called {@link Messenger#voteToHalt()} may be skipped in the coming iteration unless they
+     * were sent a message in the previous one. If not, every vertex is executed and the votes cast so far are
+     * discarded. It is not a requirement that the {@link GraphComputer} skip halted vertices.
+     * The default is to not allow vertices to halt.
+     *
+     * @param memory an immutable form of the {@link Memory}
+     * @return whether halted vertices may be skipped during said vertex program iteration
+     */
+    public default boolean allowsVoteToHalt(final Memory memory) {
+        return false;
+    }
+
     /**
      * This method returns all the {@link MessageScope} possibilities for a particular iteration of the vertex program.
      * The returned messages scopes are the scopes that will be used to send messages during the stated iteration.
@@ -293,5 +306,13 @@ public interface VertexProgram<M> extends Cloneable {
         public default boolean requiresEdgePropertyRemoval() {
             return false;
         }
+
+        /**
+         * Whether the program computes the same result when messages are received as soon as they are sent, as
+         * with {@link GraphComputer.Execution#ASYNCHRONOUS}, which it can tell from {@link Memory#isAsynchronous()}.
+         */
+        public default boolean supportsAsynchronousExecution() {
+            return false;
+        }
     }
 }
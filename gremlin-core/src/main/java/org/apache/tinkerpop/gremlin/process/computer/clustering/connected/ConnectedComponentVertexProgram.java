@@ -153,6 +153,9 @@ public class ConnectedComponentVertexProgram implements VertexProgram<String> {
                 memory.add(VOTE_TO_HALT, false);
             }
         }
+
+        // the component only changes with messages from adjacent vertices so there is nothing to do until one arrives
+        messenger.voteToHalt();
     }
 
     @Override
@@ -184,6 +187,11 @@ public class ConnectedComponentVertexProgram implements VertexProgram<String> {
         }
     }
 
+    @Override
+    public boolean allowsVoteToHalt(final Memory memory) {
+        return true;
+    }
+
     @Override
     public Set<MessageScope> getMessageScopes(final Memory memory) {
         return scopes;
@@ -218,6 +226,12 @@ public class ConnectedComponentVertexProgram implements VertexProgram<String> {
             public boolean requiresVertexPropertyAddition() {
                 return true;
             }
+
+            @Override
+            public boolean supportsAsynchronousExecution() {
+                // components only ever get smaller so it makes no difference when they are received
+                return true;
+            }
         };
     }
 
@@ -48,6 +48,12 @@ import java.util.Optional;
 import java.util.Set;
 
 /**
+ * When executed {@link GraphComputer.Execution#ASYNCHRONOUS}, vertices send the changes to their ranks rather than
+ * their ranks. The program stops once the changes of an iteration add up to less than the epsilon or the maximum
+ * number of iterations is reached, and any changes that were sent but not yet received at that point are dropped, so
+ * the ranks may differ from the synchronous ones by up to the changes of the last iteration. A smaller epsilon and
+ * enough iterations to reach it keep that difference small.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class PageRankVertexProgram implements VertexProgram<Double> {
@@ -143,7 +149,7 @@ public class PageRankVertexProgram implements VertexProgram<Double> {
     @Override
     public Set<MessageScope> getMessageScopes(final Memory memory) {
         final Set<MessageScope> set = new HashSet<>();
-        set.add(memory.isInitialIteration() ? this.countMessageScope : this.incidentMessageScope);
+        set.add(memory.isInitialIteration() && !memory.isAsynchronous() ? this.countMessageScope : this.incidentMessageScope);
         return set;
     }
 
@@ -168,7 +174,9 @@ public class PageRankVertexProgram implements VertexProgram<Double> {
 
     @Override
     public void execute(final Vertex vertex, Messenger<Double> messenger, final Memory memory) {
-        if (memory.isInitialIteration()) {
+        if (memory.isAsynchronous()) {
+            executeAsynchronously(vertex, messenger, memory);
+        } else if (memory.isInitialIteration()) {
             messenger.sendMessage(this.countMessageScope, 1.0d);
             memory.add(VERTEX_COUNT, 1.0d);
         } else {
@@ -204,6 +212,42 @@ public class PageRankVertexProgram implements VertexProgram<Double> {
         }
     }
 
+    /**
+     * When messages are received as soon as they are sent, a vertex may receive the rank of an adjacent vertex more or
+     * less than once an iteration. So rather than its rank, a vertex sends the change to its rank since it last
+     * executed and adds up the changes it receives, which converges to the same ranks as they get smaller.
+     */
+    private void executeAsynchronously(final Vertex vertex, final Messenger<Double> messenger, final Memory memory) {
+        if (memory.isInitialIteration()) {
+            // the edges are counted rather than messaged as the count would be received along with the changes
+            final Traversal.Admin<Vertex, Edge> incidentTraversal = this.incidentMessageScope.getIncidentTraversal().get().asAdmin();
+            vertex.property(VertexProperty.Cardinality.single, EDGE_COUNT, (double) IteratorUtils.count(TraversalUtil.applyAll(vertex, incidentTraversal)));
+            memory.add(VERTEX_COUNT, 1.0d);
+            if (null != this.initialRankTraversal)
+                memory.add(TELEPORTATION_ENERGY, TraversalUtil.apply(vertex, this.initialRankTraversal.get()).doubleValue());
+            return;
+        }
+
+        double delta = IteratorUtils.reduce(messenger.receiveMessages(), 0.0d, (a, b) -> a + b);
+        final double teleporationEnergy = memory.get(TELEPORTATION_ENERGY);
+        if (teleporationEnergy > 0.0d) {
+            final double localTerminalEnergy = teleporationEnergy / memory.<Double>get(VERTEX_COUNT);
+            memory.add(TELEPORTATION_ENERGY, -localTerminalEnergy);
+            // the initial energy is teleported once at 1 - alpha and then only the energy of vertices without edges
+            delta = delta + (1 == memory.getIteration() ? (1.0d - this.alpha) * localTerminalEnergy : localTerminalEnergy);
+        }
+        if (0.0d == delta)
+            return;
+
+        final double edgeCount = vertex.value(EDGE_COUNT);
+        vertex.property(VertexProperty.Cardinality.single, this.property, vertex.<Double>property(this.property).orElse(0.0d) + delta);
+        memory.add(CONVERGENCE_ERROR, Math.abs(delta));
+        if (edgeCount > 0.0d)
+            messenger.sendMessage(this.incidentMessageScope, this.alpha * delta / edgeCount);
+        else
+            memory.add(TELEPORTATION_ENERGY, this.alpha * delta);
+    }
+
     @Override
     public boolean terminate(final Memory memory) {
         boolean terminate = memory.<Double>get(CONVERGENCE_ERROR) < this.epsilon || memory.getIteration() >= this.maxIterations;
@@ -273,6 +317,11 @@ public class PageRankVertexProgram implements VertexProgram<Double> {
             public boolean requiresVertexPropertyAddition() {
                 return true;
             }
+
+            @Override
+            public boolean supportsAsynchronousExecution() {
+                return true;
+            }
         };
     }
 }
\ No newline at end of file
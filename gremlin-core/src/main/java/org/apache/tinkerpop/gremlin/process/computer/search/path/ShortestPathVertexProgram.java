@@ -261,7 +261,10 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
             copyHaltedTraversersFromMemory(vertex);
 
             // ignore vertices that don't pass the start-vertex filter
-            if (!isStartVertex(vertex)) return;
+            if (!isStartVertex(vertex)) {
+                messenger.voteToHalt();
+                return;
+            }
 
             // start to track paths for all valid start-vertices
             final Map<Vertex, Pair<Number, Set<Path>>> paths = new HashMap<>();
@@ -333,6 +336,15 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
 
         // VOTE_TO_HALT will be set to true if an iteration hasn't found any new paths
         memory.add(VOTE_TO_HALT, voteToHalt);
+
+        // new paths only come with messages from adjacent vertices so there is nothing to search until one arrives
+        messenger.voteToHalt();
+    }
+
+    @Override
+    public boolean allowsVoteToHalt(final Memory memory) {
+        // collecting paths and updating halted traversers needs every vertex
+        return memory.<Integer>get(STATE) == SEARCH;
     }
 
     @Override
@@ -59,6 +59,11 @@ public final class ImmutableMemory implements Memory.Admin {
         return this.baseMemory.getRuntime();
     }
 
+    @Override
+    public boolean isAsynchronous() {
+        return this.baseMemory.isAsynchronous();
+    }
+
     @Override
     public void add(final String key, final Object value) {
         throw Memory.Exceptions.memoryIsCurrentlyImmutable();
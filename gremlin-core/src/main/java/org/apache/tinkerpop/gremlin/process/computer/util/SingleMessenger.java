@@ -46,4 +46,9 @@ public final class SingleMessenger<M> implements Messenger<M> {
     public void sendMessage(final MessageScope messageScope, final M message) {
         this.baseMessenger.sendMessage(messageScope, message);
     }
+
+    @Override
+    public void voteToHalt() {
+        this.baseMessenger.voteToHalt();
+    }
 }
@@ -95,7 +95,9 @@ import static org.junit.Assume.assumeNoException;
         "computerRequiresMoreWorkersThanSupported",
         "vertexFilterAccessesIncidentEdges",
         "edgeFilterAccessesAdjacentVertices",
-        "graphFilterNotSupported"
+        "graphFilterNotSupported",
+        "executionNotSupported",
+        "vertexProgramDoesNotSupportExecution"
 })
 @ExceptionCoverage(exceptionClass = Memory.Exceptions.class, methods = {
         "memoryKeyCanNotBeEmpty",
@@ -2173,6 +2175,41 @@ public class GraphComputerTest extends AbstractGremlinProcessTest {
         // TODO: add a test the shows DAG behavior -- splitting another TraversalVertexProgram off of the PeerPressureVertexProgram job.
     }
 
+    @Test
+    @LoadGraphWith(MODERN)
+    public void shouldSupportAsynchronousExecution() throws Exception {
+        // if the graph computer does not support asynchronous execution, then make sure its exception handling is correct
+        if (!graphProvider.getGraphComputer(graph).features().supportsAsynchronousExecution()) {
+            try {
+                graphProvider.getGraphComputer(graph).execution(GraphComputer.Execution.ASYNCHRONOUS);
+                fail("Should throw an unsupported operation exception");
+            } catch (final UnsupportedOperationException e) {
+                assertEquals(GraphComputer.Exceptions.executionNotSupported(GraphComputer.Execution.ASYNCHRONOUS).getMessage(), e.getMessage());
+            }
+            return;
+        }
+
+        // a vertex program that does not support asynchronous execution can not be executed so
+        final VertexProgram peerPressure = PeerPressureVertexProgram.build().create(graph);
+        try {
+            graphProvider.getGraphComputer(graph).execution(GraphComputer.Execution.ASYNCHRONOUS).program(peerPressure).submit();
+            fail("Should throw an illegal state exception");
+        } catch (final IllegalStateException e) {
+            assertEquals(GraphComputer.Exceptions.vertexProgramDoesNotSupportExecution(peerPressure, GraphComputer.Execution.ASYNCHRONOUS).getMessage(), e.getMessage());
+        }
+
+        // a vertex program that supports it must compute the same result as it does synchronously
+        final ComputerResult synchronous = graphProvider.getGraphComputer(graph).
+                program(PageRankVertexProgram.build().iterations(100).epsilon(1e-9).create(graph)).submit().get();
+        final ComputerResult asynchronous = graphProvider.getGraphComputer(graph).execution(GraphComputer.Execution.ASYNCHRONOUS).
+                program(PageRankVertexProgram.build().iterations(100).epsilon(1e-9).create(graph)).submit().get();
+        final Map<Object, Double> ranks = new HashMap<>();
+        synchronous.graph().vertices().forEachRemaining(v -> ranks.put(v.id(), v.value(PageRankVertexProgram.PAGE_RANK)));
+        assertEquals(6, ranks.size());
+        asynchronous.graph().vertices().forEachRemaining(v ->
+                assertEquals(ranks.get(v.id()), v.<Double>value(PageRankVertexProgram.PAGE_RANK), 1e-6));
+    }
+
     ///////////////////////////////////
 
     @Test
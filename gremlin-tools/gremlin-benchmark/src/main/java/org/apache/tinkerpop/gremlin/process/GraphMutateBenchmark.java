@@ -27,6 +27,9 @@ import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerBulkLoader;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Setup;
@@ -43,6 +46,27 @@ import java.util.Random;
  */
 public class GraphMutateBenchmark extends AbstractGraphMutateBenchmark {
 
+    private static final Vertex[] LOAD_VERTICES = new Vertex[1000];
+    private static final Edge[] LOAD_EDGES = new Edge[5000];
+
+    static {
+        // detached elements with 8 properties per vertex and 2 per edge to load into the graph of each invocation
+        final Random rand = new Random(584545454L);
+        final Graph source = TinkerGraph.open();
+        for (int ix = 0; ix < LOAD_VERTICES.length; ix++) {
+            final Vertex v = source.addVertex(T.id, "p" + ix, T.label, "person");
+            for (int iy = 0; iy < 8; iy++) {
+                v.property("x" + iy, iy % 2 == 0 ? iy * ix : String.valueOf(iy + ix));
+            }
+            LOAD_VERTICES[ix] = DetachedFactory.detach(v, true);
+        }
+        for (int ie = 0; ie < LOAD_EDGES.length; ie++) {
+            final Edge e = source.vertices("p" + rand.nextInt(LOAD_VERTICES.length)).next().addEdge("knows",
+                    source.vertices("p" + rand.nextInt(LOAD_VERTICES.length)).next(), T.id, "k" + ie, "weight", rand.nextDouble(), "since", ie);
+            LOAD_EDGES[ie] = DetachedFactory.detach(e, true);
+        }
+    }
+
     private Vertex a;
     private Vertex b;
     private Vertex c;
@@ -187,4 +211,39 @@ public class GraphMutateBenchmark extends AbstractGraphMutateBenchmark {
     public Edge testEdgePropertyStep() {
         return g.E(e).property("met", 1967).next();
     }
+
+    @Benchmark
+    public Graph testAddVerticesAndEdges() {
+        for (final Vertex v : LOAD_VERTICES) {
+            final List<Object> l = new ArrayList<>();
+            l.add(T.id);
+            l.add(v.id());
+            l.add(T.label);
+            l.add(v.label());
+            v.properties().forEachRemaining(p -> {
+                l.add(p.key());
+                l.add(p.value());
+            });
+            graph.addVertex(l.toArray());
+        }
+        for (final Edge e : LOAD_EDGES) {
+            final List<Object> l = new ArrayList<>();
+            l.add(T.id);
+            l.add(e.id());
+            e.properties().forEachRemaining(p -> {
+                l.add(p.key());
+                l.add(p.value());
+            });
+            graph.vertices(e.outVertex().id()).next().addEdge(e.label(), graph.vertices(e.inVertex().id()).next(), l.toArray());
+        }
+        return graph;
+    }
+
+    @Benchmark
+    public Graph testBulkLoadVerticesAndEdges() {
+        try (final TinkerBulkLoader loader = ((TinkerGraph) graph).bulkLoader()) {
+            loader.addVertices(LOAD_VERTICES).addEdges(LOAD_EDGES);
+        }
+        return graph;
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.clustering.connected.ConnectedComponentVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.clustering.peerpressure.PeerPressureVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TinkerGraphComputerBenchmark} measures vertex programs on {@link TinkerGraphComputer} over a random graph.
+ * Each run reports the average time of an iteration as the {@code millisPerIteration} secondary result (the summary
+ * adds up the runs). PageRank sends {@code Double} messages that are combined, connected components sends messages
+ * that are not combined and peer pressure sends messages with two scopes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TinkerGraphComputerBenchmark extends AbstractBenchmarkBase {
+
+    @Param({"100000"})
+    public int vertexCount;
+
+    @Param({"10"})
+    public int degree;
+
+    @Param({"10"})
+    public int iterations;
+
+    private TinkerGraph graph;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Iterations {
+        public double millisPerIteration;
+    }
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        graph = TinkerGraph.open();
+        final Vertex[] vertices = new Vertex[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            vertices[i] = graph.addVertex();
+        }
+        final Random random = new Random(584545454L);
+        for (int i = 0; i < vertexCount; i++) {
+            for (int j = 0; j < degree; j++) {
+                vertices[i].addEdge("link", vertices[random.nextInt(vertexCount)]);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        graph.close();
+    }
+
+    @Benchmark
+    public ComputerResult testPageRank(final Iterations result) throws Exception {
+        return compute(PageRankVertexProgram.build().iterations(iterations).create(graph), result);
+    }
+
+    @Benchmark
+    public ComputerResult testConnectedComponent(final Iterations result) throws Exception {
+        return compute(ConnectedComponentVertexProgram.build().create(graph), result);
+    }
+
+    @Benchmark
+    public ComputerResult testPeerPressure(final Iterations result) throws Exception {
+        return compute(PeerPressureVertexProgram.build().maxIterations(iterations).create(graph), result);
+    }
+
+    private ComputerResult compute(final VertexProgram<?> vertexProgram, final Iterations result) throws Exception {
+        final ComputerResult computerResult = graph.compute(TinkerGraphComputer.class).program(vertexProgram).submit().get();
+        result.millisPerIteration = computerResult.memory().getRuntime() / (double) Math.max(1, computerResult.memory().getIteration());
+        return computerResult;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.clustering.connected.ConnectedComponentVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TinkerGraphComputerConvergenceBenchmark} compares synchronous and asynchronous execution of vertex programs
+ * on {@link TinkerGraphComputer} that run until they converge over a random graph. Each run reports the number of
+ * iterations it took as the {@code iterations} secondary result (the summary adds up the runs). The vertices of the
+ * graph are connected to vertices added shortly before them, so changes take many iterations to spread synchronously.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TinkerGraphComputerConvergenceBenchmark extends AbstractBenchmarkBase {
+
+    @Param({"100000"})
+    public int vertexCount;
+
+    @Param({"5"})
+    public int degree;
+
+    @Param({"1000"})
+    public int span;
+
+    @Param({"SYNCHRONOUS", "ASYNCHRONOUS"})
+    public GraphComputer.Execution execution;
+
+    private TinkerGraph graph;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Convergence {
+        public int iterations;
+    }
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        graph = TinkerGraph.open();
+        final Vertex[] vertices = new Vertex[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            vertices[i] = graph.addVertex();
+        }
+        final Random random = new Random(584545454L);
+        for (int i = 0; i < vertexCount; i++) {
+            for (int j = 0; j < degree; j++) {
+                vertices[i].addEdge("link", vertices[Math.floorMod(i - 1 - random.nextInt(span), vertexCount)]);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        graph.close();
+    }
+
+    @Benchmark
+    public ComputerResult testPageRank(final Convergence result) throws Exception {
+        return compute(PageRankVertexProgram.build().iterations(1000).epsilon(0.0001d).create(graph), result);
+    }
+
+    @Benchmark
+    public ComputerResult testConnectedComponent(final Convergence result) throws Exception {
+        return compute(ConnectedComponentVertexProgram.build().create(graph), result);
+    }
+
+    private ComputerResult compute(final VertexProgram<?> vertexProgram, final Convergence result) throws Exception {
+        final ComputerResult computerResult = graph.compute(TinkerGraphComputer.class).execution(execution).program(vertexProgram).submit().get();
+        result.iterations = computerResult.memory().getIteration();
+        return computerResult;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TinkerAdjacencyBenchmark} measures the heap used per edge by {@link TinkerGraph} with and without
+ * {@link AbstractTinkerGraph#GREMLIN_TINKERGRAPH_COMPACT_ADJACENCY}, which is reported as the {@code bytesPerEdge}
+ * secondary result of each iteration (the summary adds up the iterations). As the heap is measured after forcing
+ * garbage collection the time is only a rough indication of the cost to add the edges.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TinkerAdjacencyBenchmark extends AbstractBenchmarkBase {
+
+    private static final String[] LABELS = {"knows", "created", "likes"};
+
+    @Param({"false", "true"})
+    public boolean compactAdjacency;
+
+    @Param({"100000"})
+    public int vertexCount;
+
+    @Param({"1000000"})
+    public int edgeCount;
+
+    private TinkerGraph graph;
+    private Vertex[] vertices;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Memory {
+        public double bytesPerEdge;
+    }
+
+    @Setup(Level.Invocation)
+    public void prepare() {
+        final Configuration configuration = new BaseConfiguration();
+        configuration.setProperty(AbstractTinkerGraph.GREMLIN_TINKERGRAPH_COMPACT_ADJACENCY, compactAdjacency);
+        graph = TinkerGraph.open(configuration);
+        vertices = new Vertex[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            vertices[i] = graph.addVertex();
+        }
+    }
+
+    @Benchmark
+    public Graph testAddEdges(final Memory memory) {
+        final Random random = new Random(584545454L);
+        final long before = usedMemory();
+        for (int i = 0; i < edgeCount; i++) {
+            // new strings as labels would be when read from a file
+            vertices[random.nextInt(vertexCount)].addEdge(new String(LABELS[i % LABELS.length]),
+                    vertices[random.nextInt(vertexCount)]);
+        }
+        memory.bytesPerEdge = (usedMemory() - before) / (double) edgeCount;
+        return graph;
+    }
+
+    private static long usedMemory() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
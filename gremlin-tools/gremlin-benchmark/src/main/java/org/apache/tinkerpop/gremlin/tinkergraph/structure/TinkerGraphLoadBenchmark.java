@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TinkerGraphLoadBenchmark} measures the time to open a persisted {@link TinkerGraph} with different values of
+ * {@link AbstractTinkerGraph#GREMLIN_TINKERGRAPH_LOAD_THREADS}. The graph is not closed after it is opened as that
+ * would write it back to the file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TinkerGraphLoadBenchmark extends AbstractBenchmarkBase {
+
+    @Param({"gryo", "graphson"})
+    public String graphFormat;
+
+    @Param({"1", "4"})
+    public int loadThreads;
+
+    @Param({"100000"})
+    public int vertexCount;
+
+    @Param({"1000000"})
+    public int edgeCount;
+
+    private File graphFile;
+    private Configuration configuration;
+
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        graphFile = File.createTempFile("tinkergraph-load", "." + graphFormat);
+        graphFile.delete();
+
+        configuration = new BaseConfiguration();
+        configuration.setProperty(AbstractTinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphFile.getAbsolutePath());
+        configuration.setProperty(AbstractTinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, graphFormat);
+
+        final TinkerGraph graph = TinkerGraph.open(configuration);
+        final Random random = new Random(584545454L);
+        final Vertex[] vertices = new Vertex[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            vertices[i] = graph.addVertex("person");
+            vertices[i].property("name", "person" + i);
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            vertices[random.nextInt(vertexCount)].addEdge("knows", vertices[random.nextInt(vertexCount)],
+                    "weight", random.nextDouble());
+        }
+        graph.close();
+
+        configuration.setProperty(AbstractTinkerGraph.GREMLIN_TINKERGRAPH_LOAD_THREADS, loadThreads);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() {
+        graphFile.delete();
+    }
+
+    @Benchmark
+    public Graph testOpen() {
+        return TinkerGraph.open(configuration);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TinkerIterationBenchmark} measures iterating the adjacent vertices, incident edges and properties of all
+ * vertices of a {@link TinkerGraph} or a {@link TinkerTransactionGraph}. Run it with {@code -prof gc} to see the
+ * bytes allocated per operation along with the throughput.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TinkerIterationBenchmark extends AbstractBenchmarkBase {
+
+    private static final String[] LABELS = {"knows", "created"};
+
+    @Param({"false", "true"})
+    public boolean transactional;
+
+    @Param({"10000"})
+    public int vertexCount;
+
+    @Param({"10"})
+    public int degree;
+
+    private AbstractTinkerGraph graph;
+    private Vertex[] vertices;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        graph = transactional ? TinkerTransactionGraph.open() : TinkerGraph.open();
+        vertices = new Vertex[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            vertices[i] = graph.addVertex("person");
+            vertices[i].property("name", "name" + i);
+            vertices[i].property("age", i % 100);
+            vertices[i].property("city", "city" + i % 50);
+        }
+
+        final Random random = new Random(584545454L);
+        for (int i = 0; i < vertexCount; i++) {
+            for (int j = 0; j < degree; j++) {
+                vertices[i].addEdge(LABELS[j % LABELS.length], vertices[random.nextInt(vertexCount)]);
+            }
+        }
+
+        // the benchmarks then read in a single transaction that stays open until the end of the trial
+        if (transactional) graph.tx().commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        if (transactional) graph.tx().rollback();
+        graph.close();
+    }
+
+    @Benchmark
+    public long testOut() {
+        long count = 0;
+        for (final Vertex vertex : vertices) {
+            count += count(vertex.vertices(Direction.OUT));
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long testBothWithLabels() {
+        long count = 0;
+        for (final Vertex vertex : vertices) {
+            count += count(vertex.vertices(Direction.BOTH, LABELS));
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long testOutE() {
+        long count = 0;
+        for (final Vertex vertex : vertices) {
+            count += count(vertex.edges(Direction.OUT, LABELS[0]));
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long testProperties() {
+        long count = 0;
+        for (final Vertex vertex : vertices) {
+            count += count(vertex.properties("name", "age"));
+        }
+        return count;
+    }
+
+    private static long count(final Iterator<?> iterator) {
+        long count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        return count;
+    }
+}
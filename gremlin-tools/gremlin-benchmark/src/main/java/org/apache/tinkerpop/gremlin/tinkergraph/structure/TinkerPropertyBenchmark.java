@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TinkerPropertyBenchmark} measures {@link TinkerGraph} with and without
+ * {@link AbstractTinkerGraph#GREMLIN_TINKERGRAPH_COMPACT_PROPERTIES}. {@code testAddProperties} reports the heap used
+ * per property as the {@code bytesPerProperty} secondary result of each iteration (the summary adds up the
+ * iterations), and {@code testValues} the throughput of scanning the values of a key of all vertices.
+ */
+@State(Scope.Thread)
+public class TinkerPropertyBenchmark extends AbstractBenchmarkBase {
+
+    private static final String[] KEYS = {"name", "age", "city", "email", "score"};
+
+    @Param({"false", "true"})
+    public boolean compactProperties;
+
+    @Param({"100000"})
+    public int vertexCount;
+
+    private GraphTraversalSource g;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Memory {
+        public double bytesPerProperty;
+    }
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        final TinkerGraph graph = open();
+        addVertices(graph);
+        g = graph.traversal();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Graph testAddProperties(final Memory memory) {
+        final TinkerGraph graph = open();
+        final long before = usedMemory();
+        addVertices(graph);
+        // vertices are counted as well but are the same with and without compact properties
+        memory.bytesPerProperty = (usedMemory() - before) / (double) (vertexCount * KEYS.length);
+        return graph;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long testValues() {
+        return g.V().values("email").count().next();
+    }
+
+    private TinkerGraph open() {
+        final Configuration configuration = new BaseConfiguration();
+        configuration.setProperty(AbstractTinkerGraph.GREMLIN_TINKERGRAPH_COMPACT_PROPERTIES, compactProperties);
+        return TinkerGraph.open(configuration);
+    }
+
+    private void addVertices(final TinkerGraph graph) {
+        for (int i = 0; i < vertexCount; i++) {
+            final Vertex vertex = graph.addVertex("person");
+            for (int k = 0; k < KEYS.length; k++) {
+                // new strings as keys would be when read from a file
+                vertex.property(new String(KEYS[k]), k == 1 ? i % 100 : KEYS[k] + i);
+            }
+        }
+    }
+
+    private static long usedMemory() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.util.TransactionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TinkerTransactionGraphBenchmark} measures the throughput of read and write transactions of a
+ * {@link TinkerTransactionGraph} that run at the same time. Readers traverse the neighborhood of a vertex while writers
+ * change the property of a vertex, so readers go through the versions kept for transactions that started before a
+ * commit.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TinkerTransactionGraphBenchmark extends AbstractBenchmarkBase {
+
+    @Param({"10000"})
+    public int vertexCount;
+
+    @Param({"10"})
+    public int edgesPerVertex;
+
+    private TinkerTransactionGraph graph;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        graph = TinkerTransactionGraph.open();
+        final GraphTraversalSource gtx = graph.tx().begin();
+        for (int i = 0; i < vertexCount; i++) {
+            gtx.addV("person").property(T.id, i).property("age", i).iterate();
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            for (int j = 1; j <= edgesPerVertex; j++) {
+                gtx.V(i).addE("knows").to(__.V((i + j) % vertexCount)).iterate();
+            }
+        }
+        gtx.tx().commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws Exception {
+        graph.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public long read() {
+        final GraphTraversalSource gtx = graph.tx().begin();
+        try {
+            return gtx.V(ThreadLocalRandom.current().nextInt(vertexCount)).out("knows").values("age").count().next();
+        } finally {
+            gtx.tx().rollback();
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public boolean write() {
+        final GraphTraversalSource gtx = graph.tx().begin();
+        try {
+            final int id = ThreadLocalRandom.current().nextInt(vertexCount);
+            gtx.V(id).property("age", ThreadLocalRandom.current().nextInt()).iterate();
+            gtx.tx().commit();
+            return true;
+        } catch (TransactionException ex) {
+            gtx.tx().rollback();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertexProperty;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The values of a compute key of the vertices of a {@link TinkerGraphComputerView}, kept in arrays by the ordinal of
+ * the vertex as given by {@link TinkerGraphComputerView#ordinalOf}. A single {@code Long}, {@code Double} or
+ * {@code Integer} value without meta-properties, which is what most vertex programs keep, is kept as the bits of a
+ * {@code long} next to the identifier it was given when it was added, and only made a {@link VertexProperty} with that
+ * identifier when it is read. Once a meta-property is attached to such a property, the property is kept as it is.
+ * Other values are kept as their {@link VertexProperty}, or a list of them if there are several for the vertex.
+ * <p/>
+ * The identifiers are negative {@code Long} values taken from a sequence of the {@link TinkerGraphComputerView} rather
+ * than from the graph, so that the identifiers of the graph are not used up by a job and do not clash with those of
+ * the properties of the graph.
+ * <p/>
+ * A vertex program only changes the properties of the vertex it executes for, so each ordinal is only written by one
+ * worker at a time and only allocating the arrays has to be synchronized.
+ */
+final class TinkerComputeColumn {
+
+    private static final byte NONE = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte INTEGER = 3;
+
+    private final String key;
+    private final int vertexCount;
+    private final AtomicLong propertyIds;
+
+    private volatile long[] numbers;
+    private volatile long[] ids;
+    private volatile byte[] numberTypes;
+    // a VertexProperty or an ArrayList of them per vertex
+    private volatile Object[] properties;
+
+    TinkerComputeColumn(final String key, final int vertexCount, final AtomicLong propertyIds) {
+        this.key = key;
+        this.vertexCount = vertexCount;
+        this.propertyIds = propertyIds;
+    }
+
+    /**
+     * Gets the properties of the vertex with the ordinal.
+     */
+    public List<VertexProperty<?>> get(final TinkerVertex vertex, final int ordinal) {
+        if (ordinal < 0)
+            return Collections.emptyList();
+
+        final byte numberType = typeAt(ordinal);
+        if (NONE != numberType)
+            return Collections.singletonList(property(this.ids[ordinal], vertex, ordinal, fromBits(this.numbers[ordinal], numberType)));
+
+        final Object current = null == this.properties ? null : this.properties[ordinal];
+        if (null == current)
+            return Collections.emptyList();
+        else if (current instanceof VertexProperty)
+            return Collections.singletonList((VertexProperty<?>) current);
+        else
+            return new ArrayList<>((List<VertexProperty<?>>) current);
+    }
+
+    /**
+     * Adds a property with the value to the vertex with the ordinal. The value is kept as a number if it is the only
+     * one of the vertex and it will not get meta-properties.
+     */
+    public <V> VertexProperty<V> add(final TinkerVertex vertex, final int ordinal, final V value, final boolean metaProperties) {
+        final long id = this.propertyIds.decrementAndGet();
+        final byte numberType = metaProperties ? NONE : typeOf(value);
+        if (NONE != numberType && isEmpty(ordinal)) {
+            numbers()[ordinal] = toBits(value, numberType);
+            this.ids[ordinal] = id;
+            this.numberTypes[ordinal] = numberType;
+            return property(id, vertex, ordinal, value);
+        }
+
+        // a number that is already kept becomes a property as it is no longer the only value
+        final byte currentType = typeAt(ordinal);
+        if (NONE != currentType) {
+            addProperty(ordinal, property(this.ids[ordinal], vertex, ordinal, fromBits(this.numbers[ordinal], currentType)));
+            this.numberTypes[ordinal] = NONE;
+        }
+        final VertexProperty<V> property = property(id, vertex, ordinal, value);
+        addProperty(ordinal, property);
+        return property;
+    }
+
+    /**
+     * Removes the property from the vertex with the ordinal.
+     */
+    public void remove(final int ordinal, final VertexProperty<?> property) {
+        if (NONE != typeAt(ordinal)) {
+            if (isNumberOf(ordinal, property))
+                this.numberTypes[ordinal] = NONE;
+            return;
+        }
+
+        final Object current = null == this.properties ? null : this.properties[ordinal];
+        if (current == property)
+            this.properties[ordinal] = null;
+        else if (current instanceof List)
+            ((List<?>) current).remove(property);
+    }
+
+    /**
+     * Drops the values of all vertices along with the arrays they were kept in.
+     */
+    public synchronized void clear() {
+        this.numbers = null;
+        this.ids = null;
+        this.numberTypes = null;
+        this.properties = null;
+    }
+
+    private <V> VertexProperty<V> property(final long id, final TinkerVertex vertex, final int ordinal, final V value) {
+        return new TinkerVertexProperty<V>(id, vertex, this.key, value) {
+            @Override
+            public <U> Property<U> property(final String key, final U value) {
+                TinkerComputeColumn.this.keep(ordinal, this);
+                return super.property(key, value);
+            }
+
+            @Override
+            public void remove() {
+                TinkerComputeColumn.this.remove(ordinal, this);
+            }
+        };
+    }
+
+    /**
+     * Keeps the property made from the number of the vertex with the ordinal in place of the number, as a
+     * meta-property is about to be attached to it that the number could not hold.
+     */
+    private void keep(final int ordinal, final VertexProperty<?> property) {
+        if (NONE != typeAt(ordinal) && isNumberOf(ordinal, property)) {
+            addProperty(ordinal, property);
+            this.numberTypes[ordinal] = NONE;
+        }
+    }
+
+    /**
+     * Determines if the property was made from the number kept for the vertex with the ordinal, which is only told by
+     * the identifier as any number of properties may have been made from it.
+     */
+    private boolean isNumberOf(final int ordinal, final VertexProperty<?> property) {
+        return property.id() instanceof Long && (Long) property.id() == this.ids[ordinal];
+    }
+
+    private void addProperty(final int ordinal, final VertexProperty<?> property) {
+        final Object[] properties = null == this.properties ? allocateProperties() : this.properties;
+        final Object current = properties[ordinal];
+        if (null == current) {
+            properties[ordinal] = property;
+        } else if (current instanceof VertexProperty) {
+            final List<VertexProperty<?>> list = new ArrayList<>(2);
+            list.add((VertexProperty<?>) current);
+            list.add(property);
+            properties[ordinal] = list;
+        } else {
+            ((List<VertexProperty<?>>) current).add(property);
+        }
+    }
+
+    private boolean isEmpty(final int ordinal) {
+        return NONE == typeAt(ordinal) && (null == this.properties || null == this.properties[ordinal]);
+    }
+
+    private byte typeAt(final int ordinal) {
+        return null == this.numberTypes ? NONE : this.numberTypes[ordinal];
+    }
+
+    private long[] numbers() {
+        if (null == this.numbers) {
+            synchronized (this) {
+                if (null == this.numbers) {
+                    this.numberTypes = new byte[this.vertexCount];
+                    this.ids = new long[this.vertexCount];
+                    this.numbers = new long[this.vertexCount];
+                }
+            }
+        }
+        return this.numbers;
+    }
+
+    private synchronized Object[] allocateProperties() {
+        if (null == this.properties)
+            this.properties = new Object[this.vertexCount];
+        return this.properties;
+    }
+
+    private static byte typeOf(final Object value) {
+        if (value instanceof Double)
+            return DOUBLE;
+        else if (value instanceof Long)
+            return LONG;
+        else if (value instanceof Integer)
+            return INTEGER;
+        else
+            return NONE;
+    }
+
+    private static long toBits(final Object value, final byte numberType) {
+        return DOUBLE == numberType ? Double.doubleToRawLongBits((Double) value) : ((Number) value).longValue();
+    }
+
+    private static Object fromBits(final long bits, final byte numberType) {
+        if (DOUBLE == numberType)
+            return Double.longBitsToDouble(bits);
+        else if (LONG == numberType)
+            return bits;
+        else
+            return (int) bits;
+    }
+}
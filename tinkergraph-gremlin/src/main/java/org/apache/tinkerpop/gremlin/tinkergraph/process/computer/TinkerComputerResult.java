@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.Memory;
+import org.apache.tinkerpop.gremlin.process.computer.util.DefaultComputerResult;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+
+/**
+ * The result of a {@link TinkerGraphComputer}, which also tells how busy its workers were.
+ */
+public final class TinkerComputerResult extends DefaultComputerResult {
+
+    private final TinkerWorkerMetrics workerMetrics;
+
+    public TinkerComputerResult(final Graph graph, final Memory memory, final TinkerWorkerMetrics workerMetrics) {
+        super(graph, memory);
+        this.workerMetrics = workerMetrics;
+    }
+
+    public TinkerWorkerMetrics getWorkerMetrics() {
+        return this.workerMetrics;
+    }
+}
@@ -26,7 +26,6 @@ import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
 import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.traversal.strategy.optimization.GraphFilterStrategy;
 import org.apache.tinkerpop.gremlin.process.computer.util.ComputerGraph;
-import org.apache.tinkerpop.gremlin.process.computer.util.DefaultComputerResult;
 import org.apache.tinkerpop.gremlin.process.computer.util.GraphComputerHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
@@ -66,11 +65,11 @@ public final class TinkerGraphComputer implements GraphComputer {
 
     private ResultGraph resultGraph = null;
     private Persist persist = null;
+    private Execution execution = Execution.SYNCHRONOUS;
 
     private VertexProgram<?> vertexProgram;
     private final AbstractTinkerGraph graph;
     private TinkerMemory memory;
-    private final TinkerMessageBoard messageBoard = new TinkerMessageBoard();
     private boolean executed = false;
     private final Set<MapReduce> mapReducers = new HashSet<>();
     private int workers = Runtime.getRuntime().availableProcessors();
@@ -100,6 +99,12 @@ public final class TinkerGraphComputer implements GraphComputer {
         return this;
     }
 
+    @Override
+    public GraphComputer execution(final Execution execution) {
+        this.execution = execution;
+        return this;
+    }
+
     @Override
     public GraphComputer program(final VertexProgram vertexProgram) {
         this.vertexProgram = vertexProgram;
@@ -149,6 +154,8 @@ public final class TinkerGraphComputer implements GraphComputer {
         // it is possible to run mapreducers without a vertex program
         if (null != this.vertexProgram) {
             GraphComputerHelper.validateProgramOnComputer(this, this.vertexProgram);
+            if (Execution.ASYNCHRONOUS == this.execution && !this.vertexProgram.getFeatures().supportsAsynchronousExecution())
+                throw GraphComputer.Exceptions.vertexProgramDoesNotSupportExecution(this.vertexProgram, this.execution);
             this.mapReducers.addAll(this.vertexProgram.getMapReducers());
         }
         // get the result graph and persist state to use for the computation
@@ -162,6 +169,7 @@ public final class TinkerGraphComputer implements GraphComputer {
 
         // initialize the memory
         this.memory = new TinkerMemory(this.vertexProgram, this.mapReducers);
+        this.memory.setAsynchronous(Execution.ASYNCHRONOUS == this.execution);
         final Future<ComputerResult> result = computerService.submit(() -> {
             final long time = System.currentTimeMillis();
             final TinkerGraphComputerView view = TinkerHelper.createGraphComputerView(this.graph, this.graphFilter, null != this.vertexProgram ? this.vertexProgram.getVertexComputeKeys() : Collections.emptySet());
@@ -169,25 +177,28 @@ public final class TinkerGraphComputer implements GraphComputer {
             try {
                 if (null != this.vertexProgram) {
                     // execute the vertex program
+                    final TinkerMessageBoard messageBoard = new TinkerMessageBoard<>(view, this.vertexProgram.getMessageCombiner().orElse(null), this.memory.isAsynchronous());
                     this.vertexProgram.setup(this.memory);
                     while (true) {
                         if (Thread.interrupted()) throw new TraversalInterruptedException();
                         this.memory.completeSubRound();
+                        messageBoard.startIteration(this.vertexProgram.allowsVoteToHalt(this.memory.asImmutable()));
                         workers.setVertexProgram(this.vertexProgram);
                         workers.executeVertexProgram((vertices, vertexProgram, workerMemory) -> {
                             vertexProgram.workerIterationStart(workerMemory.asImmutable());
                             while (vertices.hasNext()) {
                                 final Vertex vertex = vertices.next();
                                 if (Thread.interrupted()) throw new TraversalInterruptedException();
+                                if (!messageBoard.activate(vertex)) continue; // halted and not sent a message
                                 vertexProgram.execute(
                                         ComputerGraph.vertexProgram(vertex, vertexProgram),
-                                        new TinkerMessenger<>(vertex, this.messageBoard, vertexProgram.getMessageCombiner()),
+                                        new TinkerMessenger<>(vertex, messageBoard),
                                         workerMemory);
                             }
                             vertexProgram.workerIterationEnd(workerMemory.asImmutable());
                             workerMemory.complete();
                         });
-                        this.messageBoard.completeIteration();
+                        messageBoard.completeIteration();
                         this.memory.completeSubRound();
                         if (this.vertexProgram.terminate(this.memory)) {
                             this.memory.incrIteration();
@@ -243,7 +254,7 @@ public final class TinkerGraphComputer implements GraphComputer {
                 // determine the resultant graph based on the result graph/persist state
                 final Graph resultGraph = view.processResultGraphPersist(this.resultGraph, this.persist);
                 TinkerHelper.dropGraphComputerView(this.graph); // drop the view from the original source graph
-                return new DefaultComputerResult(resultGraph, this.memory.asImmutable());
+                return new TinkerComputerResult(resultGraph, this.memory.asImmutable(), workers.getWorkerMetrics());
             } catch (InterruptedException ie) {
                 workers.closeNow();
                 throw new TraversalInterruptedException();
@@ -319,6 +330,11 @@ public final class TinkerGraphComputer implements GraphComputer {
             public boolean supportsEdgePropertyRemoval() {
                 return false;
             }
+
+            @Override
+            public boolean supportsAsynchronousExecution() {
+                return true;
+            }
         };
     }
 }
\ No newline at end of file
@@ -21,10 +21,10 @@ package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.computer.util.ComputerGraph;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalUtil;
 import org.apache.tinkerpop.gremlin.structure.Edge;
-import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.T;
@@ -35,8 +35,8 @@ import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.AbstractTinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerTransactionGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
-import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertexProperty;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -47,7 +47,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -56,18 +56,42 @@ public final class TinkerGraphComputerView {
 
     private final AbstractTinkerGraph graph;
     protected final Map<String, VertexComputeKey> computeKeys;
-    private Map<Element, Map<String, List<VertexProperty<?>>>> computeProperties;
+    private final Map<String, TinkerComputeColumn> computeColumns = new HashMap<>();
+    /**
+     * The sequence the identifiers of the properties of compute keys are taken from, counting down from zero.
+     */
+    private final AtomicLong propertyIds = new AtomicLong();
     private final Set<Object> legalVertices = new HashSet<>();
     private final Map<Object, Set<Object>> legalEdges = new HashMap<>();
     private final GraphFilter graphFilter;
     private final Set<String> retainVertexProperties;
+    private final Map<Object, Integer> ordinals;
+    private final int vertexCount;
 
     public TinkerGraphComputerView(final AbstractTinkerGraph graph, final GraphFilter graphFilter, final Set<VertexComputeKey> computeKeys) {
         this.graph = graph;
         this.computeKeys = new HashMap<>();
         computeKeys.forEach(key -> this.computeKeys.put(key.getKey(), key));
-        this.computeProperties = new ConcurrentHashMap<>();
         this.graphFilter = graphFilter;
+
+        // number the vertices densely so that what is kept per vertex can be kept in arrays. the vertices of a
+        // TinkerTransactionGraph may have several versions so their numbers are looked up by identifier instead.
+        this.ordinals = graph instanceof TinkerTransactionGraph ? new HashMap<>() : null;
+        int ordinal = 0;
+        final Iterator<Vertex> vertices = graph.vertices();
+        while (vertices.hasNext()) {
+            final Vertex vertex = vertices.next();
+            if (null == this.ordinals)
+                TinkerHelper.setOrdinal((TinkerVertex) vertex, ordinal);
+            else
+                this.ordinals.put(vertex.id(), ordinal);
+            ordinal++;
+        }
+        this.vertexCount = ordinal;
+        for (final String key : this.computeKeys.keySet()) {
+            this.computeColumns.put(key, new TinkerComputeColumn(key, this.vertexCount, this.propertyIds));
+        }
+
         if (this.graphFilter.hasFilter()) {
             graph.vertices().forEachRemaining(vertex -> {
                 boolean legalVertex = false;
@@ -89,17 +113,38 @@ public final class TinkerGraphComputerView {
         }
     }
 
-    public <V> Property<V> addProperty(final TinkerVertex vertex, final String key, final V value) {
+    /**
+     * Gets the number of vertices, which bounds their ordinals.
+     */
+    public int getVertexCount() {
+        return this.vertexCount;
+    }
+
+    /**
+     * Gets the ordinal of the vertex from zero to the number of vertices of the graph, or {@code -1} if it is not a
+     * vertex of the graph. A vertex that is not a {@link TinkerVertex} of the graph, such as a reference to one, is
+     * looked up by its identifier.
+     */
+    public int ordinalOf(final Vertex vertex) {
+        final Vertex baseVertex = vertex instanceof ComputerGraph.ComputerVertex ? ((ComputerGraph.ComputerVertex) vertex).getBaseVertex() : vertex;
+        if (null != this.ordinals) {
+            final Integer ordinal = this.ordinals.get(baseVertex.id());
+            return null == ordinal ? -1 : ordinal;
+        }
+
+        final Vertex tinkerVertex = baseVertex instanceof TinkerVertex && baseVertex.graph() == this.graph ?
+                baseVertex : this.graph.vertex(baseVertex.id());
+        return null == tinkerVertex ? -1 : TinkerHelper.getOrdinal((TinkerVertex) tinkerVertex);
+    }
+
+    /**
+     * Adds a property for the compute key to the vertex. Any key/values given are only used to tell whether the
+     * property will get meta-properties, which have to be attached to the returned property.
+     */
+    public <V> Property<V> addProperty(final TinkerVertex vertex, final String key, final V value, final Object... keyValues) {
         ElementHelper.validateProperty(key, value);
         if (isComputeKey(key)) {
-            final TinkerVertexProperty<V> property = new TinkerVertexProperty<V>((TinkerVertex) vertex, key, value) {
-                @Override
-                public void remove() {
-                    removeProperty(vertex, key, this);
-                }
-            };
-            this.addValue(vertex, key, property);
-            return property;
+            return this.computeColumns.get(key).add(vertex, ordinalOf(vertex), value, keyValues.length > 0);
         } else {
             throw GraphComputer.Exceptions.providedKeyIsNotAnElementComputeKey(key);
         }
@@ -107,7 +152,8 @@ public final class TinkerGraphComputerView {
 
     public List<VertexProperty<?>> getProperty(final TinkerVertex vertex, final String key) {
         // if the vertex property is already on the vertex, use that.
-        final List<VertexProperty<?>> vertexProperty = this.getValue(vertex, key);
+        final TinkerComputeColumn column = this.computeColumns.get(key);
+        final List<VertexProperty<?>> vertexProperty = null == column ? Collections.emptyList() : column.get(vertex, ordinalOf(vertex));
         return vertexProperty.isEmpty() ? (List) getPropertiesMap(vertex).getOrDefault(key, Collections.emptyList()) : vertexProperty;
     }
 
@@ -116,8 +162,9 @@ public final class TinkerGraphComputerView {
         for (final List<VertexProperty> properties : getPropertiesMap(vertex).values()) {
             list.addAll(properties);
         }
-        for (final List<VertexProperty<?>> properties : this.computeProperties.getOrDefault(vertex, Collections.emptyMap()).values()) {
-            list.addAll(properties);
+        final int ordinal = ordinalOf(vertex);
+        for (final TinkerComputeColumn column : this.computeColumns.values()) {
+            list.addAll(column.get(vertex, ordinal));
         }
         return list;
     }
@@ -132,7 +179,7 @@ public final class TinkerGraphComputerView {
 
     public void removeProperty(final TinkerVertex vertex, final String key, final VertexProperty property) {
         if (isComputeKey(key)) {
-            this.removeValue(vertex, key, property);
+            this.computeColumns.get(key).remove(ordinalOf(vertex), property);
         } else {
             throw GraphComputer.Exceptions.providedKeyIsNotAnElementComputeKey(key);
         }
@@ -149,11 +196,8 @@ public final class TinkerGraphComputerView {
     protected void complete() {
         // remove all transient properties from the vertices
         for (final VertexComputeKey computeKey : this.computeKeys.values()) {
-            if (computeKey.isTransient()) {
-                for (final Map<String, List<VertexProperty<?>>> properties : this.computeProperties.values()) {
-                    properties.remove(computeKey.getKey());
-                }
-            }
+            if (computeKey.isTransient())
+                this.computeColumns.get(computeKey.getKey()).clear();
         }
     }
 
@@ -211,17 +255,21 @@ public final class TinkerGraphComputerView {
 
     private void addPropertiesToOriginalGraph() {
         TinkerHelper.dropGraphComputerView(this.graph);
-        this.computeProperties.forEach((element, properties) -> {
-            properties.forEach((key, vertexProperties) -> {
-                vertexProperties.forEach(vertexProperty -> {
-                    final VertexProperty<?> newVertexProperty = ((Vertex) element).property(VertexProperty.Cardinality.list, vertexProperty.key(), vertexProperty.value(), T.id, vertexProperty.id());
+        this.graph.vertices().forEachRemaining(vertex -> {
+            final int ordinal = ordinalOf(vertex);
+            for (final TinkerComputeColumn column : this.computeColumns.values()) {
+                // the graph gives the properties identifiers of its own as those of the view may clash with them
+                column.get((TinkerVertex) vertex, ordinal).forEach(vertexProperty -> {
+                    final VertexProperty<?> newVertexProperty = vertex.property(VertexProperty.Cardinality.list, vertexProperty.key(), vertexProperty.value());
                     vertexProperty.properties().forEachRemaining(property -> {
                         newVertexProperty.property(property.key(), property.value());
                     });
                 });
-            });
+            }
         });
-        this.computeProperties.clear();
+        for (final TinkerComputeColumn column : this.computeColumns.values()) {
+            column.clear();
+        }
     }
 
     //////////////////////
@@ -229,21 +277,4 @@ public final class TinkerGraphComputerView {
     private boolean isComputeKey(final String key) {
         return this.computeKeys.containsKey(key);
     }
-
-    private void addValue(final Vertex vertex, final String key, final VertexProperty property) {
-        final Map<String, List<VertexProperty<?>>> elementProperties = this.computeProperties.computeIfAbsent(vertex, k -> new HashMap<>());
-        elementProperties.compute(key, (k, v) -> {
-            if (null == v) v = new ArrayList<>();
-            v.add(property);
-            return v;
-        });
-    }
-
-    private void removeValue(final Vertex vertex, final String key, final VertexProperty property) {
-        this.computeProperties.<List<Map<String, VertexProperty<?>>>>getOrDefault(vertex, Collections.emptyMap()).get(key).remove(property);
-    }
-
-    private List<VertexProperty<?>> getValue(final Vertex vertex, final String key) {
-        return this.computeProperties.getOrDefault(vertex, Collections.emptyMap()).getOrDefault(key, Collections.emptyList());
-    }
-}
\ No newline at end of file
+}
@@ -47,6 +47,7 @@ public final class TinkerMemory implements Memory.Admin {
     private final AtomicInteger iteration = new AtomicInteger(0);
     private final AtomicLong runtime = new AtomicLong(0l);
     private boolean inExecute = false;
+    private boolean asynchronous = false;
 
     public TinkerMemory(final VertexProgram<?> vertexProgram, final Set<MapReduce> mapReducers) {
         // ConcurrentHashMap makes us use Optional since you cant store null in them as values (or keys)
@@ -108,6 +109,15 @@ public final class TinkerMemory implements Memory.Admin {
         return this.getIteration() == 0;
     }
 
+    @Override
+    public boolean isAsynchronous() {
+        return this.asynchronous;
+    }
+
+    protected void setAsynchronous(final boolean asynchronous) {
+        this.asynchronous = asynchronous;
+    }
+
     @Override
     public <R> R get(final String key) throws IllegalArgumentException {
         if (!this.previousMap.containsKey(key)) throw Memory.Exceptions.memoryDoesNotExist(key);
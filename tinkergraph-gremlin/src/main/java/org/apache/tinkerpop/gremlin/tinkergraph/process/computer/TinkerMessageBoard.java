@@ -18,29 +18,203 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
 import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Queue;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
+ * Keeps the {@link TinkerMessages} that are sent to in the current iteration and those that are received from, which
+ * were sent to in the previous one. When an iteration completes the two swap, so the arrays of the messages received
+ * are cleared and sent to again rather than allocated anew if the next iteration sends with the same scopes.
+ * <p/>
+ * In the iterations where the vertex program allows vertices to vote to halt, the board also keeps which vertices
+ * voted and which were sent messages, so that halted vertices that were not sent a message can be skipped.
+ * <p/>
+ * When executing asynchronously there is no swap as messages are kept for the receiving vertex until it takes them,
+ * which may be in the same iteration they were sent in.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 final class TinkerMessageBoard<M> {
 
-    public Map<MessageScope, Map<Vertex,Queue<M>>> sendMessages = new ConcurrentHashMap<>();
-    public Map<MessageScope, Map<Vertex, Queue<M>>> receiveMessages = new ConcurrentHashMap<>();
-    public Set<MessageScope> previousMessageScopes = new HashSet<>();
-    public Set<MessageScope> currentMessageScopes = new HashSet<>();
+    private static final Object[] NO_MESSAGES = new Object[0];
+    private static final int LOCKS = 1024;
+
+    private final TinkerGraphComputerView view;
+    private final MessageCombiner<M> combiner;
+    private final boolean asynchronous;
+    private final Object[] locks = new Object[LOCKS];
+
+    // pairs of a message scope and its messages, looked up by the identity of the scope as programs keep their scopes
+    private volatile Object[] sendMessages = NO_MESSAGES;
+    private List<TinkerMessages<M>> receiveMessages = Collections.emptyList();
+    // pairs of a message scope and the messages received with it in the previous iteration that can be sent to again
+    private Object[] spareMessages = NO_MESSAGES;
+    // the distinct messages of the scopes sent with so far, which are received from when executing asynchronously
+    private volatile List<TinkerMessages<M>> asynchronousMessages = Collections.emptyList();
+
+    // whether votes to halt count in this iteration, in which case the vertices sent to are marked
+    private boolean halting = false;
+    private boolean[] halted;
+    private boolean[] sentTo;
+    private boolean[] receivedBy;
+
+    public TinkerMessageBoard(final TinkerGraphComputerView view, final MessageCombiner<M> combiner, final boolean asynchronous) {
+        this.view = view;
+        this.combiner = combiner;
+        this.asynchronous = asynchronous;
+        for (int i = 0; i < LOCKS; i++) {
+            this.locks[i] = new Object();
+        }
+    }
+
+    public int ordinalOf(final Vertex vertex) {
+        return this.view.ordinalOf(vertex);
+    }
+
+    /**
+     * Prepares the board for an iteration in which halted vertices may or may not be skipped. If they may not, the
+     * votes to halt cast so far are discarded.
+     */
+    public void startIteration(final boolean halting) {
+        if (halting && null == this.halted) {
+            final int vertexCount = this.view.getVertexCount();
+            this.halted = new boolean[vertexCount];
+            this.sentTo = new boolean[vertexCount];
+            this.receivedBy = new boolean[vertexCount];
+        } else if (!halting && this.halting) {
+            Arrays.fill(this.halted, false);
+        }
+        this.halting = halting;
+    }
+
+    public boolean isAsynchronous() {
+        return this.asynchronous;
+    }
+
+    /**
+     * Determines whether the vertices sent messages have to be marked, which they do not when executing
+     * asynchronously as it is known from the messages kept for them.
+     */
+    public boolean isMarking() {
+        return this.halting && !this.asynchronous;
+    }
+
+    /**
+     * Determines whether the vertex executes in this iteration, which it does unless it voted to halt and was not
+     * sent a message since. A vertex that executes is no longer halted.
+     */
+    public boolean activate(final Vertex vertex) {
+        if (!this.halting) return true;
+        final int ordinal = this.view.ordinalOf(vertex);
+        if (ordinal < 0 || !this.halted[ordinal]) return true;
+        if (this.asynchronous ? !hasMessages(ordinal) : !this.receivedBy[ordinal]) return false;
+        this.halted[ordinal] = false;
+        return true;
+    }
+
+    public void voteToHalt(final int ordinal) {
+        if (this.halting && ordinal >= 0) this.halted[ordinal] = true;
+    }
+
+    /**
+     * Marks the vertex as sent a message in this iteration so that it executes in the next even if halted.
+     */
+    public void sentTo(final int ordinal) {
+        if (ordinal >= 0) this.sentTo[ordinal] = true;
+    }
+
+    /**
+     * Gets the messages sent with the scope in this iteration.
+     */
+    public TinkerMessages<M> sendMessages(final MessageScope messageScope) {
+        // global scopes are equal whatever the vertices they are for
+        final MessageScope scope = messageScope instanceof MessageScope.Global ? MessageScope.Global.instance() : messageScope;
+        final Object[] sendMessages = this.sendMessages;
+        for (int i = 0; i < sendMessages.length; i += 2) {
+            if (sendMessages[i] == scope) return (TinkerMessages<M>) sendMessages[i + 1];
+        }
+        return register(scope);
+    }
+
+    /**
+     * Gets the messages sent in the previous iteration, one for each distinct scope, or those sent so far when
+     * executing asynchronously.
+     */
+    public List<TinkerMessages<M>> receiveMessages() {
+        return this.asynchronous ? this.asynchronousMessages : this.receiveMessages;
+    }
 
     public void completeIteration() {
-        this.receiveMessages = this.sendMessages;
-        this.sendMessages = new ConcurrentHashMap<>();
-        this.previousMessageScopes = this.currentMessageScopes;
-        this.currentMessageScopes = new HashSet<>();
+        // the messages not yet taken are received in the next iteration
+        if (this.asynchronous) return;
+
+        final List<TinkerMessages<M>> received = this.receiveMessages;
+        final List<TinkerMessages<M>> sent = new ArrayList<>();
+        final Object[] sendMessages = this.sendMessages;
+        for (int i = 1; i < sendMessages.length; i += 2) {
+            if (!sent.contains(sendMessages[i])) sent.add((TinkerMessages<M>) sendMessages[i]);
+        }
+        this.receiveMessages = sent;
+
+        // keep the messages received, which are no longer needed, for the scopes sent with next
+        final Object[] spare = new Object[received.size() * 2];
+        for (int i = 0; i < received.size(); i++) {
+            spare[i * 2] = received.get(i).getMessageScope();
+            spare[i * 2 + 1] = received.get(i);
+        }
+        this.spareMessages = spare;
+        this.sendMessages = NO_MESSAGES;
+
+        if (null != this.sentTo) {
+            final boolean[] receivedBy = this.receivedBy;
+            this.receivedBy = this.sentTo;
+            this.sentTo = receivedBy;
+            Arrays.fill(this.sentTo, false);
+        }
+    }
+
+    private synchronized TinkerMessages<M> register(final MessageScope messageScope) {
+        TinkerMessages<M> messages = null;
+        for (int i = 0; i < this.sendMessages.length; i += 2) {
+            if (this.sendMessages[i] == messageScope) return (TinkerMessages<M>) this.sendMessages[i + 1];
+            if (null == messages && this.sendMessages[i].equals(messageScope)) messages = (TinkerMessages<M>) this.sendMessages[i + 1];
+        }
+        if (null == messages) {
+            for (int i = 0; i < this.spareMessages.length; i += 2) {
+                if (null != this.spareMessages[i] && this.spareMessages[i].equals(messageScope)) {
+                    messages = (TinkerMessages<M>) this.spareMessages[i + 1];
+                    messages.clear();
+                    this.spareMessages[i] = null;
+                    break;
+                }
+            }
+        }
+        if (null == messages)
+            messages = new TinkerMessages<>(messageScope, this.combiner, this.view.getVertexCount(), this.locks);
+
+        if (this.asynchronous && !this.asynchronousMessages.contains(messages)) {
+            final List<TinkerMessages<M>> asynchronousMessages = new ArrayList<>(this.asynchronousMessages);
+            asynchronousMessages.add(messages);
+            this.asynchronousMessages = asynchronousMessages;
+        }
+
+        final Object[] sendMessages = Arrays.copyOf(this.sendMessages, this.sendMessages.length + 2);
+        sendMessages[sendMessages.length - 2] = messageScope;
+        sendMessages[sendMessages.length - 1] = messages;
+        this.sendMessages = sendMessages;
+        return messages;
+    }
+
+    private boolean hasMessages(final int ordinal) {
+        for (final TinkerMessages<M> messages : this.asynchronousMessages) {
+            if (messages.has(ordinal)) return true;
+        }
+        return false;
     }
 }
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * The messages sent in one iteration with a {@link MessageScope}, kept in arrays by the ordinal of the vertex they
+ * are kept for as given by {@link TinkerGraphComputerView#ordinalOf}. That is the sending vertex for a
+ * {@link MessageScope.Local}, as the receiving vertex reads the messages of the vertices adjacent to it, and the
+ * receiving vertex for a {@link MessageScope.Global}. With a {@link MessageCombiner} there is at most one message per
+ * vertex as messages are combined as they are sent, and {@code Double} or {@code Long} messages are kept as the bits
+ * of a {@code long} rather than as objects. When executing asynchronously, messages of either scope are kept for the
+ * receiving vertex, which takes them when it executes.
+ */
+final class TinkerMessages<M> {
+
+    private static final Class<?> NOT_NUMERIC = Object.class;
+
+    private final MessageScope messageScope;
+    private final MessageCombiner<M> combiner;
+    private final int vertexCount;
+    private final Object[] locks;
+
+    // the type of numeric messages to be kept as bits, decided by the first message with a combiner
+    private volatile Class<?> numericType;
+    private long[] numbers;
+    private boolean[] numbered;
+
+    // a message or an ArrayList of them per vertex
+    private volatile Object[] messages;
+
+    TinkerMessages(final MessageScope messageScope, final MessageCombiner<M> combiner, final int vertexCount, final Object[] locks) {
+        this.messageScope = messageScope;
+        this.combiner = combiner;
+        this.vertexCount = vertexCount;
+        this.locks = locks;
+        this.numericType = null == combiner ? NOT_NUMERIC : null;
+    }
+
+    public MessageScope getMessageScope() {
+        return this.messageScope;
+    }
+
+    /**
+     * Adds the message for the vertex with the ordinal, combining it with the message already kept for the vertex if
+     * there is a combiner. Messages for an ordinal of {@code -1} are for a vertex not in the graph and are dropped.
+     */
+    public void add(final int ordinal, final M message) {
+        if (ordinal < 0)
+            return;
+
+        if (isNumeric(message)) {
+            synchronized (lock(ordinal)) {
+                if (!this.numbered[ordinal]) {
+                    this.numbers[ordinal] = toBits(message);
+                    this.numbered[ordinal] = true;
+                } else {
+                    final M combined = this.combiner.combine(fromBits(this.numbers[ordinal]), message);
+                    if (combined.getClass() == this.numericType) {
+                        this.numbers[ordinal] = toBits(combined);
+                    } else {
+                        this.numbered[ordinal] = false;
+                        addObject(ordinal, combined);
+                    }
+                }
+            }
+        } else {
+            synchronized (lock(ordinal)) {
+                addObject(ordinal, message);
+            }
+        }
+    }
+
+    /**
+     * Gets the messages kept for the vertex with the ordinal.
+     */
+    public Iterator<M> get(final int ordinal) {
+        if (ordinal < 0)
+            return Collections.emptyIterator();
+
+        final M number = null != this.numbered && this.numbered[ordinal] ? fromBits(this.numbers[ordinal]) : null;
+        final Object message = null != this.messages ? this.messages[ordinal] : null;
+        if (null == message)
+            return null == number ? Collections.emptyIterator() : IteratorUtils.of(number);
+        else if (message instanceof MessageList)
+            return (Iterator<M>) ((MessageList) message).iterator();
+        else if (null == number)
+            return IteratorUtils.of((M) message);
+        else
+            return IteratorUtils.of(this.combiner.combine(number, (M) message));
+    }
+
+    /**
+     * Removes the messages kept for the vertex with the ordinal and returns them, for messages that are received as
+     * soon as they are sent. The messages can be sent to again while they are taken.
+     */
+    public Iterator<M> take(final int ordinal) {
+        if (ordinal < 0)
+            return Collections.emptyIterator();
+
+        synchronized (lock(ordinal)) {
+            final Iterator<M> messages = get(ordinal);
+            if (null != this.numbered)
+                this.numbered[ordinal] = false;
+            if (null != this.messages)
+                this.messages[ordinal] = null;
+            return messages;
+        }
+    }
+
+    /**
+     * Determines whether there are messages kept for the vertex with the ordinal.
+     */
+    public boolean has(final int ordinal) {
+        if (ordinal < 0)
+            return false;
+
+        synchronized (lock(ordinal)) {
+            return (null != this.numbered && this.numbered[ordinal]) || (null != this.messages && null != this.messages[ordinal]);
+        }
+    }
+
+    /**
+     * Drops all messages so that the arrays can be used for the messages of another iteration.
+     */
+    public void clear() {
+        if (null != this.numbered)
+            Arrays.fill(this.numbered, false);
+        if (null != this.messages)
+            Arrays.fill(this.messages, null);
+    }
+
+    private void addObject(final int ordinal, final M message) {
+        final Object[] messages = null == this.messages ? allocateMessages() : this.messages;
+        final Object current = messages[ordinal];
+        if (null == current) {
+            messages[ordinal] = message;
+        } else if (null != this.combiner) {
+            messages[ordinal] = this.combiner.combine((M) current, message);
+        } else if (current instanceof MessageList) {
+            ((MessageList) current).add(message);
+        } else {
+            final MessageList list = new MessageList();
+            list.add(current);
+            list.add(message);
+            messages[ordinal] = list;
+        }
+    }
+
+    private synchronized Object[] allocateMessages() {
+        if (null == this.messages)
+            this.messages = new Object[this.vertexCount];
+        return this.messages;
+    }
+
+    private boolean isNumeric(final M message) {
+        if (null == this.numericType) {
+            synchronized (this) {
+                if (null == this.numericType) {
+                    if (message instanceof Double || message instanceof Long) {
+                        this.numbers = new long[this.vertexCount];
+                        this.numbered = new boolean[this.vertexCount];
+                        this.numericType = message.getClass();
+                    } else {
+                        this.numericType = NOT_NUMERIC;
+                    }
+                }
+            }
+        }
+        return message.getClass() == this.numericType;
+    }
+
+    private long toBits(final M message) {
+        return this.numericType == Double.class ? Double.doubleToRawLongBits((Double) message) : (Long) message;
+    }
+
+    private M fromBits(final long bits) {
+        return (M) (this.numericType == Double.class ? (Object) Double.longBitsToDouble(bits) : (Object) bits);
+    }
+
+    private Object lock(final int ordinal) {
+        return this.locks[ordinal & (this.locks.length - 1)];
+    }
+
+    /**
+     * The messages for a vertex without a combiner, which no message can be an instance of.
+     */
+    private static final class MessageList extends ArrayList<Object> {
+        private MessageList() {
+            super(2);
+        }
+    }
+}
@@ -18,7 +18,6 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 
-import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
 import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
 import org.apache.tinkerpop.gremlin.process.computer.Messenger;
 import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramHelper;
@@ -33,14 +32,6 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.apache.tinkerpop.gremlin.util.iterator.MultiIterator;
 
 import java.util.Iterator;
-import java.util.Optional;
-import java.util.Queue;
-import java.util.Spliterator;
-import java.util.Spliterators;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -49,46 +40,37 @@ public final class TinkerMessenger<M> implements Messenger<M> {
 
     private final Vertex vertex;
     private final TinkerMessageBoard<M> messageBoard;
-    private final MessageCombiner<M> combiner;
+    private final int ordinal;
 
-    public TinkerMessenger(final Vertex vertex, final TinkerMessageBoard<M> messageBoard, final Optional<MessageCombiner<M>> combiner) {
+    public TinkerMessenger(final Vertex vertex, final TinkerMessageBoard<M> messageBoard) {
         this.vertex = vertex;
         this.messageBoard = messageBoard;
-        this.combiner = combiner.isPresent() ? combiner.get() : null;
+        this.ordinal = messageBoard.ordinalOf(vertex);
     }
 
     @Override
     public Iterator<M> receiveMessages() {
         final MultiIterator<M> multiIterator = new MultiIterator<>();
-        for (final MessageScope messageScope : this.messageBoard.receiveMessages.keySet()) {
-//        for (final MessageScope messageScope : this.messageBoard.previousMessageScopes) {
-            if (messageScope instanceof MessageScope.Local) {
-                final MessageScope.Local<M> localMessageScope = (MessageScope.Local<M>) messageScope;
+        for (final TinkerMessages<M> messages : this.messageBoard.receiveMessages()) {
+            if (this.messageBoard.isAsynchronous()) {
+                // messages of either scope are kept for the receiving vertex
+                multiIterator.addIterator(messages.take(this.ordinal));
+            } else if (messages.getMessageScope() instanceof MessageScope.Local) {
+                final MessageScope.Local<M> localMessageScope = (MessageScope.Local<M>) messages.getMessageScope();
                 final Traversal.Admin<Vertex, Edge> incidentTraversal = TinkerMessenger.setVertexStart(localMessageScope.getIncidentTraversal().get().asAdmin(), this.vertex);
                 final Direction direction = TinkerMessenger.getDirection(incidentTraversal);
-                final Edge[] edge = new Edge[1]; // simulates storage side-effects available in Gremlin, but not Java streams
-                multiIterator.addIterator(StreamSupport.stream(Spliterators.spliteratorUnknownSize(VertexProgramHelper.reverse(incidentTraversal.asAdmin()), Spliterator.IMMUTABLE | Spliterator.SIZED), false)
-                        .map((Edge e) -> {
-                            edge[0] = e;
-                            Vertex vv;
-                            if (direction.equals(Direction.IN) || direction.equals(Direction.OUT)) {
-                                vv = e.vertices(direction).next();
-                            } else {
-                                vv = e.outVertex() == this.vertex ? e.inVertex() : e.outVertex();
-                            }
-                            return this.messageBoard.receiveMessages.get(messageScope).get(vv);
-                        })
-                        .filter(q -> null != q)
-                        .flatMap(Queue::stream)
-                        .map(message -> localMessageScope.getEdgeFunction().apply(message, edge[0]))
-                        .iterator());
-
+                multiIterator.addIterator(IteratorUtils.flatMap(VertexProgramHelper.reverse(incidentTraversal.asAdmin()), (Edge edge) -> {
+                    final Vertex vv;
+                    if (direction.equals(Direction.IN) || direction.equals(Direction.OUT)) {
+                        vv = edge.vertices(direction).next();
+                    } else {
+                        vv = edge.outVertex() == this.vertex ? edge.inVertex() : edge.outVertex();
+                    }
+                    return IteratorUtils.map(messages.get(this.messageBoard.ordinalOf(vv)),
+                            message -> localMessageScope.getEdgeFunction().apply(message, edge));
+                }));
             } else {
-                multiIterator.addIterator(Stream.of(this.vertex)
-                        .map(this.messageBoard.receiveMessages.get(messageScope)::get)
-                        .filter(q -> null != q)
-                        .flatMap(Queue::stream)
-                        .iterator());
+                multiIterator.addIterator(messages.get(this.ordinal));
             }
         }
         return multiIterator;
@@ -96,24 +78,44 @@ public final class TinkerMessenger<M> implements Messenger<M> {
 
     @Override
     public void sendMessage(final MessageScope messageScope, final M message) {
-//        this.messageBoard.currentMessageScopes.add(messageScope);
+        final TinkerMessages<M> messages = this.messageBoard.sendMessages(messageScope);
         if (messageScope instanceof MessageScope.Local) {
-            addMessage(this.vertex, message, messageScope);
+            final boolean asynchronous = this.messageBoard.isAsynchronous();
+            if (!asynchronous)
+                messages.add(this.ordinal, message);
+            if (asynchronous || this.messageBoard.isMarking()) {
+                // send the message to each of the vertices that receive it, or mark them so that they execute even
+                // if halted
+                final MessageScope.Local<M> localMessageScope = (MessageScope.Local<M>) messageScope;
+                final Traversal.Admin<Vertex, Edge> incidentTraversal = TinkerMessenger.setVertexStart(localMessageScope.getIncidentTraversal().get().asAdmin(), this.vertex);
+                final Direction direction = TinkerMessenger.getDirection(incidentTraversal);
+                while (incidentTraversal.hasNext()) {
+                    final Edge edge = incidentTraversal.next();
+                    final Vertex vv;
+                    if (direction.equals(Direction.IN) || direction.equals(Direction.OUT)) {
+                        vv = edge.vertices(direction.opposite()).next();
+                    } else {
+                        vv = edge.outVertex() == this.vertex ? edge.inVertex() : edge.outVertex();
+                    }
+                    if (asynchronous)
+                        messages.add(this.messageBoard.ordinalOf(vv), localMessageScope.getEdgeFunction().apply(message, edge));
+                    else
+                        this.messageBoard.sentTo(this.messageBoard.ordinalOf(vv));
+                }
+            }
         } else {
-            ((MessageScope.Global) messageScope).vertices().forEach(v -> addMessage(v, message, messageScope));
+            final boolean halting = this.messageBoard.isMarking();
+            for (final Vertex vertex : ((MessageScope.Global) messageScope).vertices()) {
+                final int ordinal = this.messageBoard.ordinalOf(vertex);
+                messages.add(ordinal, message);
+                if (halting) this.messageBoard.sentTo(ordinal);
+            }
         }
     }
 
-    private void addMessage(final Vertex vertex, final M message, MessageScope messageScope) {
-        this.messageBoard.sendMessages.compute(messageScope, (ms, messages) -> {
-            if(null==messages) messages = new ConcurrentHashMap<>();
-            return messages;
-        });
-        this.messageBoard.sendMessages.get(messageScope).compute(vertex, (v, queue) -> {
-            if (null == queue) queue = new ConcurrentLinkedQueue<>();
-            queue.add(null != this.combiner && !queue.isEmpty() ? this.combiner.combine(queue.remove(), message) : message);
-            return queue;
-        });
+    @Override
+    public void voteToHalt() {
+        this.messageBoard.voteToHalt(this.ordinal);
     }
 
     ///////////
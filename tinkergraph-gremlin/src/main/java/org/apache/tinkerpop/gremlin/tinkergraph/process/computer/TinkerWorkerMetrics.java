@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How the workers of a {@link TinkerGraphComputer} were kept busy executing the vertex program, summed over all
+ * iterations. A worker is busy from when it starts an iteration until it runs out of vertices to execute and is
+ * otherwise waiting for the other workers to finish the iteration, so the utilization of the workers tells how evenly
+ * the work was spread over them.
+ */
+public final class TinkerWorkerMetrics {
+
+    private final long[] busyTime;
+    private final long[] vertices;
+    private final long[] chunks;
+    private long elapsedTime;
+
+    TinkerWorkerMetrics(final int workers) {
+        this.busyTime = new long[workers];
+        this.vertices = new long[workers];
+        this.chunks = new long[workers];
+    }
+
+    void addWorker(final int worker, final long busyTime, final long vertices, final long chunks) {
+        this.busyTime[worker] += busyTime;
+        this.vertices[worker] += vertices;
+        this.chunks[worker] += chunks;
+    }
+
+    void addElapsedTime(final long elapsedTime) {
+        this.elapsedTime += elapsedTime;
+    }
+
+    public int getWorkers() {
+        return this.busyTime.length;
+    }
+
+    /**
+     * Gets the time spent executing iterations of the vertex program, from when the workers started until the last
+     * of them finished.
+     */
+    public long getElapsedTime(final TimeUnit unit) {
+        return unit.convert(this.elapsedTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the time the worker was executing the vertex program.
+     */
+    public long getBusyTime(final int worker, final TimeUnit unit) {
+        return unit.convert(this.busyTime[worker], TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the number of times the vertex program was executed by the worker.
+     */
+    public long getVertices(final int worker) {
+        return this.vertices[worker];
+    }
+
+    /**
+     * Gets the number of ranges of vertices the worker took to execute.
+     */
+    public long getChunks(final int worker) {
+        return this.chunks[worker];
+    }
+
+    /**
+     * Gets the fraction of the elapsed time the worker was busy.
+     */
+    public double getUtilization(final int worker) {
+        return 0 == this.elapsedTime ? 0d : (double) this.busyTime[worker] / this.elapsedTime;
+    }
+
+    /**
+     * Gets the fraction of the elapsed time the workers were busy on average.
+     */
+    public double getUtilization() {
+        double utilization = 0d;
+        for (int i = 0; i < getWorkers(); i++) {
+            utilization += getUtilization(i);
+        }
+        return 0 == getWorkers() ? 0d : utilization / getWorkers();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("workers[");
+        for (int i = 0; i < getWorkers(); i++) {
+            if (i > 0) builder.append(", ");
+            builder.append(String.format("%d:%.2f", i, getUtilization(i)));
+        }
+        return builder.append("]").toString();
+    }
+}
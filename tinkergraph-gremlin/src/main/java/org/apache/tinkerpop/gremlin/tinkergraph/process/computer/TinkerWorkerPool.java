@@ -23,13 +23,17 @@ import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
 import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.util.MapReducePool;
 import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramPool;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.AbstractTinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
 import org.apache.tinkerpop.gremlin.util.function.TriConsumer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
@@ -38,6 +42,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
@@ -48,6 +53,12 @@ public final class TinkerWorkerPool implements AutoCloseable {
 
     private static final BasicThreadFactory THREAD_FACTORY_WORKER = new BasicThreadFactory.Builder().namingPattern("tinker-worker-%d").build();
 
+    /**
+     * The number of chunks the vertices are split into per worker, so that workers that finish their chunks early
+     * take on those that remain.
+     */
+    private static final int CHUNKS_PER_WORKER = 16;
+
     private final int numberOfWorkers;
     private final ExecutorService workerPool;
     private final CompletionService<Object> completionService;
@@ -55,7 +66,10 @@ public final class TinkerWorkerPool implements AutoCloseable {
     private VertexProgramPool vertexProgramPool;
     private MapReducePool mapReducePool;
     private final Queue<TinkerWorkerMemory> workerMemoryPool = new ConcurrentLinkedQueue<>();
-    private final List<List<Vertex>> workerVertices = new ArrayList<>();
+    private final Vertex[] vertices;
+    // the end of each chunk of vertices, which starts at the end of the one before
+    private final int[] chunkEnds;
+    private final TinkerWorkerMetrics workerMetrics;
 
     public TinkerWorkerPool(final AbstractTinkerGraph graph, final TinkerMemory memory, final int numberOfWorkers) {
         this.numberOfWorkers = numberOfWorkers;
@@ -63,26 +77,33 @@ public final class TinkerWorkerPool implements AutoCloseable {
         this.completionService = new ExecutorCompletionService<>(this.workerPool);
         for (int i = 0; i < this.numberOfWorkers; i++) {
             this.workerMemoryPool.add(new TinkerWorkerMemory(memory));
-            this.workerVertices.add(new ArrayList<>());
         }
-        int batchSize = graph.getVerticesCount() / this.numberOfWorkers;
-        if (0 == batchSize)
-            batchSize = 1;
-        int counter = 0;
-        int index = 0;
-
-        List<Vertex> currentWorkerVertices = this.workerVertices.get(index);
-        final Iterator<Vertex> iterator = graph.vertices();
-        while (iterator.hasNext()) {
-            final Vertex vertex = iterator.next();
-            if (counter++ < batchSize || index == this.workerVertices.size() - 1) {
-                currentWorkerVertices.add(vertex);
-            } else {
-                currentWorkerVertices = this.workerVertices.get(++index);
-                currentWorkerVertices.add(vertex);
-                counter = 1;
+        this.workerMetrics = new TinkerWorkerMetrics(this.numberOfWorkers);
+
+        // the time to execute a vertex mostly grows with the edges it reads messages over, so the chunks are split to
+        // have about as many edges each, which leaves a vertex with many more edges than the others in its own chunk
+        final List<Vertex> vertices = new ArrayList<>();
+        graph.vertices().forEachRemaining(vertices::add);
+        this.vertices = vertices.toArray(new Vertex[vertices.size()]);
+        final long[] costs = new long[this.vertices.length];
+        long totalCost = 0;
+        for (int i = 0; i < this.vertices.length; i++) {
+            costs[i] = 1 + TinkerHelper.getDegree((TinkerVertex) this.vertices[i], Direction.BOTH);
+            totalCost += costs[i];
+        }
+
+        final long chunkCost = Math.max(1, totalCost / ((long) this.numberOfWorkers * CHUNKS_PER_WORKER));
+        final int[] chunkEnds = new int[this.vertices.length];
+        int chunks = 0;
+        long cost = 0;
+        for (int i = 0; i < this.vertices.length; i++) {
+            cost += costs[i];
+            if (cost >= chunkCost || i == this.vertices.length - 1) {
+                chunkEnds[chunks++] = i + 1;
+                cost = 0;
             }
         }
+        this.chunkEnds = Arrays.copyOf(chunkEnds, chunks);
     }
 
     public void setVertexProgram(final VertexProgram vertexProgram) {
@@ -93,14 +114,26 @@ public final class TinkerWorkerPool implements AutoCloseable {
         this.mapReducePool = new MapReducePool(mapReduce, this.numberOfWorkers);
     }
 
+    public TinkerWorkerMetrics getWorkerMetrics() {
+        return this.workerMetrics;
+    }
+
+    /**
+     * Executes the worker on each of the workers, which take chunks of the vertices to execute from those that are
+     * left until there are none.
+     */
     public void executeVertexProgram(final TriConsumer<Iterator<Vertex>, VertexProgram, TinkerWorkerMemory> worker) throws InterruptedException {
+        final long start = System.nanoTime();
+        final AtomicInteger nextChunk = new AtomicInteger(0);
         for (int i = 0; i < this.numberOfWorkers; i++) {
             final int index = i;
             this.completionService.submit(() -> {
+                final long workerStart = System.nanoTime();
                 final VertexProgram vp = this.vertexProgramPool.take();
                 final TinkerWorkerMemory workerMemory = this.workerMemoryPool.poll();
-                final List<Vertex> vertices = this.workerVertices.get(index);
-                worker.accept(vertices.iterator(), vp, workerMemory);
+                final ChunkIterator vertices = new ChunkIterator(nextChunk);
+                worker.accept(vertices, vp, workerMemory);
+                this.workerMetrics.addWorker(index, System.nanoTime() - workerStart, vertices.vertices, vertices.chunks);
                 this.vertexProgramPool.offer(vp);
                 this.workerMemoryPool.offer(workerMemory);
                 return null;
@@ -115,6 +148,7 @@ public final class TinkerWorkerPool implements AutoCloseable {
                 throw new IllegalStateException(e.getMessage(), e);
             }
         }
+        this.workerMetrics.addElapsedTime(System.nanoTime() - start);
     }
 
     public void executeMapReduce(final Consumer<MapReduce> worker) throws InterruptedException {
@@ -145,4 +179,41 @@ public final class TinkerWorkerPool implements AutoCloseable {
     public void close() throws Exception {
         this.workerPool.shutdown();
     }
+
+    /**
+     * Iterates the vertices of the chunks it takes from those left in the iteration.
+     */
+    private final class ChunkIterator implements Iterator<Vertex> {
+
+        private final AtomicInteger nextChunk;
+        private int current = 0;
+        private int end = 0;
+        private long vertices = 0;
+        private long chunks = 0;
+
+        private ChunkIterator(final AtomicInteger nextChunk) {
+            this.nextChunk = nextChunk;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (this.current == this.end) {
+                final int chunk = this.nextChunk.getAndIncrement();
+                if (chunk >= chunkEnds.length)
+                    return false;
+                this.current = 0 == chunk ? 0 : chunkEnds[chunk - 1];
+                this.end = chunkEnds[chunk];
+                this.chunks++;
+            }
+            return true;
+        }
+
+        @Override
+        public Vertex next() {
+            if (!hasNext())
+                throw FastNoSuchElementException.instance();
+            this.vertices++;
+            return TinkerWorkerPool.this.vertices[this.current++];
+        }
+    }
 }
\ No newline at end of file
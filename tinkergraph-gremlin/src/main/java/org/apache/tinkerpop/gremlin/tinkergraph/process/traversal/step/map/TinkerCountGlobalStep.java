@@ -31,7 +31,9 @@ import org.apache.tinkerpop.gremlin.tinkergraph.structure.AbstractTinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
 
+import java.util.Collections;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -39,11 +41,24 @@ import java.util.NoSuchElementException;
 public final class TinkerCountGlobalStep<S extends Element> extends AbstractStep<S, Long> {
 
     private final Class<S> elementClass;
+    private final Set<String> elementLabels;
     private boolean done = false;
 
     public TinkerCountGlobalStep(final Traversal.Admin traversal, final Class<S> elementClass) {
+        this(traversal, elementClass, null);
+    }
+
+    /**
+     * Counts only the elements with any of the labels, or all elements if the labels are {@code null}.
+     */
+    public TinkerCountGlobalStep(final Traversal.Admin traversal, final Class<S> elementClass, final Set<String> elementLabels) {
         super(traversal);
         this.elementClass = elementClass;
+        this.elementLabels = elementLabels;
+    }
+
+    public Set<String> getElementLabels() {
+        return null == this.elementLabels ? null : Collections.unmodifiableSet(this.elementLabels);
     }
 
     @Override
@@ -51,22 +66,37 @@ public final class TinkerCountGlobalStep<S extends Element> extends AbstractStep
         if (!this.done) {
             this.done = true;
             final AbstractTinkerGraph graph = (AbstractTinkerGraph) this.getTraversal().getGraph().get();
-            return this.getTraversal().getTraverserGenerator().generate(Vertex.class.isAssignableFrom(this.elementClass) ?
-                            (long) graph.getVerticesCount() :
-                            (long) graph.getEdgesCount(),
-                    (Step) this, 1L);
+            return this.getTraversal().getTraverserGenerator().generate(count(graph), (Step) this, 1L);
         } else
             throw FastNoSuchElementException.instance();
     }
 
+    private long count(final AbstractTinkerGraph graph) {
+        final boolean vertices = Vertex.class.isAssignableFrom(this.elementClass);
+        if (null == this.elementLabels)
+            return vertices ? graph.getVerticesCount() : graph.getEdgesCount();
+
+        // an element has exactly one label so the counts of the labels just add up
+        long count = 0;
+        for (final String label : this.elementLabels) {
+            count += vertices ? graph.getVerticesCount(label) : graph.getEdgesCount(label);
+        }
+        return count;
+    }
+
     @Override
     public String toString() {
-        return StringFactory.stepString(this, this.elementClass.getSimpleName().toLowerCase());
+        return null == this.elementLabels ?
+                StringFactory.stepString(this, this.elementClass.getSimpleName().toLowerCase()) :
+                StringFactory.stepString(this, this.elementClass.getSimpleName().toLowerCase(), this.elementLabels);
     }
 
     @Override
     public int hashCode() {
-        return super.hashCode() ^ this.elementClass.hashCode();
+        int result = super.hashCode() ^ this.elementClass.hashCode();
+        if (null != this.elementLabels)
+            result ^= this.elementLabels.hashCode();
+        return result;
     }
 
     @Override
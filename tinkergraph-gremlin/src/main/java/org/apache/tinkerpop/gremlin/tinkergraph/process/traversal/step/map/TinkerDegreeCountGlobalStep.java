@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Operator;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+import org.apache.tinkerpop.gremlin.util.function.ConstantSupplier;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+
+/**
+ * Counts the edges, or adjacent vertices, of the incoming vertices in a direction as {@code out().count()} would,
+ * taking the count of each vertex from the degree it keeps rather than iterating its edges.
+ */
+public final class TinkerDegreeCountGlobalStep extends ReducingBarrierStep<Vertex, Long> {
+
+    private static final Set<TraverserRequirement> REQUIREMENTS = EnumSet.of(TraverserRequirement.BULK);
+
+    private final Direction direction;
+    private final String[] edgeLabels;
+
+    public TinkerDegreeCountGlobalStep(final Traversal.Admin traversal, final Direction direction, final String... edgeLabels) {
+        super(traversal);
+        this.direction = direction;
+        this.edgeLabels = edgeLabels;
+        this.setSeedSupplier(new ConstantSupplier<>(0L));
+        this.setReducingBiOperator((BinaryOperator) Operator.sumLong);
+    }
+
+    public Direction getDirection() {
+        return this.direction;
+    }
+
+    public String[] getEdgeLabels() {
+        return this.edgeLabels;
+    }
+
+    @Override
+    public Long projectTraverser(final Traverser.Admin<Vertex> traverser) {
+        final Vertex vertex = traverser.get();
+        final long degree = vertex instanceof TinkerVertex ?
+                TinkerHelper.getDegree((TinkerVertex) vertex, this.direction, this.edgeLabels) :
+                IteratorUtils.count(vertex.edges(this.direction, this.edgeLabels));
+        return degree * traverser.bulk();
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return REQUIREMENTS;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, this.direction, Arrays.asList(this.edgeLabels));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode() ^ this.direction.hashCode();
+        for (final String edgeLabel : this.edgeLabels) {
+            result ^= edgeLabel.hashCode();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.TraverserGenerator;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect.TinkerGraphStep;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reduces the elements of a {@link TinkerGraphStep} with a traversal that ends in a {@link ReducingBarrierStep}, as
+ * {@code g.V().has(...).count()} does, by splitting the elements into partitions that are each traversed by a clone
+ * of the traversal in the common {@link ForkJoinPool}. The partial reductions are merged in the order of the
+ * partitions with the operator of the barrier, as they would be for an OLAP traversal, so the result is the one of
+ * the sequential traversal.
+ *
+ * @see org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphParallelStrategy
+ */
+public final class TinkerParallelReducingStep<S extends Element, E> extends AbstractStep<S, E> implements TraversalParent {
+
+    private TinkerGraphStep<?, S> graphStep;
+    private Traversal.Admin<S, E> partitionTraversal;
+    private final int parallelism;
+    private boolean done = false;
+
+    /**
+     * @param graphStep the step the elements come from, which only looks them up and leaves them to be tested by
+     *                  the partition traversal
+     * @param partitionTraversal the traversal of each partition which ends in a {@link ReducingBarrierStep}
+     * @param parallelism the number of partitions
+     */
+    public TinkerParallelReducingStep(final Traversal.Admin traversal, final TinkerGraphStep<?, S> graphStep,
+                                      final Traversal.Admin<S, E> partitionTraversal, final int parallelism) {
+        super(traversal);
+        if (!(partitionTraversal.getEndStep() instanceof ReducingBarrierStep))
+            throw new IllegalArgumentException("The partition traversal must end in a ReducingBarrierStep: " + partitionTraversal);
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism must be positive: " + parallelism);
+        this.graphStep = graphStep;
+        this.partitionTraversal = this.integrateChild(partitionTraversal);
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    protected Traverser.Admin<E> processNextStart() throws NoSuchElementException {
+        if (this.done)
+            throw FastNoSuchElementException.instance();
+        this.done = true;
+
+        final Object result = this.reduce();
+        if (ReducingBarrierStep.NON_EMITTING_SEED == result)
+            throw FastNoSuchElementException.instance();
+        return this.getTraversal().getTraverserGenerator().generate(this.getReducer().generateFinalResult((E) result), (Step) this, 1L);
+    }
+
+    private Object reduce() {
+        final List<S> elements = new ArrayList<>();
+        final Iterator<S> candidates = this.graphStep.getCandidates();
+        try {
+            candidates.forEachRemaining(elements::add);
+        } finally {
+            CloseableIterator.closeIterator(candidates);
+        }
+
+        // an empty graph still gets a partition so that a reduction like count() has its seed
+        final TraverserGenerator generator = this.getTraversal().getTraverserGenerator();
+        final int partitions = Math.max(1, Math.min(this.parallelism, elements.size()));
+        final List<ForkJoinTask<Object>> tasks = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            final List<S> partition = elements.subList((int) ((long) elements.size() * i / partitions),
+                    (int) ((long) elements.size() * (i + 1) / partitions));
+            // cloned here as the traversal is not to be read from several threads
+            final Traversal.Admin<S, E> partitionTraversal = this.partitionTraversal.clone();
+            tasks.add(ForkJoinPool.commonPool().submit(() -> reducePartition(partitionTraversal, partition, generator)));
+        }
+
+        final ReducingBarrierStep<S, E> reducer = this.getReducer();
+        Object result = ReducingBarrierStep.NON_EMITTING_SEED;
+        for (final ForkJoinTask<Object> task : tasks) {
+            final Object partial = task.join();
+            if (ReducingBarrierStep.NON_EMITTING_SEED == partial)
+                continue;
+            result = ReducingBarrierStep.NON_EMITTING_SEED == result ?
+                    partial :
+                    reducer.getBiOperator().apply((E) result, (E) partial);
+        }
+        return result;
+    }
+
+    /**
+     * Traverses the elements with a clone of the partition traversal.
+     *
+     * @return the reduction of the partition or {@link ReducingBarrierStep#NON_EMITTING_SEED} if there is none
+     */
+    private static <S, E> Object reducePartition(final Traversal.Admin<S, E> partitionTraversal, final List<S> elements,
+                                                 final TraverserGenerator generator) {
+        final Step<S, ?> startStep = partitionTraversal.getStartStep();
+        for (final S element : elements) {
+            partitionTraversal.addStart(generator.generate(element, startStep, 1L));
+        }
+
+        final ReducingBarrierStep<S, E> reducer = (ReducingBarrierStep<S, E>) partitionTraversal.getEndStep();
+        return reducer.hasNextBarrier() ? reducer.nextBarrier() : ReducingBarrierStep.NON_EMITTING_SEED;
+    }
+
+    private ReducingBarrierStep<S, E> getReducer() {
+        return (ReducingBarrierStep<S, E>) this.partitionTraversal.getEndStep();
+    }
+
+    public TinkerGraphStep<?, S> getGraphStep() {
+        return this.graphStep;
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    @Override
+    public List<Traversal.Admin<S, E>> getLocalChildren() {
+        return Collections.singletonList(this.partitionTraversal);
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return this.partitionTraversal.getTraverserRequirements();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.done = false;
+    }
+
+    @Override
+    public TinkerParallelReducingStep<S, E> clone() {
+        final TinkerParallelReducingStep<S, E> clone = (TinkerParallelReducingStep<S, E>) super.clone();
+        clone.graphStep = (TinkerGraphStep<?, S>) this.graphStep.clone();
+        clone.partitionTraversal = this.partitionTraversal.clone();
+        clone.done = false;
+        return clone;
+    }
+
+    @Override
+    public void setTraversal(final Traversal.Admin<?, ?> parentTraversal) {
+        super.setTraversal(parentTraversal);
+        this.graphStep.setTraversal(parentTraversal);
+        this.integrateChild(this.partitionTraversal);
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, this.graphStep, this.partitionTraversal, this.parallelism);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.graphStep.hashCode() ^ this.partitionTraversal.hashCode() ^ this.parallelism;
+    }
+}
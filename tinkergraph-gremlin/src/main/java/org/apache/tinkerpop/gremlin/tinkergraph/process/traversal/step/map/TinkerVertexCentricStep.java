@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.GremlinTypeErrorException;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.FlatMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+import org.apache.tinkerpop.gremlin.util.GremlinValueComparator;
+import org.javatuples.Pair;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * Gets the edges of the incoming vertices in a direction with a label as {@code outE(label)} would, along with the
+ * {@code has()} filters, the {@code order().by(key)} and the limit that follow it, from the vertex-centric index of
+ * each vertex on the key. Only the edges with a value within the range the filters put on the key are read from the
+ * index and, when ordered, only as many as the limit needs. A vertex that has no such index, as when it was dropped,
+ * has all of its edges with the label filtered and sorted instead.
+ *
+ * @see org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph#createVertexCentricIndex(String, String)
+ */
+public final class TinkerVertexCentricStep extends FlatMapStep<Vertex, Edge> implements HasContainerHolder {
+
+    private final Direction direction;
+    private final String edgeLabel;
+    private final String key;
+    private List<HasContainer> hasContainers = new ArrayList<>();
+    /**
+     * The order of the edges by the value of the key or {@code null} if they are not ordered.
+     */
+    private Order order = null;
+    private long limit = Long.MAX_VALUE;
+
+    public TinkerVertexCentricStep(final Traversal.Admin traversal, final Direction direction, final String edgeLabel, final String key) {
+        super(traversal);
+        if (direction == Direction.BOTH)
+            throw new IllegalArgumentException("Only Direction.OUT and Direction.IN are supported: " + direction);
+        this.direction = direction;
+        this.edgeLabel = edgeLabel;
+        this.key = key;
+    }
+
+    @Override
+    protected Iterator<Edge> flatMap(final Traverser.Admin<Vertex> traverser) {
+        final Vertex vertex = traverser.get();
+        final Pair<Object, Boolean> from = this.getBound(Compare.gt, Compare.gte);
+        final Pair<Object, Boolean> to = this.getBound(Compare.lt, Compare.lte);
+        Iterator<Edge> edges = vertex instanceof TinkerVertex ?
+                TinkerHelper.getIndexedEdges((TinkerVertex) vertex, this.direction, this.edgeLabel, this.key,
+                        null == from ? null : from.getValue0(), null != from && from.getValue1(),
+                        null == to ? null : to.getValue0(), null != to && to.getValue1(), this.order == Order.desc) : null;
+        final boolean indexed = null != edges;
+        if (!indexed)
+            edges = vertex.edges(this.direction, this.edgeLabel);
+
+        // edges from the index are already in order so only as many as the limit asks for are needed
+        final long needed = indexed || null == this.order ? this.limit : Long.MAX_VALUE;
+        final List<Edge> list = new ArrayList<>();
+        try {
+            while (list.size() < needed && edges.hasNext()) {
+                final Edge edge = edges.next();
+                if (this.test(edge))
+                    list.add(edge);
+            }
+        } finally {
+            CloseableIterator.closeIterator(edges);
+        }
+
+        if (!indexed && null != this.order) {
+            // like order().by(key) edges without the key are filtered
+            list.removeIf(e -> !e.property(this.key).isPresent());
+            list.sort((a, b) -> this.order.compare(a.value(this.key), b.value(this.key)));
+            if (list.size() > this.limit)
+                return list.subList(0, (int) this.limit).iterator();
+        }
+        return list.iterator();
+    }
+
+    /**
+     * Finds the tightest bound for the key among the range {@link HasContainer} instances.
+     *
+     * @return the bound paired with whether it is inclusive or {@code null} if the key is not bounded that way
+     */
+    private Pair<Object, Boolean> getBound(final Compare exclusive, final Compare inclusive) {
+        Pair<Object, Boolean> bound = null;
+        for (final HasContainer hasContainer : this.hasContainers) {
+            final BiPredicate<?, ?> biPredicate = hasContainer.getBiPredicate();
+            if (!this.key.equals(hasContainer.getKey()) || (biPredicate != exclusive && biPredicate != inclusive) || null == hasContainer.getValue())
+                continue;
+
+            final Object value = hasContainer.getValue();
+            final int c = null == bound ? 0 : GremlinValueComparator.ORDERABILITY.compare(value, bound.getValue0());
+            final boolean tighter = exclusive == Compare.gt ? c > 0 : c < 0;
+            if (null == bound || tighter || (c == 0 && biPredicate == exclusive))
+                bound = Pair.with(value, biPredicate == inclusive);
+        }
+        return bound;
+    }
+
+    private boolean test(final Edge edge) {
+        try {
+            return HasContainer.testAll(edge, this.hasContainers);
+        } catch (GremlinTypeErrorException ex) {
+            // as with TinkerGraphStep the ERROR is only passed on to a parent that is a filter
+            if (getTraversal().isRoot() || !(getTraversal().getParent() instanceof FilterStep))
+                return false;
+            else
+                throw ex;
+        }
+    }
+
+    public Direction getDirection() {
+        return this.direction;
+    }
+
+    public String getEdgeLabel() {
+        return this.edgeLabel;
+    }
+
+    public String getKey() {
+        return this.key;
+    }
+
+    /**
+     * Requests edges to be returned ordered by the value of the key as {@code order().by(key, order)} would, which
+     * is only the same as the order of all edges if the step gets a single vertex at a time.
+     */
+    public void setOrder(final Order order) {
+        if (order != Order.asc && order != Order.desc)
+            throw new IllegalArgumentException("Only Order.asc and Order.desc are supported: " + order);
+        this.order = order;
+    }
+
+    public Order getOrder() {
+        return this.order;
+    }
+
+    /**
+     * Sets the number of edges of each vertex that are needed at most, as known from a range that follows this step.
+     */
+    public void setLimit(final long limit) {
+        this.limit = limit;
+    }
+
+    public long getLimit() {
+        return this.limit;
+    }
+
+    @Override
+    public List<HasContainer> getHasContainers() {
+        return Collections.unmodifiableList(this.hasContainers);
+    }
+
+    @Override
+    public void addHasContainer(final HasContainer hasContainer) {
+        this.hasContainers.add(hasContainer);
+    }
+
+    @Override
+    public void removeHasContainer(final HasContainer hasContainer) {
+        this.hasContainers.remove(hasContainer);
+    }
+
+    @Override
+    public TinkerVertexCentricStep clone() {
+        final TinkerVertexCentricStep clone = (TinkerVertexCentricStep) super.clone();
+        clone.hasContainers = new ArrayList<>();
+        for (final HasContainer hasContainer : this.hasContainers) {
+            clone.addHasContainer(hasContainer.clone());
+        }
+        return clone;
+    }
+
+    @Override
+    public String toString() {
+        return null == this.order ?
+                StringFactory.stepString(this, this.direction, this.edgeLabel, this.hasContainers) :
+                StringFactory.stepString(this, this.direction, this.edgeLabel, this.hasContainers, "order(" + this.key + "," + this.order + ")");
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode() ^ this.direction.hashCode() ^ this.edgeLabel.hashCode() ^ this.key.hashCode() ^
+                this.hasContainers.hashCode() ^ Long.hashCode(this.limit);
+        if (null != this.order)
+            result ^= this.order.hashCode();
+        return result;
+    }
+}
@@ -19,30 +19,47 @@
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
 import org.apache.tinkerpop.gremlin.process.traversal.GremlinTypeErrorException;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Text;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.AbstractTinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.AbstractTinkerIndex;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraphIterator;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerIndexHelper;
-import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerIndexType;
+import org.apache.tinkerpop.gremlin.util.GremlinValueComparator;
+import org.javatuples.Pair;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -55,6 +72,21 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
      * List of iterators opened by this step.
      */
     private final List<Iterator> iterators = new ArrayList<>();
+    /**
+     * Determines if elements are filtered as they are consumed, resolved on first iteration.
+     */
+    private Boolean lazy = null;
+    /**
+     * Key and direction the elements are to be ordered by, if any.
+     */
+    private String orderKey = null;
+    private Order order = null;
+    private long orderLimit = Long.MAX_VALUE;
+    /**
+     * Estimates of how many elements the {@link HasContainer} instances let through, which are kept once taken as
+     * counting a range or prefix walks the index.
+     */
+    private final Map<HasContainer, Long> estimates = new IdentityHashMap<>();
 
     public TinkerGraphStep(final GraphStep<S, E> originalGraphStep) {
         super(originalGraphStep.getTraversal(), originalGraphStep.getReturnClass(), originalGraphStep.isStartStep(), originalGraphStep.getIds());
@@ -69,20 +101,18 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
 
     private Iterator<? extends Edge> edges() {
         final AbstractTinkerGraph graph = (AbstractTinkerGraph) this.getTraversal().getGraph().get();
-        final HasContainer indexedContainer = getIndexKey(Edge.class);
-        Iterator<Edge> iterator;
+        Iterator<? extends Edge> iterator;
         // ids are present, filter on them first
         if (null == this.ids)
             iterator = Collections.emptyIterator();
         else if (this.ids.length > 0)
             iterator = this.iteratorList(graph.edges(this.ids));
-        else
-            iterator = null == indexedContainer ?
+        else {
+            final Pair<Iterator<? extends Element>, Boolean> indexed = this.queryIndex(graph, Edge.class);
+            iterator = null == indexed ?
                     this.iteratorList(graph.edges()) :
-                    TinkerIndexHelper.queryEdgeIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue()).stream()
-                                .filter(edge -> HasContainer.testAll(edge, this.hasContainers))
-                                .collect(Collectors.<Edge>toList()).iterator();
-
+                    this.iteratorList((Iterator<Edge>) indexed.getValue0(), indexed.getValue1());
+        }
 
         iterators.add(iterator);
 
@@ -91,36 +121,291 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
 
     private Iterator<? extends Vertex> vertices() {
         final AbstractTinkerGraph graph = (AbstractTinkerGraph) this.getTraversal().getGraph().get();
-        final HasContainer indexedContainer = getIndexKey(Vertex.class);
         Iterator<? extends Vertex> iterator;
         // ids are present, filter on them first
         if (null == this.ids)
             iterator = Collections.emptyIterator();
         else if (this.ids.length > 0)
             iterator = this.iteratorList(graph.vertices(this.ids));
-        else
-            iterator = (null == indexedContainer ?
+        else {
+            final Pair<Iterator<? extends Element>, Boolean> indexed = this.queryIndex(graph, Vertex.class);
+            iterator = null == indexed ?
                     this.iteratorList(graph.vertices()) :
-                    IteratorUtils.filter(TinkerIndexHelper.queryVertexIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue()).iterator(),
-                                         vertex -> HasContainer.testAll(vertex, this.hasContainers)));
+                    this.iteratorList((Iterator<Vertex>) indexed.getValue0(), indexed.getValue1());
+        }
 
         iterators.add(iterator);
 
         return iterator;
     }
 
-    private HasContainer getIndexKey(final Class<? extends Element> indexedClass) {
-        final Set<String> indexedKeys = ((AbstractTinkerGraph) this.getTraversal().getGraph().get()).getIndexedKeys(indexedClass);
+    /**
+     * Gets the elements the ids or an index lookup narrow this step down to without testing them against the
+     * {@link HasContainer} instances, so that they can be tested elsewhere, as when partitions of them are traversed
+     * in parallel. The elements are not put in the order requested by {@link #setOrder(String, Order)}.
+     */
+    public Iterator<E> getCandidates() {
+        final AbstractTinkerGraph graph = (AbstractTinkerGraph) this.getTraversal().getGraph().get();
+        final boolean vertices = Vertex.class.isAssignableFrom(this.returnClass);
+        if (null == this.ids)
+            return Collections.emptyIterator();
+        else if (this.ids.length > 0)
+            return (Iterator<E>) (vertices ? graph.vertices(this.ids) : graph.edges(this.ids));
+
+        final Pair<Iterator<? extends Element>, Boolean> indexed = this.queryIndex(graph, vertices ? Vertex.class : Edge.class);
+        if (null != indexed)
+            return (Iterator<E>) indexed.getValue0();
+        return (Iterator<E>) (vertices ? graph.vertices() : graph.edges());
+    }
+
+    /**
+     * Looks for a {@link HasContainer} (or the requested order) that can be answered by an index. Equality and
+     * {@code within} lookups can use any index while range, prefix and ordered lookups require a
+     * {@link TinkerIndexType#SORTED} index and {@code TextP} lookups a {@link TinkerIndexType#TEXT} index. The elements
+     * returned are a superset of those that match and are still tested against all the {@link HasContainer}
+     * instances. Among the lookups that can be used the one expected to return the fewest elements is chosen, which
+     * the indices can tell without collecting any of them, and the always present label index competes on the same
+     * terms. A lookup in the order of a {@link TinkerIndexType#SORTED} index is only used when nothing narrows the
+     * elements down.
+     *
+     * @return the elements found in the index paired with whether they are already in the requested order or
+     * {@code null} if no index can be used
+     */
+    private Pair<Iterator<? extends Element>, Boolean> queryIndex(final AbstractTinkerGraph graph, final Class<? extends Element> indexedClass) {
+        final Set<String> indexedKeys = graph.getIndexedKeys(indexedClass);
+        final Set<AbstractTinkerIndex.CompositeKey> compositeKeys = graph.getCompositeIndices(indexedClass);
+        IndexLookup best = this.queryEqualityIndex(graph, indexedClass, indexedKeys, compositeKeys);
+
+        for (final HasContainer hasContainer : this.hasContainers) {
+            if (indexedKeys.contains(hasContainer.getKey()) && hasContainer.getBiPredicate() == Contains.within &&
+                    hasContainer.getValue() instanceof Collection) {
+                best = IndexLookup.cheaper(best, this.estimate(hasContainer), () -> {
+                    final Set<Element> elements = new LinkedHashSet<>();
+                    for (final Object value : (Collection<?>) hasContainer.getValue()) {
+                        elements.addAll(queryIndex(graph, indexedClass, hasContainer.getKey(), value));
+                    }
+                    return Pair.with(elements.iterator(), null == this.orderKey);
+                });
+            }
+        }
+
+        final Set<String> boundedKeys = new HashSet<>();
+        for (final HasContainer hasContainer : this.hasContainers) {
+            final String key = hasContainer.getKey();
+            if (graph.getIndexType(key, indexedClass) != TinkerIndexType.SORTED)
+                continue;
+
+            if (hasContainer.getBiPredicate() == Text.startingWith && hasContainer.getValue() instanceof String) {
+                final String prefix = (String) hasContainer.getValue();
+                best = IndexLookup.cheaper(best, this.estimate(hasContainer),
+                        () -> inOrderOf(key, TinkerIndexHelper.queryIndexPrefix(graph, indexedClass, key, prefix)));
+                continue;
+            }
+
+            if (!boundedKeys.add(key))
+                continue;
+            final Pair<Object, Boolean> from = this.getBound(key, Compare.gt, Compare.gte);
+            final Pair<Object, Boolean> to = this.getBound(key, Compare.lt, Compare.lte);
+            if (null != from || null != to) {
+                final Object fromValue = null == from ? null : from.getValue0();
+                final boolean fromInclusive = null != from && from.getValue1();
+                final Object toValue = null == to ? null : to.getValue0();
+                final boolean toInclusive = null != to && to.getValue1();
+                // a single bound is what the estimate of its container already counted
+                final HasContainer onlyBound = this.getOnlyBound(key);
+                best = IndexLookup.cheaper(best, null != onlyBound ? this.estimate(onlyBound) :
+                                TinkerIndexHelper.countIndexRange(graph, indexedClass, key, fromValue, fromInclusive, toValue, toInclusive),
+                        () -> inOrderOf(key, TinkerIndexHelper.queryIndexRange(graph, indexedClass, key, fromValue, fromInclusive, toValue, toInclusive)));
+            }
+        }
+
+        for (final HasContainer hasContainer : this.hasContainers) {
+            final String key = hasContainer.getKey();
+            if (!(hasContainer.getValue() instanceof String) || graph.getIndexType(key, indexedClass) != TinkerIndexType.TEXT)
+                continue;
+
+            // matching tokens is what it takes to count the candidates so they are kept for when they are the cheapest
+            final List<? extends Element> elements = TinkerIndexHelper.queryIndexText(graph, indexedClass, key,
+                    hasContainer.getBiPredicate(), (String) hasContainer.getValue());
+            if (null != elements)
+                best = IndexLookup.cheaper(best, elements.size(), () -> Pair.with(elements.iterator(), null == this.orderKey));
+        }
+
+        final String[] labels = this.getElementLabels();
+        if (null != labels) {
+            long count = 0;
+            for (final String label : new LinkedHashSet<>(Arrays.asList(labels))) {
+                count += graph.count(indexedClass, label);
+            }
+            if (null == best || count < best.estimate) {
+                if (null == best && null != this.orderKey && graph.getIndexType(this.orderKey, indexedClass) == TinkerIndexType.SORTED)
+                    return queryOrderedIndex(graph, indexedClass);
+                return Pair.with(queryLabelIndex(graph, indexedClass, labels), null == this.orderKey);
+            }
+        }
+
+        if (null != best)
+            return best.lookup.get();
+        else if (null != this.orderKey && graph.getIndexType(this.orderKey, indexedClass) == TinkerIndexType.SORTED)
+            return queryOrderedIndex(graph, indexedClass);
+        else
+            return null;
+    }
+
+    private Pair<Iterator<? extends Element>, Boolean> queryOrderedIndex(final AbstractTinkerGraph graph, final Class<? extends Element> indexedClass) {
+        return Pair.with(TinkerIndexHelper.queryIndexOrdered(graph, indexedClass, this.orderKey, this.order == Order.desc), true);
+    }
+
+    /**
+     * Gets the labels the elements are required to have by a label {@code eq} or {@code within}.
+     *
+     * @return the labels or {@code null} if the labels are not restricted that way
+     */
+    private String[] getElementLabels() {
+        for (final HasContainer hasContainer : this.hasContainers) {
+            if (!T.label.getAccessor().equals(hasContainer.getKey()))
+                continue;
+
+            if (hasContainer.getBiPredicate() == Compare.eq && hasContainer.getValue() instanceof String)
+                return new String[]{(String) hasContainer.getValue()};
+            else if (hasContainer.getBiPredicate() == Contains.within && hasContainer.getValue() instanceof Collection)
+                // labels are always strings so other values can't match anything
+                return ((Collection<?>) hasContainer.getValue()).stream().filter(v -> v instanceof String).toArray(String[]::new);
+        }
+        return null;
+    }
+
+    private static Iterator<? extends Element> queryLabelIndex(final AbstractTinkerGraph graph, final Class<? extends Element> indexedClass,
+                                                                final String... labels) {
+        return Vertex.class.isAssignableFrom(indexedClass) ? graph.verticesByLabel(labels) : graph.edgesByLabel(labels);
+    }
+
+    /**
+     * Chooses among the single key and composite indices that can answer the equality {@link HasContainer} instances
+     * the one that returns the fewest elements, which a hash index can tell at the cost of a single probe.
+     */
+    private IndexLookup queryEqualityIndex(final AbstractTinkerGraph graph, final Class<? extends Element> indexedClass,
+                                           final Set<String> indexedKeys,
+                                           final Set<AbstractTinkerIndex.CompositeKey> compositeKeys) {
+        final Map<String, Object> equalities = new HashMap<>();
+        for (final HasContainer hasContainer : this.hasContainers) {
+            if (hasContainer.getBiPredicate() == Compare.eq)
+                equalities.putIfAbsent(hasContainer.getKey(), hasContainer.getValue());
+        }
+        if (equalities.isEmpty())
+            return null;
+
+        String bestKey = null;
+        AbstractTinkerIndex.CompositeKey bestCompositeKey = null;
+        List<Object> bestValues = null;
+        long bestCount = Long.MAX_VALUE;
+
+        for (final AbstractTinkerIndex.CompositeKey compositeKey : compositeKeys) {
+            if (!equalities.keySet().containsAll(compositeKey.getKeys()) ||
+                    (null != compositeKey.getLabel() && !compositeKey.getLabel().equals(equalities.get(T.label.getAccessor()))))
+                continue;
+
+            final List<Object> values = new ArrayList<>(compositeKey.getKeys().size());
+            compositeKey.getKeys().forEach(k -> values.add(equalities.get(k)));
+            final long count = TinkerIndexHelper.countCompositeIndex(graph, indexedClass, compositeKey, values);
+            if (count < bestCount) {
+                bestCompositeKey = compositeKey;
+                bestValues = values;
+                bestCount = count;
+            }
+        }
+
+        for (final Map.Entry<String, Object> equality : equalities.entrySet()) {
+            if (!indexedKeys.contains(equality.getKey()))
+                continue;
+
+            final long count = TinkerIndexHelper.countIndex(graph, indexedClass, equality.getKey(), equality.getValue());
+            if (count < bestCount) {
+                bestKey = equality.getKey();
+                bestCompositeKey = null;
+                bestCount = count;
+            }
+        }
+
+        if (null != bestCompositeKey) {
+            final AbstractTinkerIndex.CompositeKey compositeKey = bestCompositeKey;
+            final List<Object> values = bestValues;
+            return new IndexLookup(bestCount, () -> Pair.with(TinkerIndexHelper.queryCompositeIndex(graph, indexedClass, compositeKey, values).iterator(),
+                    null == this.orderKey || compositeKey.getKeys().contains(this.orderKey)));
+        } else if (null != bestKey) {
+            final String key = bestKey;
+            return new IndexLookup(bestCount, () -> Pair.with(queryIndex(graph, indexedClass, key, equalities.get(key)).iterator(),
+                    null == this.orderKey || this.orderKey.equals(key)));
+        } else
+            return null;
+    }
+
+    private static List<? extends Element> queryIndex(final AbstractTinkerGraph graph, final Class<? extends Element> indexedClass,
+                                                      final String key, final Object value) {
+        return Vertex.class.isAssignableFrom(indexedClass) ?
+                TinkerIndexHelper.queryVertexIndex(graph, key, value) :
+                TinkerIndexHelper.queryEdgeIndex(graph, key, value);
+    }
+
+    /**
+     * Elements from a sorted index lookup are in ascending order of the value of the key, which satisfies the
+     * requested order if it is on that same key.
+     */
+    private Pair<Iterator<? extends Element>, Boolean> inOrderOf(final String key, final List<? extends Element> elements) {
+        if (!key.equals(this.orderKey))
+            return Pair.with(elements.iterator(), null == this.orderKey);
+
+        if (this.order == Order.desc)
+            Collections.reverse(elements);
+        return Pair.with(elements.iterator(), true);
+    }
+
+    /**
+     * Gets the {@link HasContainer} that bounds the values of the key if there is only one.
+     */
+    private HasContainer getOnlyBound(final String key) {
+        HasContainer bound = null;
+        for (final HasContainer hasContainer : this.hasContainers) {
+            final BiPredicate<?, ?> biPredicate = hasContainer.getBiPredicate();
+            if (!key.equals(hasContainer.getKey()) || null == hasContainer.getValue() ||
+                    (biPredicate != Compare.gt && biPredicate != Compare.gte && biPredicate != Compare.lt && biPredicate != Compare.lte))
+                continue;
+            if (null != bound)
+                return null;
+            bound = hasContainer;
+        }
+        return bound;
+    }
 
-        final Iterator<HasContainer> itty = IteratorUtils.filter(hasContainers.iterator(),
-                c -> c.getPredicate().getBiPredicate() == Compare.eq && indexedKeys.contains(c.getKey()));
-        return itty.hasNext() ? itty.next() : null;
+    /**
+     * Finds the tightest bound for the key among the range {@link HasContainer} instances.
+     *
+     * @return the bound paired with whether it is inclusive or {@code null} if the key is not bounded that way
+     */
+    private Pair<Object, Boolean> getBound(final String key, final Compare exclusive, final Compare inclusive) {
+        Pair<Object, Boolean> bound = null;
+        for (final HasContainer hasContainer : this.hasContainers) {
+            final BiPredicate<?, ?> biPredicate = hasContainer.getBiPredicate();
+            if (!key.equals(hasContainer.getKey()) || (biPredicate != exclusive && biPredicate != inclusive) || null == hasContainer.getValue())
+                continue;
 
+            final Object value = hasContainer.getValue();
+            final int c = null == bound ? 0 : GremlinValueComparator.ORDERABILITY.compare(value, bound.getValue0());
+            final boolean tighter = exclusive == Compare.gt ? c > 0 : c < 0;
+            if (null == bound || tighter || (c == 0 && biPredicate == exclusive))
+                bound = Pair.with(value, biPredicate == inclusive);
+        }
+        return bound;
     }
 
     @Override
     public String toString() {
-        if (this.hasContainers.isEmpty())
+        if (null != this.orderKey) {
+            final String orderBy = "order(" + this.orderKey + "," + this.order + ")";
+            return (null == this.ids || 0 == this.ids.length) ?
+                    StringFactory.stepString(this, this.returnClass.getSimpleName().toLowerCase(), this.hasContainers, orderBy) :
+                    StringFactory.stepString(this, this.returnClass.getSimpleName().toLowerCase(), Arrays.toString(this.ids), this.hasContainers, orderBy);
+        } else if (this.hasContainers.isEmpty())
             return super.toString();
         else
             return (null == this.ids || 0 == this.ids.length) ?
@@ -129,26 +414,26 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
     }
 
     private <E extends Element> Iterator<E> iteratorList(final Iterator<E> iterator) {
+        return this.iteratorList(iterator, null == this.orderKey);
+    }
+
+    /**
+     * @param ordered determines if the elements of the iterator are already in the order requested by
+     * {@link #setOrder(String, Order)}, otherwise they are collected and sorted
+     */
+    private <E extends Element> Iterator<E> iteratorList(final Iterator<E> iterator, final boolean ordered) {
+        if (ordered && isLazy())
+            return new TinkerGraphStepIterator<>(iterator);
+
         final List<E> list = new ArrayList<>();
+        // elements already in the requested order only need to be collected as far as the following range needs
+        final long limit = ordered && null != this.orderKey ? this.orderLimit : Long.MAX_VALUE;
 
         try {
-            while (iterator.hasNext()) {
+            while (list.size() < limit && iterator.hasNext()) {
                 final E e = iterator.next();
-                try {
-                    if (HasContainer.testAll(e, this.hasContainers))
-                        list.add(e);
-                } catch (GremlinTypeErrorException ex) {
-                    if (getTraversal().isRoot() || !(getTraversal().getParent() instanceof FilterStep)) {
-                        /*
-                         * Either we are at the top level of the query, or our parent query is not a FilterStep and thus
-                         * cannot handle a GremlinTypeErrorException. In any of these cases we do a binary reduction
-                         * from ERROR -> FALSE and filter the solution quietly.
-                         */
-                    } else {
-                        // not a ternary -> binary reducer, pass the ERROR on
-                        throw ex;
-                    }
-                }
+                if (this.test(e))
+                    list.add(e);
             }
         } finally {
             // close the old iterator to release resources since we are returning a new iterator (over list)
@@ -156,9 +441,76 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
             CloseableIterator.closeIterator(iterator);
         }
 
+        if (!ordered) {
+            // like order().by(key) elements without the key are filtered
+            list.removeIf(e -> !e.property(this.orderKey).isPresent());
+            list.sort((a, b) -> this.order.compare(a.value(this.orderKey), b.value(this.orderKey)));
+        }
+
         return new TinkerGraphIterator<>(list.iterator());
     }
 
+    /**
+     * Elements can only be filtered as they are consumed if the graph is configured for it and the traversal does
+     * not mutate the graph, as otherwise elements added by the traversal itself could show up in the iteration.
+     */
+    private boolean isLazy() {
+        if (null == this.lazy) {
+            final AbstractTinkerGraph graph = (AbstractTinkerGraph) this.getTraversal().getGraph().get();
+            this.lazy = graph.isLazyIteration() &&
+                    !TraversalHelper.hasStepOfAssignableClassRecursively(Mutating.class, TraversalHelper.getRootTraversal(this.getTraversal()));
+        }
+        return this.lazy;
+    }
+
+    private boolean test(final Element element) {
+        try {
+            return HasContainer.testAll(element, this.hasContainers);
+        } catch (GremlinTypeErrorException ex) {
+            if (getTraversal().isRoot() || !(getTraversal().getParent() instanceof FilterStep)) {
+                /*
+                 * Either we are at the top level of the query, or our parent query is not a FilterStep and thus
+                 * cannot handle a GremlinTypeErrorException. In any of these cases we do a binary reduction
+                 * from ERROR -> FALSE and filter the solution quietly.
+                 */
+                return false;
+            } else {
+                // not a ternary -> binary reducer, pass the ERROR on
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Requests elements to be returned ordered by the value of the key as {@code order().by(key, order)} would.
+     * A {@link TinkerIndexType#SORTED} index on the key is used to avoid the sort where possible.
+     */
+    public void setOrder(final String orderKey, final Order order) {
+        if (order != Order.asc && order != Order.desc)
+            throw new IllegalArgumentException("Only Order.asc and Order.desc are supported: " + order);
+        this.orderKey = orderKey;
+        this.order = order;
+    }
+
+    public String getOrderKey() {
+        return this.orderKey;
+    }
+
+    public Order getOrder() {
+        return this.order;
+    }
+
+    /**
+     * Sets the number of ordered elements that are needed at most, as known from a range that follows this step.
+     */
+    public void setOrderLimit(final long orderLimit) {
+        this.orderLimit = orderLimit;
+    }
+
+    public long getOrderLimit() {
+        return this.orderLimit;
+    }
+
     @Override
     public List<HasContainer> getHasContainers() {
         return Collections.unmodifiableList(this.hasContainers);
@@ -174,13 +526,112 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
             this.hasContainers.add(hasContainer);
     }
 
+    /**
+     * Estimates how many elements the {@link HasContainer} lets through from the statistics of the graph. The
+     * estimate is kept so that the index lookup reuses the one taken when {@code TinkerGraphSelectivityStrategy}
+     * ordered the containers rather than counting again.
+     *
+     * @return the estimate or {@code -1} if the statistics can't tell
+     */
+    public long estimate(final HasContainer hasContainer) {
+        Long estimate = this.estimates.get(hasContainer);
+        if (null == estimate) {
+            final AbstractTinkerGraph graph = (AbstractTinkerGraph) this.getTraversal().getGraph().get();
+            estimate = graph.estimate(Vertex.class.isAssignableFrom(this.returnClass) ? Vertex.class : Edge.class, hasContainer);
+            this.estimates.put(hasContainer, estimate);
+        }
+        return estimate;
+    }
+
+    @Override
+    public void removeHasContainer(final HasContainer hasContainer) {
+        this.hasContainers.remove(hasContainer);
+    }
+
     @Override
     public int hashCode() {
-        return super.hashCode() ^ this.hasContainers.hashCode();
+        int result = super.hashCode() ^ this.hasContainers.hashCode();
+        if (null != this.orderKey)
+            result ^= this.orderKey.hashCode() ^ this.order.hashCode();
+        return result;
     }
 
     @Override
     public void close() {
         iterators.forEach(CloseableIterator::closeIterator);
     }
+
+    /**
+     * An index lookup that has yet to be made along with the number of elements it is expected to return.
+     */
+    private static final class IndexLookup {
+
+        private final long estimate;
+        private final Supplier<Pair<Iterator<? extends Element>, Boolean>> lookup;
+
+        private IndexLookup(final long estimate, final Supplier<Pair<Iterator<? extends Element>, Boolean>> lookup) {
+            this.estimate = estimate;
+            this.lookup = lookup;
+        }
+
+        /**
+         * Keeps the current lookup unless the other one is expected to return fewer elements, so that on a tie the
+         * lookup considered first wins.
+         */
+        private static IndexLookup cheaper(final IndexLookup current, final long estimate,
+                                           final Supplier<Pair<Iterator<? extends Element>, Boolean>> lookup) {
+            return null == current || estimate < current.estimate ? new IndexLookup(estimate, lookup) : current;
+        }
+    }
+
+    /**
+     * Filters elements of the underlying iterator against the {@link HasContainer} list as they are requested, so
+     * that nothing more than what is consumed is ever tested. The underlying iterator is closed once it is exhausted
+     * or when this iterator is closed.
+     */
+    private final class TinkerGraphStepIterator<E extends Element> implements CloseableIterator<E> {
+
+        private final Iterator<E> iterator;
+        private E next;
+        private boolean closed = false;
+
+        private TinkerGraphStepIterator(final Iterator<E> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (null != this.next) return true;
+            if (this.closed) return false;
+
+            while (this.iterator.hasNext()) {
+                final E e = this.iterator.next();
+                if (test(e)) {
+                    this.next = e;
+                    return true;
+                }
+            }
+
+            this.close();
+            return false;
+        }
+
+        @Override
+        public E next() {
+            if (!this.hasNext())
+                throw FastNoSuchElementException.instance();
+
+            final E e = this.next;
+            this.next = null;
+            return e;
+        }
+
+        @Override
+        public void close() {
+            if (!this.closed) {
+                this.closed = true;
+                CloseableIterator.closeIterator(this.iterator);
+            }
+        }
+    }
 }
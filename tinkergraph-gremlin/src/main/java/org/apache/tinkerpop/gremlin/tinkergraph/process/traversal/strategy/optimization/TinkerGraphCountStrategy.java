@@ -19,34 +19,42 @@
 
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.AggregateGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerCountGlobalStep;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
 /**
  * This strategy will do a graph size call if the traversal is a count of the vertices and edges of the graph
- * or a one-to-one map chain thereof.
+ * or a one-to-one map chain thereof. Filters on the label alone are answered by the label index.
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  * @example <pre>
  * g.V().count()               // is replaced by TinkerCountGlobalStep
  * g.V().map(out()).count()    // is replaced by TinkerCountGlobalStep
  * g.E().label().count()       // is replaced by TinkerCountGlobalStep
+ * g.V().hasLabel('person').count() // is replaced by TinkerCountGlobalStep
  * </pre>
  */
 public final class TinkerGraphCountStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
@@ -67,8 +75,21 @@ public final class TinkerGraphCountStrategy extends AbstractTraversalStrategy<Tr
                 !(steps.get(steps.size() - 1) instanceof CountGlobalStep))
             return;
 
+        Set<String> labels = null;
         for (int i = 1; i < steps.size() - 1; i++) {
             final Step current = steps.get(i);
+            if (current instanceof HasStep) {
+                final Set<String> hasLabels = getElementLabels((HasStep<?>) current);
+                if (null == hasLabels)
+                    return;
+                // successive label filters must all be satisfied
+                if (null == labels)
+                    labels = hasLabels;
+                else
+                    labels.retainAll(hasLabels);
+                continue;
+            }
+
             // used to include "current instanceof MapStep" but they will not necessarily emit an element as
             // demonstrated in https://issues.apache.org/jira/browse/TINKERPOP-1958
             //
@@ -82,7 +103,38 @@ public final class TinkerGraphCountStrategy extends AbstractTraversalStrategy<Tr
         }
         final Class<? extends Element> elementClass = ((GraphStep<?, ?>) steps.get(0)).getReturnClass();
         TraversalHelper.removeAllSteps(traversal);
-        traversal.addStep(new TinkerCountGlobalStep<>(traversal, elementClass));
+        traversal.addStep(new TinkerCountGlobalStep<>(traversal, elementClass, labels));
+    }
+
+    /**
+     * Gets the labels allowed by a {@link HasStep} that only filters on the label with {@code eq} or {@code within}.
+     *
+     * @return the labels or {@code null} if the step filters on anything else
+     */
+    private static Set<String> getElementLabels(final HasStep<?> hasStep) {
+        Set<String> labels = null;
+        for (final HasContainer hasContainer : hasStep.getHasContainers()) {
+            if (!T.label.getAccessor().equals(hasContainer.getKey()))
+                return null;
+
+            final Set<String> hasLabels = new LinkedHashSet<>();
+            if (hasContainer.getBiPredicate() == Compare.eq && hasContainer.getValue() instanceof String)
+                hasLabels.add((String) hasContainer.getValue());
+            else if (hasContainer.getBiPredicate() == Contains.within && hasContainer.getValue() instanceof Collection) {
+                // labels are always strings so other values can't match anything
+                for (final Object value : (Collection<?>) hasContainer.getValue()) {
+                    if (value instanceof String)
+                        hasLabels.add((String) value);
+                }
+            } else
+                return null;
+
+            if (null == labels)
+                labels = hasLabels;
+            else
+                labels.retainAll(hasLabels);
+        }
+        return labels;
     }
 
     @Override
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerDegreeCountGlobalStep;
+
+/**
+ * This strategy answers the count of the edges, or adjacent vertices, of vertices in a direction from the degree
+ * each vertex keeps rather than by iterating its edges, wherever the count directly follows the step that would
+ * iterate them.
+ *
+ * @example <pre>
+ * g.V(1).out('knows').count()          // is replaced by TinkerDegreeCountGlobalStep
+ * g.V().outE().count()                 // is replaced by TinkerDegreeCountGlobalStep
+ * g.V().project('d').by(both().count()) // both().count() is replaced by TinkerDegreeCountGlobalStep
+ * </pre>
+ */
+public final class TinkerGraphDegreeCountStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final TinkerGraphDegreeCountStrategy INSTANCE = new TinkerGraphDegreeCountStrategy();
+
+    private TinkerGraphDegreeCountStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal))
+            return;
+
+        for (final VertexStep<?> vertexStep : TraversalHelper.getStepsOfClass(VertexStep.class, traversal)) {
+            // a labeled step has its elements referred to later on so they can't go uncounted
+            final Step<?, ?> next = vertexStep.getNextStep();
+            if (!(next instanceof CountGlobalStep) || !vertexStep.getLabels().isEmpty())
+                continue;
+
+            final TinkerDegreeCountGlobalStep degreeCountStep = new TinkerDegreeCountGlobalStep(traversal,
+                    vertexStep.getDirection(), vertexStep.getEdgeLabels());
+            next.getLabels().forEach(degreeCountStep::addLabel);
+            TraversalHelper.replaceStep((Step) vertexStep, degreeCountStep, traversal);
+            traversal.removeStep(next);
+        }
+    }
+
+    public static TinkerGraphDegreeCountStrategy instance() {
+        return INSTANCE;
+    }
+}
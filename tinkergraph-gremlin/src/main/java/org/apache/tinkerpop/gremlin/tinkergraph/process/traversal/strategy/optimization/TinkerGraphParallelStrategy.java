@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Barrier;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
+import org.apache.tinkerpop.gremlin.process.traversal.step.SideEffectCapable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.FlatMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.FoldStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupCountStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SumGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.ProfileSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.OptionsStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerParallelReducingStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect.TinkerGraphStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * This strategy lets a traversal that reduces all vertices or edges to a single value run in parallel when the
+ * {@link #PARALLELISM} option is given with {@code with()}. The start step, the filters and maps after it and a
+ * {@code count()}, {@code sum()}, {@code groupCount()} or {@code fold()} are replaced by a
+ * {@link TinkerParallelReducingStep} which traverses partitions of the elements on several threads and merges their
+ * partial results. Traversals that need paths, sacks or side-effects, mutate the graph, hold lambdas or have
+ * barriers before the reduction are left alone, as are the ones of a {@code TinkerTransactionGraph} whose
+ * transactions are bound to a thread.
+ *
+ * @example <pre>
+ * g.with('parallelism', 8).V().has('age', gt(30)).count()       // is replaced by TinkerParallelReducingStep
+ * g.with('parallelism', 8).V().out('knows').groupCount().by('name') // is replaced by TinkerParallelReducingStep
+ * g.with('parallelism', 8).V().limit(10).count()                // is not replaced as limit() is a barrier
+ * </pre>
+ */
+public final class TinkerGraphParallelStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    /**
+     * The name of the {@link OptionsStrategy} option that holds the number of partitions to traverse in parallel.
+     */
+    public static final String PARALLELISM = "parallelism";
+
+    private static final TinkerGraphParallelStrategy INSTANCE = new TinkerGraphParallelStrategy();
+
+    private static final Set<Class<? extends ProviderOptimizationStrategy>> PRIORS = new HashSet<>(Arrays.asList(
+            TinkerGraphStepStrategy.class, TinkerGraphCountStrategy.class, TinkerGraphDegreeCountStrategy.class,
+            TinkerGraphSelectivityStrategy.class, TinkerGraphVertexCentricStrategy.class));
+
+    private static final Set<TraverserRequirement> SEQUENTIAL_REQUIREMENTS = new HashSet<>(Arrays.asList(
+            TraverserRequirement.PATH, TraverserRequirement.LABELED_PATH, TraverserRequirement.SACK, TraverserRequirement.SIDE_EFFECTS));
+
+    private TinkerGraphParallelStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!traversal.isRoot() || TraversalHelper.onGraphComputer(traversal) || !traversal.getGraph().isPresent() ||
+                !(traversal.getGraph().get() instanceof TinkerGraph))
+            return;
+
+        final int parallelism = parallelismOf(traversal);
+        if (parallelism < 2 || !(traversal.getStartStep() instanceof TinkerGraphStep))
+            return;
+
+        final TinkerGraphStep<?, ?> graphStep = (TinkerGraphStep<?, ?>) traversal.getStartStep();
+        if (!graphStep.isStartStep() || !graphStep.getLabels().isEmpty() || null != graphStep.getOrderKey() ||
+                traversal.getTraverserRequirements().stream().anyMatch(SEQUENTIAL_REQUIREMENTS::contains) ||
+                TraversalHelper.hasStepOfAssignableClass(ProfileSideEffectStep.class, traversal))
+            return;
+
+        // the steps up to the reduction must each work on one traverser at a time
+        final List<Step> steps = traversal.getSteps();
+        int reducerIndex = 1;
+        while (reducerIndex < steps.size() && isPartitionable(steps.get(reducerIndex)))
+            reducerIndex++;
+        if (reducerIndex == steps.size() || !isMergeable(steps.get(reducerIndex)))
+            return;
+
+        final Traversal.Admin<?, ?> partitionTraversal = new DefaultGraphTraversal<>();
+        if (!graphStep.getHasContainers().isEmpty())
+            partitionTraversal.addStep(new HasStep<>(partitionTraversal, graphStep.getHasContainers().toArray(new HasContainer[0])));
+        final Step<?, ?> reducer = steps.get(reducerIndex);
+        for (int i = 1; i <= reducerIndex; i++) {
+            final Step<?, ?> step = steps.get(1);
+            traversal.removeStep(step);
+            partitionTraversal.addStep(step);
+        }
+
+        final TinkerParallelReducingStep<?, ?> parallelStep = new TinkerParallelReducingStep(traversal, graphStep, partitionTraversal, parallelism);
+        TraversalHelper.copyLabels(reducer, parallelStep, true);
+        TraversalHelper.replaceStep((Step) graphStep, parallelStep, traversal);
+    }
+
+    private static int parallelismOf(final Traversal.Admin<?, ?> traversal) {
+        final Optional<OptionsStrategy> options = traversal.getStrategies().getStrategy(OptionsStrategy.class);
+        final Object parallelism = options.isPresent() ? options.get().getOptions().get(PARALLELISM) : null;
+        return parallelism instanceof Number ? ((Number) parallelism).intValue() : 0;
+    }
+
+    /**
+     * Determines if the step can be applied to partitions of the traversers separately and concurrently.
+     */
+    private static boolean isPartitionable(final Step<?, ?> step) {
+        if (!step.getLabels().isEmpty() || (step instanceof Barrier && !(step instanceof NoOpBarrierStep)) ||
+                !(step instanceof FilterStep || step instanceof MapStep || step instanceof FlatMapStep || step instanceof NoOpBarrierStep))
+            return false;
+        return isThreadSafe(step);
+    }
+
+    /**
+     * Determines if the step is a reduction whose results for partitions of the traversers can be merged into the
+     * result for all of them.
+     */
+    private static boolean isMergeable(final Step<?, ?> step) {
+        return (step instanceof CountGlobalStep || step instanceof SumGlobalStep || step instanceof GroupCountStep ||
+                (step instanceof FoldStep && ((FoldStep<?, ?>) step).isListFold())) && isThreadSafe(step);
+    }
+
+    /**
+     * Determines if clones of the step, along with the steps of its children, can run on several threads at once.
+     */
+    private static boolean isThreadSafe(final Step<?, ?> step) {
+        if (step instanceof SideEffectCapable || step instanceof Mutating || step instanceof LambdaHolder)
+            return false;
+        return !(step instanceof TraversalParent) || !TraversalHelper.anyStepRecursively(
+                s -> s instanceof SideEffectCapable || s instanceof Mutating || s instanceof LambdaHolder, (TraversalParent) step);
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    public static TinkerGraphParallelStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Text;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeOtherVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect.TinkerGraphStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.GraphStatistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * This strategy orders the {@link HasContainer} instances of a step so that those letting the fewest elements
+ * through are tested first, which saves testing the others on the elements they reject. How many elements a
+ * container lets through is estimated from the {@link GraphStatistics} of the graph, which answers labels, ids and
+ * indexed keys, and is otherwise guessed from the predicate. Predicates that can't be reasoned about, like lambdas,
+ * are tested last. The order is left alone in child traversals of filters, which can tell a container that errors
+ * from one that is false.
+ *
+ * @example <pre>
+ * g.V().has('age', gt(20)).has('name', 'marko')   // tests name first when the name is indexed
+ * g.V().out().has('lang', 'java').hasLabel('software') // tests the label first if most vertices aren't software
+ * </pre>
+ */
+public final class TinkerGraphSelectivityStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final TinkerGraphSelectivityStrategy INSTANCE = new TinkerGraphSelectivityStrategy();
+
+    private static final Set<Class<? extends ProviderOptimizationStrategy>> PRIORS = Collections.singleton(TinkerGraphStepStrategy.class);
+
+    private TinkerGraphSelectivityStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal) || !traversal.getGraph().isPresent() ||
+                !(traversal.getGraph().get() instanceof GraphStatistics))
+            return;
+        if (!traversal.isRoot() && traversal.getParent() instanceof FilterStep)
+            return;
+
+        final GraphStatistics statistics = (GraphStatistics) traversal.getGraph().get();
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (!(step instanceof HasContainerHolder) || !(step instanceof GraphStep || step instanceof HasStep))
+                continue;
+
+            final Class<? extends Element> elementClass = elementClassOf(step);
+            if (null != elementClass)
+                order((HasContainerHolder) step, statistics, elementClass);
+        }
+    }
+
+    /**
+     * Gets the class of the elements the step gets or filters or {@code null} if it can't be told.
+     */
+    private static Class<? extends Element> elementClassOf(final Step<?, ?> step) {
+        if (step instanceof GraphStep)
+            return Vertex.class.isAssignableFrom(((GraphStep<?, ?>) step).getReturnClass()) ? Vertex.class : Edge.class;
+        else if (step instanceof VertexStep)
+            return ((VertexStep<?>) step).returnsVertex() ? Vertex.class : Edge.class;
+        else if (step instanceof EdgeVertexStep || step instanceof EdgeOtherVertexStep)
+            return Vertex.class;
+        else if (step instanceof HasStep || step instanceof NoOpBarrierStep)
+            return elementClassOf(step.getPreviousStep());
+        else
+            return null;
+    }
+
+    private static void order(final HasContainerHolder holder, final GraphStatistics statistics, final Class<? extends Element> elementClass) {
+        final List<HasContainer> hasContainers = new ArrayList<>(holder.getHasContainers());
+        if (hasContainers.size() < 2)
+            return;
+        final long count = statistics.count(elementClass);
+        if (0 == count)
+            return;
+
+        // a TinkerGraphStep keeps the estimates so that its index lookup does not take them again
+        final ToLongFunction<HasContainer> estimator = holder instanceof TinkerGraphStep ?
+                ((TinkerGraphStep<?, ?>) holder)::estimate : hasContainer -> statistics.estimate(elementClass, hasContainer);
+        final Map<HasContainer, Double> selectivities = new IdentityHashMap<>();
+        for (final HasContainer hasContainer : hasContainers) {
+            selectivities.put(hasContainer, selectivity(estimator.applyAsLong(hasContainer), count, hasContainer));
+        }
+        // the sort is stable so containers as selective as each other keep the order they were written in
+        final List<HasContainer> ordered = new ArrayList<>(hasContainers);
+        ordered.sort(Comparator.comparingDouble(selectivities::get));
+        if (ordered.equals(hasContainers))
+            return;
+
+        hasContainers.forEach(holder::removeHasContainer);
+        ordered.forEach(holder::addHasContainer);
+    }
+
+    /**
+     * Gets the fraction of the elements the container is expected to let through from the estimate of the
+     * statistics or, if they can't tell, from its predicate.
+     */
+    private static double selectivity(final long estimate, final long count, final HasContainer hasContainer) {
+        if (estimate >= 0)
+            return Math.min(1d, (double) estimate / count);
+
+        final BiPredicate<?, ?> biPredicate = hasContainer.getBiPredicate();
+        if (biPredicate == Compare.eq)
+            return 0.1d;
+        else if (biPredicate == Contains.within)
+            return 0.2d;
+        else if (biPredicate instanceof Text || biPredicate instanceof Text.RegexPredicate)
+            return 0.25d;
+        else if (biPredicate == Compare.gt || biPredicate == Compare.gte || biPredicate == Compare.lt || biPredicate == Compare.lte)
+            return 0.33d;
+        else if (biPredicate == Compare.neq || biPredicate == Contains.without)
+            return 0.9d;
+        else
+            return 1d;
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    public static TinkerGraphSelectivityStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -18,17 +18,26 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ValueTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect.TinkerGraphStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.AbstractTinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerIndexType;
+import org.javatuples.Pair;
+
+import java.util.Comparator;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -60,6 +69,39 @@ public final class TinkerGraphStepStrategy extends AbstractTraversalStrategy<Tra
                 }
                 currentStep = currentStep.getNextStep();
             }
+
+            if (currentStep instanceof OrderGlobalStep && tinkerGraphStep.isStartStep() && traversal.isRoot())
+                foldOrder(tinkerGraphStep, (OrderGlobalStep<?, ?>) currentStep, traversal);
+        }
+    }
+
+    /**
+     * Folds an {@code order().by(key)} that immediately follows the graph step into it when the key has a
+     * {@link TinkerIndexType#SORTED} index, so that elements are read from the index in order rather than sorted.
+     */
+    private static void foldOrder(final TinkerGraphStep<?, ?> tinkerGraphStep, final OrderGlobalStep<?, ?> orderGlobalStep,
+                                  final Traversal.Admin<?, ?> traversal) {
+        if (orderGlobalStep.getComparators().size() != 1 || !traversal.getGraph().isPresent() ||
+                !(traversal.getGraph().get() instanceof AbstractTinkerGraph))
+            return;
+
+        final Pair<? extends Traversal.Admin<?, ?>, ? extends Comparator<?>> comparator = orderGlobalStep.getComparators().get(0);
+        if (!(comparator.getValue0() instanceof ValueTraversal) || null != ((ValueTraversal<?, ?>) comparator.getValue0()).getBypassTraversal() ||
+                (comparator.getValue1() != Order.asc && comparator.getValue1() != Order.desc))
+            return;
+
+        final String key = ((ValueTraversal<?, ?>) comparator.getValue0()).getPropertyKey();
+        if (((AbstractTinkerGraph) traversal.getGraph().get()).getIndexType(key, tinkerGraphStep.getReturnClass()) != TinkerIndexType.SORTED)
+            return;
+
+        tinkerGraphStep.setOrder(key, (Order) comparator.getValue1());
+        TraversalHelper.copyLabels(orderGlobalStep, tinkerGraphStep, false);
+        traversal.removeStep(orderGlobalStep);
+
+        if (tinkerGraphStep.getNextStep() instanceof RangeGlobalStep) {
+            final long high = ((RangeGlobalStep<?>) tinkerGraphStep.getNextStep()).getHighRange();
+            if (high >= 0)
+                tinkerGraphStep.setOrderLimit(high);
         }
     }
 
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ValueTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.LocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerVertexCentricStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.javatuples.Pair;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * This strategy reads the edges of a vertex with a label from its vertex-centric index when they are filtered by a
+ * range of the indexed key, or ordered by it, rather than going through all the edges of the vertex with the label.
+ * The {@code has()} steps that follow the edge step are folded into a {@link TinkerVertexCentricStep} along with an
+ * {@code order().by(key)} and the limit after it, provided the edge step only gets a single vertex at a time, which
+ * is the case for a single vertex start or within {@code local()}.
+ *
+ * @example <pre>
+ * g.V(1).outE('rated').has('ts', gt(t))                      // is replaced by TinkerVertexCentricStep
+ * g.V(1).outE('rated').has('ts', gt(t)).order().by('ts').limit(10) // the order and limit are folded as well
+ * g.V().local(inE('rated').order().by('ts', desc).limit(1))   // the order and limit are folded as well
+ * </pre>
+ * @see TinkerGraph#createVertexCentricIndex(String, String)
+ */
+public final class TinkerGraphVertexCentricStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final TinkerGraphVertexCentricStrategy INSTANCE = new TinkerGraphVertexCentricStrategy();
+
+    private static final Set<Class<? extends ProviderOptimizationStrategy>> PRIORS = Collections.singleton(TinkerGraphStepStrategy.class);
+
+    private TinkerGraphVertexCentricStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal) || !traversal.getGraph().isPresent() ||
+                !(traversal.getGraph().get() instanceof TinkerGraph))
+            return;
+
+        final TinkerGraph graph = (TinkerGraph) traversal.getGraph().get();
+        for (final VertexStep<?> vertexStep : TraversalHelper.getStepsOfClass(VertexStep.class, traversal)) {
+            if (!vertexStep.returnsEdge() || vertexStep.getDirection() == Direction.BOTH ||
+                    vertexStep.getEdgeLabels().length != 1 || !vertexStep.getLabels().isEmpty())
+                continue;
+
+            final Set<String> keys = graph.getVertexCentricIndexKeys(vertexStep.getEdgeLabels()[0]);
+            if (keys.isEmpty())
+                continue;
+
+            final List<HasStep<?>> hasSteps = new ArrayList<>();
+            final List<HasContainer> hasContainers = new ArrayList<>();
+            Step<?, ?> currentStep = vertexStep.getNextStep();
+            while (currentStep instanceof HasStep || currentStep instanceof NoOpBarrierStep) {
+                if (currentStep instanceof HasStep) {
+                    hasSteps.add((HasStep<?>) currentStep);
+                    ((HasStep<?>) currentStep).getHasContainers().forEach(h -> addHasContainer(hasContainers, h));
+                }
+                currentStep = currentStep.getNextStep();
+            }
+
+            final Pair<String, Order> order = currentStep instanceof OrderGlobalStep && isSingleVertex(vertexStep, traversal) ?
+                    orderOf((OrderGlobalStep<?, ?>) currentStep, keys) : null;
+            String key = rangeKeyOf(hasContainers, keys);
+            if (null == key && null != order)
+                key = order.getValue0();
+            if (null == key)
+                continue;
+
+            final TinkerVertexCentricStep vertexCentricStep = new TinkerVertexCentricStep(traversal,
+                    vertexStep.getDirection(), vertexStep.getEdgeLabels()[0], key);
+            hasContainers.forEach(vertexCentricStep::addHasContainer);
+            TraversalHelper.replaceStep((Step) vertexStep, vertexCentricStep, traversal);
+            for (final HasStep<?> hasStep : hasSteps) {
+                TraversalHelper.copyLabels(hasStep, vertexCentricStep, false);
+                traversal.removeStep(hasStep);
+            }
+
+            // the order can only be taken over if nothing is left in between, like a barrier
+            if (null != order && key.equals(order.getValue0()) && vertexCentricStep.getNextStep() == currentStep) {
+                vertexCentricStep.setOrder(order.getValue1());
+                TraversalHelper.copyLabels(currentStep, vertexCentricStep, false);
+                traversal.removeStep(currentStep);
+            }
+
+            // whether ordered or not each vertex never needs more edges than the range takes of all of them
+            if (vertexCentricStep.getNextStep() instanceof RangeGlobalStep) {
+                final long high = ((RangeGlobalStep<?>) vertexCentricStep.getNextStep()).getHighRange();
+                if (high >= 0)
+                    vertexCentricStep.setLimit(high);
+            }
+        }
+    }
+
+    /**
+     * Adds the container, split into one container per predicate if it is an {@link AndP} like {@code between()} is,
+     * so that each bound of a range can be told apart.
+     */
+    private static void addHasContainer(final List<HasContainer> hasContainers, final HasContainer hasContainer) {
+        if (hasContainer.getPredicate() instanceof AndP) {
+            for (final P<?> predicate : ((AndP<?>) hasContainer.getPredicate()).getPredicates()) {
+                addHasContainer(hasContainers, new HasContainer(hasContainer.getKey(), predicate));
+            }
+        } else
+            hasContainers.add(hasContainer);
+    }
+
+    /**
+     * Gets the first indexed key that the containers put a range on.
+     */
+    private static String rangeKeyOf(final List<HasContainer> hasContainers, final Set<String> keys) {
+        for (final HasContainer hasContainer : hasContainers) {
+            final BiPredicate<?, ?> biPredicate = hasContainer.getBiPredicate();
+            if (keys.contains(hasContainer.getKey()) && null != hasContainer.getValue() &&
+                    (biPredicate == Compare.gt || biPredicate == Compare.gte || biPredicate == Compare.lt || biPredicate == Compare.lte))
+                return hasContainer.getKey();
+        }
+        return null;
+    }
+
+    /**
+     * Gets the key and direction of an {@code order().by(key)} on an indexed key.
+     *
+     * @return the key paired with the order or {@code null} if the order is on anything else
+     */
+    private static Pair<String, Order> orderOf(final OrderGlobalStep<?, ?> orderGlobalStep, final Set<String> keys) {
+        if (orderGlobalStep.getComparators().size() != 1 || !orderGlobalStep.getLabels().isEmpty())
+            return null;
+
+        final Pair<? extends Traversal.Admin<?, ?>, ? extends Comparator<?>> comparator = orderGlobalStep.getComparators().get(0);
+        if (!(comparator.getValue0() instanceof ValueTraversal) || null != ((ValueTraversal<?, ?>) comparator.getValue0()).getBypassTraversal() ||
+                (comparator.getValue1() != Order.asc && comparator.getValue1() != Order.desc))
+            return null;
+
+        final String key = ((ValueTraversal<?, ?>) comparator.getValue0()).getPropertyKey();
+        return keys.contains(key) ? Pair.with(key, (Order) comparator.getValue1()) : null;
+    }
+
+    /**
+     * Determines if the step gets a single vertex at a time, in which case the order of the edges of each vertex is
+     * the order of all edges.
+     */
+    private static boolean isSingleVertex(final VertexStep<?> vertexStep, final Traversal.Admin<?, ?> traversal) {
+        final Step<?, ?> previousStep = vertexStep.getPreviousStep();
+        if (previousStep instanceof EmptyStep)
+            return traversal.getParent() instanceof LocalStep;
+
+        if (!(previousStep instanceof GraphStep) || !traversal.isRoot() || !((GraphStep<?, ?>) previousStep).isStartStep())
+            return false;
+
+        final Object[] ids = ((GraphStep<?, ?>) previousStep).getIds();
+        return null != ids && 1 == ids.length && !(ids[0] instanceof Collection);
+    }
+
+    @Override
+    public Set<Class<? extends ProviderOptimizationStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    public static TinkerGraphVertexCentricStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -25,6 +25,8 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.service.Service;
 import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.AbstractTinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.Collections;
@@ -35,7 +37,8 @@ import java.util.stream.LongStream;
 import static org.apache.tinkerpop.gremlin.util.CollectionUtil.asMap;
 
 /**
- * Count the IN/OUT/BOTH edges for a set of vertices. Demonstrates a {@link Service.Type#Streaming} service.
+ * Count the IN/OUT/BOTH edges for a set of vertices, which a {@link TinkerVertex} keeps count of. Demonstrates a
+ * {@link Service.Type#Streaming} service.
  */
 public class TinkerDegreeCentralityFactory extends TinkerServiceRegistry.TinkerServiceFactory<Vertex,Long> implements Service<Vertex, Long> {
 
@@ -85,9 +88,13 @@ public class TinkerDegreeCentralityFactory extends TinkerServiceRegistry.TinkerS
 
         final Vertex v = in.get();
         final long count;
-        try (CloseableIterator<Edge> it = CloseableIterator.of(v.edges(direction))) {
-            count = IteratorUtils.count(it);
-        };
+        if (v instanceof TinkerVertex) {
+            count = TinkerHelper.getDegree((TinkerVertex) v, direction);
+        } else {
+            try (CloseableIterator<Edge> it = CloseableIterator.of(v.edges(direction))) {
+                count = IteratorUtils.count(it);
+            }
+        }
 
         return CloseableIterator.of(LongStream.range(0, in.bulk()).map(i -> count).iterator());
     }
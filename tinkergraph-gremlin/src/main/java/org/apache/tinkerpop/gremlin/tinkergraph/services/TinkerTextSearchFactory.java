@@ -19,6 +19,7 @@
 package org.apache.tinkerpop.gremlin.tinkergraph.services;
 
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
@@ -26,9 +27,14 @@ import org.apache.tinkerpop.gremlin.structure.service.Service;
 import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.AbstractTinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerIndexHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerIndexType;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -36,8 +42,9 @@ import java.util.Set;
 import static org.apache.tinkerpop.gremlin.util.CollectionUtil.asMap;
 
 /**
- * Inefficient text search implementation (scan+filter), searches for {@link Property}s by token/regex.
- * Demonstrates a {@link Service.Type#Start} service.
+ * Text search service. A {@code search} or {@code regex} finds {@link Property}s by token/regex with an inefficient
+ * scan+filter, while a {@code query} ranks the {@link Element}s of a {@link TinkerIndexType#TEXT} index by how well
+ * they match it. Demonstrates a {@link Service.Type#Start} service.
  */
 public class TinkerTextSearchFactory<I, R> extends TinkerServiceRegistry.TinkerServiceFactory<I, R> implements Service<I, R> {
 
@@ -56,11 +63,26 @@ public class TinkerTextSearchFactory<I, R> extends TinkerServiceRegistry.TinkerS
          * Specify the type of Element to search for (optional)
          */
         String TYPE = "type";
+        /**
+         * Specify a full text query against TEXT indices - matching elements are returned best match first
+         */
+        String QUERY = "query";
+        /**
+         * Specify the TEXT indexed property key to query (optional)
+         */
+        String KEY = "key";
+        /**
+         * Specify whether query tokens also match tokens with the same stem (optional)
+         */
+        String STEM = "stem";
 
         Map DESCRIBE = asMap(
                 SEARCH, "Specify a search term - will be converted to regex via .*(search).*",
                 REGEX, "Directly specify the regex",
-                TYPE, "Specify the type of Element to search for, one of Vertex/Edge/VertexProperty (optional)"
+                TYPE, "Specify the type of Element to search for, one of Vertex/Edge/VertexProperty (optional)",
+                QUERY, "Specify a full text query against TEXT indices - matching elements are returned best match first",
+                KEY, "Specify the TEXT indexed property key to query, otherwise all TEXT indexed keys are queried (optional)",
+                STEM, "Specify whether query tokens also match tokens with the same stem, defaults to false (optional)"
         );
 
         static Class type(final String type) {
@@ -108,19 +130,55 @@ public class TinkerTextSearchFactory<I, R> extends TinkerServiceRegistry.TinkerS
 
     @Override
     public CloseableIterator<R> execute(final ServiceCallContext ctx, final Map params) {
+        if (params.containsKey(Params.QUERY))
+            return CloseableIterator.of((Iterator<R>) query(params));
+
         final String regex;
         if (params.containsKey(Params.REGEX)) {
             regex = (String) params.get(Params.REGEX);
         } else if (params.containsKey(Params.SEARCH)) {
             regex = ".*(" + params.get(Params.SEARCH) + ").*";
         } else {
-            throw new IllegalStateException("Missing search/regex parameter");
+            throw new IllegalStateException("Missing search/regex/query parameter");
         }
         final Class type = Params.type((String) params.get(Params.TYPE));
 
         return CloseableIterator.of((Iterator<R>) TinkerHelper.search(graph, regex, Optional.ofNullable(type)));
     }
 
+    /**
+     * Ranks the elements of the TEXT indices by the sum of their scores over the queried keys.
+     */
+    private Iterator<Element> query(final Map params) {
+        final String query = (String) params.get(Params.QUERY);
+        final String key = (String) params.get(Params.KEY);
+        final boolean stem = Boolean.TRUE.equals(params.get(Params.STEM)) || "true".equals(params.get(Params.STEM));
+        final Class type = Params.type((String) params.get(Params.TYPE));
+        if (type == VertexProperty.class)
+            throw new IllegalArgumentException("Type must be one of Vertex/Edge for a query: VertexProperty");
+
+        final List<Class<? extends Element>> elementClasses = null == type ?
+                Arrays.asList(Vertex.class, Edge.class) : Collections.singletonList(type);
+        final Map<Element, Double> scores = new HashMap<>();
+        boolean indexed = false;
+        for (final Class<? extends Element> elementClass : elementClasses) {
+            for (final String indexedKey : null == key ? graph.getIndexedKeys(elementClass) : Collections.singleton(key)) {
+                if (graph.getIndexType(indexedKey, elementClass) != TinkerIndexType.TEXT)
+                    continue;
+                indexed = true;
+                TinkerIndexHelper.searchIndexText(graph, elementClass, indexedKey, query, stem)
+                        .forEach((element, score) -> scores.merge(element, score, Double::sum));
+            }
+        }
+        if (!indexed)
+            throw new IllegalStateException(null == key ?
+                    "There is no TEXT index to query" : "There is no TEXT index to query for key: " + key);
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Element, Double>comparingByValue().reversed())
+                .map(Map.Entry::getKey).iterator();
+    }
+
     @Override
     public void close() {}
 
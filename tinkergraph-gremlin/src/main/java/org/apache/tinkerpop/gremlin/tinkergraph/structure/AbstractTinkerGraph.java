@@ -20,12 +20,14 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
 import org.apache.commons.configuration2.Configuration;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.GraphReader;
 import org.apache.tinkerpop.gremlin.structure.io.Io;
 import org.apache.tinkerpop.gremlin.structure.io.IoCore;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONVersion;
@@ -35,7 +37,11 @@ import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComp
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView;
 import org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerServiceRegistry;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Collections;
 import java.util.Iterator;
@@ -52,7 +58,7 @@ import java.util.stream.Stream;
  *
  * @author Valentyn Kahamlyk
  */
-public abstract class AbstractTinkerGraph implements Graph {
+public abstract class AbstractTinkerGraph implements Graph, GraphStatistics {
 
     public static final String GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER = "gremlin.tinkergraph.vertexIdManager";
     public static final String GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER = "gremlin.tinkergraph.edgeIdManager";
@@ -62,6 +68,18 @@ public abstract class AbstractTinkerGraph implements Graph {
     public static final String GREMLIN_TINKERGRAPH_GRAPH_FORMAT = "gremlin.tinkergraph.graphFormat";
     public static final String GREMLIN_TINKERGRAPH_ALLOW_NULL_PROPERTY_VALUES = "gremlin.tinkergraph.allowNullPropertyValues";
     public static final String GREMLIN_TINKERGRAPH_SERVICE = "gremlin.tinkergraph.service";
+    public static final String GREMLIN_TINKERGRAPH_LAZY_ITERATION = "gremlin.tinkergraph.lazyIteration";
+    public static final String GREMLIN_TINKERGRAPH_COMPACT_ADJACENCY = "gremlin.tinkergraph.compactAdjacency";
+    public static final String GREMLIN_TINKERGRAPH_OFF_HEAP = "gremlin.tinkergraph.offHeap";
+    public static final String GREMLIN_TINKERGRAPH_COMPACT_PROPERTIES = "gremlin.tinkergraph.compactProperties";
+    public static final String GREMLIN_TINKERGRAPH_OFF_HEAP_LOCATION = "gremlin.tinkergraph.offHeapLocation";
+    public static final String GREMLIN_TINKERGRAPH_MUTATION_LOG = "gremlin.tinkergraph.mutationLog";
+    public static final String GREMLIN_TINKERGRAPH_MUTATION_LOG_SYNC = "gremlin.tinkergraph.mutationLogSync";
+    public static final String GREMLIN_TINKERGRAPH_MUTATION_LOG_SYNC_INTERVAL = "gremlin.tinkergraph.mutationLogSyncInterval";
+    public static final String GREMLIN_TINKERGRAPH_MUTATION_LOG_SNAPSHOT_SIZE = "gremlin.tinkergraph.mutationLogSnapshotSize";
+    public static final String GREMLIN_TINKERGRAPH_LOAD_THREADS = "gremlin.tinkergraph.loadThreads";
+    public static final String GREMLIN_TINKERGRAPH_TX_RETRIES = "gremlin.tinkergraph.txRetries";
+    public static final String GREMLIN_TINKERGRAPH_TX_RETRY_DELAY = "gremlin.tinkergraph.txRetryDelay";
 
 
     protected AtomicLong currentId = new AtomicLong(-1L);
@@ -70,12 +88,16 @@ public abstract class AbstractTinkerGraph implements Graph {
     protected TinkerGraphComputerView graphComputerView = null;
     protected AbstractTinkerIndex<TinkerVertex> vertexIndex = null;
     protected AbstractTinkerIndex<TinkerEdge> edgeIndex = null;
+    protected TinkerValueStore valueStore = null;
+    protected TinkerPropertyKeys propertyKeys = null;
+    protected TinkerMutationLog mutationLog = null;
 
     protected IdManager<Vertex> vertexIdManager;
     protected IdManager<Edge> edgeIdManager;
     protected IdManager<VertexProperty> vertexPropertyIdManager;
     protected VertexProperty.Cardinality defaultVertexPropertyCardinality;
     protected boolean allowNullPropertyValues;
+    protected boolean lazyIteration;
 
     protected TinkerServiceRegistry serviceRegistry;
 
@@ -107,15 +129,43 @@ public abstract class AbstractTinkerGraph implements Graph {
      * Mark {@link Vertex} as changed in transaction.
      * If the graph does not support transactions, then does nothing.
      * @param vertex
+     * @return the state of the vertex to change in the transaction or {@code null} if it was removed, which is the
+     * vertex itself if the graph does not support transactions
      */
-    public void touch(final TinkerVertex vertex) {};
+    public TinkerVertex touch(final TinkerVertex vertex) {
+        return vertex;
+    }
 
     /**
      * Mark {@link Edge} as changed in transaction.
      * If the graph does not support transactions, then does nothing.
      * @param edge
+     * @return the state of the edge to change in the transaction or {@code null} if it was removed, which is the
+     * edge itself if the graph does not support transactions
+     */
+    public TinkerEdge touch(final TinkerEdge edge) {
+        return edge;
+    }
+
+    /**
+     * Get the state of the {@link Vertex} that the transaction reads, as vertices are shared between transactions.
+     * If the graph does not support transactions, then returns the vertex itself.
+     * @param vertex
+     * @return the state of the vertex or {@code null} if the transaction does not see it
      */
-    public void touch(final TinkerEdge edge) {};
+    public TinkerVertex visible(final TinkerVertex vertex) {
+        return vertex;
+    }
+
+    /**
+     * Get the state of the {@link Edge} that the transaction reads, as edges are shared between transactions.
+     * If the graph does not support transactions, then returns the edge itself.
+     * @param edge
+     * @return the state of the edge or {@code null} if the transaction does not see it
+     */
+    public TinkerEdge visible(final TinkerEdge edge) {
+        return edge;
+    }
 
     /**
      * Return {@link Vertex} by id.
@@ -159,6 +209,17 @@ public abstract class AbstractTinkerGraph implements Graph {
      */
     public abstract boolean hasVertex(final Object id);
 
+    /**
+     * Graph-specific implementation for number of vertices with the label, answered by the label index.
+     * @return count of vertices with the label in Graph.
+     */
+    public abstract int getVerticesCount(final String label);
+
+    /**
+     * Gets the vertices with any of the labels from the label index without scanning all vertices of the graph.
+     */
+    public abstract Iterator<Vertex> verticesByLabel(final String... labels);
+
     /**
      * Graph-specific implementation for number of vertices.
      * @return count of vertices in Graph.
@@ -170,16 +231,59 @@ public abstract class AbstractTinkerGraph implements Graph {
      */
     public abstract boolean hasEdge(final Object id);
 
+    /**
+     * Graph-specific implementation for number of edges with the label, answered by the label index.
+     * @return count of edges with the label in Graph.
+     */
+    public abstract int getEdgesCount(final String label);
+
+    /**
+     * Gets the edges with any of the labels from the label index without scanning all edges of the graph.
+     */
+    public abstract Iterator<Edge> edgesByLabel(final String... labels);
+
+    @Override
+    public long count(final Class<? extends Element> elementClass) {
+        return Vertex.class.isAssignableFrom(elementClass) ? getVerticesCount() : getEdgesCount();
+    }
+
+    @Override
+    public long count(final Class<? extends Element> elementClass, final String label) {
+        return Vertex.class.isAssignableFrom(elementClass) ? getVerticesCount(label) : getEdgesCount(label);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Labels and ids are answered exactly while property keys are answered from their index, exactly for equality
+     * and {@code within} and from a {@link TinkerIndexType#SORTED} index for ranges and prefixes.
+     */
+    @Override
+    public long estimate(final Class<? extends Element> elementClass, final HasContainer hasContainer) {
+        return TinkerIndexHelper.estimate(this, elementClass, hasContainer);
+    }
+
+    /**
+     * Determines if graph steps should filter elements as they are consumed rather than materializing all matching
+     * elements before the first one is returned.
+     */
+    public boolean isLazyIteration() {
+        return lazyIteration;
+    }
+
     protected void loadGraph() {
         final File f = new File(graphLocation);
         if (f.exists() && f.isFile()) {
             try {
-                if (graphFormat.equals("graphml")) {
+                final int loadThreads = configuration.getInt(GREMLIN_TINKERGRAPH_LOAD_THREADS, 1);
+                if (loadThreads > 1 && TinkerGraphLoader.load(this, f, graphFormat, loadThreads)) {
+                    // loaded in parallel
+                } else if (graphFormat.equals("graphml")) {
                     io(IoCore.graphml()).readGraph(graphLocation);
                 } else if (graphFormat.equals("graphson")) {
-                    io(IoCore.graphson()).readGraph(graphLocation);
+                    readGraph(TinkerBulkLoader.reader(io(IoCore.graphson()).reader().create()), f);
                 } else if (graphFormat.equals("gryo")) {
-                    io(IoCore.gryo()).readGraph(graphLocation);
+                    readGraph(TinkerBulkLoader.reader(io(IoCore.gryo()).reader().create()), f);
                 } else {
                     io(IoCore.createIoBuilder(graphFormat)).readGraph(graphLocation);
                 }
@@ -187,12 +291,22 @@ public abstract class AbstractTinkerGraph implements Graph {
                 throw new RuntimeException(String.format("Could not load graph at %s with %s", graphLocation, graphFormat), ex);
             }
         }
+
+        // mutations made since the snapshot are replayed before the log is set so that they are not logged again
+        if (configuration.getBoolean(GREMLIN_TINKERGRAPH_MUTATION_LOG, false))
+            mutationLog = TinkerMutationLog.open(this);
+    }
+
+    private void readGraph(final GraphReader reader, final File f) throws IOException {
+        try (final InputStream stream = new BufferedInputStream(new FileInputStream(f))) {
+            reader.readGraph(stream, this);
+        }
     }
 
     protected void saveGraph() {
         final File f = new File(graphLocation);
         if (f.exists()) {
-            f.delete();
+            if (null == mutationLog) f.delete();
         } else {
             final File parent = f.getParentFile();
 
@@ -202,16 +316,20 @@ public abstract class AbstractTinkerGraph implements Graph {
             }
         }
 
+        // with a mutation log the graph is written next to the last snapshot and then moved in its place so that the
+        // last snapshot remains whole if writing is interrupted
+        final String location = null == mutationLog ? graphLocation : graphLocation + ".tmp";
         try {
             if (graphFormat.equals("graphml")) {
-                io(IoCore.graphml()).writeGraph(graphLocation);
+                io(IoCore.graphml()).writeGraph(location);
             } else if (graphFormat.equals("graphson")) {
-                io(IoCore.graphson()).writeGraph(graphLocation);
+                io(IoCore.graphson()).writeGraph(location);
             } else if (graphFormat.equals("gryo")) {
-                io(IoCore.gryo()).writeGraph(graphLocation);
+                io(IoCore.gryo()).writeGraph(location);
             } else {
-                io(IoCore.createIoBuilder(graphFormat)).writeGraph(graphLocation);
+                io(IoCore.createIoBuilder(graphFormat)).writeGraph(location);
             }
+            if (null != mutationLog) TinkerMutationLog.move(new File(location).toPath(), f.toPath());
         } catch (Exception ex) {
             throw new RuntimeException(String.format("Could not save graph at %s with %s", graphLocation, graphFormat), ex);
         }
@@ -262,11 +380,18 @@ public abstract class AbstractTinkerGraph implements Graph {
     /**
      * This method only has an effect if the {@link TinkerGraph#GREMLIN_TINKERGRAPH_GRAPH_LOCATION} is set, in which case the
      * data in the graph is persisted to that location. This method may be called multiple times and does not release
-     * resources.
+     * resources. With the {@link TinkerGraph#GREMLIN_TINKERGRAPH_MUTATION_LOG} the log is cut back once the data is
+     * persisted.
      */
     @Override
     public void close() {
-        if (graphLocation != null) saveGraph();
+        if (mutationLog != null)
+            mutationLog.close();
+        else if (graphLocation != null)
+            saveGraph();
+        // the values kept off-heap are no longer needed once the graph was written
+        if (valueStore != null)
+            valueStore.close();
         // shutdown services
         serviceRegistry.close();
     }
@@ -377,6 +502,34 @@ public abstract class AbstractTinkerGraph implements Graph {
         }
     }
 
+    /**
+     * Return the composite indices currently defined for said element class ({@link Vertex} or {@link Edge}).
+     *
+     * @param elementClass the element class to get the composite indices for
+     * @param <E>          The type of the element class
+     * @return the set of composite indices
+     */
+    public <E extends Element> Set<AbstractTinkerIndex.CompositeKey> getCompositeIndices(final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexIndex ? Collections.emptySet() : this.vertexIndex.getCompositeKeys();
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeIndex ? Collections.emptySet() : this.edgeIndex.getCompositeKeys();
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Return the type of index for the key and said element class ({@link Vertex} or {@link Edge}).
+     *
+     * @param key          the property key
+     * @param elementClass the element class of the index
+     * @return the type of the index or {@code null} if the key is not indexed
+     */
+    public <E extends Element> TinkerIndexType getIndexType(final String key, final Class<E> elementClass) {
+        return TinkerIndexHelper.getIndexType(this, elementClass, key);
+    }
+
     ///////////// Id manager ///////////////
     /**
      * Construct an {@link IdManager} from the TinkerGraph {@code Configuration}.
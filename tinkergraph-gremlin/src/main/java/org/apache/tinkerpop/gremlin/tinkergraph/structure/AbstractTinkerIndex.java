@@ -19,11 +19,27 @@
 
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Text;
 import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.util.GremlinValueComparator;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 
 /**
  * Storage for indexes that can be used by different implementations of {@link AbstractTinkerGraph}.
@@ -37,6 +53,14 @@ public abstract class AbstractTinkerIndex<T extends Element> {
     protected final Class<T> indexClass;
     protected final AbstractTinkerGraph graph;
     protected final Set<String> indexedKeys = new HashSet<>();
+    protected final Map<String, TinkerIndexType> indexTypes = new ConcurrentHashMap<>();
+    protected final Set<CompositeKey> compositeKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Orders the values of a {@link TinkerIndexType#SORTED} index with Gremlin orderability semantics.
+     */
+    protected static final Comparator<Object> SORTED_INDEX_COMPARATOR =
+            (a, b) -> GremlinValueComparator.ORDERABILITY.compare(unindexable(a), unindexable(b));
 
     protected AbstractTinkerIndex(final AbstractTinkerGraph graph, final Class<T> indexClass) {
         this.graph = graph;
@@ -59,6 +83,103 @@ public abstract class AbstractTinkerIndex<T extends Element> {
      */
     public abstract long count(final String key, final Object value);
 
+    /**
+     * Get list of elements which have a property with a value within the given bounds, ordered by that value. Only
+     * supported by {@link TinkerIndexType#SORTED} indices. Values are compared with Gremlin orderability semantics
+     * and only values of the same type as the bounds are returned, so results may still need to be filtered with
+     * the actual predicate.
+     * @param key property key
+     * @param from lower bound of the value or {@code null} if unbounded
+     * @param fromInclusive determines if the lower bound is included
+     * @param to upper bound of the value or {@code null} if unbounded
+     * @param toInclusive determines if the upper bound is included
+     * @return list of elements
+     */
+    public abstract List<T> getRange(final String key, final Object from, final boolean fromInclusive,
+                                     final Object to, final boolean toInclusive);
+
+    /**
+     * Get list of elements which have a {@code String} property value starting with the given prefix. Only supported
+     * by {@link TinkerIndexType#SORTED} indices.
+     * @param key property key
+     * @param prefix property value prefix
+     * @return list of elements
+     */
+    public abstract List<T> getPrefix(final String key, final String prefix);
+
+    /**
+     * Get count of elements which have a property with a value within the given bounds, which is what
+     * {@link #getRange(String, Object, boolean, Object, boolean)} would return without collecting the elements. An
+     * element with several values in the bounds may be counted more than once and the count of a transactional index
+     * is an estimate that may include elements the transaction does not see.
+     * @param key property key
+     * @param from lower bound of the value or {@code null} if unbounded
+     * @param fromInclusive determines if the lower bound is included
+     * @param to upper bound of the value or {@code null} if unbounded
+     * @param toInclusive determines if the upper bound is included
+     * @return count of elements
+     */
+    public abstract long countRange(final String key, final Object from, final boolean fromInclusive,
+                                    final Object to, final boolean toInclusive);
+
+    /**
+     * Get count of elements which have a {@code String} property value starting with the given prefix, which is what
+     * {@link #getPrefix(String, String)} would return without collecting the elements. An element with several
+     * values starting with the prefix may be counted more than once and the count of a transactional index is an
+     * estimate that may include elements the transaction does not see.
+     * @param key property key
+     * @param prefix property value prefix
+     * @return count of elements
+     */
+    public abstract long countPrefix(final String key, final String prefix);
+
+    /**
+     * Get all elements which have the property ordered by its value with Gremlin orderability semantics. Only
+     * supported by {@link TinkerIndexType#SORTED} indices.
+     * @param key property key
+     * @param descending determines if elements are returned in descending rather than ascending order
+     * @return iterator of elements
+     */
+    public abstract Iterator<T> getOrdered(final String key, final boolean descending);
+
+    /**
+     * Get list of elements which may have a {@code String} property value matching a {@code TextP} predicate. Only
+     * supported by {@link TinkerIndexType#TEXT} indices and only for the {@code containing}, {@code startingWith},
+     * {@code endingWith} and {@code regex} predicates. The elements returned are a superset of those that match, so
+     * results still need to be filtered with the actual predicate.
+     * @param key property key
+     * @param predicate the {@link Text} or {@link Text.RegexPredicate} of the lookup
+     * @param value the value the predicate tests against
+     * @return list of elements or {@code null} if the index cannot narrow down the elements for the predicate
+     */
+    public abstract List<T> getText(final String key, final BiPredicate<?, ?> predicate, final String value);
+
+    /**
+     * Ranks the elements which have any of the tokens of a full text query in a {@code String} property value. Only
+     * supported by {@link TinkerIndexType#TEXT} indices.
+     * @param key property key
+     * @param query the text to search for
+     * @param stem determines if the tokens of the query also match tokens with the same stem
+     * @return the matching elements with their BM25 score, which is higher the better they match
+     */
+    public abstract Map<T, Double> search(final String key, final String query, final boolean stem);
+
+    /**
+     * Get list of elements indexed by a composite index with the desired values.
+     * @param compositeKey the composite index
+     * @param values property values in the order of the keys of the composite index
+     * @return list of elements
+     */
+    public abstract List<T> get(final CompositeKey compositeKey, final List<Object> values);
+
+    /**
+     * Get count of elements indexed by a composite index with the desired values.
+     * @param compositeKey the composite index
+     * @param values property values in the order of the keys of the composite index
+     * @return count of elements
+     */
+    public abstract long count(final CompositeKey compositeKey, final List<Object> values);
+
     /**
      * Remove elements with some property from index.
      * Convenient to use when removed only one property of an element.
@@ -85,10 +206,19 @@ public abstract class AbstractTinkerIndex<T extends Element> {
     public abstract void autoUpdate(final String key, final Object newValue, final Object oldValue, final T element);
 
     /**
-     * Create new index
+     * Create new {@link TinkerIndexType#HASH} index
+     * @param key property key
+     */
+    public void createKeyIndex(final String key) {
+        createKeyIndex(key, TinkerIndexType.HASH);
+    }
+
+    /**
+     * Create new index of the specified type. An existing index on the key of a different type is rebuilt.
      * @param key property key
+     * @param indexType type of index
      */
-    public abstract void createKeyIndex(final String key);
+    public abstract void createKeyIndex(final String key, final TinkerIndexType indexType);
 
     /**
      * Drop index
@@ -96,6 +226,26 @@ public abstract class AbstractTinkerIndex<T extends Element> {
      */
     public abstract void dropKeyIndex(final String key);
 
+    /**
+     * Create new composite index
+     * @param compositeKey the label and property keys to index
+     */
+    public abstract void createCompositeKeyIndex(final CompositeKey compositeKey);
+
+    /**
+     * Drop composite index
+     * @param compositeKey the label and property keys of the index
+     */
+    public abstract void dropCompositeKeyIndex(final CompositeKey compositeKey);
+
+    /**
+     * Get all composite indices for Graph
+     * @return set of composite index keys
+     */
+    public Set<CompositeKey> getCompositeKeys() {
+        return compositeKeys;
+    }
+
     /**
      * Get all index keys for Graph
      * @return set of index keys
@@ -104,6 +254,177 @@ public abstract class AbstractTinkerIndex<T extends Element> {
         return indexedKeys;
     }
 
+    /**
+     * Get the type of index for the key.
+     * @param key property key
+     * @return type of the index or {@code null} if the key is not indexed
+     */
+    public TinkerIndexType getIndexType(final String key) {
+        return indexedKeys.contains(key) ? indexTypes.getOrDefault(key, TinkerIndexType.HASH) : null;
+    }
+
+    protected boolean isSorted(final String key) {
+        return indexTypes.get(key) == TinkerIndexType.SORTED;
+    }
+
+    /**
+     * Creates the value map for a key appropriate to its index type.
+     */
+    protected <V> Map<Object, V> createKeyMap(final String key) {
+        return isSorted(key) ? new ConcurrentSkipListMap<>(SORTED_INDEX_COMPARATOR) : new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the entries of a sorted key map with keys between the bounds in ascending order, stopping at the first
+     * key that is not of the same type as the bounds.
+     */
+    protected static <V> List<Map.Entry<Object, V>> rangeOf(final Map<Object, V> keyMap, final Object from, final boolean fromInclusive,
+                                         final Object to, final boolean toInclusive) {
+        final List<Map.Entry<Object, V>> entries = new ArrayList<>();
+        final NavigableMap<Object, V> subMap = subMapOf(keyMap, from, fromInclusive, to, toInclusive);
+        if (null == subMap)
+            return entries;
+
+        final GremlinValueComparator.Type type = GremlinValueComparator.Type.type(null == from ? to : from);
+        for (final Map.Entry<Object, V> entry : subMap.entrySet()) {
+            if (GremlinValueComparator.Type.type(unindexable(entry.getKey())) != type)
+                break;
+            entries.add(entry);
+        }
+
+        if (null == from)
+            Collections.reverse(entries);
+        return entries;
+    }
+
+    /**
+     * Sums the sizes of the values of a sorted key map with keys between the bounds, walking the same entries as
+     * {@link #rangeOf(Map, Object, boolean, Object, boolean)} without collecting them.
+     */
+    protected static <V extends Collection<?>> long sizeOfRange(final Map<Object, V> keyMap, final Object from, final boolean fromInclusive,
+                                                                final Object to, final boolean toInclusive) {
+        final NavigableMap<Object, V> subMap = subMapOf(keyMap, from, fromInclusive, to, toInclusive);
+        if (null == subMap)
+            return 0;
+
+        final GremlinValueComparator.Type type = GremlinValueComparator.Type.type(null == from ? to : from);
+        long size = 0;
+        for (final Map.Entry<Object, V> entry : subMap.entrySet()) {
+            if (GremlinValueComparator.Type.type(unindexable(entry.getKey())) != type)
+                break;
+            size += entry.getValue().size();
+        }
+        return size;
+    }
+
+    /**
+     * Gets the view of a sorted key map with keys between the bounds, which is descending when there is only an upper
+     * bound, or {@code null} if no key can be within them.
+     */
+    private static <V> NavigableMap<Object, V> subMapOf(final Map<Object, V> keyMap, final Object from, final boolean fromInclusive,
+                                                        final Object to, final boolean toInclusive) {
+        if (!(keyMap instanceof NavigableMap) || (null == from && null == to))
+            return null;
+
+        final NavigableMap<Object, V> sortedMap = (NavigableMap<Object, V>) keyMap;
+        if (null != from && null != to) {
+            final int c = SORTED_INDEX_COMPARATOR.compare(from, to);
+            if (c > 0 || (c == 0 && !(fromInclusive && toInclusive)))
+                return null;
+            return sortedMap.subMap(from, fromInclusive, to, toInclusive);
+        } else if (null != from) {
+            return sortedMap.tailMap(from, fromInclusive);
+        } else {
+            // walk away from the bound so that iteration stops once the type changes
+            return sortedMap.headMap(to, toInclusive).descendingMap();
+        }
+    }
+
+    /**
+     * Gets the entries of a sorted key map with {@code String} keys starting with the prefix in ascending order.
+     */
+    protected static <V> List<Map.Entry<Object, V>> prefixOf(final Map<Object, V> keyMap, final String prefix) {
+        final List<Map.Entry<Object, V>> entries = new ArrayList<>();
+        if (!(keyMap instanceof NavigableMap))
+            return entries;
+
+        for (final Map.Entry<Object, V> entry : ((NavigableMap<Object, V>) keyMap).tailMap(prefix, true).entrySet()) {
+            if (!(entry.getKey() instanceof String) || !((String) entry.getKey()).startsWith(prefix))
+                break;
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Sums the sizes of the values of a sorted key map with {@code String} keys starting with the prefix without
+     * collecting the entries.
+     */
+    protected static <V extends Collection<?>> long sizeOfPrefix(final Map<Object, V> keyMap, final String prefix) {
+        if (!(keyMap instanceof NavigableMap))
+            return 0;
+
+        long size = 0;
+        for (final Map.Entry<Object, V> entry : ((NavigableMap<Object, V>) keyMap).tailMap(prefix, true).entrySet()) {
+            if (!(entry.getKey() instanceof String) || !((String) entry.getKey()).startsWith(prefix))
+                break;
+            size += entry.getValue().size();
+        }
+        return size;
+    }
+
+    /**
+     * Gets the value combinations an element is indexed under in a composite index, which is empty if the element
+     * does not have the label or is missing any of the keys. A vertex with multiple values for a key is indexed
+     * under each of them.
+     */
+    protected static List<List<Object>> compositeValuesOf(final Element element, final CompositeKey compositeKey) {
+        return compositeValuesOf(element.label(), key -> element.properties(key), compositeKey);
+    }
+
+    /**
+     * Gets the value combinations an element with the specified label and properties by key is indexed under in a
+     * composite index.
+     */
+    protected static List<List<Object>> compositeValuesOf(final String label,
+                                                          final Function<String, Iterator<? extends Property<?>>> properties,
+                                                          final CompositeKey compositeKey) {
+        if (null != compositeKey.getLabel() && !compositeKey.getLabel().equals(label))
+            return Collections.emptyList();
+
+        List<List<Object>> combinations = Collections.singletonList(Collections.emptyList());
+        for (final String key : compositeKey.getKeys()) {
+            final List<Object> values = new ArrayList<>();
+            properties.apply(key).forEachRemaining(p -> {
+                if (p.isPresent()) values.add(indexable(((Property<?>) p).value()));
+            });
+            if (values.isEmpty())
+                return Collections.emptyList();
+
+            final List<List<Object>> next = new ArrayList<>(combinations.size() * values.size());
+            for (final List<Object> combination : combinations) {
+                for (final Object value : values) {
+                    final List<Object> extended = new ArrayList<>(combination);
+                    extended.add(value);
+                    next.add(extended);
+                }
+            }
+            combinations = next;
+        }
+        return combinations;
+    }
+
+    /**
+     * Converts the values of a lookup into the form in which they are stored in a composite index.
+     */
+    protected static List<Object> compositeValues(final List<Object> values) {
+        final List<Object> indexable = new ArrayList<>(values.size());
+        for (final Object value : values) {
+            indexable.add(indexable(value));
+        }
+        return indexable;
+    }
+
     /**
      * Provides a way for an index to have a {@code null} value as {@code ConcurrentHashMap} will not allow a
      * {@code null} key.
@@ -112,6 +433,13 @@ public abstract class AbstractTinkerIndex<T extends Element> {
         return null == obj ? IndexedNull.instance() : obj;
     }
 
+    /**
+     * Reverses {@link #indexable(Object)}.
+     */
+    public static Object unindexable(final Object obj) {
+        return obj instanceof IndexedNull ? null : obj;
+    }
+
     public static final class IndexedNull {
         private static final IndexedNull inst = new IndexedNull();
 
@@ -131,4 +459,55 @@ public abstract class AbstractTinkerIndex<T extends Element> {
             return o instanceof IndexedNull;
         }
     }
+
+    /**
+     * Identifies a composite index by an optional element label and an ordered list of property keys. An element is
+     * indexed when it has the label, if one is given, and all of the keys.
+     */
+    public static final class CompositeKey {
+        private final String label;
+        private final List<String> keys;
+
+        public CompositeKey(final String label, final List<String> keys) {
+            if (null == keys || keys.isEmpty())
+                throw new IllegalArgumentException("A composite index requires at least one key");
+            for (final String key : keys) {
+                if (null == key)
+                    throw Graph.Exceptions.argumentCanNotBeNull("key");
+                if (key.isEmpty())
+                    throw new IllegalArgumentException("The key for the index cannot be an empty string");
+            }
+            this.label = label;
+            this.keys = Collections.unmodifiableList(new ArrayList<>(keys));
+        }
+
+        /**
+         * The label of the indexed elements or {@code null} if elements of any label are indexed.
+         */
+        public String getLabel() {
+            return label;
+        }
+
+        public List<String> getKeys() {
+            return keys;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CompositeKey)) return false;
+            final CompositeKey that = (CompositeKey) o;
+            return Objects.equals(label, that.label) && keys.equals(that.keys);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(label, keys);
+        }
+
+        @Override
+        public String toString() {
+            return (null == label ? "" : label) + keys;
+        }
+    }
 }
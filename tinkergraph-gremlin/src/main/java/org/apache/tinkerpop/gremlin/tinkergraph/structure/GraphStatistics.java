@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Element;
+
+/**
+ * Cardinality statistics of a graph that traversal strategies and steps can use to estimate how many elements a
+ * filter lets through. The statistics only rely on Gremlin types so that strategies using them do not depend on how
+ * a graph keeps its elements or its indices.
+ * <p/>
+ * The interface is kept with TinkerGraph rather than in gremlin-core as only the TinkerGraph strategies use it and
+ * estimates keyed by {@link HasContainer} are not yet something other providers have been asked to offer. It can move
+ * to gremlin-core as it is once another graph wants to share the strategies built on it.
+ */
+public interface GraphStatistics {
+
+    /**
+     * Gets the number of elements of the class, which is either {@code Vertex} or {@code Edge}.
+     */
+    public long count(final Class<? extends Element> elementClass);
+
+    /**
+     * Gets the number of elements of the class with the label.
+     */
+    public long count(final Class<? extends Element> elementClass, final String label);
+
+    /**
+     * Estimates the number of elements of the class that match the {@link HasContainer}.
+     *
+     * @return the estimate or {@code -1} if the statistics can't tell for the key and predicate
+     */
+    public long estimate(final Class<? extends Element> elementClass, final HasContainer hasContainer);
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import java.util.Arrays;
+
+/**
+ * The edges of a {@link TinkerVertex} in one direction grouped by label into plain arrays. Compared to a
+ * {@code HashMap} of {@code HashSet} this costs a single array slot per edge rather than a hash table entry, which
+ * is what dominates the heap of graphs with many edges.
+ */
+final class TinkerAdjacency {
+
+    private static final String[] NO_LABELS = new String[0];
+    private static final Edge[][] NO_EDGES = new Edge[0][];
+    private static final int[] NO_SIZES = new int[0];
+
+    private String[] labels = NO_LABELS;
+    private Edge[][] edges = NO_EDGES;
+    private int[] sizes = NO_SIZES;
+
+    void add(final String label, final Edge edge) {
+        int i = indexOf(label);
+        if (i < 0) {
+            i = labels.length;
+            labels = Arrays.copyOf(labels, i + 1);
+            edges = Arrays.copyOf(edges, i + 1);
+            sizes = Arrays.copyOf(sizes, i + 1);
+            labels[i] = label;
+            edges[i] = new Edge[1];
+        } else if (sizes[i] == edges[i].length) {
+            // most vertices have few edges so grow slowly to keep the slack small
+            edges[i] = Arrays.copyOf(edges[i], sizes[i] + (sizes[i] >> 1) + 1);
+        }
+        edges[i][sizes[i]++] = edge;
+    }
+
+    /**
+     * Adds the edges of the range to the label, growing its array once to fit them exactly.
+     */
+    void addAll(final String label, final Edge[] source, final int from, final int to) {
+        int i = indexOf(label);
+        if (i < 0) {
+            i = labels.length;
+            labels = Arrays.copyOf(labels, i + 1);
+            edges = Arrays.copyOf(edges, i + 1);
+            sizes = Arrays.copyOf(sizes, i + 1);
+            labels[i] = label;
+            edges[i] = new Edge[to - from];
+        } else if (sizes[i] + to - from > edges[i].length) {
+            edges[i] = Arrays.copyOf(edges[i], sizes[i] + to - from);
+        }
+        System.arraycopy(source, from, edges[i], sizes[i], to - from);
+        sizes[i] += to - from;
+    }
+
+    /**
+     * Removes the edge by swapping the last edge of the label into its place as the order of edges is not kept.
+     */
+    boolean remove(final String label, final Edge edge) {
+        final int i = indexOf(label);
+        if (i < 0) return false;
+
+        final Edge[] labeled = edges[i];
+        for (int j = 0; j < sizes[i]; j++) {
+            if (labeled[j] == edge) {
+                labeled[j] = labeled[--sizes[i]];
+                labeled[sizes[i]] = null;
+                if (0 == sizes[i])
+                    removeLabel(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of edges with any of the labels or all edges if no labels are given.
+     */
+    int size(final String... edgeLabels) {
+        int size = 0;
+        if (edgeLabels.length == 0) {
+            for (final int s : sizes) {
+                size += s;
+            }
+        } else {
+            for (final String label : edgeLabels) {
+                final int i = indexOf(label);
+                if (i >= 0) size += sizes[i];
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Copies the edges with any of the labels, or the adjacent vertex of each of those edges, into the target.
+     *
+     * @param out the edges are outgoing so the adjacent vertex is the in-vertex, only used if {@code vertices}
+     * @return the offset following the last copied element
+     */
+    int copyTo(final Object[] target, final int offset, final boolean vertices, final boolean out, final String... edgeLabels) {
+        int position = offset;
+        if (edgeLabels.length == 0) {
+            for (int i = 0; i < labels.length; i++) {
+                position = copyTo(i, target, position, vertices, out);
+            }
+        } else {
+            for (final String label : edgeLabels) {
+                final int i = indexOf(label);
+                if (i >= 0) position = copyTo(i, target, position, vertices, out);
+            }
+        }
+        return position;
+    }
+
+    private int copyTo(final int i, final Object[] target, final int offset, final boolean vertices, final boolean out) {
+        final Edge[] labeled = edges[i];
+        final int size = sizes[i];
+        if (!vertices) {
+            System.arraycopy(labeled, 0, target, offset, size);
+        } else {
+            for (int j = 0; j < size; j++) {
+                final TinkerEdge edge = (TinkerEdge) labeled[j];
+                target[offset + j] = out ? edge.inVertex : edge.outVertex;
+            }
+        }
+        return offset + size;
+    }
+
+    private int indexOf(final String label) {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equals(label)) return i;
+        }
+        return -1;
+    }
+
+    private void removeLabel(final int i) {
+        final int last = labels.length - 1;
+        labels[i] = labels[last];
+        edges[i] = edges[last];
+        sizes[i] = sizes[last];
+        labels = 0 == last ? NO_LABELS : Arrays.copyOf(labels, last);
+        edges = 0 == last ? NO_EDGES : Arrays.copyOf(edges, last);
+        sizes = 0 == last ? NO_SIZES : Arrays.copyOf(sizes, last);
+    }
+}
@@ -0,0 +1,396 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.GraphReader;
+import org.apache.tinkerpop.gremlin.structure.util.Attachable;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Adds vertices and edges to a {@link TinkerGraph} by copying them from other elements, such as the
+ * {@link org.apache.tinkerpop.gremlin.structure.util.star.StarGraph} vertices read by a {@link GraphReader} or
+ * detached elements, without the checks and index updates that {@link Graph#addVertex(Object...)} and
+ * {@link Vertex#addEdge(String, Vertex, Object...)} make for every element and property.
+ * <p/>
+ * Loaded elements are in the graph right away but the indices and the adjacency of vertices are only built once the
+ * loader is closed, all at once and sized for the loaded edges. Until then the edges of loaded vertices cannot be
+ * traversed and the graph should not be changed other than by the loader.
+ * <p/>
+ * The ids of vertices are kept so that loaded edges can refer to them, while the ids of edges and vertex properties
+ * are only kept if the graph allows them like {@link GraphReader#readGraph(InputStream, Graph)} does.
+ * <pre>
+ * try (final TinkerBulkLoader loader = graph.bulkLoader()) {
+ *     loader.addVertices(vertices).addEdges(edges);
+ * }
+ * </pre>
+ */
+public final class TinkerBulkLoader implements AutoCloseable {
+
+    private final TinkerGraph graph;
+    private final ArrayList<TinkerVertex> loadedVertices = new ArrayList<>();
+    private final ArrayList<TinkerEdge> loadedEdges = new ArrayList<>();
+
+    /**
+     * The number of loaded edges of each vertex in each direction, so that its adjacency can be sized for them.
+     */
+    private final Map<TinkerVertex, int[]> outDegrees = new IdentityHashMap<>();
+    private final Map<TinkerVertex, int[]> inDegrees = new IdentityHashMap<>();
+
+    private String lastLabel = null;
+    private Set<Vertex> lastLabeled = null;
+    private boolean closed = false;
+
+    TinkerBulkLoader(final TinkerGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Gets a {@link GraphReader} that reads graphs into a {@link TinkerGraph} with a {@link TinkerBulkLoader}, for
+     * instance from the {@code io()} step by way of {@code with(IO.reader, reader)}. The given reader, which must
+     * support {@link GraphReader#readVertices(InputStream, Function, Function, Direction)} as {@code gryo} and
+     * {@code graphson} do, reads the vertices and does all other reads as well as reading graphs into other graphs.
+     */
+    public static GraphReader reader(final GraphReader reader) {
+        return new BulkGraphReader(reader);
+    }
+
+    /**
+     * Adds copies of the vertices along with their properties and meta-properties.
+     *
+     * @throws IllegalArgumentException if the id of a vertex is not allowed by the vertex id manager of the graph or
+     * a vertex with the id is already in the graph
+     */
+    public TinkerBulkLoader addVertices(final Stream<? extends Vertex> vertices) {
+        checkOpen();
+        vertices.forEachOrdered(this::addVertex);
+        return this;
+    }
+
+    /**
+     * Adds copies of the vertices along with their properties and meta-properties.
+     *
+     * @see #addVertices(Stream)
+     */
+    public TinkerBulkLoader addVertices(final Vertex... vertices) {
+        checkOpen();
+        loadedVertices.ensureCapacity(loadedVertices.size() + vertices.length);
+        for (final Vertex vertex : vertices) {
+            addVertex(vertex);
+        }
+        return this;
+    }
+
+    /**
+     * Adds copies of the edges along with their properties between the vertices of the graph with the ids of their
+     * vertices, which may have been added by this loader or have been in the graph already.
+     *
+     * @throws IllegalStateException if a vertex of an edge is not in the graph
+     * @throws IllegalArgumentException if an edge with the id of an edge is already in the graph
+     */
+    public TinkerBulkLoader addEdges(final Stream<? extends Edge> edges) {
+        checkOpen();
+        edges.forEachOrdered(this::addEdge);
+        return this;
+    }
+
+    /**
+     * Adds copies of the edges along with their properties.
+     *
+     * @see #addEdges(Stream)
+     */
+    public TinkerBulkLoader addEdges(final Edge... edges) {
+        checkOpen();
+        loadedEdges.ensureCapacity(loadedEdges.size() + edges.length);
+        for (final Edge edge : edges) {
+            addEdge(edge);
+        }
+        return this;
+    }
+
+    /**
+     * Reads a graph written by the {@link org.apache.tinkerpop.gremlin.structure.io.GraphWriter} of the reader and adds
+     * its vertices and edges.
+     */
+    public TinkerBulkLoader readGraph(final GraphReader reader, final InputStream inputStream) throws IOException {
+        checkOpen();
+        // edges are added once all vertices are so that they can be found, and as the readers of the graph do, the
+        // edges are taken from their in-vertices
+        final List<Vertex> starVertices = new ArrayList<>();
+        final Iterator<Vertex> vertices = reader.readVertices(inputStream, Attachable::get, null, Direction.IN);
+        while (vertices.hasNext()) {
+            final Vertex starVertex = vertices.next();
+            addVertex(starVertex);
+            starVertices.add(starVertex);
+        }
+        for (final Vertex starVertex : starVertices) {
+            starVertex.edges(Direction.IN).forEachRemaining(this::addEdge);
+        }
+        return this;
+    }
+
+    /**
+     * Builds the indices and the adjacency of vertices for the loaded elements.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+
+        if (!loadedEdges.isEmpty()) {
+            final TinkerEdge[] edges = loadedEdges.toArray(new TinkerEdge[loadedEdges.size()]);
+            addAdjacency(edges, Direction.OUT, outDegrees, e -> e.outVertex);
+            addAdjacency(edges, Direction.IN, inDegrees, e -> e.inVertex);
+        }
+        if (null != graph.vertexIndex)
+            ((TinkerIndex<TinkerVertex>) graph.vertexIndex).addAll(loadedVertices);
+        if (null != graph.edgeIndex)
+            ((TinkerIndex<TinkerEdge>) graph.edgeIndex).addAll(loadedEdges);
+
+        loadedVertices.clear();
+        loadedEdges.clear();
+        outDegrees.clear();
+        inDegrees.clear();
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("The bulk loader is closed");
+    }
+
+    private void addVertex(final Vertex source) {
+        final Object id = null == source.id() ?
+                graph.vertexIdManager.getNextId(graph) :
+                graph.vertexIdManager.convert(source.id());
+        final String label = source.label();
+        final TinkerVertex vertex = new TinkerVertex(id, label, graph);
+
+        final Iterator<VertexProperty<Object>> properties = source.properties();
+        while (properties.hasNext()) {
+            final VertexProperty<Object> property = properties.next();
+            if (null == property.value() && !graph.allowNullPropertyValues) continue;
+
+            // values are kept by the cardinality of the graph like they are when a graph is read
+            if (null == vertex.properties) vertex.properties = TinkerPropertyMap.create(graph, ConcurrentHashMap::new);
+            List<VertexProperty> list = vertex.properties.get(property.key());
+            if (null != list) {
+                final VertexProperty.Cardinality cardinality = graph.features().vertex().getCardinality(property.key());
+                if (VertexProperty.Cardinality.single == cardinality)
+                    list.clear();
+                else if (VertexProperty.Cardinality.set == cardinality && list.stream().anyMatch(vp -> Objects.equals(vp.value(), property.value())))
+                    continue;
+            }
+
+            final Object propertyId = graph.features().vertex().properties().willAllowId(property.id()) ?
+                    graph.vertexPropertyIdManager.convert(property.id()) :
+                    graph.vertexPropertyIdManager.getNextId(graph);
+            final TinkerVertexProperty<Object> vertexProperty = new TinkerVertexProperty<>(propertyId, vertex, property.key(), property.value());
+            final Iterator<Property<Object>> metaProperties = property.properties();
+            while (metaProperties.hasNext()) {
+                final Property<Object> metaProperty = metaProperties.next();
+                if (null == metaProperty.value() && !graph.allowNullPropertyValues) continue;
+                if (null == vertexProperty.properties)
+                    vertexProperty.properties = TinkerPropertyMap.create(graph, HashMap::new);
+                vertexProperty.properties.put(metaProperty.key(), new TinkerProperty<>(vertexProperty, metaProperty.key(), metaProperty.value()));
+            }
+
+            if (null == list) {
+                list = new ArrayList<>(1);
+                vertex.properties.put(vertexProperty.key(), list);
+            }
+            list.add(vertexProperty);
+        }
+
+        if (null != graph.vertices.putIfAbsent(id, vertex))
+            throw Graph.Exceptions.vertexWithIdAlreadyExists(id);
+        if (!label.equals(lastLabel)) {
+            lastLabel = label;
+            lastLabeled = graph.vertexLabels.computeIfAbsent(label, k -> ConcurrentHashMap.newKeySet());
+        }
+        lastLabeled.add(vertex);
+        loadedVertices.add(vertex);
+        if (null != graph.mutationLog) graph.mutationLog.logVertex(vertex);
+    }
+
+    private void addEdge(final Edge source) {
+        final TinkerVertex outVertex = vertexOf(source.outVertex(), source);
+        final TinkerVertex inVertex = vertexOf(source.inVertex(), source);
+        ElementHelper.validateLabel(source.label());
+
+        final Object id = graph.features().edge().willAllowId(source.id()) ?
+                graph.edgeIdManager.convert(source.id()) :
+                graph.edgeIdManager.getNextId(graph);
+        final TinkerEdge edge = new TinkerEdge(id, outVertex, graph.edgeLabel(source.label()), inVertex);
+
+        final Iterator<Property<Object>> properties = source.properties();
+        while (properties.hasNext()) {
+            final Property<Object> property = properties.next();
+            if (null == property.value() && !graph.allowNullPropertyValues) continue;
+            if (null == edge.properties) edge.properties = TinkerPropertyMap.create(graph, ConcurrentHashMap::new);
+            edge.properties.put(property.key(), new TinkerProperty<>(edge, property.key(), property.value()));
+        }
+
+        if (null != graph.edges.putIfAbsent(id, edge))
+            throw Graph.Exceptions.edgeWithIdAlreadyExists(id);
+        graph.edgeLabels.computeIfAbsent(edge.label, k -> ConcurrentHashMap.newKeySet()).add(edge);
+        loadedEdges.add(edge);
+        outDegrees.computeIfAbsent(outVertex, k -> new int[2])[0]++;
+        inDegrees.computeIfAbsent(inVertex, k -> new int[2])[0]++;
+        if (null != graph.mutationLog) graph.mutationLog.logEdge(edge);
+    }
+
+    private TinkerVertex vertexOf(final Vertex adjacent, final Edge source) {
+        final Object id = graph.vertexIdManager.convert(adjacent.id());
+        final TinkerVertex vertex = null == id ? null : (TinkerVertex) graph.vertices.get(id);
+        if (null == vertex)
+            throw new IllegalStateException(String.format("Could not find vertex with id [%s] to create edge with id [%s]", adjacent.id(), source.id()));
+        return vertex;
+    }
+
+    /**
+     * Adds the edges to the adjacency of their vertices in the direction, all edges of a vertex and label at once. The
+     * edges are grouped by vertex with a counting sort based on the degrees counted while loading and the edges of a
+     * vertex are only sorted by label if they have more than one.
+     */
+    private void addAdjacency(final TinkerEdge[] edges, final Direction direction, final Map<TinkerVertex, int[]> degrees,
+                              final Function<TinkerEdge, Vertex> vertexOf) {
+        // the second slot of each degree becomes the offset of the edges of the vertex
+        int offset = 0;
+        for (final int[] degree : degrees.values()) {
+            degree[1] = offset;
+            offset += degree[0];
+        }
+        final TinkerEdge[] grouped = new TinkerEdge[edges.length];
+        for (final TinkerEdge edge : edges) {
+            grouped[degrees.get(vertexOf.apply(edge))[1]++] = edge;
+        }
+
+        for (final Map.Entry<TinkerVertex, int[]> entry : degrees.entrySet()) {
+            final int to = entry.getValue()[1];
+            int from = to - entry.getValue()[0];
+            if (!allLabeled(grouped, from, to))
+                Arrays.sort(grouped, from, to, Comparator.comparing((TinkerEdge e) -> e.label));
+            for (int i = from + 1; i <= to; i++) {
+                if (i == to || !grouped[i].label.equals(grouped[from].label)) {
+                    graph.addEdges(entry.getKey(), direction, grouped[from].label, grouped, from, i);
+                    from = i;
+                }
+            }
+        }
+    }
+
+    private static boolean allLabeled(final TinkerEdge[] edges, final int from, final int to) {
+        for (int i = from + 1; i < to; i++) {
+            if (!edges[i].label.equals(edges[from].label)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads graphs into a {@link TinkerGraph} with a {@link TinkerBulkLoader} and delegates everything else.
+     */
+    private static final class BulkGraphReader implements GraphReader {
+
+        private final GraphReader reader;
+
+        private BulkGraphReader(final GraphReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public void readGraph(final InputStream inputStream, final Graph graphToWriteTo) throws IOException {
+            if (!(graphToWriteTo instanceof TinkerGraph)) {
+                reader.readGraph(inputStream, graphToWriteTo);
+                return;
+            }
+
+            try (final TinkerBulkLoader loader = ((TinkerGraph) graphToWriteTo).bulkLoader()) {
+                loader.readGraph(reader, inputStream);
+            }
+        }
+
+        @Override
+        public Optional<Vertex> readVertex(final InputStream inputStream, final GraphFilter graphFilter) throws IOException {
+            return reader.readVertex(inputStream, graphFilter);
+        }
+
+        @Override
+        public Vertex readVertex(final InputStream inputStream, final Function<Attachable<Vertex>, Vertex> vertexAttachMethod) throws IOException {
+            return reader.readVertex(inputStream, vertexAttachMethod);
+        }
+
+        @Override
+        public Vertex readVertex(final InputStream inputStream, final Function<Attachable<Vertex>, Vertex> vertexAttachMethod,
+                                 final Function<Attachable<Edge>, Edge> edgeAttachMethod,
+                                 final Direction attachEdgesOfThisDirection) throws IOException {
+            return reader.readVertex(inputStream, vertexAttachMethod, edgeAttachMethod, attachEdgesOfThisDirection);
+        }
+
+        @Override
+        public Iterator<Vertex> readVertices(final InputStream inputStream, final Function<Attachable<Vertex>, Vertex> vertexAttachMethod,
+                                             final Function<Attachable<Edge>, Edge> edgeAttachMethod,
+                                             final Direction attachEdgesOfThisDirection) throws IOException {
+            return reader.readVertices(inputStream, vertexAttachMethod, edgeAttachMethod, attachEdgesOfThisDirection);
+        }
+
+        @Override
+        public Edge readEdge(final InputStream inputStream, final Function<Attachable<Edge>, Edge> edgeAttachMethod) throws IOException {
+            return reader.readEdge(inputStream, edgeAttachMethod);
+        }
+
+        @Override
+        public VertexProperty readVertexProperty(final InputStream inputStream,
+                                                 final Function<Attachable<VertexProperty>, VertexProperty> vertexPropertyAttachMethod) throws IOException {
+            return reader.readVertexProperty(inputStream, vertexPropertyAttachMethod);
+        }
+
+        @Override
+        public Property readProperty(final InputStream inputStream,
+                                     final Function<Attachable<Property>, Property> propertyAttachMethod) throws IOException {
+            return reader.readProperty(inputStream, propertyAttachMethod);
+        }
+
+        @Override
+        public <C> C readObject(final InputStream inputStream, final Class<? extends C> clazz) throws IOException {
+            return reader.readObject(inputStream, clazz);
+        }
+    }
+}
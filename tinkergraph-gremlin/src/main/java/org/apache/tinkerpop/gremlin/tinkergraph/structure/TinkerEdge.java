@@ -26,14 +26,15 @@ import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.util.iterator.ArrayIterator;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -75,43 +76,78 @@ public final class TinkerEdge extends TinkerElement implements Edge {
             TinkerIndexHelper.autoUpdateIndex(this, T.label.getAccessor(), this.label, null);
     }
 
+    /**
+     * Gets the state of this edge that the current transaction reads. The edges of {@link TinkerTransactionGraph}
+     * are shared by the transactions that read them, so the state is looked up for the transaction and an edge that
+     * it does not see is treated as removed.
+     */
+    TinkerEdge visible() {
+        if (!isTxMode) return this;
+        final TinkerEdge edge = graph.visible(this);
+        return null == edge ? removedCopy() : edge;
+    }
+
+    /**
+     * Gets the state of this edge that the current transaction changes, which is a copy of the shared state that is
+     * made the first time the transaction changes the edge.
+     */
+    TinkerEdge writable() {
+        if (!isTxMode) return this;
+        final TinkerEdge edge = graph.touch(this);
+        return null == edge ? removedCopy() : edge;
+    }
+
+    private TinkerEdge removedCopy() {
+        final TinkerEdge edge = new TinkerEdge(id, graph, outVertexId, label, inVertexId, currentVersion, true);
+        edge.removed = true;
+        return edge;
+    }
+
     @Override
     public <V> Property<V> property(final String key, final V value) {
-        graph.touch(this);
+        final TinkerEdge self = writable();
 
-        if (this.removed) throw elementAlreadyRemoved(Edge.class, id);
+        if (self.removed) throw elementAlreadyRemoved(Edge.class, id);
         ElementHelper.validateProperty(key, value);
 
         if (!allowNullPropertyValues && null == value) {
-            properties(key).forEachRemaining(Property::remove);
+            self.properties(key).forEachRemaining(Property::remove);
             return Property.empty();
         }
 
-        final Property oldProperty = super.property(key);
-        final Property<V> newProperty = new TinkerProperty<>(this, key, value);
-        if (null == this.properties) this.properties = new ConcurrentHashMap<>();
-        this.properties.put(key, newProperty);
-        TinkerIndexHelper.autoUpdateIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
+        final Property oldProperty = self.property(key);
+        final Property<V> newProperty = new TinkerProperty<>(self, key, value);
+        if (null == self.properties) self.properties = TinkerPropertyMap.create(graph, ConcurrentHashMap::new);
+        self.properties.put(key, newProperty);
+        final Object oldValue = oldProperty.isPresent() ? oldProperty.value() : null;
+        if (oldProperty.isPresent())
+            ((TinkerProperty<?>) oldProperty).release();
+        TinkerIndexHelper.autoUpdateIndex(self, key, value, oldValue);
+        TinkerMutationLog.logEdgeProperty(self, newProperty);
         return newProperty;
     }
 
     @Override
     public <V> Property<V> property(final String key) {
-        return null == this.properties ? Property.<V>empty() : this.properties.getOrDefault(key, Property.<V>empty());
+        final TinkerEdge self = visible();
+        return null == self.properties ? Property.<V>empty() : self.properties.getOrDefault(key, Property.<V>empty());
     }
 
     @Override
     public Set<String> keys() {
-        return null == this.properties ? Collections.emptySet() : this.properties.keySet();
+        final TinkerEdge self = visible();
+        return null == self.properties ? Collections.emptySet() : self.properties.keySet();
     }
 
     @Override
     public void remove() {
-        graph.touch(this);
-        TinkerIndexHelper.removeElementIndex(this);
+        final TinkerEdge self = writable();
+        TinkerIndexHelper.removeElementIndex(self);
         graph.removeEdge(this.id());
-        this.properties = null;
-        this.removed = true;
+        if (null != self.properties)
+            self.properties.values().forEach(p -> ((TinkerProperty<?>) p).release());
+        self.properties = null;
+        self.removed = true;
     }
 
     @Override
@@ -152,7 +188,7 @@ public final class TinkerEdge extends TinkerElement implements Edge {
 
     @Override
     public Iterator<Vertex> vertices(final Direction direction) {
-        if (removed) return Collections.emptyIterator();
+        if (visible().removed) return Collections.emptyIterator();
         switch (direction) {
             case OUT:
                 return IteratorUtils.of(this.outVertex());
@@ -170,13 +206,23 @@ public final class TinkerEdge extends TinkerElement implements Edge {
 
     @Override
     public <V> Iterator<Property<V>> properties(final String... propertyKeys) {
-        if (null == this.properties) return Collections.emptyIterator();
+        final TinkerEdge self = visible();
+        if (null == self.properties) return Collections.emptyIterator();
         if (propertyKeys.length == 1) {
             if (null == propertyKeys[0])
                 return Collections.emptyIterator();
-            final Property<V> property = this.properties.get(propertyKeys[0]);
+            final Property<V> property = self.properties.get(propertyKeys[0]);
             return null == property ? Collections.emptyIterator() : IteratorUtils.of(property);
-        } else
-            return (Iterator) this.properties.entrySet().stream().filter(entry -> ElementHelper.keyExists(entry.getKey(), propertyKeys)).map(entry -> entry.getValue()).collect(Collectors.toList()).iterator();
+        } else {
+            final Object[] properties = new Object[self.properties.size()];
+            int size = 0;
+            for (final Map.Entry<String, Property> entry : self.properties.entrySet()) {
+                if (size == properties.length) break;
+                if (ElementHelper.keyExists(entry.getKey(), propertyKeys)) properties[size++] = entry.getValue();
+            }
+            if (0 == size)
+                return Collections.emptyIterator();
+            return (Iterator) new ArrayIterator<>(size == properties.length ? properties : Arrays.copyOf(properties, size));
+        }
     }
 }
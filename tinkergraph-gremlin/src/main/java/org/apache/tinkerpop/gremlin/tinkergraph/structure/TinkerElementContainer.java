@@ -19,26 +19,56 @@
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * Container to store the value of an element which can be specific to each transaction.
  * Responsible for transactional operations for the element that stores.
+ * <p/>
+ * Committed values are kept as a chain of versions, newest first, so that a transaction reads the value committed
+ * when it started without locks. Versions that no transaction reads anymore are dropped by {@link #prune(long)}.
+ * A commit replaces the latest version with a compare-and-set on it, so that only one of the transactions that changed
+ * the element concurrently can commit.
  * @param <T> type of element to store.
  */
 final class TinkerElementContainer<T extends TinkerElement> {
+
+    /**
+     * Version of element that is not committed yet.
+     */
+    static final long UNCOMMITTED = 0;
+
+    /**
+     * Committed value of element and the version of the commit, where a {@code null} element marks a deletion.
+     */
+    private static final class Version<T> {
+        private final T element;
+        private final long version;
+        private volatile Version<T> previous;
+
+        private Version(final T element, final long version, final Version<T> previous) {
+            this.element = element;
+            this.version = version;
+            this.previous = previous;
+        }
+    }
+
+    private static final AtomicReferenceFieldUpdater<TinkerElementContainer, Version> HEAD =
+            AtomicReferenceFieldUpdater.newUpdater(TinkerElementContainer.class, Version.class, "head");
+
     /**
-     * Committed value of element.
+     * Latest committed version of element or {@code null} if it was never committed. The version may not be
+     * published yet, in which case it is not visible to any transaction.
      */
-    private T element;
+    private volatile Version<T> head;
     /**
      * Id of element. Used if element is removed or set to {@code null}.
      */
     private Object elementId;
     /**
-     * Used to separate deleted elements from {@code null} ones.
+     * Transaction of the graph that the element belongs to, which knows the version the current transaction reads.
      */
-    private boolean isDeleted = false;
+    private final TinkerTransaction transaction;
     /**
      * Value of elements updated in current transaction.
      */
@@ -48,11 +78,6 @@ final class TinkerElementContainer<T extends TinkerElement> {
      */
     private ThreadLocal<Boolean> isDeletedInTx = ThreadLocal.withInitial(() -> false);
 
-    /**
-     * Marker for element modified in current transaction.
-     */
-    private ThreadLocal<Boolean> isModifiedInTx = ThreadLocal.withInitial(() -> false);
-
     /**
      * Count of usages of container in different transactions.
      * Needed to understand whether this element is used in other transactions or it can be deleted during rollback.
@@ -60,43 +85,43 @@ final class TinkerElementContainer<T extends TinkerElement> {
     private AtomicInteger usesInTransactions = new AtomicInteger(0);
 
     /**
-     * Used to protect container from simultaneous modification in different transactions.
-     */
-    private final ReentrantLock lock = new ReentrantLock();
-
-    /**
-     * Constructor only requires the element id to be stored.
+     * Constructor requires the element id to be stored and the transaction of the graph.
      * @param elementId id of element to store.
+     * @param transaction transaction of the graph.
      */
-    public TinkerElementContainer(final Object elementId) {
+    public TinkerElementContainer(final Object elementId, final TinkerTransaction transaction) {
         this.elementId = elementId;
+        this.transaction = transaction;
     }
 
     /**
-     * Get transaction specific value of stored element.
+     * Get transaction specific value of stored element, which is the value changed in the current transaction or else
+     * the value committed when the transaction started. The value must not be changed unless it is the one changed in
+     * the current transaction, see {@link #touch(TinkerTransaction)}.
      */
     public T get() {
         if (isDeletedInTx.get()) return null;
-        if (transactionUpdatedValue.get() != null) return transactionUpdatedValue.get();
-        if (isDeleted) return null;
-        return element;
+        final T updatedValue = transactionUpdatedValue.get();
+        if (updatedValue != null) return updatedValue;
+        return visible(transaction.getReadVersion());
     }
 
-    public T getWithClone() {
-        if (isDeletedInTx.get()) return null;
-        if (transactionUpdatedValue.get() != null) return transactionUpdatedValue.get();
-        if (isDeleted || null == element) return null;
-
-        final T cloned = (T) element.clone();
-        transactionUpdatedValue.set(cloned);
-        return cloned;
+    /**
+     * Get the value committed at the specified version.
+     */
+    private T visible(final long readVersion) {
+        for (Version<T> v = head; v != null; v = v.previous) {
+            if (v.version <= readVersion) return v.element;
+        }
+        return null;
     }
 
     /**
      * Get current committed value of stored element.
      */
     public T getUnmodified() {
-        return element;
+        final Version<T> h = head;
+        return null == h ? null : h.element;
     }
 
     /**
@@ -117,18 +142,21 @@ final class TinkerElementContainer<T extends TinkerElement> {
      * Needed to understand if the element has changed in the current transaction
      */
     public boolean isChanged() {
-        return isDeletedInTx.get() || isModifiedInTx.get() && transactionUpdatedValue.get() != null;
+        return isDeletedInTx.get() || transactionUpdatedValue.get() != null;
     }
 
     /**
-     * Used to understand if the element has deleted in the current transaction
+     * Used to understand if the element has deleted in the current transaction or is not visible to it.
      */
-    public boolean isDeleted() { return isDeleted || isDeletedInTx.get(); }
+    public boolean isDeleted() {
+        return isDeletedInTx.get() || null == transactionUpdatedValue.get() && null == visible(transaction.getReadVersion());
+    }
 
     /**
      * Mark element as deleted in the current transaction.
      */
     public void markDeleted(final TinkerTransaction tx) {
+        tx.checkWritable();
         if (!isDeletedInTx.get()) {
             usesInTransactions.incrementAndGet();
             isDeletedInTx.set(true);
@@ -137,16 +165,22 @@ final class TinkerElementContainer<T extends TinkerElement> {
     }
 
     /**
-     * Mark element as changed in the current transaction.
-     * A copy of the element is made and set as a value in the transaction.
-     * @param transactionElement updated element
+     * Mark element as changed in the current transaction. The first time a copy of the value the transaction reads
+     * is made and set as a value in the transaction, as that value is shared with other transactions.
      * @param tx current transaction
+     * @return the value to change or {@code null} if the transaction does not see the element
      */
-    public void touch(final T transactionElement, final TinkerTransaction tx) {
-        elementId = transactionElement.id();
-        if (transactionUpdatedValue.get() == transactionElement && isModifiedInTx.get()) return;
+    public T touch(final TinkerTransaction tx) {
+        tx.checkWritable();
+        if (isDeletedInTx.get()) return null;
+        final T updatedValue = transactionUpdatedValue.get();
+        if (updatedValue != null) return updatedValue;
 
-        setDraft(transactionElement, tx);
+        final T element = visible(tx.getReadVersion());
+        if (null == element) return null;
+        final T cloned = (T) element.clone();
+        setDraft(cloned, tx);
+        return cloned;
     }
 
     /**
@@ -155,40 +189,67 @@ final class TinkerElementContainer<T extends TinkerElement> {
      * @param tx current transaction
      */
     public void setDraft(final T transactionElement, final TinkerTransaction tx) {
+        tx.checkWritable();
         elementId = transactionElement.id();
-        if (!isModifiedInTx.get())
+        if (transactionUpdatedValue.get() == null)
             usesInTransactions.incrementAndGet();
         transactionUpdatedValue.set(transactionElement);
-        isModifiedInTx.set(true);
         tx.markChanged(this);
     }
 
     /**
-     * Used to understand if elements was changed by other transaction.
+     * Used to understand if elements was changed by other transaction. That is the case if a version was committed
+     * after the current transaction started or if the value changed is not a copy of the latest version.
      */
-    public boolean updatedOutsideTransaction() {
-        // todo: do we need to check version on delete?
+    private boolean updatedOutsideTransaction(final Version<T> h) {
+        if (null == h) return false;
+        if (h.version > transaction.getReadVersion()) return true;
+        if (isDeletedInTx.get()) return null == h.element;
+
         final T updatedValue = transactionUpdatedValue.get();
-        return isDeleted ||
-                element != null && updatedValue != null && updatedValue.version() != element.version();
+        return updatedValue != null && updatedValue.version() != (null == h.element ? UNCOMMITTED : h.version);
+    }
+
+    /**
+     * Makes the value changed in the current transaction the latest version of the stored element, which is not
+     * visible to other transactions until the version is published. The changes are released with {@link #release()}.
+     * @param txVersion version of transaction
+     * @return {@code false} if the element was changed by another transaction, in which case nothing is changed
+     */
+    public boolean commit(final long txVersion) {
+        final Version<T> h = head;
+        if (updatedOutsideTransaction(h)) return false;
+
+        final T element = isDeletedInTx.get() ? null : transactionUpdatedValue.get();
+        if (null != element) element.currentVersion = txVersion;
+        return HEAD.compareAndSet(this, h, new Version<>(element, txVersion, h));
     }
 
     /**
-     * Commit changes for the stored element.
+     * Undoes {@link #commit(long)} of a transaction that could not commit all of its changes. No other transaction
+     * can commit the element on top of a version that is not published.
      * @param txVersion version of transaction
      */
-    public void commit(final long txVersion) {
+    public void revert(final long txVersion) {
+        final Version<T> h = head;
+        if (null != h && h.version == txVersion)
+            HEAD.compareAndSet(this, h, h.previous);
+    }
+
+    /**
+     * Get the value of stored element that the latest version replaced, which is the one to remove from indices
+     * after {@link #commit(long)}.
+     */
+    public T getReplaced() {
+        final Version<T> h = head;
+        return null == h || null == h.previous ? null : h.previous.element;
+    }
+
+    /**
+     * Release changes of the current transaction once they are committed.
+     */
+    public void release() {
         updateUsesCount();
-        if (isDeletedInTx.get()) {
-            // created and deleted in same tx
-            if (null != element)
-                element.removed = true;
-            element = null;
-            isDeleted = true;
-        } else {
-            element = transactionUpdatedValue.get();
-            element.currentVersion = txVersion;
-        }
         reset();
     }
 
@@ -206,40 +267,37 @@ final class TinkerElementContainer<T extends TinkerElement> {
     private void updateUsesCount() {
         if (isDeletedInTx.get())
             usesInTransactions.decrementAndGet();
-        if (isModifiedInTx.get())
+        if (transactionUpdatedValue.get() != null)
             usesInTransactions.decrementAndGet();
     }
 
     /**
-     * Used to check if container can be removed or still used by another transaction.
-     * Should be used after commit or rollback.
-     */
-    public boolean canBeRemoved() {
-        return usesInTransactions.get() == 0 && (isDeleted || element == null);
-    }
-
-    /**
-     * Cleanup changes made in the current transaction.
+     * Drops the versions that are older than the one committed at the specified version, which must be at most the
+     * version that the oldest transaction reads.
      */
-    private void reset() {
-        transactionUpdatedValue.remove();
-        isDeletedInTx.set(false);
-        isModifiedInTx.set(false);
+    public void prune(final long oldestReadVersion) {
+        for (Version<T> v = head; v != null; v = v.previous) {
+            if (v.version <= oldestReadVersion) {
+                v.previous = null;
+                return;
+            }
+        }
     }
 
     /**
-     * Try to lock container to apply changes to stored element.
-     * @return True if lock was successful.
+     * Used to check if container can be removed or still used by another transaction.
+     * Should be used after commit or rollback with the version that the oldest transaction reads.
      */
-    public boolean tryLock() {
-        return lock.tryLock();
+    public boolean canBeRemoved(final long oldestReadVersion) {
+        final Version<T> h = head;
+        return usesInTransactions.get() == 0 && (null == h || null == h.element && h.version <= oldestReadVersion);
     }
 
     /**
-     * Release lock after applying changes.
+     * Cleanup changes made in the current transaction.
      */
-    public void releaseLock() {
-        if (lock.isHeldByCurrentThread())
-            lock.unlock();
+    private void reset() {
+        transactionUpdatedValue.remove();
+        isDeletedInTx.remove();
     }
 }
@@ -21,9 +21,11 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 import org.apache.commons.configuration2.BaseConfiguration;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
@@ -31,10 +33,15 @@ import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.GraphFactory;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphCountStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphDegreeCountStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphParallelStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphSelectivityStrategy;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphStepStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphVertexCentricStrategy;
 import org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerServiceRegistry;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -64,7 +71,11 @@ public final class TinkerGraph extends AbstractTinkerGraph {
     static {
         TraversalStrategies.GlobalCache.registerStrategies(TinkerGraph.class, TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone().addStrategies(
                 TinkerGraphStepStrategy.instance(),
-                TinkerGraphCountStrategy.instance()));
+                TinkerGraphCountStrategy.instance(),
+                TinkerGraphDegreeCountStrategy.instance(),
+                TinkerGraphSelectivityStrategy.instance(),
+                TinkerGraphVertexCentricStrategy.instance(),
+                TinkerGraphParallelStrategy.instance()));
     }
 
     private static final Configuration EMPTY_CONFIGURATION = new BaseConfiguration() {{
@@ -73,8 +84,30 @@ public final class TinkerGraph extends AbstractTinkerGraph {
 
     private final TinkerGraphFeatures features = new TinkerGraphFeatures();
 
-    protected Map<Object, Vertex> vertices = new ConcurrentHashMap<>();
-    protected Map<Object, Edge> edges = new ConcurrentHashMap<>();
+    /**
+     * Keyed by primitive identifiers in a {@link TinkerIdMap} when the {@link IdManager} is {@code LONG} or
+     * {@code INTEGER}.
+     */
+    protected Map<Object, Vertex> vertices;
+    protected Map<Object, Edge> edges;
+
+    /**
+     * Always maintained label index so that elements of a label can be found and counted without a full scan.
+     */
+    protected Map<String, Set<Vertex>> vertexLabels = new ConcurrentHashMap<>();
+    protected Map<String, Set<Edge>> edgeLabels = new ConcurrentHashMap<>();
+
+    /**
+     * Keeps the edges of vertices in {@link TinkerAdjacency} rather than maps of sets, in which case edge labels are
+     * interned so that all edges of a label share the same string.
+     */
+    private final boolean compactAdjacency;
+    private final Map<String, String> internedLabels = new ConcurrentHashMap<>();
+
+    /**
+     * The property keys of the vertex-centric indices by edge label.
+     */
+    private final Map<String, Set<String>> vertexCentricKeys = new ConcurrentHashMap<>();
 
     /**
      * An empty private constructor that initializes {@link TinkerGraph}.
@@ -84,9 +117,17 @@ public final class TinkerGraph extends AbstractTinkerGraph {
         vertexIdManager = selectIdManager(configuration, GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, Vertex.class);
         edgeIdManager = selectIdManager(configuration, GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, Edge.class);
         vertexPropertyIdManager = selectIdManager(configuration, GREMLIN_TINKERGRAPH_VERTEX_PROPERTY_ID_MANAGER, VertexProperty.class);
+        vertices = TinkerIdMap.create(vertexIdManager);
+        edges = TinkerIdMap.create(edgeIdManager);
         defaultVertexPropertyCardinality = VertexProperty.Cardinality.valueOf(
                 configuration.getString(GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.single.name()));
         allowNullPropertyValues = configuration.getBoolean(GREMLIN_TINKERGRAPH_ALLOW_NULL_PROPERTY_VALUES, false);
+        lazyIteration = configuration.getBoolean(GREMLIN_TINKERGRAPH_LAZY_ITERATION, false);
+        compactAdjacency = configuration.getBoolean(GREMLIN_TINKERGRAPH_COMPACT_ADJACENCY, false);
+        if (configuration.getBoolean(GREMLIN_TINKERGRAPH_OFF_HEAP, false))
+            valueStore = createValueStore();
+        if (configuration.getBoolean(GREMLIN_TINKERGRAPH_COMPACT_PROPERTIES, false))
+            propertyKeys = new TinkerPropertyKeys();
 
         graphLocation = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_LOCATION, null);
         graphFormat = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_FORMAT, null);
@@ -95,6 +136,10 @@ public final class TinkerGraph extends AbstractTinkerGraph {
             throw new IllegalStateException(String.format("The %s and %s must both be specified if either is present",
                     GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_GRAPH_FORMAT));
 
+        if (null == graphLocation && configuration.getBoolean(GREMLIN_TINKERGRAPH_MUTATION_LOG, false))
+            throw new IllegalStateException(String.format("The %s requires the %s and %s to be specified",
+                    GREMLIN_TINKERGRAPH_MUTATION_LOG, GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_GRAPH_FORMAT));
+
         if (graphLocation != null) loadGraph();
 
         serviceRegistry = new TinkerServiceRegistry(this);
@@ -149,6 +194,8 @@ public final class TinkerGraph extends AbstractTinkerGraph {
         final Vertex vertex = new TinkerVertex(idValue, label, this);
         ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
         this.vertices.put(vertex.id(), vertex);
+        this.vertexLabels.computeIfAbsent(label, k -> ConcurrentHashMap.newKeySet()).add(vertex);
+        if (null != mutationLog) mutationLog.logVertex(vertex);
 
         return vertex;
     }
@@ -156,17 +203,34 @@ public final class TinkerGraph extends AbstractTinkerGraph {
     @Override
     public void removeVertex(final Object vertexId)
     {
-        this.vertices.remove(vertexId);
+        final Vertex vertex = this.vertices.remove(vertexId);
+        if (null != vertex) {
+            removeLabeled(this.vertexLabels, vertex);
+            if (null != mutationLog) mutationLog.logRemoveVertex(vertexId);
+        }
     }
 
     @Override
-    public Edge addEdge(final TinkerVertex outVertex, final TinkerVertex inVertex, final String label, final Object... keyValues) {
-        ElementHelper.validateLabel(label);
+    public Edge addEdge(final TinkerVertex outVertex, final TinkerVertex inVertex, final String edgeLabel, final Object... keyValues) {
+        final TinkerEdge edge = createEdge(outVertex, inVertex, edgeLabel, keyValues);
+        addOutEdge(outVertex, edge.label, edge);
+        addInEdge(inVertex, edge.label, edge);
+        if (null != mutationLog) mutationLog.logEdge(edge);
+        return edge;
+    }
+
+    /**
+     * Adds the edge to the graph but not to its vertices, which {@link TinkerGraphLoader} does from the thread that
+     * owns the vertex.
+     */
+    TinkerEdge createEdge(final TinkerVertex outVertex, final TinkerVertex inVertex, final String edgeLabel, final Object... keyValues) {
+        ElementHelper.validateLabel(edgeLabel);
+        final String label = edgeLabel(edgeLabel);
         ElementHelper.legalPropertyKeyValueArray(keyValues);
 
         Object idValue = edgeIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
 
-        final Edge edge;
+        final TinkerEdge edge;
         if (null != idValue) {
             if (edges.containsKey(idValue))
                 throw Graph.Exceptions.edgeWithIdAlreadyExists(idValue);
@@ -177,11 +241,27 @@ public final class TinkerGraph extends AbstractTinkerGraph {
         edge = new TinkerEdge(idValue, outVertex, label, inVertex);
         ElementHelper.attachProperties(edge, keyValues);
         edges.put(edge.id(), edge);
-        addOutEdge(outVertex, label, edge);
-        addInEdge(inVertex, label, edge);
+        edgeLabels.computeIfAbsent(label, k -> ConcurrentHashMap.newKeySet()).add(edge);
         return edge;
     }
 
+    /**
+     * Gets the label to give a new edge, which is interned if the edges of vertices are kept in
+     * {@link TinkerAdjacency}.
+     */
+    String edgeLabel(final String label) {
+        return compactAdjacency ? internedLabels.computeIfAbsent(label, k -> k) : label;
+    }
+
+    /**
+     * Gets a {@link TinkerBulkLoader} to add many vertices and edges to the graph at once, which is much quicker than
+     * adding them one by one. The loader must be closed to build indices and the adjacency of the loaded edges. Only
+     * {@code TinkerGraph} offers bulk loading as the loader bypasses the transactions of {@link TinkerTransactionGraph}.
+     */
+    public TinkerBulkLoader bulkLoader() {
+        return new TinkerBulkLoader(this);
+    }
+
     @Override
     public void removeEdge(final Object edgeId) {
         final Edge edge = edges.get(edgeId);
@@ -201,8 +281,24 @@ public final class TinkerGraph extends AbstractTinkerGraph {
             if (null != edges)
                 edges.removeIf(e -> e.id() == edgeId);
         }
+        if (vertexCentricKeys.containsKey(edge.label())) {
+            if (null != outVertex) unindexAdjacent(outVertex, Direction.OUT, edge);
+            if (null != inVertex) unindexAdjacent(inVertex, Direction.IN, edge);
+        }
+        if (null != outVertex && null != outVertex.outAdjacency)
+            outVertex.outAdjacency.remove(edge.label(), edge);
+        if (null != inVertex && null != inVertex.inAdjacency)
+            inVertex.inAdjacency.remove(edge.label(), edge);
 
         this.edges.remove(edgeId);
+        removeLabeled(this.edgeLabels, edge);
+        if (null != mutationLog) mutationLog.logRemoveEdge(edgeId);
+    }
+
+    private static <T extends Element> void removeLabeled(final Map<String, Set<T>> labels, final T element) {
+        final Set<T> labeled = labels.get(element.label());
+        if (null != labeled)
+            labeled.remove(element);
     }
 
     @Override
@@ -210,6 +306,18 @@ public final class TinkerGraph extends AbstractTinkerGraph {
         super.clear();
         this.vertices.clear();
         this.edges.clear();
+        this.vertexLabels.clear();
+        this.edgeLabels.clear();
+        this.internedLabels.clear();
+        // values of removed elements still refer to the old store which is reclaimed along with them
+        if (null != this.valueStore)
+            this.valueStore = createValueStore();
+        if (null != mutationLog) mutationLog.logClear();
+    }
+
+    private TinkerValueStore createValueStore() {
+        final String location = configuration.getString(GREMLIN_TINKERGRAPH_OFF_HEAP_LOCATION, null);
+        return new TinkerValueStore(null == location ? null : new File(location));
     }
 
     @Override
@@ -223,12 +331,24 @@ public final class TinkerGraph extends AbstractTinkerGraph {
     @Override
     public boolean hasVertex(Object id) { return vertices.containsKey(id); }
 
+    @Override
+    public int getVerticesCount(final String label) {
+        final Set<Vertex> labeled = vertexLabels.get(label);
+        return null == labeled ? 0 : labeled.size();
+    }
+
     @Override
     public int getEdgesCount() {  return edges.size(); }
 
     @Override
     public boolean hasEdge(Object id) { return edges.containsKey(id); }
 
+    @Override
+    public int getEdgesCount(final String label) {
+        final Set<Edge> labeled = edgeLabels.get(label);
+        return null == labeled ? 0 : labeled.size();
+    }
+
     @Override
     public TinkerServiceRegistry getServiceRegistry() {
         return serviceRegistry;
@@ -255,6 +375,24 @@ public final class TinkerGraph extends AbstractTinkerGraph {
     }
 
 
+    @Override
+    public Iterator<Vertex> verticesByLabel(final String... labels) {
+        return createLabelIterator(Vertex.class, vertexLabels, labels);
+    }
+
+    @Override
+    public Iterator<Edge> edgesByLabel(final String... labels) {
+        return createLabelIterator(Edge.class, edgeLabels, labels);
+    }
+
+    private <T extends Element> Iterator<T> createLabelIterator(final Class<T> clazz, final Map<String, Set<T>> elements,
+                                                                final String... labels) {
+        // elements have a single label so those of distinct labels never overlap
+        final Iterator<T> iterator = new TinkerGraphIterator<>(Arrays.stream(labels).distinct()
+                .map(elements::get).filter(Objects::nonNull).flatMap(Set::stream).iterator());
+        return filterComputerMode(clazz, iterator);
+    }
+
     private <T extends Element> Iterator<T> createElementIterator(final Class<T> clazz, final Map<Object, T> elements,
                                                                   final IdManager idManager,
                                                                   final Object... ids) {
@@ -271,10 +409,14 @@ public final class TinkerGraph extends AbstractTinkerGraph {
             return new TinkerGraphIterator<>(IteratorUtils.filter(IteratorUtils.map(idList, id -> {
                 // ids cant be null so all of those filter out
                 if (null == id) return null;
-                final Object iid = clazz.isAssignableFrom(id.getClass()) ? clazz.cast(id).id() : idManager.convert(id);
+                final Object iid = clazz.isAssignableFrom(id.getClass()) ? clazz.cast(id).id() : id;
                 return elements.get(idManager.convert(iid));
             }).iterator(), Objects::nonNull));
         }
+        return filterComputerMode(clazz, iterator);
+    }
+
+    private <T extends Element> Iterator<T> filterComputerMode(final Class<T> clazz, final Iterator<T> iterator) {
         return TinkerHelper.inComputerMode(this) ?
                 (Iterator<T>) (clazz.equals(Vertex.class) ?
                         IteratorUtils.filter((Iterator<Vertex>) iterator, t -> this.graphComputerView.legalVertex(t)) :
@@ -284,6 +426,14 @@ public final class TinkerGraph extends AbstractTinkerGraph {
 
     @Override
     protected void addOutEdge(final TinkerVertex vertex, final String label, final Edge edge) {
+        if (!vertexCentricKeys.isEmpty())
+            indexAdjacent(vertex, Direction.OUT, edge);
+        if (compactAdjacency) {
+            if (null == vertex.outAdjacency) vertex.outAdjacency = new TinkerAdjacency();
+            vertex.outAdjacency.add(label, edge);
+            return;
+        }
+
         if (null == vertex.outEdges) vertex.outEdges = new HashMap<>();
         Set<Edge> edges = vertex.outEdges.get(label);
         if (null == edges) {
@@ -295,6 +445,14 @@ public final class TinkerGraph extends AbstractTinkerGraph {
 
     @Override
     protected void addInEdge(final TinkerVertex vertex, final String label, final Edge edge) {
+        if (!vertexCentricKeys.isEmpty())
+            indexAdjacent(vertex, Direction.IN, edge);
+        if (compactAdjacency) {
+            if (null == vertex.inAdjacency) vertex.inAdjacency = new TinkerAdjacency();
+            vertex.inAdjacency.add(label, edge);
+            return;
+        }
+
         if (null == vertex.inEdges) vertex.inEdges = new HashMap<>();
         Set<Edge> edges = vertex.inEdges.get(label);
         if (null == edges) {
@@ -304,6 +462,118 @@ public final class TinkerGraph extends AbstractTinkerGraph {
         edges.add(edge);
     }
 
+    /**
+     * Adds the edges of the range, which all have the label, to the adjacency of the vertex in the direction at once
+     * so that the adjacency is sized for all of them up front.
+     */
+    void addEdges(final TinkerVertex vertex, final Direction direction, final String label, final Edge[] edges, final int from, final int to) {
+        if (vertexCentricKeys.containsKey(label)) {
+            for (int i = from; i < to; i++) {
+                indexAdjacent(vertex, direction, edges[i]);
+            }
+        }
+        if (compactAdjacency) {
+            if (direction == Direction.OUT) {
+                if (null == vertex.outAdjacency) vertex.outAdjacency = new TinkerAdjacency();
+                vertex.outAdjacency.addAll(label, edges, from, to);
+            } else {
+                if (null == vertex.inAdjacency) vertex.inAdjacency = new TinkerAdjacency();
+                vertex.inAdjacency.addAll(label, edges, from, to);
+            }
+            return;
+        }
+
+        Map<String, Set<Edge>> labeled = direction == Direction.OUT ? vertex.outEdges : vertex.inEdges;
+        if (null == labeled) {
+            labeled = new HashMap<>();
+            if (direction == Direction.OUT) vertex.outEdges = labeled;
+            else vertex.inEdges = labeled;
+        }
+        Set<Edge> set = labeled.get(label);
+        if (null == set) {
+            // sized so that the set does not grow while the edges are added
+            set = new HashSet<>(Math.max(16, (int) ((to - from) / .75f) + 1));
+            labeled.put(label, set);
+        }
+        for (int i = from; i < to; i++) {
+            set.add(edges[i]);
+        }
+    }
+
+    /**
+     * Adds the edge to the vertex-centric indices of the vertex in the direction under the values it currently has
+     * for the indexed keys of its label.
+     */
+    private void indexAdjacent(final TinkerVertex vertex, final Direction direction, final Edge edge) {
+        final Set<String> keys = vertexCentricKeys.get(edge.label());
+        if (null == keys)
+            return;
+
+        for (final String key : keys) {
+            final Property<?> property = edge.property(key);
+            if (!property.isPresent())
+                continue;
+
+            if (direction == Direction.OUT) {
+                if (null == vertex.outEdgeIndex) vertex.outEdgeIndex = new TinkerVertexCentricIndex();
+                vertex.outEdgeIndex.add(edge, key, property.value());
+            } else {
+                if (null == vertex.inEdgeIndex) vertex.inEdgeIndex = new TinkerVertexCentricIndex();
+                vertex.inEdgeIndex.add(edge, key, property.value());
+            }
+        }
+    }
+
+    private void unindexAdjacent(final TinkerVertex vertex, final Direction direction, final Edge edge) {
+        final Set<String> keys = vertexCentricKeys.get(edge.label());
+        final TinkerVertexCentricIndex index = direction == Direction.OUT ? vertex.outEdgeIndex : vertex.inEdgeIndex;
+        if (null == keys || null == index)
+            return;
+
+        for (final String key : keys) {
+            final Property<?> property = edge.property(key);
+            if (property.isPresent())
+                index.remove(edge, key, property.value());
+        }
+        if (index.isEmpty()) {
+            if (direction == Direction.OUT) vertex.outEdgeIndex = null;
+            else vertex.inEdgeIndex = null;
+        }
+    }
+
+    /**
+     * Moves the edge in the vertex-centric indices of its vertices from the old value of the key, if it was indexed
+     * under it, to the new one. Edges that are not part of the graph yet, as while their properties are attached on
+     * creation, are indexed once they are added to their vertices instead.
+     *
+     * @param hasValue determines if the edge has a new value for the key rather than the key being removed
+     */
+    void updateVertexCentricIndex(final TinkerEdge edge, final String key, final Object oldValue,
+                                  final boolean hasValue, final Object newValue) {
+        final Set<String> keys = vertexCentricKeys.get(edge.label);
+        if (null == keys || !keys.contains(key) || edges.get(edge.id()) != edge)
+            return;
+
+        for (final boolean out : new boolean[]{true, false}) {
+            final TinkerVertex vertex = (TinkerVertex) (out ? edge.outVertex : edge.inVertex);
+            TinkerVertexCentricIndex index = out ? vertex.outEdgeIndex : vertex.inEdgeIndex;
+            if (null != index)
+                index.remove(edge, key, oldValue);
+            if (hasValue) {
+                if (null == index) {
+                    index = new TinkerVertexCentricIndex();
+                    if (out) vertex.outEdgeIndex = index;
+                    else vertex.inEdgeIndex = index;
+                }
+                index.add(edge, key, newValue);
+            }
+            if (null != index && index.isEmpty()) {
+                if (out) vertex.outEdgeIndex = null;
+                else vertex.inEdgeIndex = null;
+            }
+        }
+    }
+
     /**
      * Return TinkerGraph feature set.
      * <p/>
@@ -386,12 +656,69 @@ public final class TinkerGraph extends AbstractTinkerGraph {
      * @param <E>          The type of the element class
      */
     public <E extends Element> void createIndex(final String key, final Class<E> elementClass) {
+        createIndex(key, elementClass, TinkerIndexType.HASH);
+    }
+
+    /**
+     * Create an index of the specified type for said element class ({@link Vertex} or {@link Edge}) and said
+     * property key. A {@link TinkerIndexType#SORTED} index can also be used for range, prefix and ordered lookups
+     * and a {@link TinkerIndexType#TEXT} index for {@code TextP} lookups and full text search.
+     * If the key is already indexed with a different type, the index is rebuilt with the new type.
+     *
+     * @param key          the property key to index
+     * @param elementClass the element class to index
+     * @param indexType    the type of index to create
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createIndex(final String key, final Class<E> elementClass, final TinkerIndexType indexType) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
+            this.vertexIndex.createKeyIndex(key, indexType);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
+            this.edgeIndex.createKeyIndex(key, indexType);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Create a composite index for said element class ({@link Vertex} or {@link Edge}) over the combination of the
+     * specified property keys, optionally limited to elements with the specified label. Lookups that have equality
+     * predicates for the label and all of the keys are answered with a single index probe.
+     *
+     * @param elementClass the element class to index
+     * @param label        the label of the elements to index or {@code null} for elements of any label
+     * @param keys         the property keys to index
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createCompositeIndex(final Class<E> elementClass, final String label, final String... keys) {
+        final AbstractTinkerIndex.CompositeKey compositeKey = new AbstractTinkerIndex.CompositeKey(label, Arrays.asList(keys));
         if (Vertex.class.isAssignableFrom(elementClass)) {
             if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
-            this.vertexIndex.createKeyIndex(key);
+            this.vertexIndex.createCompositeKeyIndex(compositeKey);
         } else if (Edge.class.isAssignableFrom(elementClass)) {
             if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
-            this.edgeIndex.createKeyIndex(key);
+            this.edgeIndex.createCompositeKeyIndex(compositeKey);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Drop the composite index for the specified element class ({@link Vertex} or {@link Edge}), label and keys.
+     *
+     * @param elementClass the element class of the index to drop
+     * @param label        the label of the index or {@code null} if it indexes elements of any label
+     * @param keys         the property keys of the index
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void dropCompositeIndex(final Class<E> elementClass, final String label, final String... keys) {
+        final AbstractTinkerIndex.CompositeKey compositeKey = new AbstractTinkerIndex.CompositeKey(label, Arrays.asList(keys));
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null != this.vertexIndex) this.vertexIndex.dropCompositeKeyIndex(compositeKey);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null != this.edgeIndex) this.edgeIndex.dropCompositeKeyIndex(compositeKey);
         } else {
             throw new IllegalArgumentException("Class is not indexable: " + elementClass);
         }
@@ -413,4 +740,77 @@ public final class TinkerGraph extends AbstractTinkerGraph {
             throw new IllegalArgumentException("Class is not indexable: " + elementClass);
         }
     }
+
+    /**
+     * Create a vertex-centric index of the edges with said label by the value of said property key. Every vertex
+     * keeps its incoming and its outgoing edges of the label sorted by the value, so that a vertex with many of
+     * them can answer a range of values, like {@code outE('rated').has('ts', gt(t))}, or its edges in the order of
+     * the value, like {@code outE('rated').order().by('ts').limit(10)}, without going through all of them. When the
+     * index is created, all existing edges with the label are indexed.
+     *
+     * @param edgeLabel the label of the edges to index
+     * @param key       the property key to index the edges by
+     */
+    public void createVertexCentricIndex(final String edgeLabel, final String key) {
+        if (null == edgeLabel)
+            throw Graph.Exceptions.argumentCanNotBeNull("edgeLabel");
+        if (null == key)
+            throw Graph.Exceptions.argumentCanNotBeNull("key");
+        if (key.isEmpty())
+            throw new IllegalArgumentException("The key for the index cannot be an empty string");
+
+        final Set<String> keys = vertexCentricKeys.computeIfAbsent(edgeLabel, l -> ConcurrentHashMap.newKeySet());
+        if (!keys.add(key))
+            return;
+
+        for (final Edge edge : edgeLabels.getOrDefault(edgeLabel, Collections.emptySet())) {
+            final Property<?> property = edge.property(key);
+            if (!property.isPresent())
+                continue;
+
+            final TinkerVertex outVertex = (TinkerVertex) edge.outVertex();
+            final TinkerVertex inVertex = (TinkerVertex) edge.inVertex();
+            if (null == outVertex.outEdgeIndex) outVertex.outEdgeIndex = new TinkerVertexCentricIndex();
+            outVertex.outEdgeIndex.add(edge, key, property.value());
+            if (null == inVertex.inEdgeIndex) inVertex.inEdgeIndex = new TinkerVertexCentricIndex();
+            inVertex.inEdgeIndex.add(edge, key, property.value());
+        }
+    }
+
+    /**
+     * Drop the vertex-centric index of the edges with said label by said property key.
+     *
+     * @param edgeLabel the label of the indexed edges
+     * @param key       the property key the edges are indexed by
+     */
+    public void dropVertexCentricIndex(final String edgeLabel, final String key) {
+        final Set<String> keys = vertexCentricKeys.get(edgeLabel);
+        if (null == keys || !keys.remove(key))
+            return;
+        if (keys.isEmpty())
+            vertexCentricKeys.remove(edgeLabel);
+
+        for (final Vertex vertex : vertices.values()) {
+            final TinkerVertex tinkerVertex = (TinkerVertex) vertex;
+            if (null != tinkerVertex.outEdgeIndex) {
+                tinkerVertex.outEdgeIndex.drop(edgeLabel, key);
+                if (tinkerVertex.outEdgeIndex.isEmpty()) tinkerVertex.outEdgeIndex = null;
+            }
+            if (null != tinkerVertex.inEdgeIndex) {
+                tinkerVertex.inEdgeIndex.drop(edgeLabel, key);
+                if (tinkerVertex.inEdgeIndex.isEmpty()) tinkerVertex.inEdgeIndex = null;
+            }
+        }
+    }
+
+    /**
+     * Return the property keys the edges with said label are indexed by in vertex-centric indices.
+     *
+     * @param edgeLabel the label of the indexed edges
+     * @return the set of keys, which is empty if the edges are not indexed
+     */
+    public Set<String> getVertexCentricIndexKeys(final String edgeLabel) {
+        final Set<String> keys = vertexCentricKeys.get(edgeLabel);
+        return null == keys ? Collections.emptySet() : Collections.unmodifiableSet(keys);
+    }
 }
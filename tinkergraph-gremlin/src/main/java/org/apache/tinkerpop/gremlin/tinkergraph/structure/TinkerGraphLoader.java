@@ -0,0 +1,282 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONReader;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
+import org.apache.tinkerpop.gremlin.structure.util.Attachable;
+import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads a {@link TinkerGraph} persisted as {@code gryo} or {@code graphson} with a pool of threads. The file is split
+ * into chunks of whole vertices which are deserialized in parallel. The vertices of each chunk are then added by one
+ * thread and lastly the edges are added, each thread adding the edges of the vertices of its chunk so that the
+ * adjacency of a vertex is only ever changed by one thread.
+ * <p/>
+ * Lines of {@code graphson} are vertices so chunks end at a line break. Vertices of {@code gryo} start with the
+ * {@link GryoMapper#HEADER}, which a chunk starts at. As the header may also appear within a value the end of the
+ * vertices read for a chunk is checked to be the start of the next chunk, else the graph is read by the reader of the
+ * format as usual.
+ */
+final class TinkerGraphLoader {
+
+    private static final BasicThreadFactory THREAD_FACTORY_LOADER = new BasicThreadFactory.Builder().namingPattern("tinker-loader-%d").build();
+
+    /**
+     * More chunks than threads even out the time to read chunks of vertices that differ in their number of edges.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final long MAX_CHUNK_SIZE = 256L * 1024 * 1024;
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    private final TinkerGraph graph;
+    private final File file;
+    private final String graphFormat;
+    private final ExecutorService pool;
+
+    private final Map<Object, Vertex> loadedVertices = new ConcurrentHashMap<>();
+    private final Map<Object, TinkerEdge> loadedEdges = new ConcurrentHashMap<>();
+
+    private TinkerGraphLoader(final TinkerGraph graph, final File file, final String graphFormat, final ExecutorService pool) {
+        this.graph = graph;
+        this.file = file;
+        this.graphFormat = graphFormat;
+        this.pool = pool;
+    }
+
+    /**
+     * Loads the graph from the file with the given number of threads.
+     *
+     * @return {@code false} if the graph or its format cannot be loaded in parallel, in which case nothing was loaded
+     */
+    static boolean load(final AbstractTinkerGraph graph, final File file, final String graphFormat, final int threads) throws IOException {
+        if (!(graph instanceof TinkerGraph) || !(graphFormat.equals("gryo") || graphFormat.equals("graphson")))
+            return false;
+
+        final ExecutorService pool = Executors.newFixedThreadPool(threads, THREAD_FACTORY_LOADER);
+        try {
+            return new TinkerGraphLoader((TinkerGraph) graph, file, graphFormat, pool).load(threads);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private boolean load(final int threads) throws IOException {
+        final long length = file.length();
+        final int chunks = (int) Math.max((long) threads * CHUNKS_PER_THREAD, length / MAX_CHUNK_SIZE + 1);
+        final long[] starts = split(length, chunks);
+
+        final List<Callable<List<StarGraph.StarVertex>>> reads = new ArrayList<>();
+        for (int i = 0; i < starts.length; i++) {
+            final long start = starts[i];
+            final long end = i + 1 < starts.length ? starts[i + 1] : length;
+            reads.add(graphFormat.equals("gryo") ? () -> readGryo(start, end) : () -> readGraphSON(start, end));
+        }
+        final List<List<StarGraph.StarVertex>> chunkedVertices = invokeAll(reads);
+        if (chunkedVertices.contains(null)) return false;
+
+        invokeAll(chunkedVertices, starVertex -> {
+            final Vertex vertex = Attachable.Method.createVertex(starVertex, graph);
+            loadedVertices.put(starVertex.id(), vertex);
+        });
+        invokeAll(chunkedVertices, starVertex -> starVertex.edges(Direction.IN).forEachRemaining(this::createEdge));
+        invokeAll(chunkedVertices, starVertex -> starVertex.edges(Direction.OUT).forEachRemaining(e -> {
+            final TinkerEdge edge = loadedEdges.get(e.id());
+            graph.addOutEdge((TinkerVertex) edge.outVertex(), edge.label, edge);
+        }));
+        return true;
+    }
+
+    private void createEdge(final Edge starEdge) {
+        final TinkerVertex outVertex = (TinkerVertex) loadedVertices.get(starEdge.outVertex().id());
+        final TinkerVertex inVertex = (TinkerVertex) loadedVertices.get(starEdge.inVertex().id());
+        if (null == outVertex) throw new IllegalStateException(String.format("Could not find outV with id [%s] to create edge with id [%s]", starEdge.outVertex().id(), starEdge.id()));
+        if (null == inVertex) throw new IllegalStateException(String.format("Could not find inV with id [%s] to create edge with id [%s]", starEdge.inVertex().id(), starEdge.id()));
+
+        final List<Object> keyValues = new ArrayList<>();
+        if (graph.features().edge().willAllowId(starEdge.id())) {
+            keyValues.add(T.id);
+            keyValues.add(starEdge.id());
+        }
+        starEdge.properties().forEachRemaining(p -> {
+            keyValues.add(p.key());
+            keyValues.add(p.value());
+        });
+
+        final TinkerEdge edge = graph.createEdge(outVertex, inVertex, starEdge.label(), keyValues.toArray());
+        graph.addInEdge(inVertex, edge.label, edge);
+        loadedEdges.put(starEdge.id(), edge);
+    }
+
+    ////////////// CHUNKS //////////////////
+
+    /**
+     * Gets the starts of the chunks of the file, which are positions where a vertex starts.
+     */
+    private long[] split(final long length, final int chunks) throws IOException {
+        final byte[] marker = graphFormat.equals("gryo") ? GryoMapper.HEADER : new byte[]{'\n'};
+        final long[] starts = new long[chunks];
+        int count = 1;
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            for (int i = 1; i < chunks; i++) {
+                long start = find(channel, marker, Math.max(starts[count - 1] + 1, length * i / chunks));
+                // a chunk of graphson starts after the line break
+                if (marker.length == 1 && start < length) start++;
+                if (start < length && start > starts[count - 1]) starts[count++] = start;
+            }
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    private static long find(final FileChannel channel, final byte[] marker, final long from) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = from;
+        while (true) {
+            buffer.clear();
+            final int read = channel.read(buffer, position);
+            if (read < marker.length) return channel.size();
+
+            final byte[] bytes = buffer.array();
+            for (int i = 0; i <= read - marker.length; i++) {
+                if (matches(bytes, i, marker)) return position + i;
+            }
+            // the marker may be cut off at the end of the buffer
+            position += read - marker.length + 1;
+        }
+    }
+
+    private static boolean matches(final byte[] bytes, final int offset, final byte[] marker) {
+        for (int i = 0; i < marker.length; i++) {
+            if (bytes[offset + i] != marker[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the vertices from the start of a chunk up to its end.
+     *
+     * @return {@code null} if the vertices do not end at the end of the chunk
+     */
+    private List<StarGraph.StarVertex> readGryo(final long start, final long end) throws IOException {
+        final Kryo kryo = ((GryoMapper) graph.io(IoCore.gryo()).mapper().create()).createMapper();
+        final List<StarGraph.StarVertex> vertices = new ArrayList<>();
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final Input input = new Input(Channels.newInputStream(channel.position(start)));
+            try {
+                while (start + input.total() < end) {
+                    if (!matches(input.readBytes(GryoMapper.HEADER.length), 0, GryoMapper.GIO)) return null;
+                    final StarGraph starGraph = kryo.readObject(input, StarGraph.class);
+                    // read the terminator
+                    kryo.readClassAndObject(input);
+                    vertices.add(starGraph.getStarVertex());
+                }
+            } catch (RuntimeException re) {
+                // started within a value that looked like a header
+                return null;
+            }
+            return start + input.total() == end ? vertices : null;
+        }
+    }
+
+    private List<StarGraph.StarVertex> readGraphSON(final long start, final long end) throws IOException {
+        final GraphSONReader reader = graph.io(IoCore.graphson()).reader().create();
+        final byte[] bytes = new byte[(int) (end - start)];
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) break;
+            }
+        }
+
+        final List<StarGraph.StarVertex> vertices = new ArrayList<>();
+        int lineStart = 0;
+        for (int i = 0; i <= bytes.length; i++) {
+            if (i == bytes.length || bytes[i] == '\n') {
+                if (i - lineStart > 1 || (i - lineStart == 1 && bytes[lineStart] != '\r'))
+                    vertices.add((StarGraph.StarVertex) reader.readVertex(new ByteArrayInputStream(bytes, lineStart, i - lineStart), null, null, Direction.BOTH));
+                lineStart = i + 1;
+            }
+        }
+        return vertices;
+    }
+
+    ////////////// POOL //////////////////
+
+    @FunctionalInterface
+    private interface VertexConsumer {
+        void accept(final StarGraph.StarVertex starVertex);
+    }
+
+    private void invokeAll(final List<List<StarGraph.StarVertex>> chunkedVertices, final VertexConsumer consumer) throws IOException {
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        for (final List<StarGraph.StarVertex> vertices : chunkedVertices) {
+            tasks.add(() -> {
+                vertices.forEach(consumer::accept);
+                return null;
+            });
+        }
+        invokeAll(tasks);
+    }
+
+    private <R> List<R> invokeAll(final List<Callable<R>> tasks) throws IOException {
+        try {
+            final List<R> results = new ArrayList<>();
+            for (final Future<R> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ie);
+        } catch (ExecutionException ee) {
+            final Throwable cause = ee.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof UncheckedIOException) throw ((UncheckedIOException) cause).getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -24,23 +24,22 @@ import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Property;
-import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView;
+import org.apache.tinkerpop.gremlin.util.iterator.ArrayIterator;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -70,122 +69,236 @@ public final class TinkerHelper {
         graph.graphComputerView = null;
     }
 
+    /**
+     * Gets the index from zero to the number of vertices that the {@link TinkerGraphComputerView} gave the vertex, which
+     * is only kept for a {@link TinkerGraph} as the vertices of a {@link TinkerTransactionGraph} have several versions.
+     */
+    public static int getOrdinal(final TinkerVertex vertex) {
+        return vertex.ordinal;
+    }
+
+    public static void setOrdinal(final TinkerVertex vertex, final int ordinal) {
+        vertex.ordinal = ordinal;
+    }
+
     public static Iterator<TinkerEdge> getEdges(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
-        final List<Edge> edges = new ArrayList<>();
-        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
-            if (vertex.outEdges != null) {
-                if (edgeLabels.length == 0)
-                    vertex.outEdges.values().forEach(edges::addAll);
-                else if (edgeLabels.length == 1)
-                    edges.addAll(vertex.outEdges.getOrDefault(edgeLabels[0], Collections.emptySet()));
-                else
-                    Stream.of(edgeLabels).map(vertex.outEdges::get).filter(Objects::nonNull).forEach(edges::addAll);
+        if (null != vertex.outAdjacency || null != vertex.inAdjacency)
+            return getAdjacent(vertex, false, direction, edgeLabels);
+
+        final Map<String, Set<Edge>> outEdges = direction.equals(Direction.OUT) || direction.equals(Direction.BOTH) ? vertex.outEdges : null;
+        final Map<String, Set<Edge>> inEdges = direction.equals(Direction.IN) || direction.equals(Direction.BOTH) ? vertex.inEdges : null;
+        final int size = (int) (degreeOf(outEdges, edgeLabels) + degreeOf(inEdges, edgeLabels));
+        if (0 == size)
+            return Collections.emptyIterator();
+
+        // an edge removed by another thread since the array was sized leaves it short of being full
+        final Object[] edges = new Object[size];
+        final int copied = copyTo(inEdges, edges, copyTo(outEdges, edges, 0, edgeLabels), edgeLabels);
+        return 0 == copied ? Collections.emptyIterator() : (Iterator) new ArrayIterator<>(trim(edges, copied));
+    }
+
+    /**
+     * Gets the number of edges of the vertex in the direction with any of the labels, or of all edges if no labels are
+     * given, from the edge counts the vertex keeps per direction and label rather than by iterating the edges. The
+     * count agrees with {@link TinkerVertex#edges(Direction, String...)} so a self-loop counts twice for
+     * {@code BOTH}. Edges are still iterated in computer mode and for a {@link TinkerTransactionGraph}, as not all of
+     * the edges a vertex keeps may be visible there.
+     */
+    public static long getDegree(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
+        if (vertex.graph() instanceof TinkerTransactionGraph || inComputerMode((AbstractTinkerGraph) vertex.graph()))
+            return IteratorUtils.count(vertex.edges(direction, edgeLabels));
+
+        long degree = 0;
+        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH))
+            degree += null != vertex.outAdjacency ? vertex.outAdjacency.size(edgeLabels) : degreeOf(vertex.outEdges, edgeLabels);
+        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH))
+            degree += null != vertex.inAdjacency ? vertex.inAdjacency.size(edgeLabels) : degreeOf(vertex.inEdges, edgeLabels);
+        return degree;
+    }
+
+    private static long degreeOf(final Map<String, ? extends Set<?>> edges, final String... edgeLabels) {
+        if (null == edges)
+            return 0;
+
+        long degree = 0;
+        if (edgeLabels.length == 0) {
+            for (final Set<?> labeled : edges.values()) {
+                degree += labeled.size();
             }
-        }
-        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
-            if (vertex.inEdges != null) {
-                if (edgeLabels.length == 0)
-                    vertex.inEdges.values().forEach(edges::addAll);
-                else if (edgeLabels.length == 1)
-                    edges.addAll(vertex.inEdges.getOrDefault(edgeLabels[0], Collections.emptySet()));
-                else
-                    Stream.of(edgeLabels).map(vertex.inEdges::get).filter(Objects::nonNull).forEach(edges::addAll);
+        } else {
+            for (final String label : edgeLabels) {
+                final Set<?> labeled = edges.get(label);
+                if (null != labeled) degree += labeled.size();
             }
         }
-        return (Iterator) edges.iterator();
+        return degree;
     }
 
-    public static Iterator<TinkerEdge> getEdgesTx(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
-        final List<Object> outEdgeIds = new ArrayList<>();
-        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
-            if (vertex.outEdgesId != null) {
-                if (edgeLabels.length == 0)
-                    vertex.outEdgesId.values().forEach(outEdgeIds::addAll);
-                else if (edgeLabels.length == 1)
-                    outEdgeIds.addAll(vertex.outEdgesId.getOrDefault(edgeLabels[0], Collections.emptySet()));
-                else
-                    Stream.of(edgeLabels).map(vertex.outEdgesId::get).filter(Objects::nonNull).forEach(outEdgeIds::addAll);
+    /**
+     * Copies the edges, or edge identifiers, with any of the labels, or all of them if no labels are given, into the
+     * array from the offset onward, which is sized by {@link #degreeOf(Map, String...)}. A set that grows in the
+     * meantime, as the sets of a {@link TinkerTransactionGraph} may, is only copied until the array is full.
+     *
+     * @return the offset after the last element copied
+     */
+    private static int copyTo(final Map<String, ? extends Set<?>> edges, final Object[] array, int offset,
+                              final String... edgeLabels) {
+        if (null == edges)
+            return offset;
+
+        if (edgeLabels.length == 0) {
+            for (final Set<?> labeled : edges.values()) {
+                offset = copyTo(labeled, array, offset);
+            }
+        } else {
+            for (final String label : edgeLabels) {
+                final Set<?> labeled = edges.get(label);
+                if (null != labeled) offset = copyTo(labeled, array, offset);
             }
         }
+        return offset;
+    }
 
-        final List<Object> inEdgeIds = new ArrayList<>();
-        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
-            if (vertex.inEdgesId != null) {
-                if (edgeLabels.length == 0)
-                    vertex.inEdgesId.values().forEach(inEdgeIds::addAll);
-                else if (edgeLabels.length == 1)
-                    inEdgeIds.addAll(vertex.inEdgesId.getOrDefault(edgeLabels[0], Collections.emptySet()));
-                else
-                    Stream.of(edgeLabels).map(vertex.inEdgesId::get).filter(Objects::nonNull).forEach(inEdgeIds::addAll);
-            }
+    private static int copyTo(final Set<?> labeled, final Object[] array, int offset) {
+        for (final Object edge : labeled) {
+            if (offset == array.length) break;
+            array[offset++] = edge;
         }
+        return offset;
+    }
+
+    /**
+     * Gets the edges of the vertex in the direction with the label that have a value for the key within the bounds,
+     * or all edges with a value for the key if there are no bounds, in the order of that value from the vertex-centric
+     * index of the vertex. As with a {@link TinkerIndexType#SORTED} index, bounds only match values of their own type.
+     * The edges are read from the index as they are iterated, so they have to be collected before the graph changes.
+     *
+     * @param direction either {@code OUT} or {@code IN}
+     * @param from lower bound of the value or {@code null} if unbounded
+     * @param to upper bound of the value or {@code null} if unbounded
+     * @return the edges or {@code null} if the edges with the label are not indexed by the key
+     * @see TinkerGraph#createVertexCentricIndex(String, String)
+     */
+    public static Iterator<Edge> getIndexedEdges(final TinkerVertex vertex, final Direction direction, final String edgeLabel,
+                                                 final String key, final Object from, final boolean fromInclusive,
+                                                 final Object to, final boolean toInclusive, final boolean descending) {
+        if (direction == Direction.BOTH || !(vertex.graph() instanceof TinkerGraph) || inComputerMode((TinkerGraph) vertex.graph()) ||
+                !((TinkerGraph) vertex.graph()).getVertexCentricIndexKeys(edgeLabel).contains(key))
+            return null;
 
-        return outEdgeIds.size() == 0 && inEdgeIds.size() == 0
-                ? Collections.emptyIterator()
-                : Stream.concat(outEdgeIds.stream(), inEdgeIds.stream())
-                    .map(id -> ((AbstractTinkerGraph) vertex.graph()).edge(id))
-                    .filter(v -> v != null)
-                    .map(v -> (TinkerEdge) v).iterator();
+        final TinkerVertexCentricIndex index = direction == Direction.OUT ? vertex.outEdgeIndex : vertex.inEdgeIndex;
+        final NavigableMap<Object, Set<Edge>> values = null == index ? null : index.get(edgeLabel, key);
+        if (null == values)
+            return Collections.emptyIterator();
+
+        if (null == from && null == to)
+            return IteratorUtils.flatMap((descending ? values.descendingMap() : values).values().iterator(), Set::iterator);
+
+        final List<Map.Entry<Object, Set<Edge>>> entries = AbstractTinkerIndex.rangeOf(values, from, fromInclusive, to, toInclusive);
+        if (descending)
+            Collections.reverse(entries);
+        return IteratorUtils.flatMap(entries.iterator(), entry -> entry.getValue().iterator());
     }
 
-    public static Iterator<TinkerVertex> getVertices(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
-        final List<Vertex> vertices = new ArrayList<>();
-        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
-            if (vertex.outEdges != null) {
-                if (edgeLabels.length == 0)
-                    vertex.outEdges.values().forEach(set -> set.forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex)));
-                else if (edgeLabels.length == 1)
-                    vertex.outEdges.getOrDefault(edgeLabels[0], Collections.emptySet()).forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex));
-                else
-                    Stream.of(edgeLabels).map(vertex.outEdges::get).filter(Objects::nonNull).flatMap(Set::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex));
-            }
+    public static Iterator<TinkerEdge> getEdgesTx(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
+        final Map<String, Set<Object>> outEdgesId = direction.equals(Direction.OUT) || direction.equals(Direction.BOTH) ? vertex.outEdgesId : null;
+        final Map<String, Set<Object>> inEdgesId = direction.equals(Direction.IN) || direction.equals(Direction.BOTH) ? vertex.inEdgesId : null;
+        final int size = (int) (degreeOf(outEdgesId, edgeLabels) + degreeOf(inEdgesId, edgeLabels));
+        if (0 == size)
+            return Collections.emptyIterator();
+
+        final Object[] edges = new Object[size];
+        final int ids = copyTo(inEdgesId, edges, copyTo(outEdgesId, edges, 0, edgeLabels), edgeLabels);
+
+        // resolve the identifiers in place, leaving out the edges the transaction can not see
+        final AbstractTinkerGraph graph = (AbstractTinkerGraph) vertex.graph();
+        int visible = 0;
+        for (int i = 0; i < ids; i++) {
+            final Edge edge = graph.edge(edges[i]);
+            if (null != edge) edges[visible++] = edge;
         }
-        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
-            if (vertex.inEdges != null) {
-                if (edgeLabels.length == 0)
-                    vertex.inEdges.values().forEach(set -> set.forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex)));
-                else if (edgeLabels.length == 1)
-                    vertex.inEdges.getOrDefault(edgeLabels[0], Collections.emptySet()).forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex));
-                else
-                    Stream.of(edgeLabels).map(vertex.inEdges::get).filter(Objects::nonNull).flatMap(Set::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex));
-            }
+        return 0 == visible ? Collections.emptyIterator() : (Iterator) new ArrayIterator<>(trim(edges, visible));
+    }
+
+    public static Iterator<TinkerVertex> getVertices(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
+        if (null != vertex.outAdjacency || null != vertex.inAdjacency)
+            return getAdjacent(vertex, true, direction, edgeLabels);
+
+        final Map<String, Set<Edge>> outEdges = direction.equals(Direction.OUT) || direction.equals(Direction.BOTH) ? vertex.outEdges : null;
+        final Map<String, Set<Edge>> inEdges = direction.equals(Direction.IN) || direction.equals(Direction.BOTH) ? vertex.inEdges : null;
+        final int size = (int) (degreeOf(outEdges, edgeLabels) + degreeOf(inEdges, edgeLabels));
+        if (0 == size)
+            return Collections.emptyIterator();
+
+        // copy the edges and then replace each of them with the vertex at its other end
+        final Object[] vertices = new Object[size];
+        final int out = copyTo(outEdges, vertices, 0, edgeLabels);
+        for (int i = 0; i < out; i++) {
+            vertices[i] = ((TinkerEdge) vertices[i]).inVertex;
         }
-        return (Iterator) vertices.iterator();
-    }
-
-    public static Iterator<TinkerVertex> getVerticesTx(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
-        final Set<Object> inEdgesIds = new HashSet<>();
-        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
-            if (vertex.outEdgesId != null) {
-                if (edgeLabels.length == 0)
-                    vertex.outEdgesId.values().forEach(set -> set.forEach(edge -> inEdgesIds.add(edge)));
-                else if (edgeLabels.length == 1)
-                    vertex.outEdgesId.getOrDefault(edgeLabels[0], Collections.emptySet()).forEach(edge -> inEdgesIds.add(edge));
-                else
-                    Stream.of(edgeLabels).map(vertex.outEdgesId::get).filter(Objects::nonNull).flatMap(Set::stream).forEach(edge -> inEdgesIds.add(edge));
-            }
+        final int all = copyTo(inEdges, vertices, out, edgeLabels);
+        for (int i = out; i < all; i++) {
+            vertices[i] = ((TinkerEdge) vertices[i]).outVertex;
         }
-        final Set<Object> outEdgesIds = new HashSet<>();
-        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
-            if (vertex.inEdgesId != null) {
-                if (edgeLabels.length == 0)
-                    vertex.inEdgesId.values().forEach(set -> set.forEach(edge -> outEdgesIds.add(edge)));
-                else if (edgeLabels.length == 1)
-                    vertex.inEdgesId.getOrDefault(edgeLabels[0], Collections.emptySet()).forEach(edge -> outEdgesIds.add(edge));
-                else
-                    Stream.of(edgeLabels).map(vertex.inEdgesId::get).filter(Objects::nonNull).flatMap(Set::stream).forEach(edge -> outEdgesIds.add(edge));
-            }
+        return 0 == all ? Collections.emptyIterator() : (Iterator) new ArrayIterator<>(trim(vertices, all));
+    }
+
+    /**
+     * Copies the edges, or the vertices adjacent through them, out of the {@link TinkerAdjacency} of the vertex into
+     * a single array so that the graph can be modified while iterating.
+     */
+    private static <T> Iterator<T> getAdjacent(final TinkerVertex vertex, final boolean vertices, final Direction direction,
+                                               final String... edgeLabels) {
+        final boolean out = null != vertex.outAdjacency && (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH));
+        final boolean in = null != vertex.inAdjacency && (direction.equals(Direction.IN) || direction.equals(Direction.BOTH));
+        final int size = (out ? vertex.outAdjacency.size(edgeLabels) : 0) + (in ? vertex.inAdjacency.size(edgeLabels) : 0);
+        if (0 == size)
+            return Collections.emptyIterator();
+
+        final Object[] adjacent = new Object[size];
+        int offset = 0;
+        if (out)
+            offset = vertex.outAdjacency.copyTo(adjacent, offset, vertices, true, edgeLabels);
+        if (in)
+            offset = vertex.inAdjacency.copyTo(adjacent, offset, vertices, false, edgeLabels);
+        return 0 == offset ? Collections.emptyIterator() : new ArrayIterator<>((T[]) trim(adjacent, offset));
+    }
+
+    /**
+     * Gets the vertices adjacent through the edges the transaction can see. A label that is given more than once only
+     * counts once, so that each of those edges is followed a single time.
+     */
+    public static Iterator<TinkerVertex> getVerticesTx(final TinkerVertex vertex, final Direction direction, final String... labels) {
+        final String[] edgeLabels = distinct(labels);
+        final Map<String, Set<Object>> outEdgesId = direction.equals(Direction.OUT) || direction.equals(Direction.BOTH) ? vertex.outEdgesId : null;
+        final Map<String, Set<Object>> inEdgesId = direction.equals(Direction.IN) || direction.equals(Direction.BOTH) ? vertex.inEdgesId : null;
+        final int size = (int) (degreeOf(outEdgesId, edgeLabels) + degreeOf(inEdgesId, edgeLabels));
+        if (0 == size)
+            return Collections.emptyIterator();
+
+        final Object[] vertices = new Object[size];
+        final int out = copyTo(outEdgesId, vertices, 0, edgeLabels);
+        final int ids = copyTo(inEdgesId, vertices, out, edgeLabels);
+
+        // resolve the edge identifiers in place to the vertex at the other end of the edges the transaction can see
+        final AbstractTinkerGraph graph = (AbstractTinkerGraph) vertex.graph();
+        int visible = 0;
+        for (int i = 0; i < ids; i++) {
+            final Edge edge = graph.edge(vertices[i]);
+            if (null != edge) vertices[visible++] = i < out ? edge.inVertex() : edge.outVertex();
         }
+        return 0 == visible ? Collections.emptyIterator() : (Iterator) new ArrayIterator<>(trim(vertices, visible));
+    }
 
-        final List<Vertex> vertices = new ArrayList<>();
-        if (inEdgesIds.size() != 0)
-            vertex.graph().edges(inEdgesIds.toArray()).forEachRemaining(edge -> vertices.add(edge.inVertex()));
-        if (outEdgesIds.size() != 0)
-            vertex.graph().edges(outEdgesIds.toArray()).forEachRemaining(edge -> vertices.add(edge.outVertex()));
+    private static String[] distinct(final String... edgeLabels) {
+        if (edgeLabels.length < 2)
+            return edgeLabels;
+        final Set<String> distinct = new LinkedHashSet<>(Arrays.asList(edgeLabels));
+        return distinct.size() == edgeLabels.length ? edgeLabels : distinct.toArray(new String[distinct.size()]);
+    }
 
-        return vertices.size() == 0
-                ? Collections.emptyIterator()
-                : vertices.stream().map(v -> (TinkerVertex) v).iterator();
+    private static Object[] trim(final Object[] array, final int length) {
+        return length == array.length ? array : Arrays.copyOf(array, length);
     }
 
     // todo: move to SearchHelper?
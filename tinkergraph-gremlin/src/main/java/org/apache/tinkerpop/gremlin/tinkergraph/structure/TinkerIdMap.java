@@ -0,0 +1,352 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A map of elements keyed by {@code Long} or {@code Integer} identifiers that keeps the keys as primitives in an open
+ * addressing table rather than as boxed keys of hash table entries. Lookups take the primitive value of the given
+ * key and never allocate, and the table costs two array slots per element rather than an entry and a boxed key.
+ * <p/>
+ * Writes are synchronized so that elements may be added from several threads as {@link TinkerGraph} does when it
+ * loads a graph, while reads go to the current table without locking. A slot that was freed may be taken by another
+ * key while it is read, so a reader takes the key of a slot before its value and checks the key again afterwards,
+ * which pairs with writers that empty the slot before they change its key and publish the value last. Iteration is weakly consistent like that of
+ * {@code ConcurrentHashMap} so elements may be removed while iterating, which is what {@code g.V().drop()} does.
+ */
+final class TinkerIdMap<V> extends AbstractMap<Object, V> {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    /**
+     * Marks a slot whose element was removed so that lookups keep probing past it.
+     */
+    private static final Object REMOVED = new Object();
+
+    private final Class<? extends Number> idClass;
+
+    private volatile Table table = new Table(INITIAL_CAPACITY);
+
+    /**
+     * The number of elements in the map.
+     */
+    private volatile int size;
+
+    /**
+     * The number of slots that hold an element or are marked removed.
+     */
+    private int used;
+
+    private TinkerIdMap(final Class<? extends Number> idClass) {
+        this.idClass = idClass;
+    }
+
+    /**
+     * Creates the map to keep the elements of a graph in, which is a {@code TinkerIdMap} if the
+     * {@link AbstractTinkerGraph.IdManager} produces {@code Long} or {@code Integer} identifiers and a
+     * {@code ConcurrentHashMap} otherwise.
+     */
+    static <V> Map<Object, V> create(final AbstractTinkerGraph.IdManager<?> idManager) {
+        if (idManager == AbstractTinkerGraph.DefaultIdManager.LONG)
+            return new TinkerIdMap<>(Long.class);
+        else if (idManager == AbstractTinkerGraph.DefaultIdManager.INTEGER)
+            return new TinkerIdMap<>(Integer.class);
+        else
+            return new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the element of the identifier or {@code null} if there is none.
+     */
+    V get(final long id) {
+        final Table t = table;
+        int i = t.indexOf(id);
+        while (true) {
+            final long key = t.keys.get(i);
+            final Object value = t.values.get(i);
+            if (null == value)
+                return null;
+            // a value seen under a key that changed since belongs to the element that took the slot meanwhile
+            if (value != REMOVED && key == id && t.keys.get(i) == id)
+                return (V) value;
+            i = (i + 1) & t.mask;
+        }
+    }
+
+    @Override
+    public V get(final Object key) {
+        return idClass.isInstance(key) ? get(((Number) key).longValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized V put(final Object key, final V value) {
+        return put(key, value, false);
+    }
+
+    @Override
+    public synchronized V putIfAbsent(final Object key, final V value) {
+        return put(key, value, true);
+    }
+
+    private V put(final Object key, final V value, final boolean onlyIfAbsent) {
+        if (!idClass.isInstance(key))
+            throw new IllegalArgumentException(String.format("Expected an id of type %s but was %s",
+                    idClass.getSimpleName(), null == key ? null : key.getClass().getName()));
+        if (null == value)
+            throw new NullPointerException("value");
+
+        final long id = ((Number) key).longValue();
+        final Table t = table;
+        int i = t.indexOf(id);
+        int free = -1;
+        Object existing;
+        while ((existing = t.values.get(i)) != null) {
+            if (existing == REMOVED) {
+                if (free < 0) free = i;
+            } else if (t.keys.get(i) == id) {
+                if (!onlyIfAbsent) t.values.set(i, value);
+                return (V) existing;
+            }
+            i = (i + 1) & t.mask;
+        }
+
+        if (free < 0) {
+            free = i;
+            used++;
+        }
+        // the slot is empty or marked removed while its key changes and the value that readers look for comes last
+        t.keys.set(free, id);
+        t.values.set(free, value);
+        size++;
+
+        if (used > t.threshold) rehash();
+        return null;
+    }
+
+    @Override
+    public synchronized V remove(final Object key) {
+        if (!idClass.isInstance(key)) return null;
+
+        final long id = ((Number) key).longValue();
+        final Table t = table;
+        int i = t.indexOf(id);
+        Object existing;
+        while ((existing = t.values.get(i)) != null) {
+            if (existing != REMOVED && t.keys.get(i) == id) {
+                // nothing probes past a slot followed by a free one so it can be freed rather than marked
+                if (null == t.values.get((i + 1) & t.mask)) {
+                    t.values.set(i, null);
+                    used--;
+                } else {
+                    t.values.set(i, REMOVED);
+                }
+                size--;
+                return (V) existing;
+            }
+            i = (i + 1) & t.mask;
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized void clear() {
+        table = new Table(INITIAL_CAPACITY);
+        size = 0;
+        used = 0;
+    }
+
+    /**
+     * Moves the elements to a new table, which is larger unless most of the used slots were only marked removed.
+     */
+    private void rehash() {
+        final Table t = table;
+        int capacity = t.values.length();
+        while (size >= capacity * LOAD_FACTOR / 2) {
+            capacity <<= 1;
+        }
+        final Table rehashed = new Table(Math.max(INITIAL_CAPACITY, capacity));
+        for (int j = 0; j < t.values.length(); j++) {
+            final Object value = t.values.get(j);
+            if (null == value || value == REMOVED) continue;
+            final long key = t.keys.get(j);
+            int i = rehashed.indexOf(key);
+            while (rehashed.values.get(i) != null) {
+                i = (i + 1) & rehashed.mask;
+            }
+            rehashed.keys.set(i, key);
+            rehashed.values.set(i, value);
+        }
+        used = size;
+        table = rehashed;
+    }
+
+    private Object box(final long id) {
+        return idClass == Long.class ? (Object) id : (Object) (int) id;
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new TableIterator<V>() {
+                    @Override
+                    V next(final long key, final Object value) {
+                        return (V) value;
+                    }
+                };
+            }
+
+            @Override
+            public Spliterator<V> spliterator() {
+                // concurrent rather than sized as elements may come and go while the index scans them in parallel
+                return Spliterators.spliterator(iterator(), size, Spliterator.CONCURRENT | Spliterator.NONNULL);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<Object, V>> entrySet() {
+        return new AbstractSet<Entry<Object, V>>() {
+            @Override
+            public Iterator<Entry<Object, V>> iterator() {
+                return new TableIterator<Entry<Object, V>>() {
+                    @Override
+                    Entry<Object, V> next(final long key, final Object value) {
+                        return new SimpleImmutableEntry<>(box(key), (V) value);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private static final class Table {
+        private final AtomicLongArray keys;
+        private final AtomicReferenceArray<Object> values;
+        private final int mask;
+        private final int shift;
+        private final int threshold;
+
+        private Table(final int capacity) {
+            keys = new AtomicLongArray(capacity);
+            values = new AtomicReferenceArray<>(capacity);
+            mask = capacity - 1;
+            shift = Long.numberOfLeadingZeros(capacity) + 1;
+            threshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+        /**
+         * Spreads the identifiers, which are often sequential, over the table with a multiplicative hash.
+         */
+        private int indexOf(final long id) {
+            return (int) ((id * 0x9E3779B97F4A7C15L) >>> shift);
+        }
+    }
+
+    /**
+     * Walks the table that was current when iteration began, skipping the slots emptied since.
+     */
+    private abstract class TableIterator<T> implements Iterator<T> {
+        private final Table t = table;
+        private int index = -1;
+        private long nextKey;
+        private Object nextValue;
+        private long lastKey;
+        private boolean removable;
+
+        private TableIterator() {
+            advance();
+        }
+
+        private void advance() {
+            nextValue = null;
+            while (null == nextValue && ++index < t.values.length()) {
+                final long key = t.keys.get(index);
+                final Object value = t.values.get(index);
+                if (value != null && value != REMOVED) {
+                    // the slot changed hands while it was read so look at it again
+                    if (t.keys.get(index) != key) {
+                        index--;
+                        continue;
+                    }
+                    nextKey = key;
+                    nextValue = value;
+                }
+            }
+        }
+
+        abstract T next(final long key, final Object value);
+
+        @Override
+        public boolean hasNext() {
+            return nextValue != null;
+        }
+
+        @Override
+        public T next() {
+            if (null == nextValue) throw new NoSuchElementException();
+            final T next = next(nextKey, nextValue);
+            lastKey = nextKey;
+            removable = true;
+            advance();
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            if (!removable) throw new IllegalStateException();
+            TinkerIdMap.this.remove(box(lastKey));
+            removable = false;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The edge identifiers of a {@link TinkerVertex} of a {@link TinkerTransactionGraph} kept as primitives in an open
+ * addressing table when they are {@code Long} or {@code Integer}, which costs a slot of a {@code long[]} per edge
+ * rather than a hash table entry and a boxed key.
+ * <p/>
+ * Unlike the {@code ConcurrentHashMap} key sets used for other identifiers this set is not thread-safe, which it
+ * need not be as a transaction changes its own copy of the vertex and so of its sets.
+ */
+final class TinkerIdSet extends AbstractSet<Object> {
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private static final byte FREE = 0;
+    private static final byte USED = 1;
+    private static final byte REMOVED = 2;
+
+    private final boolean integerIds;
+    private long[] keys;
+    private byte[] states;
+    private int size;
+    private int used;
+
+    private TinkerIdSet(final boolean integerIds, final int capacity) {
+        this.integerIds = integerIds;
+        this.keys = new long[capacity];
+        this.states = new byte[capacity];
+    }
+
+    private TinkerIdSet(final TinkerIdSet other) {
+        this.integerIds = other.integerIds;
+        this.keys = other.keys.clone();
+        this.states = other.states.clone();
+        this.size = other.size;
+        this.used = other.used;
+    }
+
+    /**
+     * Creates the set to keep the identifiers of the edges of a label in, which is a {@code TinkerIdSet} if the edge
+     * {@link AbstractTinkerGraph.IdManager} produces {@code Long} or {@code Integer} identifiers and a
+     * {@code ConcurrentHashMap} key set otherwise.
+     */
+    static Set<Object> create(final AbstractTinkerGraph graph) {
+        if (graph.edgeIdManager == AbstractTinkerGraph.DefaultIdManager.LONG)
+            return new TinkerIdSet(false, INITIAL_CAPACITY);
+        else if (graph.edgeIdManager == AbstractTinkerGraph.DefaultIdManager.INTEGER)
+            return new TinkerIdSet(true, INITIAL_CAPACITY);
+        else
+            return ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Copies a set made by {@link #create(AbstractTinkerGraph)}.
+     */
+    static Set<Object> copy(final Set<Object> ids) {
+        if (ids instanceof TinkerIdSet)
+            return new TinkerIdSet((TinkerIdSet) ids);
+
+        final Set<Object> copy = ConcurrentHashMap.newKeySet();
+        copy.addAll(ids);
+        return copy;
+    }
+
+    private boolean isId(final Object o) {
+        return integerIds ? o instanceof Integer : o instanceof Long;
+    }
+
+    private int indexOf(final long id) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> (Long.numberOfLeadingZeros(keys.length) + 1));
+    }
+
+    /**
+     * Finds the slot of the identifier or the free slot that ends its probe sequence.
+     */
+    private int find(final long id) {
+        final int mask = keys.length - 1;
+        int i = indexOf(id);
+        while (states[i] != FREE) {
+            if (states[i] == USED && keys[i] == id) return i;
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        if (!isId(o)) return false;
+        return states[find(((Number) o).longValue())] == USED;
+    }
+
+    @Override
+    public boolean add(final Object o) {
+        if (!isId(o))
+            throw new IllegalArgumentException(String.format("Expected an id of type %s but was %s",
+                    integerIds ? "Integer" : "Long", null == o ? null : o.getClass().getName()));
+
+        final long id = ((Number) o).longValue();
+        final int i = find(id);
+        if (states[i] == USED) return false;
+
+        keys[i] = id;
+        states[i] = USED;
+        size++;
+        if (++used > keys.length * LOAD_FACTOR) rehash();
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        if (!isId(o)) return false;
+        final int i = find(((Number) o).longValue());
+        if (states[i] != USED) return false;
+        removeAt(i);
+        return true;
+    }
+
+    private void removeAt(final int i) {
+        states[i] = REMOVED;
+        size--;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(states, FREE);
+        size = 0;
+        used = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void rehash() {
+        final long[] oldKeys = keys;
+        final byte[] oldStates = states;
+        int capacity = oldKeys.length;
+        while (size >= capacity * LOAD_FACTOR / 2) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        states = new byte[capacity];
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldStates[j] != USED) continue;
+            final int i = find(oldKeys[j]);
+            keys[i] = oldKeys[j];
+            states[i] = USED;
+        }
+        used = size;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return new Iterator<Object>() {
+            private int next = advance(0);
+            private int last = -1;
+
+            private int advance(int i) {
+                while (i < states.length && states[i] != USED) {
+                    i++;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < states.length;
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                last = next;
+                next = advance(next + 1);
+                return integerIds ? (Object) (int) keys[last] : (Object) keys[last];
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0 || states[last] != USED) throw new IllegalStateException();
+                removeAt(last);
+                last = -1;
+            }
+        };
+    }
+}
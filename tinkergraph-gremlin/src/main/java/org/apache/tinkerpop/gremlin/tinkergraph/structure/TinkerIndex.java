@@ -18,17 +18,27 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Text;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.regex.Pattern;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -36,6 +46,17 @@ import java.util.concurrent.ConcurrentHashMap;
 final class TinkerIndex<T extends Element> extends AbstractTinkerIndex<T> {
 
     protected Map<String, Map<Object, Set<T>>> index = new ConcurrentHashMap<>();
+    protected Map<CompositeKey, Map<List<Object>, Set<T>>> compositeIndex = new ConcurrentHashMap<>();
+    /**
+     * The values each element is currently indexed under per composite index, so that it can be removed from them
+     * once any of its indexed properties change.
+     */
+    protected Map<CompositeKey, Map<T, List<List<Object>>>> compositeEntries = new ConcurrentHashMap<>();
+    /**
+     * The inverted indices of the keys with a {@link TinkerIndexType#TEXT} index, which are kept alongside the hash
+     * index of their values.
+     */
+    protected Map<String, TinkerTextIndex<T>> textIndex = new ConcurrentHashMap<>();
 
     public TinkerIndex(final TinkerGraph graph, final Class<T> indexClass) {
         super(graph, indexClass);
@@ -44,7 +65,7 @@ final class TinkerIndex<T extends Element> extends AbstractTinkerIndex<T> {
     protected void put(final String key, final Object value, final T element) {
         Map<Object, Set<T>> keyMap = this.index.get(key);
         if (null == keyMap) {
-            this.index.putIfAbsent(key, new ConcurrentHashMap<>());
+            this.index.putIfAbsent(key, createKeyMap(key));
             keyMap = this.index.get(key);
         }
         final Object indexableValue = indexable(value);
@@ -54,6 +75,10 @@ final class TinkerIndex<T extends Element> extends AbstractTinkerIndex<T> {
             objects = keyMap.get(indexableValue);
         }
         objects.add(element);
+
+        final TinkerTextIndex<T> text = this.textIndex.get(key);
+        if (null != text)
+            text.reindex(element);
     }
 
     @Override
@@ -70,6 +95,115 @@ final class TinkerIndex<T extends Element> extends AbstractTinkerIndex<T> {
         }
     }
 
+    @Override
+    public List<T> getRange(final String key, final Object from, final boolean fromInclusive,
+                            final Object to, final boolean toInclusive) {
+        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        return null == keyMap ? Collections.emptyList() : flatten(rangeOf(keyMap, from, fromInclusive, to, toInclusive));
+    }
+
+    @Override
+    public List<T> getPrefix(final String key, final String prefix) {
+        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        return null == keyMap ? Collections.emptyList() : flatten(prefixOf(keyMap, prefix));
+    }
+
+    @Override
+    public long countRange(final String key, final Object from, final boolean fromInclusive,
+                           final Object to, final boolean toInclusive) {
+        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        return null == keyMap ? 0 : sizeOfRange(keyMap, from, fromInclusive, to, toInclusive);
+    }
+
+    @Override
+    public long countPrefix(final String key, final String prefix) {
+        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        return null == keyMap ? 0 : sizeOfPrefix(keyMap, prefix);
+    }
+
+    @Override
+    public Iterator<T> getOrdered(final String key, final boolean descending) {
+        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        if (!(keyMap instanceof NavigableMap))
+            return Collections.emptyIterator();
+
+        final Collection<Set<T>> values = descending ?
+                ((NavigableMap<Object, Set<T>>) keyMap).descendingMap().values() : keyMap.values();
+        final Iterator<T> iterator = IteratorUtils.flatMap(values.iterator(), Set::iterator);
+
+        // a vertex with multiple values for the key would otherwise be returned once for each of them
+        if (Vertex.class.isAssignableFrom(this.indexClass)) {
+            final Set<T> seen = new HashSet<>();
+            return IteratorUtils.filter(iterator, seen::add);
+        }
+        return iterator;
+    }
+
+    private List<T> flatten(final List<Map.Entry<Object, Set<T>>> entries) {
+        final Collection<T> elements = Vertex.class.isAssignableFrom(this.indexClass) ? new LinkedHashSet<>() : new ArrayList<>();
+        entries.forEach(entry -> elements.addAll(entry.getValue()));
+        return elements instanceof List ? (List<T>) elements : new ArrayList<>(elements);
+    }
+
+    @Override
+    public List<T> getText(final String key, final BiPredicate<?, ?> predicate, final String value) {
+        final TinkerTextIndex<T> text = this.textIndex.get(key);
+        if (null == text)
+            return null;
+
+        final Set<T> candidates;
+        if (predicate == Text.containing)
+            candidates = text.candidates(value, false, false);
+        else if (predicate == Text.startingWith)
+            candidates = text.candidates(value, true, false);
+        else if (predicate == Text.endingWith)
+            candidates = text.candidates(value, false, true);
+        else if (predicate instanceof Text.RegexPredicate && !((Text.RegexPredicate) predicate).isNegate())
+            // the pattern may match across tokens, so it is tested once for each distinct value instead
+            candidates = matching(key, Pattern.compile(((Text.RegexPredicate) predicate).getPattern()));
+        else
+            return null;
+        return null == candidates ? null : new ArrayList<>(candidates);
+    }
+
+    private Set<T> matching(final String key, final Pattern pattern) {
+        final Set<T> elements = new LinkedHashSet<>();
+        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        if (null != keyMap) {
+            keyMap.forEach((value, objects) -> {
+                if (value instanceof String && pattern.matcher((String) value).find())
+                    elements.addAll(objects);
+            });
+        }
+        return elements;
+    }
+
+    @Override
+    public Map<T, Double> search(final String key, final String query, final boolean stem) {
+        final TinkerTextIndex<T> text = this.textIndex.get(key);
+        return null == text ? Collections.emptyMap() : text.score(query, stem);
+    }
+
+    @Override
+    public List<T> get(final CompositeKey compositeKey, final List<Object> values) {
+        final Map<List<Object>, Set<T>> valueMap = this.compositeIndex.get(compositeKey);
+        if (null == valueMap)
+            return Collections.emptyList();
+
+        final Set<T> set = valueMap.get(compositeValues(values));
+        return null == set ? Collections.emptyList() : new ArrayList<>(set);
+    }
+
+    @Override
+    public long count(final CompositeKey compositeKey, final List<Object> values) {
+        final Map<List<Object>, Set<T>> valueMap = this.compositeIndex.get(compositeKey);
+        if (null == valueMap)
+            return 0;
+
+        final Set<T> set = valueMap.get(compositeValues(values));
+        return null == set ? 0 : set.size();
+    }
+
     @Override
     public long count(final String key, final Object value) {
         final Map<Object, Set<T>> keyMap = this.index.get(key);
@@ -92,10 +226,14 @@ final class TinkerIndex<T extends Element> extends AbstractTinkerIndex<T> {
             if (null != objects) {
                 objects.remove(element);
                 if (objects.size() == 0) {
-                    keyMap.remove(value);
+                    keyMap.remove(indexable(value));
                 }
             }
         }
+        final TinkerTextIndex<T> text = this.textIndex.get(key);
+        if (null != text)
+            text.reindex(element);
+        this.updateCompositeIndices(key, element);
     }
 
     @Override
@@ -106,6 +244,12 @@ final class TinkerIndex<T extends Element> extends AbstractTinkerIndex<T> {
                     set.remove(element);
                 }
             }
+            for (final TinkerTextIndex<T> text : textIndex.values()) {
+                text.remove(element);
+            }
+            for (final CompositeKey compositeKey : this.compositeKeys) {
+                this.removeCompositeEntries(compositeKey, element);
+            }
         }
     }
 
@@ -114,18 +258,110 @@ final class TinkerIndex<T extends Element> extends AbstractTinkerIndex<T> {
         if (this.indexedKeys.contains(key)) {
             this.remove(key, oldValue, element);
             this.put(key, newValue, element);
+        } else {
+            this.updateCompositeIndices(key, element);
+        }
+    }
+
+    /**
+     * Indexes elements that were added to the graph without updating the index, which is how
+     * {@link TinkerBulkLoader} adds them.
+     */
+    void addAll(final Collection<T> elements) {
+        for (final String key : this.indexedKeys) {
+            elements.parallelStream().forEach(e -> e.properties(key).forEachRemaining(p -> this.put(key, p.value(), e)));
+        }
+        for (final CompositeKey compositeKey : this.compositeKeys) {
+            elements.parallelStream().forEach(e -> this.reindex(compositeKey, e));
+        }
+    }
+
+    private void updateCompositeIndices(final String key, final T element) {
+        for (final CompositeKey compositeKey : this.compositeKeys) {
+            if (compositeKey.getKeys().contains(key))
+                this.reindex(compositeKey, element);
+        }
+    }
+
+    private void reindex(final CompositeKey compositeKey, final T element) {
+        final Map<List<Object>, Set<T>> valueMap = this.compositeIndex.get(compositeKey);
+        if (null == valueMap)
+            return;
+
+        this.removeCompositeEntries(compositeKey, element);
+        final List<List<Object>> combinations = compositeValuesOf(element, compositeKey);
+        if (combinations.isEmpty())
+            return;
+
+        this.compositeEntries.get(compositeKey).put(element, combinations);
+        for (final List<Object> values : combinations) {
+            valueMap.computeIfAbsent(values, v -> ConcurrentHashMap.newKeySet()).add(element);
+        }
+    }
+
+    private void removeCompositeEntries(final CompositeKey compositeKey, final T element) {
+        final Map<List<Object>, Set<T>> valueMap = this.compositeIndex.get(compositeKey);
+        final Map<T, List<List<Object>>> entries = this.compositeEntries.get(compositeKey);
+        if (null == valueMap || null == entries)
+            return;
+
+        final List<List<Object>> combinations = entries.remove(element);
+        if (null == combinations)
+            return;
+
+        for (final List<Object> values : combinations) {
+            final Set<T> objects = valueMap.get(values);
+            if (null != objects) {
+                objects.remove(element);
+                if (objects.isEmpty())
+                    valueMap.remove(values);
+            }
         }
     }
 
     @Override
-    public void createKeyIndex(final String key) {
+    public void createCompositeKeyIndex(final CompositeKey compositeKey) {
+        if (null == compositeKey)
+            throw Graph.Exceptions.argumentCanNotBeNull("compositeKey");
+        if (this.compositeKeys.contains(compositeKey))
+            return;
+
+        this.compositeIndex.put(compositeKey, new ConcurrentHashMap<>());
+        this.compositeEntries.put(compositeKey, new ConcurrentHashMap<>());
+        this.compositeKeys.add(compositeKey);
+
+        (Vertex.class.isAssignableFrom(this.indexClass) ?
+                ((TinkerGraph) this.graph).vertices.values().parallelStream() :
+                ((TinkerGraph) this.graph).edges.values().parallelStream())
+                .forEach(e -> this.reindex(compositeKey, (T) e));
+    }
+
+    @Override
+    public void dropCompositeKeyIndex(final CompositeKey compositeKey) {
+        this.compositeKeys.remove(compositeKey);
+        if (this.compositeIndex.containsKey(compositeKey))
+            this.compositeIndex.remove(compositeKey).clear();
+        if (this.compositeEntries.containsKey(compositeKey))
+            this.compositeEntries.remove(compositeKey).clear();
+    }
+
+    @Override
+    public void createKeyIndex(final String key, final TinkerIndexType indexType) {
         if (null == key)
             throw Graph.Exceptions.argumentCanNotBeNull("key");
         if (key.isEmpty())
             throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        if (null == indexType)
+            throw Graph.Exceptions.argumentCanNotBeNull("indexType");
 
-        if (this.indexedKeys.contains(key))
-            return;
+        if (this.indexedKeys.contains(key)) {
+            if (getIndexType(key) == indexType)
+                return;
+            this.dropKeyIndex(key);
+        }
+        this.indexTypes.put(key, indexType);
+        if (indexType == TinkerIndexType.TEXT)
+            this.textIndex.put(key, new TinkerTextIndex<>(key));
         this.indexedKeys.add(key);
 
         (Vertex.class.isAssignableFrom(this.indexClass) ?
@@ -141,7 +377,10 @@ final class TinkerIndex<T extends Element> extends AbstractTinkerIndex<T> {
     public void dropKeyIndex(final String key) {
         if (this.index.containsKey(key))
             this.index.remove(key).clear();
+        if (this.textIndex.containsKey(key))
+            this.textIndex.remove(key).clear();
 
         this.indexedKeys.remove(key);
+        this.indexTypes.remove(key);
     }
 }
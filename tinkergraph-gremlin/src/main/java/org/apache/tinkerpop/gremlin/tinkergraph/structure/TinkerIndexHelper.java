@@ -18,8 +18,22 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.Text;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
 
 public final class TinkerIndexHelper {
 
@@ -34,10 +48,143 @@ public final class TinkerIndexHelper {
         return null == graph.edgeIndex ? Collections.emptyList() : graph.edgeIndex.get(key, value);
     }
 
+    /**
+     * Gets the type of index for the key or {@code null} if it is not indexed for the element class.
+     */
+    public static TinkerIndexType getIndexType(final AbstractTinkerGraph graph, final Class<? extends Element> elementClass, final String key) {
+        final AbstractTinkerIndex<?> index = getIndex(graph, elementClass);
+        return null == index ? null : index.getIndexType(key);
+    }
+
+    public static List<? extends Element> queryIndexRange(final AbstractTinkerGraph graph, final Class<? extends Element> elementClass,
+                                                          final String key, final Object from, final boolean fromInclusive,
+                                                          final Object to, final boolean toInclusive) {
+        final AbstractTinkerIndex<?> index = getIndex(graph, elementClass);
+        return null == index ? Collections.emptyList() : index.getRange(key, from, fromInclusive, to, toInclusive);
+    }
+
+    public static List<? extends Element> queryIndexPrefix(final AbstractTinkerGraph graph, final Class<? extends Element> elementClass,
+                                                           final String key, final String prefix) {
+        final AbstractTinkerIndex<?> index = getIndex(graph, elementClass);
+        return null == index ? Collections.emptyList() : index.getPrefix(key, prefix);
+    }
+
+    public static Iterator<? extends Element> queryIndexOrdered(final AbstractTinkerGraph graph, final Class<? extends Element> elementClass,
+                                                                final String key, final boolean descending) {
+        final AbstractTinkerIndex<?> index = getIndex(graph, elementClass);
+        return null == index ? Collections.emptyIterator() : index.getOrdered(key, descending);
+    }
+
+    public static List<? extends Element> queryIndexText(final AbstractTinkerGraph graph, final Class<? extends Element> elementClass,
+                                                         final String key, final BiPredicate<?, ?> predicate, final String value) {
+        final AbstractTinkerIndex<?> index = getIndex(graph, elementClass);
+        return null == index ? null : index.getText(key, predicate, value);
+    }
+
+    public static Map<? extends Element, Double> searchIndexText(final AbstractTinkerGraph graph, final Class<? extends Element> elementClass,
+                                                                 final String key, final String query, final boolean stem) {
+        final AbstractTinkerIndex<?> index = getIndex(graph, elementClass);
+        return null == index ? Collections.emptyMap() : index.search(key, query, stem);
+    }
+
+    public static long countIndex(final AbstractTinkerGraph graph, final Class<? extends Element> elementClass,
+                                  final String key, final Object value) {
+        final AbstractTinkerIndex<?> index = getIndex(graph, elementClass);
+        return null == index ? 0 : index.count(key, value);
+    }
+
+    public static List<? extends Element> queryCompositeIndex(final AbstractTinkerGraph graph, final Class<? extends Element> elementClass,
+                                                              final AbstractTinkerIndex.CompositeKey compositeKey, final List<Object> values) {
+        final AbstractTinkerIndex<?> index = getIndex(graph, elementClass);
+        return null == index ? Collections.emptyList() : index.get(compositeKey, values);
+    }
+
+    public static long countCompositeIndex(final AbstractTinkerGraph graph, final Class<? extends Element> elementClass,
+                                           final AbstractTinkerIndex.CompositeKey compositeKey, final List<Object> values) {
+        final AbstractTinkerIndex<?> index = getIndex(graph, elementClass);
+        return null == index ? 0 : index.count(compositeKey, values);
+    }
+
+    /**
+     * Estimates the number of elements matching the {@link HasContainer} from the label counts and the indices.
+     *
+     * @return the estimate or {@code -1} if neither can tell
+     */
+    public static long estimate(final AbstractTinkerGraph graph, final Class<? extends Element> elementClass,
+                                final HasContainer hasContainer) {
+        final String key = hasContainer.getKey();
+        final BiPredicate<?, ?> biPredicate = hasContainer.getBiPredicate();
+        final Object value = hasContainer.getValue();
+
+        if (T.label.getAccessor().equals(key)) {
+            if (biPredicate == Compare.eq)
+                return value instanceof String ? graph.count(elementClass, (String) value) : 0;
+            else if (biPredicate == Compare.neq)
+                return graph.count(elementClass) - (value instanceof String ? graph.count(elementClass, (String) value) : 0);
+            else if (biPredicate == Contains.within && value instanceof Collection) {
+                long count = 0;
+                for (final Object label : new HashSet<>((Collection<?>) value)) {
+                    if (label instanceof String) count += graph.count(elementClass, (String) label);
+                }
+                return count;
+            }
+            return -1;
+        }
+
+        if (T.id.getAccessor().equals(key)) {
+            if (biPredicate == Compare.eq)
+                return 1;
+            else if (biPredicate == Contains.within && value instanceof Collection)
+                return ((Collection<?>) value).size();
+            return -1;
+        }
+
+        final AbstractTinkerIndex<?> index = getIndex(graph, elementClass);
+        final TinkerIndexType indexType = null == index ? null : index.getIndexType(key);
+        if (null == indexType)
+            return -1;
+
+        if (biPredicate == Compare.eq)
+            return index.count(key, value);
+        else if (biPredicate == Contains.within && value instanceof Collection) {
+            long count = 0;
+            for (final Object v : new HashSet<>((Collection<?>) value)) {
+                count += index.count(key, v);
+            }
+            return count;
+        } else if (indexType == TinkerIndexType.SORTED && null != value) {
+            if (biPredicate == Compare.gt || biPredicate == Compare.gte)
+                return index.countRange(key, value, biPredicate == Compare.gte, null, false);
+            else if (biPredicate == Compare.lt || biPredicate == Compare.lte)
+                return index.countRange(key, null, false, value, biPredicate == Compare.lte);
+            else if (biPredicate == Text.startingWith && value instanceof String)
+                return index.countPrefix(key, (String) value);
+        }
+        return -1;
+    }
+
+    public static long countIndexRange(final AbstractTinkerGraph graph, final Class<? extends Element> elementClass,
+                                       final String key, final Object from, final boolean fromInclusive,
+                                       final Object to, final boolean toInclusive) {
+        final AbstractTinkerIndex<?> index = getIndex(graph, elementClass);
+        return null == index ? 0 : index.countRange(key, from, fromInclusive, to, toInclusive);
+    }
+
+    private static AbstractTinkerIndex<?> getIndex(final AbstractTinkerGraph graph, final Class<? extends Element> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass))
+            return graph.vertexIndex;
+        else if (Edge.class.isAssignableFrom(elementClass))
+            return graph.edgeIndex;
+        else
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+    }
+
     public static void autoUpdateIndex(final TinkerEdge edge, final String key, final Object newValue, final Object oldValue) {
         final AbstractTinkerGraph graph = (AbstractTinkerGraph) edge.graph();
         if (graph.edgeIndex != null)
             graph.edgeIndex.autoUpdate(key, newValue, oldValue, edge);
+        if (graph instanceof TinkerGraph)
+            ((TinkerGraph) graph).updateVertexCentricIndex(edge, key, oldValue, true, newValue);
     }
 
     public static void autoUpdateIndex(final TinkerVertex vertex, final String key, final Object newValue, final Object oldValue) {
@@ -68,5 +215,7 @@ public final class TinkerIndexHelper {
         final AbstractTinkerGraph graph = (AbstractTinkerGraph) edge.graph();
         if (graph.edgeIndex != null)
             graph.edgeIndex.remove(key, value, edge);
+        if (graph instanceof TinkerGraph)
+            ((TinkerGraph) graph).updateVertexCentricIndex(edge, key, value, false, null);
     }
 }
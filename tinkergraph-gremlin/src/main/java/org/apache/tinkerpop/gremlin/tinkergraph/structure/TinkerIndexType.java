@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+/**
+ * The kinds of property indices that can be created on an {@link AbstractTinkerGraph}.
+ */
+public enum TinkerIndexType {
+
+    /**
+     * A hash based index which can only answer equality lookups.
+     */
+    HASH,
+
+    /**
+     * An index which keeps values sorted by Gremlin orderability semantics and can therefore also answer range and
+     * prefix lookups and return elements in value order.
+     */
+    SORTED,
+
+    /**
+     * A hash based index which also keeps an inverted index of the tokens of {@code String} values, so that it can
+     * answer {@code TextP} lookups and rank elements against a full text query.
+     */
+    TEXT
+}
@@ -0,0 +1,773 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoVersion;
+import org.apache.tinkerpop.gremlin.structure.util.TransactionException;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of the mutations made to a graph since its last snapshot at the
+ * {@link AbstractTinkerGraph#GREMLIN_TINKERGRAPH_GRAPH_LOCATION}, so that the graph is recovered by loading the
+ * snapshot and replaying the log rather than being lost if it is not closed. {@link TinkerGraph} logs each mutation as
+ * it is made while {@link TinkerTransactionGraph} writes the changes of a transaction ahead of committing them. Once
+ * the log grows beyond {@link AbstractTinkerGraph#GREMLIN_TINKERGRAPH_MUTATION_LOG_SNAPSHOT_SIZE} a new snapshot is
+ * taken and the log is cut back to the mutations made since the snapshot was started. {@link TinkerTransactionGraph}
+ * takes that snapshot in the background while {@link TinkerGraph}, whose elements can not be read while they are
+ * changed, takes it in the change that crossed the size, which stalls that change until the graph is written.
+ * <p/>
+ * Each frame of the log holds the mutations of one change along with their length and checksum, so a frame torn by a
+ * crash is detected and discarded on recovery. Replaying a mutation sets the state of what it changes rather than
+ * applying a difference, which makes replaying the log on a snapshot that already holds some of its mutations safe.
+ */
+final class TinkerMutationLog {
+
+    /**
+     * Determines when the log is forced to the storage device.
+     */
+    enum Sync {
+        /**
+         * Forces every frame before the change is made or committed.
+         */
+        ALWAYS,
+
+        /**
+         * Forces the log in the background once the interval has passed since it was last forced if frames were
+         * written since, so a crash of the operating system loses at most the frames of one interval.
+         */
+        INTERVAL,
+
+        /**
+         * Leaves it to the operating system, so only a crash of the process is survived.
+         */
+        NEVER
+    }
+
+    private static final byte VERTEX = 1;
+    private static final byte EDGE = 2;
+    private static final byte REMOVE_VERTEX = 3;
+    private static final byte REMOVE_EDGE = 4;
+    private static final byte VERTEX_PROPERTY = 5;
+    private static final byte REMOVE_VERTEX_PROPERTY = 6;
+    private static final byte META_PROPERTY = 7;
+    private static final byte REMOVE_META_PROPERTY = 8;
+    private static final byte EDGE_PROPERTY = 9;
+    private static final byte REMOVE_EDGE_PROPERTY = 10;
+    private static final byte CLEAR = 11;
+
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+
+    private final AbstractTinkerGraph graph;
+    private final boolean transactional;
+    private final Path path;
+    private final Sync sync;
+    private final long syncInterval;
+    private final long snapshotSize;
+
+    private final Kryo kryo;
+    private final Output output = new Output(4096, -1);
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Commits hold the read lock from writing their frame until they are applied, so that a snapshot is not started
+     * in between and the log is not cut back past a frame the snapshot misses.
+     */
+    private final ReadWriteLock commitLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean compacting = new AtomicBoolean(false);
+
+    private FileChannel channel;
+    private volatile long size;
+    private long lastSync = System.currentTimeMillis();
+    // whether frames were written since the log was last forced
+    private boolean dirty = false;
+
+    /**
+     * Forces the log every interval and takes the snapshots of {@link TinkerTransactionGraph}, started when the log is
+     * opened for appending and stopped when it is closed.
+     */
+    private ScheduledExecutorService background;
+    private boolean closing = false;
+    private volatile RuntimeException backgroundFailure;
+
+    private TinkerMutationLog(final AbstractTinkerGraph graph, final Path path, final Sync sync,
+                              final long syncInterval, final long snapshotSize) {
+        this.graph = graph;
+        this.transactional = graph instanceof TinkerTransactionGraph;
+        this.path = path;
+        this.sync = sync;
+        this.syncInterval = syncInterval;
+        this.snapshotSize = snapshotSize;
+        this.kryo = GryoMapper.build().version(GryoVersion.V3_0).addRegistry(TinkerIoRegistryV3.instance()).create().createMapper();
+    }
+
+    /**
+     * Replays the log next to the snapshot of the graph, which must be loaded already, and opens it for appending. The
+     * log is to be set on the graph only after this returns so that replaying is not logged again.
+     */
+    static TinkerMutationLog open(final AbstractTinkerGraph graph) {
+        final String syncName = graph.configuration.getString(AbstractTinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG_SYNC, Sync.INTERVAL.name());
+        final Sync sync;
+        try {
+            sync = Sync.valueOf(syncName.toUpperCase());
+        } catch (IllegalArgumentException iae) {
+            throw new IllegalStateException(String.format("The %s must be one of always, interval or never but was %s",
+                    AbstractTinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG_SYNC, syncName));
+        }
+
+        final TinkerMutationLog log = new TinkerMutationLog(graph, new File(graph.graphLocation + ".log").toPath(), sync,
+                graph.configuration.getLong(AbstractTinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG_SYNC_INTERVAL, 1000L),
+                graph.configuration.getLong(AbstractTinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG_SNAPSHOT_SIZE, 64L * 1024 * 1024));
+        try {
+            log.replay();
+        } catch (IOException ioe) {
+            throw new IllegalStateException(String.format("Could not replay the mutation log at %s", log.path), ioe);
+        }
+        log.skipLoadedIds();
+        return log;
+    }
+
+    /**
+     * Moves the counter of the id managers past the numeric ids of the loaded elements. Vertex property ids generated
+     * after a restart would otherwise repeat those of the snapshot, which makes the mutations of the log ambiguous.
+     */
+    private void skipLoadedIds() {
+        final long[] max = {graph.currentId.get()};
+        final Consumer<Element> skip = element -> {
+            if (element.id() instanceof Number) max[0] = Math.max(max[0], ((Number) element.id()).longValue());
+        };
+        graph.vertices().forEachRemaining(v -> {
+            skip.accept(v);
+            v.properties().forEachRemaining(skip);
+        });
+        graph.edges().forEachRemaining(skip);
+        graph.currentId.set(max[0]);
+        if (transactional && graph.tx().isOpen()) graph.tx().rollback();
+    }
+
+    /**
+     * Gets the log to write a mutation of the element to, which is only the case if the graph logs each mutation as it
+     * is made and the element is part of the graph, as elements are logged as a whole when they are added.
+     */
+    private static TinkerMutationLog logOf(final Element element) {
+        final AbstractTinkerGraph graph = (AbstractTinkerGraph) element.graph();
+        final TinkerMutationLog log = graph.mutationLog;
+        if (null == log || log.transactional || TinkerHelper.inComputerMode(graph))
+            return null;
+        final Element current = element instanceof Vertex ? graph.vertex(element.id()) : graph.edge(element.id());
+        return current == element ? log : null;
+    }
+
+    static void logVertexProperty(final TinkerVertexProperty<?> vertexProperty) {
+        final TinkerMutationLog log = logOf(vertexProperty.element());
+        if (null != log) log.log(o -> {
+            o.writeByte(VERTEX_PROPERTY);
+            log.writeObject(vertexProperty.element().id());
+            log.writeVertexProperty(vertexProperty);
+        });
+    }
+
+    static void logRemoveVertexProperty(final TinkerVertexProperty<?> vertexProperty) {
+        final TinkerMutationLog log = logOf(vertexProperty.element());
+        if (null != log) log.log(o -> {
+            o.writeByte(REMOVE_VERTEX_PROPERTY);
+            log.writeObject(vertexProperty.element().id());
+            log.writeObject(vertexProperty.id());
+        });
+    }
+
+    static void logMetaProperty(final TinkerVertexProperty<?> vertexProperty, final Property<?> property) {
+        final TinkerMutationLog log = logOf(vertexProperty.element());
+        if (null != log) log.log(o -> {
+            o.writeByte(META_PROPERTY);
+            log.writeObject(vertexProperty.element().id());
+            log.writeObject(vertexProperty.id());
+            o.writeString(property.key());
+            log.writeObject(property.value());
+        });
+    }
+
+    static void logRemoveMetaProperty(final TinkerVertexProperty<?> vertexProperty, final String key) {
+        final TinkerMutationLog log = logOf(vertexProperty.element());
+        if (null != log) log.log(o -> {
+            o.writeByte(REMOVE_META_PROPERTY);
+            log.writeObject(vertexProperty.element().id());
+            log.writeObject(vertexProperty.id());
+            o.writeString(key);
+        });
+    }
+
+    static void logEdgeProperty(final TinkerEdge edge, final Property<?> property) {
+        final TinkerMutationLog log = logOf(edge);
+        if (null != log) log.log(o -> {
+            o.writeByte(EDGE_PROPERTY);
+            log.writeObject(edge.id());
+            o.writeString(property.key());
+            log.writeObject(property.value());
+        });
+    }
+
+    static void logRemoveEdgeProperty(final TinkerEdge edge, final String key) {
+        final TinkerMutationLog log = logOf(edge);
+        if (null != log) log.log(o -> {
+            o.writeByte(REMOVE_EDGE_PROPERTY);
+            log.writeObject(edge.id());
+            o.writeString(key);
+        });
+    }
+
+    void logVertex(final Vertex vertex) {
+        log(o -> writeVertex(vertex));
+    }
+
+    void logEdge(final Edge edge) {
+        log(o -> writeEdge(edge));
+    }
+
+    void logRemoveVertex(final Object vertexId) {
+        log(o -> {
+            o.writeByte(REMOVE_VERTEX);
+            writeObject(vertexId);
+        });
+    }
+
+    void logRemoveEdge(final Object edgeId) {
+        log(o -> {
+            o.writeByte(REMOVE_EDGE);
+            writeObject(edgeId);
+        });
+    }
+
+    void logClear() {
+        log(o -> o.writeByte(CLEAR));
+    }
+
+    /**
+     * Writes the changes of a transaction to the log ahead of committing them. Once this returns the changes must be
+     * applied before {@link #committed()} is called.
+     */
+    void logCommit(final Set<TinkerElementContainer<TinkerVertex>> changedVertices,
+                   final Set<TinkerElementContainer<TinkerEdge>> changedEdges) {
+        commitLock.readLock().lock();
+        try {
+            append(o -> {
+                // vertices before the edges that refer to them and edges before the vertices they are removed with
+                changedVertices.stream().filter(c -> !c.isDeleted() && null != c.getModified()).forEach(c -> writeVertex(c.getModified()));
+                changedEdges.stream().filter(TinkerElementContainer::isDeleted).forEach(c -> {
+                    o.writeByte(REMOVE_EDGE);
+                    writeObject(c.getElementId());
+                });
+                changedEdges.stream().filter(c -> !c.isDeleted() && null != c.getModified()).forEach(c -> writeEdge(c.getModified()));
+                changedVertices.stream().filter(TinkerElementContainer::isDeleted).forEach(c -> {
+                    o.writeByte(REMOVE_VERTEX);
+                    writeObject(c.getElementId());
+                });
+            });
+        } catch (UncheckedIOException uioe) {
+            commitLock.readLock().unlock();
+            throw new TransactionException(String.format("Could not write the transaction to the mutation log at %s", path), uioe);
+        } catch (RuntimeException re) {
+            commitLock.readLock().unlock();
+            throw re;
+        }
+    }
+
+    /**
+     * Marks the end of a commit started with {@link #logCommit(Set, Set)}.
+     */
+    void committed() {
+        commitLock.readLock().unlock();
+    }
+
+    /**
+     * Takes a snapshot of the graph if the log grew beyond the configured size, which must not be called while the
+     * current thread commits a transaction.
+     */
+    void compactIfNeeded() {
+        final RuntimeException failure = backgroundFailure;
+        if (null != failure) {
+            backgroundFailure = null;
+            throw new IllegalStateException(String.format("Could not take a snapshot of the graph for the mutation log at %s", path), failure);
+        }
+        if (snapshotSize <= 0 || size < snapshotSize || compacting.get()) return;
+
+        if (transactional) {
+            final ScheduledExecutorService service = background();
+            if (null != service) service.execute(() -> {
+                try {
+                    compact();
+                } catch (RuntimeException re) {
+                    backgroundFailure = re;
+                }
+            });
+        } else {
+            compact();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the graph and cuts the log back to the mutations made since the snapshot was started.
+     */
+    void compact() {
+        if (!compacting.compareAndSet(false, true)) return;
+        try {
+            final long mark;
+            commitLock.writeLock().lock();
+            try {
+                synchronized (this) {
+                    mark = size;
+                }
+            } finally {
+                commitLock.writeLock().unlock();
+            }
+
+            graph.saveGraph();
+            // reading the graph for the snapshot opens a transaction that is of no use to the current thread
+            if (transactional && graph.tx().isOpen())
+                graph.tx().rollback();
+
+            synchronized (this) {
+                truncate(mark);
+            }
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(String.format("Could not compact the mutation log at %s", path), ioe);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    /**
+     * Takes a snapshot of the graph and closes the log, which is reopened if the graph is changed afterwards.
+     */
+    void close() {
+        // a snapshot taken in the background is completed first as the log is cut back after it
+        final ScheduledExecutorService service;
+        synchronized (this) {
+            service = background;
+            background = null;
+            closing = true;
+        }
+        if (null != service) {
+            service.shutdown();
+            try {
+                service.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        try {
+            compact();
+            synchronized (this) {
+                dirty = false;
+                if (null != channel) {
+                    channel.force(false);
+                    channel.close();
+                    channel = null;
+                }
+            }
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(String.format("Could not close the mutation log at %s", path), ioe);
+        } finally {
+            synchronized (this) {
+                closing = false;
+            }
+        }
+    }
+
+    private void log(final Writer writer) {
+        try {
+            append(writer);
+        } catch (UncheckedIOException uioe) {
+            throw new IllegalStateException(String.format("Could not write to the mutation log at %s", path), uioe);
+        }
+        compactIfNeeded();
+    }
+
+    private synchronized void append(final Writer writer) {
+        output.setPosition(0);
+        writer.write(output);
+        final int length = output.position();
+        crc.reset();
+        crc.update(output.getBuffer(), 0, length);
+
+        final ByteBuffer frame = ByteBuffer.allocate(HEADER_SIZE + length);
+        frame.putInt(length).putInt((int) crc.getValue()).put(output.getBuffer(), 0, length).flip();
+        try {
+            if (null == channel) openChannel();
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+            size += HEADER_SIZE + length;
+            dirty = true;
+
+            if (Sync.ALWAYS == sync || (Sync.INTERVAL == sync && System.currentTimeMillis() - lastSync >= syncInterval)) {
+                channel.force(false);
+                lastSync = System.currentTimeMillis();
+                dirty = false;
+            }
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    private void openChannel() throws IOException {
+        final Path parent = path.toAbsolutePath().getParent();
+        if (null != parent) Files.createDirectories(parent);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        size = channel.size();
+        channel.position(size);
+        background();
+    }
+
+    /**
+     * Gets the background service, starting it if the log is open and it is not started yet.
+     */
+    private synchronized ScheduledExecutorService background() {
+        if (null == background && null != channel && !closing) {
+            // two threads so that the log is forced while a snapshot is taken
+            background = Executors.newScheduledThreadPool(2, new BasicThreadFactory.Builder().
+                    namingPattern("tinkergraph-mutation-log-%d").daemon(true).build());
+            if (Sync.INTERVAL == sync)
+                background.scheduleWithFixedDelay(this::syncIfDirty, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+        }
+        return background;
+    }
+
+    /**
+     * Forces the frames written since the log was last forced, so that they are not left unforced if no more changes
+     * are made after them.
+     */
+    private synchronized void syncIfDirty() {
+        if (!dirty || null == channel) return;
+        try {
+            channel.force(false);
+            lastSync = System.currentTimeMillis();
+            dirty = false;
+        } catch (IOException ignored) {
+            // the log remains dirty so forcing it is tried again in the next interval or with the next frame
+        }
+    }
+
+    /**
+     * Replaces the log with its frames following the mark, writing them to a new file first so that the log remains
+     * whole if this is interrupted.
+     */
+    private void truncate(final long mark) throws IOException {
+        if (null == channel) openChannel();
+        final Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (final FileChannel target = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = mark;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            target.force(false);
+        }
+        channel.close();
+        move(tmp, path);
+        openChannel();
+    }
+
+    /**
+     * Moves a file that was written in full in place of the target, forcing it first so that the target is never
+     * replaced by a file that is not whole after a crash.
+     */
+    static void move(final Path source, final Path target) throws IOException {
+        try (final FileChannel c = FileChannel.open(source, StandardOpenOption.WRITE)) {
+            c.force(true);
+        }
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException amnse) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    ////////////// WRITING //////////////////
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(final Output output);
+    }
+
+    private void writeObject(final Object object) {
+        kryo.writeClassAndObject(output, object);
+    }
+
+    private void writeVertex(final Vertex vertex) {
+        output.writeByte(VERTEX);
+        writeObject(vertex.id());
+        output.writeString(vertex.label());
+        final List<VertexProperty<?>> vertexProperties = new ArrayList<>();
+        vertex.properties().forEachRemaining(vertexProperties::add);
+        output.writeInt(vertexProperties.size(), true);
+        vertexProperties.forEach(this::writeVertexProperty);
+    }
+
+    private void writeVertexProperty(final VertexProperty<?> vertexProperty) {
+        writeObject(vertexProperty.id());
+        output.writeString(vertexProperty.key());
+        writeObject(vertexProperty.value());
+        writeProperties(vertexProperty.properties());
+    }
+
+    private void writeEdge(final Edge edge) {
+        final TinkerEdge tinkerEdge = (TinkerEdge) edge;
+        output.writeByte(EDGE);
+        writeObject(edge.id());
+        output.writeString(edge.label());
+        writeObject(transactional ? tinkerEdge.outVertexId : tinkerEdge.outVertex.id());
+        writeObject(transactional ? tinkerEdge.inVertexId : tinkerEdge.inVertex.id());
+        writeProperties(edge.properties());
+    }
+
+    private void writeProperties(final Iterator<? extends Property<?>> properties) {
+        final List<Property<?>> list = new ArrayList<>();
+        properties.forEachRemaining(list::add);
+        output.writeInt(list.size(), true);
+        for (final Property<?> property : list) {
+            output.writeString(property.key());
+            writeObject(property.value());
+        }
+    }
+
+    ////////////// REPLAYING //////////////////
+
+    private void replay() throws IOException {
+        if (!Files.exists(path)) return;
+
+        long valid = 0;
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            final long length = Files.size(path);
+            while (valid + HEADER_SIZE <= length) {
+                final int frameLength = in.readInt();
+                final int checksum = in.readInt();
+                if (frameLength < 0 || valid + HEADER_SIZE + frameLength > length) break;
+
+                final byte[] frame = new byte[frameLength];
+                in.readFully(frame);
+                crc.reset();
+                crc.update(frame, 0, frameLength);
+                if ((int) crc.getValue() != checksum) break;
+
+                apply(new Input(frame));
+                valid += HEADER_SIZE + frameLength;
+            }
+        } catch (EOFException ignored) {
+            // a torn frame at the end of the log
+        }
+
+        // drop what follows the last whole frame as it was never acknowledged
+        try (final FileChannel c = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            if (c.size() > valid) {
+                c.truncate(valid);
+                c.force(false);
+            }
+        }
+    }
+
+    private void apply(final Input input) {
+        while (input.position() < input.limit()) {
+            final byte type = input.readByte();
+            switch (type) {
+                case VERTEX:
+                    applyVertex(input);
+                    break;
+                case EDGE:
+                    applyEdge(input);
+                    break;
+                case REMOVE_VERTEX: {
+                    final Vertex vertex = graph.vertex(readObject(input));
+                    if (null != vertex) vertex.remove();
+                    break;
+                }
+                case REMOVE_EDGE: {
+                    final Edge edge = graph.edge(readObject(input));
+                    if (null != edge) edge.remove();
+                    break;
+                }
+                case VERTEX_PROPERTY: {
+                    final Vertex vertex = graph.vertex(readObject(input));
+                    applyVertexProperty(vertex, input);
+                    break;
+                }
+                case REMOVE_VERTEX_PROPERTY: {
+                    final VertexProperty<?> vertexProperty = findVertexProperty(graph.vertex(readObject(input)), readObject(input));
+                    if (null != vertexProperty) vertexProperty.remove();
+                    break;
+                }
+                case META_PROPERTY: {
+                    final VertexProperty<?> vertexProperty = findVertexProperty(graph.vertex(readObject(input)), readObject(input));
+                    final String key = input.readString();
+                    final Object value = readObject(input);
+                    if (null != vertexProperty) vertexProperty.property(key, value);
+                    break;
+                }
+                case REMOVE_META_PROPERTY: {
+                    final VertexProperty<?> vertexProperty = findVertexProperty(graph.vertex(readObject(input)), readObject(input));
+                    final String key = input.readString();
+                    if (null != vertexProperty) vertexProperty.property(key).remove();
+                    break;
+                }
+                case EDGE_PROPERTY: {
+                    final Edge edge = graph.edge(readObject(input));
+                    final String key = input.readString();
+                    final Object value = readObject(input);
+                    if (null != edge) edge.property(key, value);
+                    break;
+                }
+                case REMOVE_EDGE_PROPERTY: {
+                    final Edge edge = graph.edge(readObject(input));
+                    final String key = input.readString();
+                    if (null != edge) edge.property(key).remove();
+                    break;
+                }
+                case CLEAR:
+                    graph.clear();
+                    break;
+                default:
+                    throw new IllegalStateException(String.format("Unknown mutation %s in the mutation log at %s", type, path));
+            }
+        }
+
+        if (transactional) graph.tx().commit();
+    }
+
+    private Object readObject(final Input input) {
+        return kryo.readClassAndObject(input);
+    }
+
+    private void applyVertex(final Input input) {
+        final Object id = readObject(input);
+        final String label = input.readString();
+
+        Vertex vertex = graph.vertex(id);
+        if (null != vertex && !vertex.label().equals(label)) {
+            vertex.remove();
+            vertex = null;
+        }
+        if (null == vertex)
+            vertex = graph.addVertex(T.id, id, T.label, label);
+        else
+            IteratorUtils.list(vertex.properties()).forEach(Property::remove);
+
+        final int count = input.readInt(true);
+        for (int i = 0; i < count; i++) {
+            applyVertexProperty(vertex, input);
+        }
+    }
+
+    private void applyVertexProperty(final Vertex vertex, final Input input) {
+        final Object id = readObject(input);
+        final String key = input.readString();
+        final Object value = readObject(input);
+        final Object[] keyValues = readProperties(input);
+        if (null == vertex) return;
+
+        final VertexProperty<?> existing = findVertexProperty(vertex, id);
+        if (null != existing) existing.remove();
+        final VertexProperty<?> vertexProperty = vertex.property(VertexProperty.Cardinality.list, key, value, T.id, id);
+        for (int i = 0; i < keyValues.length; i = i + 2) {
+            vertexProperty.property((String) keyValues[i], keyValues[i + 1]);
+        }
+    }
+
+    private void applyEdge(final Input input) {
+        final Object id = readObject(input);
+        final String label = input.readString();
+        final Object outVertexId = readObject(input);
+        final Object inVertexId = readObject(input);
+        final Object[] keyValues = readProperties(input);
+
+        Edge edge = graph.edge(id);
+        if (null != edge && (!edge.label().equals(label) || !edge.outVertex().id().equals(outVertexId) ||
+                !edge.inVertex().id().equals(inVertexId))) {
+            edge.remove();
+            edge = null;
+        }
+        if (null == edge) {
+            final Vertex outVertex = graph.vertex(outVertexId);
+            final Vertex inVertex = graph.vertex(inVertexId);
+            if (null == outVertex || null == inVertex) return;
+            edge = outVertex.addEdge(label, inVertex, T.id, id);
+        } else {
+            IteratorUtils.list(edge.properties()).forEach(Property::remove);
+        }
+
+        for (int i = 0; i < keyValues.length; i = i + 2) {
+            edge.property((String) keyValues[i], keyValues[i + 1]);
+        }
+    }
+
+    private Object[] readProperties(final Input input) {
+        final Object[] keyValues = new Object[input.readInt(true) * 2];
+        for (int i = 0; i < keyValues.length; i = i + 2) {
+            keyValues[i] = input.readString();
+            keyValues[i + 1] = readObject(input);
+        }
+        return keyValues;
+    }
+
+    private static VertexProperty<?> findVertexProperty(final Vertex vertex, final Object id) {
+        if (null == vertex) return null;
+        final Iterator<VertexProperty<Object>> vertexProperties = vertex.properties();
+        while (vertexProperties.hasNext()) {
+            final VertexProperty<?> vertexProperty = vertexProperties.next();
+            if (vertexProperty.id().equals(id)) return vertexProperty;
+        }
+        return null;
+    }
+}
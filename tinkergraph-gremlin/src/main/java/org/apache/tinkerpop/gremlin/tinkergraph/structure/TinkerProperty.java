@@ -35,8 +35,8 @@ public final class TinkerProperty<V> implements Property<V> {
 
     public TinkerProperty(final Element element, final String key, final V value) {
         this.element = element;
-        this.key = key;
-        this.value = value;
+        this.key = TinkerPropertyKeys.intern((AbstractTinkerGraph) element.graph(), key);
+        this.value = (V) TinkerValueStore.store((AbstractTinkerGraph) element.graph(), value);
     }
 
     @Override
@@ -51,7 +51,7 @@ public final class TinkerProperty<V> implements Property<V> {
 
     @Override
     public V value() {
-        return this.value;
+        return (V) TinkerValueStore.load(this.value);
     }
 
     /**
@@ -80,22 +80,32 @@ public final class TinkerProperty<V> implements Property<V> {
     @Override
     public void remove() {
         if (this.element instanceof Edge) {
-            ((AbstractTinkerGraph) this.element.graph()).touch((TinkerEdge) this.element);
-            ((TinkerEdge) this.element).properties.remove(this.key);
-            TinkerIndexHelper.removeIndex((TinkerEdge) this.element, this.key, this.value);
+            final TinkerEdge edge = ((TinkerEdge) this.element).writable();
+            edge.properties.remove(this.key);
+            release();
+            TinkerIndexHelper.removeIndex(edge, this.key, this.value);
+            TinkerMutationLog.logRemoveEdgeProperty(edge, this.key);
         } else {
-            final TinkerVertex vertex = (TinkerVertex) ((TinkerVertexProperty) this.element).element();
-            ((AbstractTinkerGraph) vertex.graph()).touch(vertex);
-            ((TinkerVertexProperty) this.element).properties.remove(this.key);
+            final TinkerVertexProperty<?> vertexProperty = ((TinkerVertexProperty<?>) this.element).writable();
+            vertexProperty.properties.remove(this.key);
+            release();
+            TinkerMutationLog.logRemoveMetaProperty(vertexProperty, this.key);
         }
     }
 
+    /**
+     * Moves a value kept off-heap back onto the heap once the property is no longer part of the graph.
+     */
+    void release() {
+        this.value = (V) TinkerValueStore.release(this.value);
+    }
+
     @Override
     public Object clone() {
-        return new TinkerProperty(element, key, value);
+        return new TinkerProperty(element, key, TinkerValueStore.load(value));
     }
 
     public TinkerProperty copy(final Element newOwner) {
-        return new TinkerProperty(newOwner, key, value);
+        return new TinkerProperty(newOwner, key, TinkerValueStore.load(value));
     }
 }
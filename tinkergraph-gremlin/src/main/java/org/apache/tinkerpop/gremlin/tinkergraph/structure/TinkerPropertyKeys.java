@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the property keys of a graph to small integer ids, so that all properties of a key share the same string
+ * and {@link TinkerPropertyMap} can refer to keys by id. Ids are never reused, as the number of distinct keys of a
+ * graph is small.
+ */
+final class TinkerPropertyKeys {
+
+    static final int UNKNOWN = -1;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] keys = new String[16];
+    private int size = 0;
+
+    /**
+     * Gets the interned key for a property of the graph, which is the key itself unless the graph interns keys.
+     */
+    static String intern(final AbstractTinkerGraph graph, final String key) {
+        return null == graph.propertyKeys ? key : graph.propertyKeys.keyOf(graph.propertyKeys.idOf(key, true));
+    }
+
+    /**
+     * Gets the id of a key, which is {@link #UNKNOWN} if the key is not interned and should not be.
+     */
+    int idOf(final Object key, final boolean intern) {
+        final Integer id = ids.get(key);
+        if (null != id) return id;
+        if (!intern || !(key instanceof String)) return UNKNOWN;
+
+        synchronized (this) {
+            return ids.computeIfAbsent((String) key, k -> {
+                if (size == keys.length) keys = Arrays.copyOf(keys, size * 2);
+                keys[size] = k;
+                return size++;
+            });
+        }
+    }
+
+    /**
+     * Gets the key of an id handed out by {@link #idOf(Object, boolean)}.
+     */
+    String keyOf(final int id) {
+        return keys[id];
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Map of the properties of an element that keeps the ids of interned keys and the values in parallel arrays of slots
+ * rather than in a hash table of entries. A lookup scans the key ids, which is fast for the few keys an element has
+ * and needs no hashing or comparing of strings. The arrays grow by one slot at a time for the first few keys, so that
+ * an element with a single property holds a single slot. Like the rest of {@link TinkerGraph} the map is safe to read
+ * concurrently but not to change concurrently.
+ */
+final class TinkerPropertyMap<V> extends AbstractMap<String, V> {
+
+    private static final int[] NO_IDS = new int[0];
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private final TinkerPropertyKeys keys;
+    private int[] ids = NO_IDS;
+    private Object[] values = NO_VALUES;
+    private int size = 0;
+
+    TinkerPropertyMap(final TinkerPropertyKeys keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Creates the map for the properties of an element of the graph, which is the default map unless the graph
+     * interns property keys.
+     */
+    static <V> Map<String, V> create(final AbstractTinkerGraph graph, final Supplier<Map<String, V>> defaultMap) {
+        return null == graph.propertyKeys ? defaultMap.get() : new TinkerPropertyMap<>(graph.propertyKeys);
+    }
+
+    private int slotOf(final Object key) {
+        final int id = keys.idOf(key, false);
+        if (TinkerPropertyKeys.UNKNOWN == id) return -1;
+        final int[] ids = this.ids;
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return slotOf(key) >= 0;
+    }
+
+    @Override
+    public V get(final Object key) {
+        final int slot = slotOf(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    @Override
+    public V getOrDefault(final Object key, final V defaultValue) {
+        final int slot = slotOf(key);
+        return slot < 0 ? defaultValue : (V) values[slot];
+    }
+
+    @Override
+    public V put(final String key, final V value) {
+        final int id = keys.idOf(key, true);
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                final V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+
+        if (size == ids.length) {
+            final int capacity = size < 4 ? size + 1 : size + (size >> 1);
+            values = Arrays.copyOf(values, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+        }
+        values[size] = value;
+        ids[size] = id;
+        size++;
+        return null;
+    }
+
+    @Override
+    public V remove(final Object key) {
+        final int slot = slotOf(key);
+        if (slot < 0) return null;
+        final V old = (V) values[slot];
+        removeSlot(slot);
+        return old;
+    }
+
+    private void removeSlot(final int slot) {
+        final int moved = size - slot - 1;
+        if (moved > 0) {
+            System.arraycopy(ids, slot + 1, ids, slot, moved);
+            System.arraycopy(values, slot + 1, values, slot, moved);
+        }
+        size--;
+        values[size] = null;
+    }
+
+    @Override
+    public void clear() {
+        ids = NO_IDS;
+        values = NO_VALUES;
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new AbstractSet<Entry<String, V>>() {
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                return new Iterator<Entry<String, V>>() {
+                    private int next = 0;
+                    private int last = -1;
+                    private int expectedSize = size;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Entry<String, V> next() {
+                        if (expectedSize != size) throw new ConcurrentModificationException();
+                        if (next >= size) throw new NoSuchElementException();
+                        last = next++;
+                        return new SlotEntry(last);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last < 0) throw new IllegalStateException();
+                        if (expectedSize != size) throw new ConcurrentModificationException();
+                        removeSlot(last);
+                        next = last;
+                        last = -1;
+                        expectedSize = size;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Entry of a slot that writes a new value through to the map.
+     */
+    private final class SlotEntry implements Map.Entry<String, V> {
+        private final String key;
+        private final int slot;
+        private V value;
+
+        private SlotEntry(final int slot) {
+            this.key = keys.keyOf(ids[slot]);
+            this.slot = slot;
+            this.value = (V) values[slot];
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(final V value) {
+            final V old = this.value;
+            values[slot] = value;
+            this.value = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Map.Entry)) return false;
+            final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return key.equals(e.getKey()) && (null == value ? null == e.getValue() : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ (null == value ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
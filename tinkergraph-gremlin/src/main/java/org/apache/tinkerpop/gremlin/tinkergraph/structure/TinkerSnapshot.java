@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+
+import java.util.function.Function;
+
+/**
+ * A read-only view of a {@link TinkerTransactionGraph} as it was committed when the snapshot was taken with
+ * {@link TinkerTransactionGraph#snapshot()}. Taking a snapshot copies nothing as the graph keeps the versions of
+ * elements that the snapshot reads, so any number of threads can read it at once while transactions keep committing
+ * changes, without either waiting for the other. The versions are kept until the snapshot is closed, which should
+ * therefore be done once it is not read anymore.
+ */
+public final class TinkerSnapshot implements AutoCloseable {
+
+    private final TinkerTransactionGraph graph;
+    private final long version;
+    private volatile boolean closed = false;
+
+    TinkerSnapshot(final TinkerTransactionGraph graph) {
+        this.graph = graph;
+        this.version = graph.versions.pin(this);
+    }
+
+    /**
+     * Runs the work in a transaction of the current thread that reads the snapshot. The transaction ends when the
+     * work returns, so the work should return its results rather than traversals to iterate later.
+     *
+     * @param work the work to run given the {@link GraphTraversalSource} of the transaction
+     * @return the result of the work
+     * @throws UnsupportedOperationException if the work changes the graph
+     * @throws IllegalStateException if the snapshot is closed or the current thread has a transaction open
+     */
+    public <R> R read(final Function<GraphTraversalSource, R> work) {
+        final TinkerTransaction tx = (TinkerTransaction) graph.tx();
+        final GraphTraversalSource g = tx.beginReadOnly(version);
+        try {
+            // the version is only kept for a transaction that registered itself before the snapshot was closed
+            if (closed)
+                throw new IllegalStateException("The snapshot is closed");
+            return work.apply(g);
+        } finally {
+            tx.endReadOnly();
+        }
+    }
+
+    /**
+     * Gets the version of the graph the snapshot reads, which is the version of the last commit it sees.
+     */
+    public long version() {
+        return version;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Lets the graph drop the versions of elements that only the snapshot reads.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        graph.versions.unpin(this);
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * An inverted index of the tokens in the {@code String} values of a property key, kept by {@link TinkerIndex} for
+ * keys with a {@link TinkerIndexType#TEXT} index. A token is a run of letters and digits lower cased one code point
+ * at a time, so a value that contains some text always has tokens containing the tokens of that text, which is what
+ * allows {@code TextP} lookups to start from the index. Elements are ranked against a query with BM25.
+ *
+ * @param <T> type of {@link Element} to be indexed
+ */
+final class TinkerTextIndex<T extends Element> {
+
+    /**
+     * Controls how quickly the score of a token saturates as it repeats in the values of an element.
+     */
+    private static final double K1 = 1.2d;
+
+    /**
+     * Controls how much the score of an element is normalized by the number of tokens in its values.
+     */
+    private static final double B = 0.75d;
+
+    private final String key;
+
+    /**
+     * The elements having each token, with the number of times they have it, sorted by token for prefix lookups.
+     */
+    private final ConcurrentSkipListMap<String, Map<T, Integer>> postings = new ConcurrentSkipListMap<>();
+
+    /**
+     * The tokens each element is currently indexed under, so that it can be removed from them once its values change.
+     */
+    private final Map<T, Map<String, Integer>> tokensOf = new ConcurrentHashMap<>();
+
+    /**
+     * The number of tokens in the values of all the indexed elements.
+     */
+    private final AtomicLong totalLength = new AtomicLong();
+
+    TinkerTextIndex(final String key) {
+        this.key = key;
+    }
+
+    /**
+     * Indexes the element by the values it currently has for the key, replacing whatever it was indexed under before.
+     * Reading the values from the element rather than taking the changed value keeps the index right however many
+     * values the key has and however often a change is reported.
+     */
+    void reindex(final T element) {
+        remove(element);
+
+        final Map<String, Integer> tokens = new HashMap<>();
+        element.properties(key).forEachRemaining(p -> {
+            if (p.isPresent() && ((Property<?>) p).value() instanceof String) {
+                for (final String token : tokenize((String) ((Property<?>) p).value())) {
+                    tokens.merge(token, 1, Integer::sum);
+                }
+            }
+        });
+        if (tokens.isEmpty())
+            return;
+
+        tokensOf.put(element, tokens);
+        tokens.forEach((token, count) -> postings.computeIfAbsent(token, t -> new ConcurrentHashMap<>()).put(element, count));
+        totalLength.addAndGet(lengthOf(tokens));
+    }
+
+    /**
+     * Removes the element from the tokens it is indexed under.
+     */
+    void remove(final T element) {
+        final Map<String, Integer> tokens = tokensOf.remove(element);
+        if (null == tokens)
+            return;
+
+        totalLength.addAndGet(-lengthOf(tokens));
+        for (final String token : tokens.keySet()) {
+            final Map<T, Integer> elements = postings.get(token);
+            if (null != elements) {
+                elements.remove(element);
+                if (elements.isEmpty())
+                    postings.remove(token, elements);
+            }
+        }
+    }
+
+    void clear() {
+        postings.clear();
+        tokensOf.clear();
+        totalLength.set(0);
+    }
+
+    /**
+     * Gets the elements that may have a value containing the text, which still have to be tested against the actual
+     * predicate as tokens are matched regardless of case and of what separates them.
+     *
+     * @param atStart determines if the text has to be at the start of the value
+     * @param atEnd determines if the text has to be at the end of the value
+     * @return the elements or {@code null} if the text has no tokens to look up
+     */
+    Set<T> candidates(final String text, final boolean atStart, final boolean atEnd) {
+        final String folded = fold(text);
+        Set<T> candidates = null;
+        int i = 0;
+        while (i < folded.length()) {
+            final int start = i;
+            while (i < folded.length() && isTokenPart(folded.codePointAt(i))) {
+                i += Character.charCount(folded.codePointAt(i));
+            }
+            if (start == i) {
+                i += Character.charCount(folded.codePointAt(i));
+                continue;
+            }
+
+            // a run of the text that ends at a separator ends where a token of the value ends and likewise for starts
+            final String run = folded.substring(start, i);
+            final boolean startsToken = start > 0 || atStart;
+            final boolean endsToken = i < folded.length() || atEnd;
+            final Set<T> matches;
+            if (startsToken && endsToken)
+                matches = elementsOf(run);
+            else if (startsToken)
+                matches = elementsOfPrefix(run);
+            else if (endsToken)
+                matches = elementsOf(token -> token.endsWith(run));
+            else
+                matches = elementsOf(token -> token.contains(run));
+
+            if (null == candidates)
+                candidates = matches;
+            else
+                candidates.retainAll(matches);
+            if (candidates.isEmpty())
+                break;
+        }
+        return candidates;
+    }
+
+    private Set<T> elementsOf(final String token) {
+        final Map<T, Integer> elements = postings.get(token);
+        return null == elements ? new LinkedHashSet<>() : new LinkedHashSet<>(elements.keySet());
+    }
+
+    private Set<T> elementsOfPrefix(final String prefix) {
+        final Set<T> elements = new LinkedHashSet<>();
+        for (final Map.Entry<String, Map<T, Integer>> entry : postings.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix))
+                break;
+            elements.addAll(entry.getValue().keySet());
+        }
+        return elements;
+    }
+
+    private Set<T> elementsOf(final Predicate<String> tokenFilter) {
+        final Set<T> elements = new LinkedHashSet<>();
+        postings.forEach((token, tokenElements) -> {
+            if (tokenFilter.test(token)) elements.addAll(tokenElements.keySet());
+        });
+        return elements;
+    }
+
+    /**
+     * Scores the elements having any of the tokens of the query with BM25.
+     *
+     * @param stem determines if query tokens also match the tokens that have the same {@link #stem(String)}
+     * @return the elements with their score, which is higher the better they match
+     */
+    Map<T, Double> score(final String query, final boolean stem) {
+        final Map<T, Double> scores = new HashMap<>();
+        final int count = tokensOf.size();
+        if (0 == count)
+            return scores;
+        final double averageLength = (double) totalLength.get() / count;
+
+        for (final String queryToken : new LinkedHashSet<>(tokenize(query))) {
+            // the tokens a query token matches count as one, so an element having several of them is not favored
+            final Map<T, Integer> frequencies = new HashMap<>();
+            for (final String token : stem ? tokensWithStem(stem(queryToken)) : Collections.singletonList(queryToken)) {
+                final Map<T, Integer> elements = postings.get(token);
+                if (null != elements)
+                    elements.forEach((element, frequency) -> frequencies.merge(element, frequency, Integer::sum));
+            }
+            if (frequencies.isEmpty())
+                continue;
+
+            final double idf = Math.log(1d + (count - frequencies.size() + 0.5d) / (frequencies.size() + 0.5d));
+            frequencies.forEach((element, frequency) -> {
+                final Map<String, Integer> tokens = tokensOf.get(element);
+                if (null == tokens) return;
+                final double length = lengthOf(tokens);
+                final double score = idf * frequency * (K1 + 1d) / (frequency + K1 * (1d - B + B * length / averageLength));
+                scores.merge(element, score, Double::sum);
+            });
+        }
+        return scores;
+    }
+
+    /**
+     * Gets the tokens that have the stem, which all start with it as {@link #stem(String)} only ever strips suffixes.
+     */
+    private List<String> tokensWithStem(final String stem) {
+        final List<String> tokens = new ArrayList<>();
+        for (final String token : postings.tailMap(stem, true).keySet()) {
+            if (!token.startsWith(stem))
+                break;
+            if (stem(token).equals(stem))
+                tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static long lengthOf(final Map<String, Integer> tokens) {
+        long length = 0;
+        for (final int count : tokens.values()) {
+            length += count;
+        }
+        return length;
+    }
+
+    /**
+     * Splits the text into tokens, which are the runs of letters and digits lower cased.
+     */
+    static List<String> tokenize(final String text) {
+        final String folded = fold(text);
+        final List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i < folded.length(); i += Character.charCount(folded.codePointAt(i))) {
+            if (isTokenPart(folded.codePointAt(i))) {
+                if (start < 0) start = i;
+            } else if (start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0)
+            tokens.add(folded.substring(start));
+        return tokens;
+    }
+
+    /**
+     * Lower cases the text one code point at a time, unlike {@code String.toLowerCase()} which may look at the
+     * surrounding characters, so that the folded text contains the folded form of all its substrings.
+     */
+    private static String fold(final String text) {
+        final StringBuilder folded = new StringBuilder(text.length());
+        text.codePoints().forEach(c -> folded.appendCodePoint(Character.toLowerCase(c)));
+        return folded.toString();
+    }
+
+    private static boolean isTokenPart(final int codePoint) {
+        return Character.isLetterOrDigit(codePoint);
+    }
+
+    /**
+     * A light stemmer for English that strips a plural, past tense, gerund or adverb suffix, keeping at least three
+     * characters. The stem is always a prefix of the token.
+     */
+    static String stem(final String token) {
+        final int length = token.length();
+        if (length > 5 && (token.endsWith("ies") || token.endsWith("ied")))
+            return token.substring(0, length - 2);
+        if (length > 5 && token.endsWith("ing"))
+            return undouble(token.substring(0, length - 3));
+        if (length > 4 && token.endsWith("ed"))
+            return undouble(token.substring(0, length - 2));
+        if (length > 4 && token.endsWith("ly"))
+            return token.substring(0, length - 2);
+        if (length > 3 && token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us"))
+            return token.substring(0, length - 1);
+        return token;
+    }
+
+    /**
+     * Strips the last of a doubled consonant, as in "running" or "stopped".
+     */
+    private static String undouble(final String stem) {
+        final int length = stem.length();
+        if (length > 3 && stem.charAt(length - 1) == stem.charAt(length - 2) && "bdgmnprt".indexOf(stem.charAt(length - 1)) >= 0)
+            return stem.substring(0, length - 1);
+        return stem;
+    }
+}
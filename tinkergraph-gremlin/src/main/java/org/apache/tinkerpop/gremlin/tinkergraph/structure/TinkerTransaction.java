@@ -19,14 +19,19 @@
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.util.AbstractThreadLocalTransaction;
 import org.apache.tinkerpop.gremlin.structure.util.TransactionException;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * Implementation of {@link AbstractThreadLocalTransaction} for {@link TinkerTransactionGraph}
@@ -50,6 +55,16 @@ final class TinkerTransaction extends AbstractThreadLocalTransaction {
      */
     private final ThreadLocal<Long> txNumber = ThreadLocal.withInitial(() -> NOT_STARTED);
 
+    /**
+     * Version of the graph read by the transaction of each thread, which is the one committed when it started.
+     */
+    private final ThreadLocal<Long> readVersion = new ThreadLocal<>();
+
+    /**
+     * Marks the transactions that read a {@link TinkerSnapshot}, which cannot change the graph.
+     */
+    private final ThreadLocal<Boolean> readOnly = ThreadLocal.withInitial(() -> false);
+
     /**
      * Set of references to vertex containers changed in current transaction.
      */
@@ -87,19 +102,72 @@ final class TinkerTransaction extends AbstractThreadLocalTransaction {
         if (isOpen())
             Transaction.Exceptions.transactionAlreadyOpen();
 
-        txNumber.set(openedTx.getAndIncrement());
+        start();
     }
 
     protected long getTxNumber() {
-        if (!isOpen()) txNumber.set(openedTx.getAndIncrement());
+        if (!isOpen()) start();
         return txNumber.get();
     }
 
+    /**
+     * Gets the version of the graph that the current transaction reads or the latest committed one if no
+     * transaction is open.
+     */
+    protected long getReadVersion() {
+        final Long version = readVersion.get();
+        return null == version ? graph.versions.getPublished() : version;
+    }
+
+    /**
+     * Opens a transaction on the current thread that reads the version pinned by a snapshot and cannot change the
+     * graph. It is ended with {@link #endReadOnly()} rather than committed or rolled back.
+     */
+    GraphTraversalSource beginReadOnly(final long version) {
+        if (isOpen())
+            throw Transaction.Exceptions.transactionAlreadyOpen();
+
+        txNumber.set(openedTx.getAndIncrement());
+        graph.versions.begin(version);
+        readVersion.set(version);
+        readOnly.set(true);
+        return super.begin();
+    }
+
+    /**
+     * Ends a transaction opened with {@link #beginReadOnly(long)}.
+     */
+    void endReadOnly() {
+        end();
+    }
+
+    /**
+     * Fails a change to the graph in a transaction that reads a snapshot.
+     */
+    void checkWritable() {
+        if (readOnly.get())
+            throw new UnsupportedOperationException("A snapshot of the graph is read-only");
+    }
+
+    private void start() {
+        txNumber.set(openedTx.getAndIncrement());
+        readVersion.set(graph.versions.begin());
+    }
+
+    private void end() {
+        if (null != readVersion.get()) {
+            graph.versions.end();
+            readVersion.remove();
+        }
+        readOnly.remove();
+        txNumber.set(NOT_STARTED);
+    }
+
     /**
      * Adds element to list of changes in current transaction.
      */
     protected <T extends TinkerElement> void markChanged(TinkerElementContainer<T> container) {
-        if (!isOpen()) txNumber.set(openedTx.getAndIncrement());
+        if (!isOpen()) start();
 
         T element = container.getUnmodified();
         if (null == element) element = container.getModified();
@@ -114,17 +182,27 @@ final class TinkerTransaction extends AbstractThreadLocalTransaction {
         }
     }
 
+    /**
+     * Gets the containers of the vertices or edges changed in current transaction.
+     */
+    protected Set<? extends TinkerElementContainer<?>> getChanged(final Class<? extends TinkerElement> elementClass) {
+        final Set<? extends TinkerElementContainer<?>> changed = TinkerVertex.class.isAssignableFrom(elementClass) ?
+                txChangedVertices.get() : txChangedEdges.get();
+        return null == changed ? Collections.emptySet() : changed;
+    }
+
     /**
      * Try to commit all changes made in current transaction.
      * Workflow:
-     * 1. collect all changes
-     * 2. verify if any elements already changed, throw {@link TransactionException} if any
-     * 3. try to lock all containers to prevent other tx from making changes
-     * 4. one more time verify elements versions
+     * 1. collect all changes, a transaction without changes only ends
+     * 2. get a new version for the commit
+     * 3. make the changes the latest version of each element with a compare-and-set on it, which fails with
+     * {@link TransactionException} if the element was committed by another transaction after this one started
+     * 4. write the changes ahead to the mutation log
      * 5. update indices
-     * 6. commit all changes
+     * 6. publish the version, which becomes visible once the commits of lower versions are
      * On {@link TransactionException}:
-     *  rollback all changes
+     *  revert the versions already made latest and rollback all changes
      * Lastly:
      *  cleanup transaction intermediate variables.
      *
@@ -132,7 +210,7 @@ final class TinkerTransaction extends AbstractThreadLocalTransaction {
      */
     @Override
     protected void doCommit() throws TransactionException {
-        final long txVersion = txNumber.get();
+        final long start = System.nanoTime();
 
         // collect all changes
         Set<TinkerElementContainer<TinkerVertex>> changedVertices = txChangedVertices.get();
@@ -140,24 +218,35 @@ final class TinkerTransaction extends AbstractThreadLocalTransaction {
         Set<TinkerElementContainer<TinkerEdge>> changedEdges = txChangedEdges.get();
         if (null == changedEdges) changedEdges = Collections.emptySet();
 
+        if (changedVertices.isEmpty() && changedEdges.isEmpty()) {
+            end();
+            txChangedVertices.remove();
+            txChangedEdges.remove();
+            graph.transactionMetrics.committed(System.nanoTime() - start);
+            return;
+        }
+
+        final TinkerVersionManager versions = graph.versions;
+        final TinkerMutationLog mutationLog = graph.mutationLog;
+        final List<TinkerElementContainer<?>> committed = new ArrayList<>(changedVertices.size() + changedEdges.size());
+        final long txVersion = versions.allocate(changedVertices, changedEdges);
+        boolean logged = false;
         try {
-            // Double-checked locking to reduce lock time
-            if (changedVertices.stream().anyMatch(v -> v.updatedOutsideTransaction()) ||
-                    changedEdges.stream().anyMatch(v -> v.updatedOutsideTransaction()))
-                throw new TransactionException(TX_CONFLICT);
-
-            // try to lock all element containers, throw exception if any element already locked by other tx
-            changedVertices.forEach(v -> {
-                if (!v.tryLock()) throw new TransactionException(TX_CONFLICT);
-            });
-            changedEdges.forEach(e -> {
-                if (!e.tryLock()) throw new TransactionException(TX_CONFLICT);
-            });
-
-            // verify versions of all elements to be sure no element changes during setting lock
-            if (changedVertices.stream().anyMatch(v -> v.updatedOutsideTransaction()) ||
-                    changedEdges.stream().anyMatch(e -> e.updatedOutsideTransaction()))
-                throw new TransactionException(TX_CONFLICT);
+            // transactions that already started keep reading the versions committed before this one
+            for (final TinkerElementContainer<TinkerVertex> v : changedVertices) {
+                if (!v.commit(txVersion)) throw new TransactionException(TX_CONFLICT);
+                committed.add(v);
+            }
+            for (final TinkerElementContainer<TinkerEdge> e : changedEdges) {
+                if (!e.commit(txVersion)) throw new TransactionException(TX_CONFLICT);
+                committed.add(e);
+            }
+
+            // write the changes ahead to the log, which holds off a snapshot of the graph until they are published
+            if (mutationLog != null) {
+                mutationLog.logCommit(changedVertices, changedEdges);
+                logged = true;
+            }
 
             // update indices
             final TinkerTransactionalIndex vertexIndex = (TinkerTransactionalIndex) graph.vertexIndex;
@@ -165,11 +254,11 @@ final class TinkerTransaction extends AbstractThreadLocalTransaction {
             final TinkerTransactionalIndex edgeIndex = (TinkerTransactionalIndex) graph.edgeIndex;
             if (edgeIndex != null) edgeIndex.commit(changedEdges);
 
-            // commit all changes
-            changedVertices.forEach(v -> v.commit(txVersion));
-            changedEdges.forEach(e -> e.commit(txVersion));
-        } catch (TransactionException ex) {
+            changedVertices.forEach(v -> v.release());
+            changedEdges.forEach(e -> e.release());
+        } catch (RuntimeException ex) {
             // rollback on error
+            committed.forEach(c -> c.revert(txVersion));
             changedVertices.forEach(v -> v.rollback());
             changedEdges.forEach(e -> e.rollback());
 
@@ -179,19 +268,70 @@ final class TinkerTransaction extends AbstractThreadLocalTransaction {
             final TinkerTransactionalIndex edgeIndex = (TinkerTransactionalIndex) graph.edgeIndex;
             if (edgeIndex != null) edgeIndex.rollback();
 
+            if (ex instanceof TransactionException)
+                graph.transactionMetrics.conflicted(System.nanoTime() - start);
             throw ex;
         } finally {
-            // remove elements from graph if not used in other tx's
-            changedVertices.stream().filter(v -> v.canBeRemoved()).forEach(v -> graph.vertices.remove(v.getElementId()));
-            changedEdges.stream().filter(e -> e.canBeRemoved()).forEach(e -> graph.edges.remove(e.getElementId()));
+            versions.publish(txVersion);
+            if (logged) mutationLog.committed();
+
+            end();
+
+            // drop versions and remove elements from graph if not used in other tx's
+            final long oldestReadVersion = versions.getOldestReadVersion();
+            changedVertices.forEach(v -> versions.collect(v, oldestReadVersion));
+            changedEdges.forEach(e -> versions.collect(e, oldestReadVersion));
 
             txChangedVertices.remove();
             txChangedEdges.remove();
+        }
+        graph.transactionMetrics.committed(System.nanoTime() - start);
+
+        // take a snapshot once the log grew large enough, which is done outside of the transaction
+        if (mutationLog != null) mutationLog.compactIfNeeded();
+    }
 
-            changedVertices.forEach(v -> v.releaseLock());
-            changedEdges.forEach(e -> e.releaseLock());
+    /**
+     * Runs the work in a new transaction and commits it. If the commit fails because of a conflict with another
+     * transaction the work is run again in a new transaction after an exponential backoff with jitter, up to the
+     * number of retries configured by {@link AbstractTinkerGraph#GREMLIN_TINKERGRAPH_TX_RETRIES}. Any other failure
+     * rolls the transaction back and is rethrown.
+     */
+    <R> R submit(final Function<GraphTraversalSource, R> work) {
+        final int maxRetries = graph.txRetries;
+        for (int retry = 0; ; retry++) {
+            final GraphTraversalSource gtx = begin();
+            final R result;
+            try {
+                result = work.apply(gtx);
+            } catch (RuntimeException ex) {
+                if (isOpen()) rollback();
+                throw ex;
+            }
+
+            try {
+                commit();
+                return result;
+            } catch (TransactionException ex) {
+                if (!TX_CONFLICT.equals(ex.getMessage()) || retry >= maxRetries) throw ex;
+            }
+
+            graph.transactionMetrics.retried();
+            backoff(retry);
+        }
+    }
 
-            txNumber.set(NOT_STARTED);
+    /**
+     * Sleeps for a random time up to the retry delay doubled for each retry before.
+     */
+    private void backoff(final int retry) {
+        final long maxDelay = graph.txRetryDelay << Math.min(retry, 20);
+        if (maxDelay <= 0) return;
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maxDelay / 2, maxDelay + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TransactionException(ex);
         }
     }
 
@@ -200,12 +340,14 @@ final class TinkerTransaction extends AbstractThreadLocalTransaction {
      * Workflow:
      * 1. Rollback all changes. Lock is not needed here because only this thread have access to data.
      * 2. Rollback indices changes, should be safe.
-     * 3. Cleanup transaction intermediate variables.
+     * 3. Cleanup transaction intermediate variables and unused containers.
      *
      * @throws TransactionException
      */
     @Override
     protected void doRollback() throws TransactionException {
+        graph.transactionMetrics.rolledBack();
+
         // rollback for all changed elements
         Set<TinkerElementContainer<TinkerVertex>> changedVertices = txChangedVertices.get();
         if (null != changedVertices) changedVertices.forEach(v -> v.rollback());
@@ -216,17 +358,18 @@ final class TinkerTransaction extends AbstractThreadLocalTransaction {
         final TinkerTransactionalIndex vertexIndex = (TinkerTransactionalIndex) graph.vertexIndex;
         if (vertexIndex != null) vertexIndex.rollback();
         final TinkerTransactionalIndex edgeIndex = (TinkerTransactionalIndex) graph.edgeIndex;
-        if (vertexIndex != null) edgeIndex.rollback();
+        if (edgeIndex != null) edgeIndex.rollback();
+
+        end();
 
         // cleanup unused containers
+        final long oldestReadVersion = graph.versions.getOldestReadVersion();
         if (null != changedVertices)
-            changedVertices.stream().filter(v -> v.canBeRemoved()).forEach(v -> graph.vertices.remove(v.getElementId()));
+            changedVertices.forEach(v -> graph.versions.collect(v, oldestReadVersion));
         if (null != changedEdges)
-            changedEdges.stream().filter(e -> e.canBeRemoved()).forEach(e -> graph.edges.remove(e.getElementId()));
+            changedEdges.forEach(e -> graph.versions.collect(e, oldestReadVersion));
 
         txChangedVertices.remove();
         txChangedEdges.remove();
-
-        txNumber.set(NOT_STARTED);
     }
 }
@@ -21,6 +21,7 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 import org.apache.commons.configuration2.BaseConfiguration;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
@@ -31,6 +32,8 @@ import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.GraphFactory;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphCountStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphDegreeCountStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphSelectivityStrategy;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphStepStrategy;
 import org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerServiceRegistry;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
@@ -43,6 +46,8 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * An in-memory (with optional persistence on calls to {@link #close()}), reference implementation of the property
@@ -61,7 +66,9 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
     static {
         TraversalStrategies.GlobalCache.registerStrategies(TinkerTransactionGraph.class, TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone().addStrategies(
                 TinkerGraphStepStrategy.instance(),
-                TinkerGraphCountStrategy.instance()));
+                TinkerGraphCountStrategy.instance(),
+                TinkerGraphDegreeCountStrategy.instance(),
+                TinkerGraphSelectivityStrategy.instance()));
     }
 
     private static final Configuration EMPTY_CONFIGURATION = new BaseConfiguration() {{
@@ -72,9 +79,23 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
 
     private final TinkerTransaction transaction = new TinkerTransaction(this);
 
+    final TinkerVersionManager versions = new TinkerVersionManager(this);
+
+    final TinkerTransactionMetrics transactionMetrics = new TinkerTransactionMetrics();
+
+    final int txRetries;
+    final long txRetryDelay;
+
     protected Map<Object, TinkerElementContainer<TinkerVertex>> vertices = new ConcurrentHashMap<>();
     protected Map<Object, TinkerElementContainer<TinkerEdge>> edges = new ConcurrentHashMap<>();
 
+    /**
+     * Always maintained label index of containers. A container can be reused for an element with another label once
+     * its element is deleted, so the label of the element visible to the transaction is checked on lookup.
+     */
+    protected Map<String, Set<TinkerElementContainer<TinkerVertex>>> vertexLabels = new ConcurrentHashMap<>();
+    protected Map<String, Set<TinkerElementContainer<TinkerEdge>>> edgeLabels = new ConcurrentHashMap<>();
+
     /**
      * An empty private constructor that initializes {@link TinkerTransactionGraph}.
      */
@@ -86,6 +107,13 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
         defaultVertexPropertyCardinality = VertexProperty.Cardinality.valueOf(
                 configuration.getString(GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.single.name()));
         allowNullPropertyValues = configuration.getBoolean(GREMLIN_TINKERGRAPH_ALLOW_NULL_PROPERTY_VALUES, false);
+        lazyIteration = configuration.getBoolean(GREMLIN_TINKERGRAPH_LAZY_ITERATION, false);
+        txRetries = configuration.getInt(GREMLIN_TINKERGRAPH_TX_RETRIES, 3);
+        txRetryDelay = configuration.getLong(GREMLIN_TINKERGRAPH_TX_RETRY_DELAY, 10);
+
+        if (txRetries < 0 || txRetryDelay < 0)
+            throw new IllegalStateException(String.format("The %s and %s must not be negative",
+                    GREMLIN_TINKERGRAPH_TX_RETRIES, GREMLIN_TINKERGRAPH_TX_RETRY_DELAY));
 
         graphLocation = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_LOCATION, null);
         graphFormat = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_FORMAT, null);
@@ -94,6 +122,10 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
             throw new IllegalStateException(String.format("The %s and %s must both be specified if either is present",
                     GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_GRAPH_FORMAT));
 
+        if (null == graphLocation && configuration.getBoolean(GREMLIN_TINKERGRAPH_MUTATION_LOG, false))
+            throw new IllegalStateException(String.format("The %s requires the %s and %s to be specified",
+                    GREMLIN_TINKERGRAPH_MUTATION_LOG, GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_GRAPH_FORMAT));
+
         if (graphLocation != null) loadGraph();
 
         serviceRegistry = new TinkerServiceRegistry(this);
@@ -142,9 +174,9 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
         final String label = ElementHelper.getLabelValue(keyValues).orElse(Vertex.DEFAULT_LABEL);
 
         this.tx().readWrite();
-        final long txNumber = transaction.getTxNumber();
+        transaction.checkWritable();
 
-        final TinkerElementContainer<TinkerVertex> newContainer = new TinkerElementContainer<>(idValue);
+        final TinkerElementContainer<TinkerVertex> newContainer = new TinkerElementContainer<>(idValue, transaction);
         // try to add new container or get existing
         TinkerElementContainer<TinkerVertex> container = vertices.putIfAbsent(idValue, newContainer);
 
@@ -156,9 +188,10 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
         if (container == null)
             container = newContainer;
 
-        final TinkerVertex vertex = new TinkerVertex(idValue, label, this, txNumber);
-        ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
+        final TinkerVertex vertex = new TinkerVertex(idValue, label, this, TinkerElementContainer.UNCOMMITTED);
         container.setDraft(vertex, (TinkerTransaction) tx());
+        ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
+        vertexLabels.computeIfAbsent(label, k -> ConcurrentHashMap.newKeySet()).add(container);
 
         return vertex;
     }
@@ -174,30 +207,36 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
     }
 
     @Override
-    public void touch(final TinkerVertex vertex) {
-        // already removed, so skip
-        if (null == vertex || !vertices.containsKey(vertex.id())) return;
-
+    public TinkerVertex touch(final TinkerVertex vertex) {
         final TinkerElementContainer<TinkerVertex> container = vertices.get(vertex.id());
+        // already removed, so skip
+        if (null == container) return null;
 
-        if (null != container) {
-            this.tx().readWrite();
-            container.touch(vertex, (TinkerTransaction) tx());
-        }
-    };
+        this.tx().readWrite();
+        return container.touch(transaction);
+    }
 
     @Override
-    public void touch(final TinkerEdge edge) {
+    public TinkerEdge touch(final TinkerEdge edge) {
+        final TinkerElementContainer<TinkerEdge> container = edges.get(edge.id());
         // already removed, so skip
-        if (null == edge || !edges.containsKey(edge.id())) return;
+        if (null == container) return null;
 
-        final TinkerElementContainer<TinkerEdge> container = edges.get(edge.id());
+        this.tx().readWrite();
+        return container.touch(transaction);
+    }
 
-        if (null != container) {
-            this.tx().readWrite();
-            container.touch(edge, (TinkerTransaction) tx());
-        }
-    };
+    @Override
+    public TinkerVertex visible(final TinkerVertex vertex) {
+        final TinkerElementContainer<TinkerVertex> container = vertices.get(vertex.id());
+        return null == container ? null : container.get();
+    }
+
+    @Override
+    public TinkerEdge visible(final TinkerEdge edge) {
+        final TinkerElementContainer<TinkerEdge> container = edges.get(edge.id());
+        return null == container ? null : container.get();
+    }
 
     @Override
     public Edge addEdge(final TinkerVertex outVertex, final TinkerVertex inVertex, final String label, final Object... keyValues) {
@@ -209,9 +248,9 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
             idValue = edgeIdManager.getNextId(this);
 
         this.tx().readWrite();
-        final long txNumber = transaction.getTxNumber();
+        transaction.checkWritable();
 
-        final TinkerElementContainer<TinkerEdge> newContainer = new TinkerElementContainer<>(idValue);
+        final TinkerElementContainer<TinkerEdge> newContainer = new TinkerElementContainer<>(idValue, transaction);
         // try to add new container or get existing
         TinkerElementContainer<TinkerEdge> container = edges.putIfAbsent(idValue, newContainer);
 
@@ -223,9 +262,10 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
         if (container == null)
             container = newContainer;
 
-        final TinkerEdge edge = new TinkerEdge(idValue, outVertex, label, inVertex, txNumber);
-        ElementHelper.attachProperties(edge, keyValues);
+        final TinkerEdge edge = new TinkerEdge(idValue, outVertex, label, inVertex, TinkerElementContainer.UNCOMMITTED);
         container.setDraft(edge, (TinkerTransaction) tx());
+        ElementHelper.attachProperties(edge, keyValues);
+        edgeLabels.computeIfAbsent(label, k -> ConcurrentHashMap.newKeySet()).add(container);
 
         addOutEdge(outVertex, label, edge);
         addInEdge(inVertex, label, edge);
@@ -245,21 +285,19 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
 
         if (edge == null) return;
 
-        final TinkerVertex outVertex = (TinkerVertex) edge.outVertex();
-        touch(outVertex);
-        final TinkerVertex inVertex = (TinkerVertex) edge.inVertex();
-        touch(inVertex);
+        final TinkerVertex outVertex = null == edge.outVertex() ? null : touch((TinkerVertex) edge.outVertex());
+        final TinkerVertex inVertex = null == edge.inVertex() ? null : touch((TinkerVertex) edge.inVertex());
 
         if (null != outVertex && null != outVertex.outEdgesId) {
             final Set<Object> edges = outVertex.outEdgesId.get(edge.label());
             if (null != edges) {
-                edges.removeIf(e -> e == edge.id());
+                edges.remove(edge.id());
             }
         }
         if (null != inVertex && null != inVertex.inEdgesId) {
             final Set<Object> edges = inVertex.inEdgesId.get(edge.label());
             if (null != edges) {
-                edges.removeIf(e -> e == edge.id());
+                edges.remove(edge.id());
             }
         }
 
@@ -271,6 +309,32 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
         super.clear();
         this.vertices.clear();
         this.edges.clear();
+        this.vertexLabels.clear();
+        this.edgeLabels.clear();
+        this.versions.clear();
+        if (null != mutationLog) mutationLog.logClear();
+    }
+
+    @Override
+    public void close() {
+        versions.close();
+        super.close();
+    }
+
+    /**
+     * Removes the container of a vertex that no longer exists in any transaction from the graph.
+     */
+    void removeVertexContainer(final TinkerElementContainer<TinkerVertex> container) {
+        vertices.remove(container.getElementId(), container);
+        vertexLabels.values().forEach(labeled -> labeled.remove(container));
+    }
+
+    /**
+     * Removes the container of an edge that no longer exists in any transaction from the graph.
+     */
+    void removeEdgeContainer(final TinkerElementContainer<TinkerEdge> container) {
+        edges.remove(container.getElementId(), container);
+        edgeLabels.values().forEach(labeled -> labeled.remove(container));
     }
 
     @Override
@@ -278,6 +342,33 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
         return transaction;
     }
 
+    /**
+     * Runs the work in a new transaction and commits it, retrying it with an exponential backoff when the commit
+     * conflicts with another transaction. The work may therefore run more than once and should only change the graph.
+     *
+     * @param work the work to run given the {@link GraphTraversalSource} of the transaction
+     * @return the result of the work of the transaction that committed
+     * @throws org.apache.tinkerpop.gremlin.structure.util.TransactionException if the last retry still conflicts
+     */
+    public <R> R submit(final Function<GraphTraversalSource, R> work) {
+        return transaction.submit(work);
+    }
+
+    /**
+     * Takes a read-only snapshot of the graph as it was last committed, which copies nothing. The versions of elements
+     * the snapshot reads are kept until it is closed while transactions keep changing the graph.
+     */
+    public TinkerSnapshot snapshot() {
+        return new TinkerSnapshot(this);
+    }
+
+    /**
+     * Gets the counts of commits, conflicts, rollbacks and retries of the transactions of this graph.
+     */
+    public TinkerTransactionMetrics getTransactionMetrics() {
+        return transactionMetrics;
+    }
+
     @Override
     public int getVerticesCount() {
         return (int) vertices.entrySet().stream().filter(v -> v.getValue().get() != null).count();
@@ -290,6 +381,11 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
 
     Map<Object, TinkerElementContainer<TinkerVertex>> getVertices () { return vertices; }
 
+    @Override
+    public int getVerticesCount(final String label) {
+        return (int) labeled(vertexLabels, label).filter(c -> isLabeled(c.get(), label)).count();
+    }
+
     @Override
     public int getEdgesCount() {
         return (int) edges.entrySet().stream().filter(v -> v.getValue().get() != null).count();
@@ -302,6 +398,21 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
 
     Map<Object, TinkerElementContainer<TinkerEdge>> getEdges () { return edges; }
 
+    @Override
+    public int getEdgesCount(final String label) {
+        return (int) labeled(edgeLabels, label).filter(c -> isLabeled(c.get(), label)).count();
+    }
+
+    private static <C extends TinkerElement> Stream<TinkerElementContainer<C>> labeled(
+            final Map<String, Set<TinkerElementContainer<C>>> elements, final String label) {
+        final Set<TinkerElementContainer<C>> labeled = elements.get(label);
+        return null == labeled ? Stream.empty() : labeled.stream();
+    }
+
+    private static boolean isLabeled(final Element element, final String label) {
+        return null != element && element.label().equals(label);
+    }
+
     @Override
     public TinkerServiceRegistry getServiceRegistry() {
         return serviceRegistry;
@@ -310,7 +421,7 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
     @Override
     public Vertex vertex(final Object vertexId) {
         final TinkerElementContainer<TinkerVertex> container = vertices.get(vertexIdManager.convert(vertexId));
-        return container == null ? null : container.getWithClone();
+        return container == null ? null : container.get();
     }
 
     @Override
@@ -321,7 +432,7 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
     @Override
     public Edge edge(final Object edgeId) {
         final TinkerElementContainer<TinkerEdge> container = edges.get(edgeIdManager.convert(edgeId));
-        return container == null ? null : container.getWithClone();
+        return container == null ? null : container.get();
     }
 
     @Override
@@ -329,6 +440,27 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
         return createElementIterator(Edge.class, edges, edgeIdManager, edgeIds);
     }
 
+    @Override
+    public Iterator<Vertex> verticesByLabel(final String... labels) {
+        return createLabelIterator(Vertex.class, vertexLabels, labels);
+    }
+
+    @Override
+    public Iterator<Edge> edgesByLabel(final String... labels) {
+        return createLabelIterator(Edge.class, edgeLabels, labels);
+    }
+
+    private <T extends Element, C extends TinkerElement> Iterator<T> createLabelIterator(final Class<T> clazz,
+                                                                  final Map<String, Set<TinkerElementContainer<C>>> elements,
+                                                                  final String... labels) {
+        this.tx().readWrite();
+
+        final Iterator<T> iterator = new TinkerGraphIterator<>(Arrays.stream(labels).distinct()
+                .flatMap(label -> labeled(elements, label).map(c -> (T) c.get()).filter(e -> isLabeled(e, label)))
+                .iterator());
+        return filterComputerMode(clazz, iterator);
+    }
+
     private <T extends Element, C extends TinkerElement> Iterator<T> createElementIterator(final Class<T> clazz,
                                                                   final Map<Object, TinkerElementContainer<C>> elements,
                                                                   final IdManager idManager,
@@ -339,8 +471,7 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
         final Iterator<T> iterator;
         if (0 == ids.length) {
             iterator = new TinkerGraphIterator<>(
-                    // todo: clone only if traversal contains mutating steps
-                    elements.values().stream().map(c -> (T) c.getWithClone()).filter(e -> e != null).iterator());
+                    elements.values().stream().map(c -> (T) c.get()).filter(e -> e != null).iterator());
         } else {
             final List<Object> idList = Arrays.asList(ids);
 
@@ -353,9 +484,13 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
                 if (null == id) return null;
                 final Object iid = clazz.isAssignableFrom(id.getClass()) ? clazz.cast(id).id() : idManager.convert(id);
                 final TinkerElementContainer<C> container = elements.get(iid);
-                return container == null ? null : (T) container.getWithClone();
+                return container == null ? null : (T) container.get();
             }).iterator(), Objects::nonNull));
         }
+        return filterComputerMode(clazz, iterator);
+    }
+
+    private <T extends Element> Iterator<T> filterComputerMode(final Class<T> clazz, final Iterator<T> iterator) {
         return TinkerHelper.inComputerMode(this) ?
                 (Iterator<T>) (clazz.equals(Vertex.class) ?
                         IteratorUtils.filter((Iterator<Vertex>) iterator, t -> this.graphComputerView.legalVertex(t)) :
@@ -363,24 +498,26 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
                 iterator;
     }
     @Override
-    protected void addOutEdge(final TinkerVertex vertex, final String label, final Edge edge) {
-        touch(vertex);
+    protected void addOutEdge(final TinkerVertex outVertex, final String label, final Edge edge) {
+        final TinkerVertex vertex = touch(outVertex);
+        if (null == vertex) throw TinkerElement.elementAlreadyRemoved(Vertex.class, outVertex.id());
         if (null == vertex.outEdgesId) vertex.outEdgesId = new ConcurrentHashMap<>();
         Set<Object> edges = vertex.outEdgesId.get(label);
         if (null == edges) {
-            edges = ConcurrentHashMap.newKeySet();
+            edges = TinkerIdSet.create(this);
             vertex.outEdgesId.put(label, edges);
         }
         edges.add(edge.id());
     }
 
     @Override
-    protected void addInEdge(final TinkerVertex vertex, final String label, final Edge edge) {
-        touch(vertex);
+    protected void addInEdge(final TinkerVertex inVertex, final String label, final Edge edge) {
+        final TinkerVertex vertex = touch(inVertex);
+        if (null == vertex) throw TinkerElement.elementAlreadyRemoved(Vertex.class, inVertex.id());
         if (null == vertex.inEdgesId) vertex.inEdgesId = new ConcurrentHashMap<>();
         Set<Object> edges = vertex.inEdgesId.get(label);
         if (null == edges) {
-            edges = ConcurrentHashMap.newKeySet();;
+            edges = TinkerIdSet.create(this);
             vertex.inEdgesId.put(label, edges);
         }
         edges.add(edge.id());
@@ -468,12 +605,69 @@ public final class TinkerTransactionGraph extends AbstractTinkerGraph {
      * @param <E>          The type of the element class
      */
     public <E extends Element> void createIndex(final String key, final Class<E> elementClass) {
+        createIndex(key, elementClass, TinkerIndexType.HASH);
+    }
+
+    /**
+     * Create an index of the specified type for said element class ({@link Vertex} or {@link Edge}) and said
+     * property key. A {@link TinkerIndexType#SORTED} index can also be used for range, prefix and ordered lookups.
+     * {@link TinkerIndexType#TEXT} indices are not supported.
+     * If the key is already indexed with a different type, the index is rebuilt with the new type.
+     *
+     * @param key          the property key to index
+     * @param elementClass the element class to index
+     * @param indexType    the type of index to create
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createIndex(final String key, final Class<E> elementClass, final TinkerIndexType indexType) {
         if (Vertex.class.isAssignableFrom(elementClass)) {
             if (null == this.vertexIndex) this.vertexIndex = new TinkerTransactionalIndex<>(this, TinkerVertex.class);
-            this.vertexIndex.createKeyIndex(key);
+            this.vertexIndex.createKeyIndex(key, indexType);
         } else if (Edge.class.isAssignableFrom(elementClass)) {
             if (null == this.edgeIndex) this.edgeIndex = new TinkerTransactionalIndex<>(this, TinkerEdge.class);
-            this.edgeIndex.createKeyIndex(key);
+            this.edgeIndex.createKeyIndex(key, indexType);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Create a composite index for said element class ({@link Vertex} or {@link Edge}) over the combination of the
+     * specified property keys, optionally limited to elements with the specified label. Lookups that have equality
+     * predicates for the label and all of the keys are answered with a single index probe.
+     *
+     * @param elementClass the element class to index
+     * @param label        the label of the elements to index or {@code null} for elements of any label
+     * @param keys         the property keys to index
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createCompositeIndex(final Class<E> elementClass, final String label, final String... keys) {
+        final AbstractTinkerIndex.CompositeKey compositeKey = new AbstractTinkerIndex.CompositeKey(label, Arrays.asList(keys));
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null == this.vertexIndex) this.vertexIndex = new TinkerTransactionalIndex<>(this, TinkerVertex.class);
+            this.vertexIndex.createCompositeKeyIndex(compositeKey);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null == this.edgeIndex) this.edgeIndex = new TinkerTransactionalIndex<>(this, TinkerEdge.class);
+            this.edgeIndex.createCompositeKeyIndex(compositeKey);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Drop the composite index for the specified element class ({@link Vertex} or {@link Edge}), label and keys.
+     *
+     * @param elementClass the element class of the index to drop
+     * @param label        the label of the index or {@code null} if it indexes elements of any label
+     * @param keys         the property keys of the index
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void dropCompositeIndex(final Class<E> elementClass, final String label, final String... keys) {
+        final AbstractTinkerIndex.CompositeKey compositeKey = new AbstractTinkerIndex.CompositeKey(label, Arrays.asList(keys));
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null != this.vertexIndex) this.vertexIndex.dropCompositeKeyIndex(compositeKey);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null != this.edgeIndex) this.edgeIndex.dropCompositeKeyIndex(compositeKey);
         } else {
             throw new IllegalArgumentException("Class is not indexable: " + elementClass);
         }
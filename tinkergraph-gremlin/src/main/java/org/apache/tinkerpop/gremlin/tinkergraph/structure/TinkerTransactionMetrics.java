@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the commits, conflicts, rollbacks and retries of the transactions of a {@link TinkerTransactionGraph} along
+ * with the time spent committing. Commits that fail with a conflict count as conflicts and not as commits, and their
+ * time is included in the commit time.
+ */
+public final class TinkerTransactionMetrics {
+
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder rollbacks = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder commitTime = new LongAdder();
+    private final LongAccumulator maxCommitTime = new LongAccumulator(Math::max, 0);
+
+    TinkerTransactionMetrics() {
+    }
+
+    void committed(final long nanos) {
+        commits.increment();
+        recordCommitTime(nanos);
+    }
+
+    void conflicted(final long nanos) {
+        conflicts.increment();
+        recordCommitTime(nanos);
+    }
+
+    void rolledBack() {
+        rollbacks.increment();
+    }
+
+    void retried() {
+        retries.increment();
+    }
+
+    private void recordCommitTime(final long nanos) {
+        commitTime.add(nanos);
+        maxCommitTime.accumulate(nanos);
+    }
+
+    /**
+     * Gets the number of transactions that committed.
+     */
+    public long getCommitCount() {
+        return commits.sum();
+    }
+
+    /**
+     * Gets the number of commits that failed because an element was changed by another transaction.
+     */
+    public long getConflictCount() {
+        return conflicts.sum();
+    }
+
+    /**
+     * Gets the number of transactions that were rolled back, not including the commits that failed.
+     */
+    public long getRollbackCount() {
+        return rollbacks.sum();
+    }
+
+    /**
+     * Gets the number of times a transaction was retried after a conflict by
+     * {@link TinkerTransactionGraph#submit(java.util.function.Function)}.
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Gets the share of commits that failed with a conflict, which is zero if nothing was committed yet.
+     */
+    public double getConflictRate() {
+        final long conflicted = conflicts.sum();
+        final long attempts = commits.sum() + conflicted;
+        return 0 == attempts ? 0d : (double) conflicted / attempts;
+    }
+
+    /**
+     * Gets the average time of a commit, including the ones that failed with a conflict.
+     */
+    public long getAverageCommitTime(final TimeUnit unit) {
+        final long attempts = commits.sum() + conflicts.sum();
+        return 0 == attempts ? 0 : unit.convert(commitTime.sum() / attempts, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the longest time of a commit, including the ones that failed with a conflict.
+     */
+    public long getMaxCommitTime(final TimeUnit unit) {
+        return unit.convert(maxCommitTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sets all counts back to zero.
+     */
+    public void reset() {
+        commits.reset();
+        conflicts.reset();
+        rollbacks.reset();
+        retries.reset();
+        commitTime.reset();
+        maxCommitTime.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("commits=%d, conflicts=%d, rollbacks=%d, retries=%d, averageCommitTime=%dus, maxCommitTime=%dus",
+                getCommitCount(), getConflictCount(), getRollbackCount(), getRetryCount(),
+                getAverageCommitTime(TimeUnit.MICROSECONDS), getMaxCommitTime(TimeUnit.MICROSECONDS));
+    }
+}
@@ -19,14 +19,23 @@
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 
 /**
@@ -35,6 +44,7 @@ import java.util.stream.Collectors;
 final class TinkerTransactionalIndex<T extends TinkerElement> extends AbstractTinkerIndex<T> {
 
     protected Map<String, Map<Object, Set<TinkerElementContainer<T>>>> index = new ConcurrentHashMap<>();
+    protected Map<CompositeKey, Map<List<Object>, Set<TinkerElementContainer<T>>>> compositeIndex = new ConcurrentHashMap<>();
     protected ThreadLocal<Map<String, Map<Object, Set<T>>>> txIndex =
             ThreadLocal.withInitial(() -> new ConcurrentHashMap<>());
 
@@ -51,7 +61,7 @@ final class TinkerTransactionalIndex<T extends TinkerElement> extends AbstractTi
 
         Map<Object, Set<T>> keyMap = index.get(key);
         if (null == keyMap) {
-            index.putIfAbsent(key, new ConcurrentHashMap<>());
+            index.putIfAbsent(key, createKeyMap(key));
             keyMap = index.get(key);
         }
         final Object indexableValue = indexable(value);
@@ -63,7 +73,8 @@ final class TinkerTransactionalIndex<T extends TinkerElement> extends AbstractTi
         objects.add(element);
     }
 
-    private List<T> getNotModifiedElements(final String key, final Object value) {
+    private List<T> getNotModifiedElements(final String key, final Object value,
+                                           final Set<TinkerElementContainer<T>> changedSinceRead) {
         final Map<Object, Set<TinkerElementContainer<T>>> keyMap = index.get(key);
         if (null == keyMap)
             return new ArrayList<>();
@@ -73,26 +84,57 @@ final class TinkerTransactionalIndex<T extends TinkerElement> extends AbstractTi
             return new ArrayList<>();
 
         return set.stream().
-                filter(e -> !e.isChanged() && e.get() != null).
-                map(e -> e.get()).collect(Collectors.toList());
+                filter(e -> !e.isChanged() && !changedSinceRead.contains(e)).
+                map(e -> e.get()).filter(Objects::nonNull).collect(Collectors.toList());
     }
 
-    private Set<T> getModifiedElements(final String key, final Object value) {
-        final Map<String, Map<Object, Set<T>>> index = txIndex.get();
-        if (null == index)
-            return null;
-
-        final Map<Object, Set<T>> keyMap = index.get(key);
-        if (null == keyMap)
-            return null;
+    /**
+     * Gets the containers of elements changed by commits after the version that the current transaction reads. The
+     * index holds those elements by their latest values, so they are matched by the values the transaction reads
+     * instead.
+     */
+    private Set<TinkerElementContainer<T>> getChangedSinceRead() {
+        final TinkerVersionManager versions = ((TinkerTransactionGraph) graph).versions;
+        final long readVersion = ((TinkerTransaction) graph.tx()).getReadVersion();
+        if (!versions.hasChangedSince(readVersion))
+            return Collections.emptySet();
+
+        final Set<TinkerElementContainer<T>> changed = new HashSet<>();
+        for (final TinkerElementContainer<?> container : versions.getChangedSince(readVersion)) {
+            if (container.isChanged()) continue;
+            final TinkerElement element = container.get();
+            if (null != element && indexClass.isAssignableFrom(element.getClass()))
+                changed.add((TinkerElementContainer<T>) container);
+        }
+        return changed;
+    }
 
-        return keyMap.get(indexable(value));
+    /**
+     * Gets the elements changed in the current transaction by value together with the elements changed by commits
+     * after the version that the transaction reads by the values it reads.
+     */
+    private Map<Object, Set<T>> getModifiedKeyMap(final String key, final Set<TinkerElementContainer<T>> changedSinceRead) {
+        final Map<Object, Set<T>> txKeyMap = getModifiedKeyMap(key);
+        if (changedSinceRead.isEmpty())
+            return txKeyMap;
+
+        final Map<Object, Set<T>> keyMap = createKeyMap(key);
+        if (null != txKeyMap)
+            txKeyMap.forEach((value, elements) -> keyMap.computeIfAbsent(value, v -> new LinkedHashSet<>()).addAll(elements));
+        for (final TinkerElementContainer<T> container : changedSinceRead) {
+            final T element = container.get();
+            element.properties(key).forEachRemaining(p ->
+                    keyMap.computeIfAbsent(indexable(((Property<?>) p).value()), v -> new LinkedHashSet<>()).add(element));
+        }
+        return keyMap;
     }
 
     @Override
     public List<T> get(final String key, final Object value) {
-        final List<T> notModifiedElements = getNotModifiedElements(key, value);
-        final Set<T> modifiedElements = getModifiedElements(key, value);
+        final Set<TinkerElementContainer<T>> changedSinceRead = getChangedSinceRead();
+        final List<T> notModifiedElements = getNotModifiedElements(key, value, changedSinceRead);
+        final Map<Object, Set<T>> modifiedKeyMap = getModifiedKeyMap(key, changedSinceRead);
+        final Set<T> modifiedElements = null == modifiedKeyMap ? null : modifiedKeyMap.get(indexable(value));
         if (modifiedElements != null)
             modifiedElements.forEach(e -> {
                 if (!notModifiedElements.contains(e)) notModifiedElements.add(e);
@@ -101,11 +143,160 @@ final class TinkerTransactionalIndex<T extends TinkerElement> extends AbstractTi
         return notModifiedElements;
     }
 
+    @Override
+    public List<T> getRange(final String key, final Object from, final boolean fromInclusive,
+                            final Object to, final boolean toInclusive) {
+        final Set<TinkerElementContainer<T>> changedSinceRead = getChangedSinceRead();
+        final Map<Object, Set<TinkerElementContainer<T>>> keyMap = index.get(key);
+        final Map<Object, Set<T>> txKeyMap = getModifiedKeyMap(key, changedSinceRead);
+        return merge(null == keyMap ? Collections.emptyList() : rangeOf(keyMap, from, fromInclusive, to, toInclusive),
+                null == txKeyMap ? Collections.emptyList() : rangeOf(txKeyMap, from, fromInclusive, to, toInclusive),
+                false, changedSinceRead);
+    }
+
+    @Override
+    public List<T> getPrefix(final String key, final String prefix) {
+        final Set<TinkerElementContainer<T>> changedSinceRead = getChangedSinceRead();
+        final Map<Object, Set<TinkerElementContainer<T>>> keyMap = index.get(key);
+        final Map<Object, Set<T>> txKeyMap = getModifiedKeyMap(key, changedSinceRead);
+        return merge(null == keyMap ? Collections.emptyList() : prefixOf(keyMap, prefix),
+                null == txKeyMap ? Collections.emptyList() : prefixOf(txKeyMap, prefix),
+                false, changedSinceRead);
+    }
+
+    /**
+     * Estimates the count from the committed elements and those changed in the current transaction without looking at
+     * which of them the transaction sees, so elements changed since it began are counted more than once.
+     */
+    @Override
+    public long countRange(final String key, final Object from, final boolean fromInclusive,
+                           final Object to, final boolean toInclusive) {
+        final Map<Object, Set<TinkerElementContainer<T>>> keyMap = index.get(key);
+        final Map<Object, Set<T>> txKeyMap = getModifiedKeyMap(key);
+        return (null == keyMap ? 0 : sizeOfRange(keyMap, from, fromInclusive, to, toInclusive)) +
+                (null == txKeyMap ? 0 : sizeOfRange(txKeyMap, from, fromInclusive, to, toInclusive));
+    }
+
+    /**
+     * Estimates the count in the same way as {@link #countRange(String, Object, boolean, Object, boolean)}.
+     */
+    @Override
+    public long countPrefix(final String key, final String prefix) {
+        final Map<Object, Set<TinkerElementContainer<T>>> keyMap = index.get(key);
+        final Map<Object, Set<T>> txKeyMap = getModifiedKeyMap(key);
+        return (null == keyMap ? 0 : sizeOfPrefix(keyMap, prefix)) +
+                (null == txKeyMap ? 0 : sizeOfPrefix(txKeyMap, prefix));
+    }
+
+    @Override
+    public Iterator<T> getOrdered(final String key, final boolean descending) {
+        final Set<TinkerElementContainer<T>> changedSinceRead = getChangedSinceRead();
+        return merge(orderedEntries(index.get(key), descending),
+                orderedEntries(getModifiedKeyMap(key, changedSinceRead), descending),
+                descending, changedSinceRead).iterator();
+    }
+
+    /**
+     * {@link TinkerIndexType#TEXT} indices are not supported so there is never an index to narrow down the elements.
+     */
+    @Override
+    public List<T> getText(final String key, final BiPredicate<?, ?> predicate, final String value) {
+        return null;
+    }
+
+    @Override
+    public Map<T, Double> search(final String key, final String query, final boolean stem) {
+        return Collections.emptyMap();
+    }
+
+    private Map<Object, Set<T>> getModifiedKeyMap(final String key) {
+        final Map<String, Map<Object, Set<T>>> index = txIndex.get();
+        return null == index ? null : index.get(key);
+    }
+
+    private static <V> List<Map.Entry<Object, V>> orderedEntries(final Map<Object, V> keyMap, final boolean descending) {
+        if (!(keyMap instanceof NavigableMap))
+            return Collections.emptyList();
+        return new ArrayList<>((descending ? ((NavigableMap<Object, V>) keyMap).descendingMap() : keyMap).entrySet());
+    }
+
+    /**
+     * Merges sorted committed and transaction-local index entries into a single list of elements that keeps their
+     * order, skipping committed elements that were changed in the current transaction or since the version it reads.
+     */
+    private List<T> merge(final List<Map.Entry<Object, Set<TinkerElementContainer<T>>>> committed,
+                          final List<Map.Entry<Object, Set<T>>> modified, final boolean descending,
+                          final Set<TinkerElementContainer<T>> changedSinceRead) {
+        final Set<T> elements = new LinkedHashSet<>();
+        int i = 0;
+        int j = 0;
+        while (i < committed.size() || j < modified.size()) {
+            final boolean takeCommitted;
+            if (j >= modified.size())
+                takeCommitted = true;
+            else if (i >= committed.size())
+                takeCommitted = false;
+            else {
+                final int c = SORTED_INDEX_COMPARATOR.compare(committed.get(i).getKey(), modified.get(j).getKey());
+                takeCommitted = descending ? c >= 0 : c <= 0;
+            }
+
+            if (takeCommitted) {
+                for (final TinkerElementContainer<T> container : committed.get(i++).getValue()) {
+                    if (container.isChanged() || changedSinceRead.contains(container)) continue;
+                    final T element = container.get();
+                    if (null != element) elements.add(element);
+                }
+            } else {
+                elements.addAll(modified.get(j++).getValue());
+            }
+        }
+        return new ArrayList<>(elements);
+    }
+
     @Override
     public long count(final String key, final Object value) {
         return get(key, value).size();
     }
 
+    /**
+     * Elements changed in the current transaction are not tracked by composite indices until they are committed, so
+     * they are matched against the values directly, as are the elements changed since the version it reads. Transactions typically change few elements compared to the size
+     * of the index.
+     */
+    @Override
+    public List<T> get(final CompositeKey compositeKey, final List<Object> values) {
+        final List<Object> indexableValues = compositeValues(values);
+        final Set<T> elements = new LinkedHashSet<>();
+
+        final Set<TinkerElementContainer<T>> changedSinceRead = getChangedSinceRead();
+        final Map<List<Object>, Set<TinkerElementContainer<T>>> valueMap = compositeIndex.get(compositeKey);
+        final Set<TinkerElementContainer<T>> containers = null == valueMap ? null : valueMap.get(indexableValues);
+        if (null != containers) {
+            for (final TinkerElementContainer<T> container : containers) {
+                if (container.isChanged() || changedSinceRead.contains(container)) continue;
+                final T element = container.get();
+                if (null != element) elements.add(element);
+            }
+        }
+
+        final List<TinkerElementContainer<?>> changed = new ArrayList<>(((TinkerTransaction) graph.tx()).getChanged(indexClass));
+        changed.addAll(changedSinceRead);
+        for (final TinkerElementContainer<?> container : changed) {
+            final T element = (T) container.get();
+            if (null != element && indexClass.isAssignableFrom(element.getClass()) &&
+                    compositeValuesOf(element, compositeKey).contains(indexableValues))
+                elements.add(element);
+        }
+
+        return new ArrayList<>(elements);
+    }
+
+    @Override
+    public long count(final CompositeKey compositeKey, final List<Object> values) {
+        return get(compositeKey, values).size();
+    }
+
     @Override
     public void remove(final String key, final Object value, final T element) {
         final Map<String, Map<Object, Set<T>>> index = txIndex.get();
@@ -137,7 +328,7 @@ final class TinkerTransactionalIndex<T extends TinkerElement> extends AbstractTi
     private void put(final String key, final Object value, final TinkerElementContainer<T> container) {
         Map<Object, Set<TinkerElementContainer<T>>> keyMap = index.get(key);
         if (null == keyMap) {
-            index.putIfAbsent(key, new ConcurrentHashMap<>());
+            index.putIfAbsent(key, createKeyMap(key));
             keyMap = index.get(key);
         }
         final Object indexableValue = indexable(value);
@@ -154,6 +345,10 @@ final class TinkerTransactionalIndex<T extends TinkerElement> extends AbstractTi
         if (!indexClass.isAssignableFrom(element.getClass()) || !element.properties().hasNext())
             return;
 
+        for (final CompositeKey compositeKey : compositeKeys) {
+            addCompositeContainer(compositeKey, container);
+        }
+
         element.properties().forEachRemaining(p -> {
                     if (p.isPresent() && indexedKeys.contains(p.key())) {
                         put(p.key(), p.value(), container);
@@ -171,14 +366,22 @@ final class TinkerTransactionalIndex<T extends TinkerElement> extends AbstractTi
     }
 
     @Override
-    public void createKeyIndex(final String key) {
+    public void createKeyIndex(final String key, final TinkerIndexType indexType) {
         if (null == key)
             throw Graph.Exceptions.argumentCanNotBeNull("key");
         if (key.isEmpty())
             throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        if (null == indexType)
+            throw Graph.Exceptions.argumentCanNotBeNull("indexType");
+        if (indexType == TinkerIndexType.TEXT)
+            throw new IllegalArgumentException("TinkerTransactionGraph does not support TEXT indices");
 
-        if (indexedKeys.contains(key))
-            return;
+        if (indexedKeys.contains(key)) {
+            if (getIndexType(key) == indexType)
+                return;
+            dropKeyIndex(key);
+        }
+        indexTypes.put(key, indexType);
         indexedKeys.add(key);
 
         final Map elements =
@@ -201,14 +404,75 @@ final class TinkerTransactionalIndex<T extends TinkerElement> extends AbstractTi
             index.remove(key).clear();
 
         indexedKeys.remove(key);
+        indexTypes.remove(key);
+    }
+
+    private void addCompositeContainer(final CompositeKey compositeKey, final TinkerElementContainer<T> container) {
+        final Map<List<Object>, Set<TinkerElementContainer<T>>> valueMap = compositeIndex.get(compositeKey);
+        if (null == valueMap)
+            return;
+
+        for (final List<Object> values : compositeValuesOf(container.get(), compositeKey)) {
+            valueMap.computeIfAbsent(values, v -> ConcurrentHashMap.newKeySet()).add(container);
+        }
+    }
+
+    @Override
+    public void createCompositeKeyIndex(final CompositeKey compositeKey) {
+        if (null == compositeKey)
+            throw Graph.Exceptions.argumentCanNotBeNull("compositeKey");
+        if (compositeKeys.contains(compositeKey))
+            return;
+
+        compositeIndex.put(compositeKey, new ConcurrentHashMap<>());
+        compositeKeys.add(compositeKey);
+
+        final Map elements =
+                Vertex.class.isAssignableFrom(indexClass) ?
+                        ((TinkerTransactionGraph) graph).vertices :
+                        ((TinkerTransactionGraph) graph).edges;
+
+        for (Object element : elements.values()) {
+            final TinkerElementContainer<T> container = (TinkerElementContainer<T>) element;
+            if (null != container.get() && indexClass.isAssignableFrom(container.get().getClass()))
+                addCompositeContainer(compositeKey, container);
+        }
+    }
+
+    @Override
+    public void dropCompositeKeyIndex(final CompositeKey compositeKey) {
+        compositeKeys.remove(compositeKey);
+        if (compositeIndex.containsKey(compositeKey))
+            compositeIndex.remove(compositeKey).clear();
     }
 
     private void removeContainer(TinkerElementContainer<T> container) {
-        final T element = container.getUnmodified();
-        if (element == null || !indexClass.isAssignableFrom(element.getClass()) || !element.properties().hasNext())
+        final T element = container.getReplaced();
+        if (element == null || !indexClass.isAssignableFrom(element.getClass()))
             return;
 
-        element.properties().forEachRemaining(p -> {
+        // the element is the version the commit replaced rather than the one the transaction sees, so its own
+        // properties are read
+        final List<Property<?>> properties = propertiesOf(element);
+        if (properties.isEmpty())
+            return;
+
+        for (final CompositeKey compositeKey : compositeKeys) {
+            final Map<List<Object>, Set<TinkerElementContainer<T>>> valueMap = compositeIndex.get(compositeKey);
+            if (null == valueMap) continue;
+            final List<List<Object>> combinations = compositeValuesOf(element.label(),
+                    key -> properties.stream().filter(p -> p.key().equals(key)).iterator(), compositeKey);
+            for (final List<Object> values : combinations) {
+                final Set<TinkerElementContainer<T>> objects = valueMap.get(values);
+                if (null != objects) {
+                    objects.remove(container);
+                    if (objects.isEmpty())
+                        valueMap.remove(values);
+                }
+            }
+        }
+
+        properties.forEach(p -> {
             final Map<Object, Set<TinkerElementContainer<T>>> keyMap = index.get(p.key());
             final Object indexableValue = indexable(p.value());
             if (null != keyMap) {
@@ -222,6 +486,22 @@ final class TinkerTransactionalIndex<T extends TinkerElement> extends AbstractTi
         });
     }
 
+    /**
+     * Gets the properties held by the specified version of an element, which may differ from the ones of the
+     * version that the current transaction sees.
+     */
+    private static List<Property<?>> propertiesOf(final TinkerElement element) {
+        final List<Property<?>> properties = new ArrayList<>();
+        if (element instanceof TinkerVertex) {
+            for (final List<VertexProperty> list : TinkerHelper.getProperties((TinkerVertex) element).values()) {
+                for (final VertexProperty<?> vp : list) properties.add(vp);
+            }
+        } else if (element instanceof TinkerEdge && null != ((TinkerEdge) element).properties) {
+            for (final Property<?> p : ((TinkerEdge) element).properties.values()) properties.add(p);
+        }
+        return properties;
+    }
+
     public void commit(final Set<TinkerElementContainer<T>> updatedElements) {
         for (final TinkerElementContainer<T> element : updatedElements) {
             removeContainer(element);
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Keeps string property values outside of the Java heap in segments of direct memory or of memory-mapped files, so
+ * that the bulk of the data of large graphs is not subject to garbage collection. A property holds a small
+ * {@link Ref} in place of such a value and decodes it when the value is read. Space of values is reclaimed once all
+ * values of a segment are released, at which point the segment is reused.
+ * <p/>
+ * Only property values are kept off-heap. Vertices, edges, the property maps and the indices remain on the heap as
+ * adjacency and the indices hold elements by identity.
+ */
+final class TinkerValueStore {
+
+    /**
+     * Shorter strings are kept on the heap as they are not much larger than the {@link Ref} that replaces them.
+     */
+    static final int MIN_LENGTH = 16;
+
+    /**
+     * Segments start small for small graphs and double in size up to the maximum.
+     */
+    static final int MIN_SEGMENT_SIZE = 1024 * 1024;
+    static final int MAX_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final File location;
+    private ByteBuffer[] segments = new ByteBuffer[0];
+    private int[] live = new int[0];
+    private int current = -1;
+    private boolean closed = false;
+
+    /**
+     * @param location the directory for the files of memory-mapped segments or {@code null} to use direct memory
+     */
+    TinkerValueStore(final File location) {
+        this.location = location;
+    }
+
+    /**
+     * Gets the value for a property of the graph to hold in place of the value, which is the value itself unless the
+     * graph keeps values off-heap. Properties of the graph computer are always kept on the heap as they are discarded
+     * without being removed.
+     */
+    static Object store(final AbstractTinkerGraph graph, final Object value) {
+        return null == graph.valueStore || TinkerHelper.inComputerMode(graph) ? value : graph.valueStore.store(value);
+    }
+
+    /**
+     * Gets the value to hold in place of the value, which is a {@link Ref} if the value is kept by the store.
+     */
+    Object store(final Object value) {
+        // a value held by another property gets a slot of its own as each property releases its slot
+        if (value instanceof Ref)
+            return store(((Ref) value).load());
+        if (!(value instanceof String) || ((String) value).length() < MIN_LENGTH)
+            return value;
+
+        final byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+        synchronized (this) {
+            if (closed)
+                throw new IllegalStateException("The off-heap values of the graph were released as it was closed");
+            final int segment = allocate(Integer.BYTES + bytes.length);
+            final ByteBuffer buffer = segments[segment];
+            final int offset = buffer.position();
+            buffer.putInt(bytes.length).put(bytes);
+            live[segment]++;
+            return new Ref(this, segment, offset);
+        }
+    }
+
+    /**
+     * Gets the value held in place of a value as returned by {@link #store(Object)}.
+     */
+    static Object load(final Object stored) {
+        return stored instanceof Ref ? ((Ref) stored).load() : stored;
+    }
+
+    /**
+     * Frees the space of a value held in place of a value and gets the value itself, which is to be held from then on
+     * so that the value remains readable after its property is removed.
+     */
+    static Object release(final Object stored) {
+        if (!(stored instanceof Ref))
+            return stored;
+
+        final Ref ref = (Ref) stored;
+        final Object value = ref.load();
+        ref.store.free(ref.segment);
+        return value;
+    }
+
+    private synchronized void free(final int segment) {
+        if (!closed)
+            live[segment]--;
+    }
+
+    /**
+     * Releases the segments of the store, after which the values kept by it can no longer be read.
+     */
+    synchronized void close() {
+        closed = true;
+        segments = new ByteBuffer[0];
+        live = new int[0];
+        current = -1;
+    }
+
+    private int allocate(final int size) {
+        if (current >= 0 && segments[current].remaining() >= size)
+            return current;
+
+        // reuse a segment whose values were all released
+        for (int i = 0; i < segments.length; i++) {
+            if (0 == live[i] && segments[i].capacity() >= size) {
+                segments[i].clear();
+                return current = i;
+            }
+        }
+
+        // values larger than a segment get a segment of their own
+        final int segmentSize = 0 == segments.length ?
+                MIN_SEGMENT_SIZE : Math.min(MAX_SEGMENT_SIZE, segments[segments.length - 1].capacity() * 2);
+        final ByteBuffer buffer = createSegment(Math.max(segmentSize, size));
+        segments = Arrays.copyOf(segments, segments.length + 1);
+        live = Arrays.copyOf(live, live.length + 1);
+        segments[segments.length - 1] = buffer;
+        return current = segments.length - 1;
+    }
+
+    private ByteBuffer createSegment(final int size) {
+        if (null == location)
+            return ByteBuffer.allocateDirect(size);
+
+        try {
+            final File file = File.createTempFile("tinkergraph-", ".segment", location);
+            try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                // the mapping remains valid after the channel is closed
+                return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            } finally {
+                if (!file.delete())
+                    file.deleteOnExit();
+            }
+        } catch (IOException ioe) {
+            throw new IllegalStateException(String.format("Could not create a memory-mapped segment in %s", location), ioe);
+        }
+    }
+
+    /**
+     * The location of a value in a {@link TinkerValueStore}.
+     */
+    static final class Ref {
+        private final TinkerValueStore store;
+        private final int segment;
+        private final int offset;
+
+        private Ref(final TinkerValueStore store, final int segment, final int offset) {
+            this.store = store;
+            this.segment = segment;
+            this.offset = offset;
+        }
+
+        Object load() {
+            final ByteBuffer[] segments = store.segments;
+            if (segment >= segments.length)
+                throw new IllegalStateException("The off-heap values of the graph were released as it was closed");
+
+            // a duplicate allows reading while the store writes other values
+            final ByteBuffer buffer = segments[segment].duplicate();
+            buffer.position(offset);
+            final byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out the versions that commits of {@link TinkerTransactionGraph} are made visible with and keeps track of the
+ * versions that open transactions read, which is the latest version committed when each transaction started.
+ * <p/>
+ * Versions of elements that are older than the version the oldest transaction reads are dropped by a collector in
+ * the background. A transaction that starts reads a version no older than the collector went up to, as it registers
+ * the version it reads before it checks against the collector, while the collector raises its bound before it looks
+ * at the registered versions. A thread has at most one transaction open on the graph, and transactions left open by
+ * threads that terminated are not considered as nothing can read them anymore.
+ */
+final class TinkerVersionManager {
+
+    private static final long COLLECT_INTERVAL = 100;
+
+    private static final ScheduledExecutorService COLLECTOR = Executors.newSingleThreadScheduledExecutor(
+            new BasicThreadFactory.Builder().namingPattern("tinker-version-collector-%d").daemon(true).build());
+
+    /**
+     * Commit that made a version of the graph visible, along with the containers of the elements it changed.
+     */
+    private static final class Commit {
+        private final long version;
+        private final List<TinkerElementContainer<?>> containers;
+
+        private Commit(final long version, final List<TinkerElementContainer<?>> containers) {
+            this.version = version;
+            this.containers = containers;
+        }
+    }
+
+    private final TinkerTransactionGraph graph;
+
+    /**
+     * Last version handed out to a commit.
+     */
+    private final AtomicLong allocated = new AtomicLong(TinkerElementContainer.UNCOMMITTED);
+
+    /**
+     * Last version that is visible to transactions that start. Commits are made visible in the order of their versions.
+     */
+    private final AtomicLong published = new AtomicLong(TinkerElementContainer.UNCOMMITTED);
+
+    /**
+     * No transaction that starts reads a version older than this one.
+     */
+    private final AtomicLong horizon = new AtomicLong(TinkerElementContainer.UNCOMMITTED);
+
+    /**
+     * Versions read by open transactions by the threads that opened them.
+     */
+    private final Map<Thread, Long> readVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Commits, roughly in the order of their versions, whose containers may still hold versions to drop. A commit is
+     * added once its version is handed out, as it changes indices before it is published.
+     */
+    private final Queue<Commit> commits = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Versions pinned by open snapshots, which are read by transactions of any thread as long as they are open.
+     */
+    private final Map<TinkerSnapshot, Long> snapshotVersions = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    private volatile boolean closed = false;
+
+    TinkerVersionManager(final TinkerTransactionGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Registers a transaction that starts.
+     *
+     * @return the version the transaction reads
+     */
+    long begin() {
+        final Thread thread = Thread.currentThread();
+        while (true) {
+            final long version = published.get();
+            readVersions.put(thread, version);
+            if (version >= horizon.get()) return version;
+        }
+    }
+
+    /**
+     * Registers a transaction that starts on a version pinned by a snapshot, which is only valid if the snapshot is
+     * still open once the transaction is registered.
+     */
+    void begin(final long version) {
+        readVersions.put(Thread.currentThread(), version);
+    }
+
+    /**
+     * Pins the latest visible version for a snapshot so that the versions it reads are not dropped.
+     *
+     * @return the version the snapshot reads
+     */
+    long pin(final TinkerSnapshot snapshot) {
+        while (true) {
+            final long version = published.get();
+            snapshotVersions.put(snapshot, version);
+            if (version >= horizon.get()) return version;
+        }
+    }
+
+    /**
+     * Releases the version pinned by a snapshot that is closed.
+     */
+    void unpin(final TinkerSnapshot snapshot) {
+        snapshotVersions.remove(snapshot);
+    }
+
+    /**
+     * Unregisters the transaction of the current thread.
+     */
+    void end() {
+        readVersions.remove(Thread.currentThread());
+    }
+
+    /**
+     * Gets the latest version that is visible to transactions.
+     */
+    long getPublished() {
+        return published.get();
+    }
+
+    /**
+     * Hands out the version for a commit of the specified containers, which must be followed by
+     * {@link #publish(long)} whether the commit succeeds or not.
+     */
+    long allocate(final Collection<? extends TinkerElementContainer<?>> changedVertices,
+                  final Collection<? extends TinkerElementContainer<?>> changedEdges) {
+        final List<TinkerElementContainer<?>> containers = new ArrayList<>(changedVertices.size() + changedEdges.size());
+        containers.addAll(changedVertices);
+        containers.addAll(changedEdges);
+
+        final long version = allocated.incrementAndGet();
+        commits.add(new Commit(version, containers));
+        return version;
+    }
+
+    /**
+     * Makes the version of a commit visible once all commits with a lower version are visible.
+     */
+    void publish(final long version) {
+        while (published.get() != version - 1) {
+            Thread.yield();
+        }
+        published.set(version);
+
+        if (!closed && scheduled.compareAndSet(false, true))
+            COLLECTOR.schedule(this::collectInBackground, COLLECT_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the version that the oldest transaction reads, which also bounds the versions that transactions starting
+     * from now on read. Versions committed before it, that are superseded by a version up to it, can be dropped.
+     */
+    long getOldestReadVersion() {
+        final long version = published.get();
+        horizon.accumulateAndGet(version, Math::max);
+        long oldest = version;
+        for (final Iterator<Map.Entry<Thread, Long>> it = readVersions.entrySet().iterator(); it.hasNext(); ) {
+            final Map.Entry<Thread, Long> entry = it.next();
+            if (!entry.getKey().isAlive())
+                it.remove();
+            else
+                oldest = Math.min(oldest, entry.getValue());
+        }
+        for (final long snapshotVersion : snapshotVersions.values()) {
+            oldest = Math.min(oldest, snapshotVersion);
+        }
+        return oldest;
+    }
+
+    /**
+     * Gets the containers changed by commits after the specified version, including the ones not published yet,
+     * which are the ones that a transaction reading that version may see differently than the indices do.
+     */
+    List<TinkerElementContainer<?>> getChangedSince(final long version) {
+        final List<TinkerElementContainer<?>> changed = new ArrayList<>();
+        for (final Commit commit : commits) {
+            if (commit.version > version) changed.addAll(commit.containers);
+        }
+        return changed;
+    }
+
+    /**
+     * Determines if there are commits after the specified version whose changes are still tracked.
+     */
+    boolean hasChangedSince(final long version) {
+        return allocated.get() > version && !commits.isEmpty();
+    }
+
+    /**
+     * Drops the versions no transaction reads anymore, and the containers of elements deleted before the version
+     * the oldest transaction reads.
+     */
+    synchronized void collect() {
+        final long oldestReadVersion = getOldestReadVersion();
+        for (final Iterator<Commit> it = commits.iterator(); it.hasNext(); ) {
+            final Commit commit = it.next();
+            if (commit.version > oldestReadVersion) continue;
+            it.remove();
+            for (final TinkerElementContainer<?> container : commit.containers) {
+                collect(container, oldestReadVersion);
+            }
+        }
+    }
+
+    /**
+     * Drops the versions of the container that no transaction reads anymore and removes it from the graph if its
+     * element was deleted before the version the oldest transaction reads.
+     */
+    void collect(final TinkerElementContainer<?> container, final long oldestReadVersion) {
+        container.prune(oldestReadVersion);
+        if (container.canBeRemoved(oldestReadVersion)) {
+            if (graph.getVertices().get(container.getElementId()) == container)
+                graph.removeVertexContainer((TinkerElementContainer<TinkerVertex>) container);
+            else if (graph.getEdges().get(container.getElementId()) == container)
+                graph.removeEdgeContainer((TinkerElementContainer<TinkerEdge>) container);
+        }
+    }
+
+    private void collectInBackground() {
+        try {
+            collect();
+        } finally {
+            scheduled.set(false);
+            if (!closed && !commits.isEmpty() && scheduled.compareAndSet(false, true))
+                COLLECTOR.schedule(this::collectInBackground, COLLECT_INTERVAL, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Forgets the commits to collect, which is done when the graph is cleared.
+     */
+    void clear() {
+        commits.clear();
+    }
+
+    /**
+     * Stops collecting in the background.
+     */
+    void close() {
+        closed = true;
+        commits.clear();
+    }
+}
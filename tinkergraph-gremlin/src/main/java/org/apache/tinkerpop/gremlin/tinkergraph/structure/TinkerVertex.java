@@ -25,10 +25,11 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
-import org.apache.tinkerpop.gremlin.util.CollectionUtil;
+import org.apache.tinkerpop.gremlin.util.iterator.ArrayIterator;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -47,9 +48,17 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
     // Edges should be used by non-transaction Graph due to performance
     protected Map<String, Set<Edge>> outEdges;
     protected Map<String, Set<Edge>> inEdges;
+    // Compact alternative to the Edges maps if configured for the non-transaction Graph
+    protected TinkerAdjacency outAdjacency;
+    protected TinkerAdjacency inAdjacency;
+    // Edges sorted by property values for the vertex-centric indices of the non-transaction Graph
+    protected TinkerVertexCentricIndex outEdgeIndex;
+    protected TinkerVertexCentricIndex inEdgeIndex;
     // Edge ids are for transactional Graph
     protected Map<String, Set<Object>> outEdgesId;
     protected Map<String, Set<Object>> inEdgesId;
+    // Dense index of the vertex in the graph computer view of the non-transaction Graph
+    protected int ordinal;
     private final AbstractTinkerGraph graph;
     private boolean allowNullPropertyValues;
     private final boolean isTxMode;
@@ -80,10 +89,10 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
 
         final TinkerVertex vertex = new TinkerVertex(id, label, graph, currentVersion);
         if (inEdgesId != null)
-            vertex.inEdgesId = CollectionUtil.clone((ConcurrentHashMap<String, Set<Object>>) inEdgesId);
+            vertex.inEdgesId = cloneEdgesId(inEdgesId);
 
         if (outEdgesId != null)
-            vertex.outEdgesId = CollectionUtil.clone((ConcurrentHashMap<String, Set<Object>>) outEdgesId);
+            vertex.outEdgesId = cloneEdgesId(outEdgesId);
 
         if (properties != null) {
             final ConcurrentHashMap<String, List<VertexProperty>> result = new ConcurrentHashMap<>(properties.size());
@@ -102,14 +111,48 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
         return vertex;
     }
 
+    private static Map<String, Set<Object>> cloneEdgesId(final Map<String, Set<Object>> edgesId) {
+        final Map<String, Set<Object>> result = new ConcurrentHashMap<>(edgesId.size());
+        edgesId.forEach((label, ids) -> result.put(label, TinkerIdSet.copy(ids)));
+        return result;
+    }
+
     @Override
     public Graph graph() {
         return this.graph;
     }
 
+    /**
+     * Gets the state of this vertex that the current transaction reads. The vertices of {@link TinkerTransactionGraph}
+     * are shared by the transactions that read them, so the state is looked up for the transaction and a vertex that
+     * it does not see is treated as removed.
+     */
+    TinkerVertex visible() {
+        if (!isTxMode) return this;
+        final TinkerVertex vertex = graph.visible(this);
+        return null == vertex ? removedCopy() : vertex;
+    }
+
+    /**
+     * Gets the state of this vertex that the current transaction changes, which is a copy of the shared state that
+     * is made the first time the transaction changes the vertex.
+     */
+    TinkerVertex writable() {
+        if (!isTxMode) return this;
+        final TinkerVertex vertex = graph.touch(this);
+        return null == vertex ? removedCopy() : vertex;
+    }
+
+    private TinkerVertex removedCopy() {
+        final TinkerVertex vertex = new TinkerVertex(id, label, graph, currentVersion);
+        vertex.removed = true;
+        return vertex;
+    }
+
     @Override
     public <V> VertexProperty<V> property(final String key) {
-        if (this.removed) return VertexProperty.empty();
+        final TinkerVertex self = visible();
+        if (self.removed) return VertexProperty.empty();
         if (TinkerHelper.inComputerMode(this.graph)) {
             final List<VertexProperty> list = (List) this.graph.graphComputerView.getProperty(this, key);
             if (list.size() == 0)
@@ -119,8 +162,8 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
             else
                 throw Vertex.Exceptions.multiplePropertiesExistForProvidedKey(key);
         } else {
-            if (this.properties != null && this.properties.containsKey(key)) {
-                final List<VertexProperty> list = this.properties.get(key);
+            if (self.properties != null && self.properties.containsKey(key)) {
+                final List<VertexProperty> list = self.properties.get(key);
                 if (list.size() > 1)
                     throw Vertex.Exceptions.multiplePropertiesExistForProvidedKey(key);
                 else
@@ -132,9 +175,9 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
 
     @Override
     public <V> VertexProperty<V> property(final VertexProperty.Cardinality cardinality, final String key, final V value, final Object... keyValues) {
-        graph.touch(this);
+        final TinkerVertex self = writable();
 
-        if (this.removed) throw elementAlreadyRemoved(Vertex.class, id);
+        if (self.removed) throw elementAlreadyRemoved(Vertex.class, id);
         ElementHelper.legalPropertyKeyValueArray(keyValues);
         ElementHelper.validateProperty(key, value);
 
@@ -143,16 +186,16 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
         if (!allowNullPropertyValues && null == value) {
             final VertexProperty.Cardinality card = null == cardinality ? graph.features().vertex().getCardinality(key) : cardinality;
             if (VertexProperty.Cardinality.single == card)
-                properties(key).forEachRemaining(VertexProperty::remove);
+                self.properties(key).forEachRemaining(VertexProperty::remove);
             return VertexProperty.empty();
         }
 
         final Optional<Object> optionalId = ElementHelper.getIdValue(keyValues);
-        final Optional<VertexProperty<V>> optionalVertexProperty = ElementHelper.stageVertexProperty(this, cardinality, key, value, keyValues);
+        final Optional<VertexProperty<V>> optionalVertexProperty = ElementHelper.stageVertexProperty(self, cardinality, key, value, keyValues);
         if (optionalVertexProperty.isPresent()) return optionalVertexProperty.get();
 
         if (TinkerHelper.inComputerMode(this.graph)) {
-            final VertexProperty<V> vertexProperty = (VertexProperty<V>) this.graph.graphComputerView.addProperty(this, key, value);
+            final VertexProperty<V> vertexProperty = (VertexProperty<V>) this.graph.graphComputerView.addProperty(self, key, value, keyValues);
             ElementHelper.attachProperties(vertexProperty, keyValues);
             return vertexProperty;
         } else {
@@ -160,13 +203,14 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
                     graph.vertexPropertyIdManager.convert(optionalId.get()) :
                     graph.vertexPropertyIdManager.getNextId(graph);
 
-            final VertexProperty<V> vertexProperty = new TinkerVertexProperty<V>(idValue, this, key, value);
+            final VertexProperty<V> vertexProperty = new TinkerVertexProperty<V>(idValue, self, key, value);
 
-            if (null == this.properties) this.properties = new ConcurrentHashMap<>();
-            final List<VertexProperty> list = this.properties.getOrDefault(key, new ArrayList<>());
+            if (null == self.properties) self.properties = TinkerPropertyMap.create(graph, ConcurrentHashMap::new);
+            final List<VertexProperty> list = self.properties.getOrDefault(key, new ArrayList<>(1));
             list.add(vertexProperty);
-            this.properties.put(key, list);
-            TinkerIndexHelper.autoUpdateIndex(this, key, value, null);
+            self.properties.put(vertexProperty.key(), list);
+            TinkerIndexHelper.autoUpdateIndex(self, key, value, null);
+            TinkerMutationLog.logVertexProperty((TinkerVertexProperty<V>) vertexProperty);
             ElementHelper.attachProperties(vertexProperty, keyValues);
             return vertexProperty;
         }
@@ -174,31 +218,34 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
 
     @Override
     public Set<String> keys() {
-        if (null == this.properties) return Collections.emptySet();
+        final TinkerVertex self = visible();
+        if (null == self.properties) return Collections.emptySet();
         return TinkerHelper.inComputerMode((AbstractTinkerGraph) graph()) ?
                 Vertex.super.keys() :
-                this.properties.keySet();
+                self.properties.keySet();
     }
 
     @Override
     public Edge addEdge(final String label, final Vertex vertex, final Object... keyValues) {
         if (null == vertex) throw Graph.Exceptions.argumentCanNotBeNull("vertex");
-        if (this.removed || ((TinkerVertex) vertex).removed) throw elementAlreadyRemoved(Vertex.class, this.id);
+        if (visible().removed || ((TinkerVertex) vertex).visible().removed) throw elementAlreadyRemoved(Vertex.class, this.id);
 
         return graph.addEdge(this, (TinkerVertex) vertex, label, keyValues);
     }
 
     @Override
     public void remove() {
-        graph.touch(this);
+        final TinkerVertex self = writable();
 
         final List<Edge> edges = new ArrayList<>();
-        this.edges(Direction.BOTH).forEachRemaining(edge -> edges.add(edge));
+        self.edges(Direction.BOTH).forEachRemaining(edge -> edges.add(edge));
         edges.stream().filter(edge -> !((TinkerEdge) edge).removed).forEach(Edge::remove);
-        TinkerIndexHelper.removeElementIndex(this);
-        this.properties = null;
+        TinkerIndexHelper.removeElementIndex(self);
+        if (null != self.properties)
+            self.properties.values().forEach(l -> l.forEach(vp -> ((TinkerVertexProperty<?>) vp).release()));
+        self.properties = null;
         this.graph.removeVertex(this.id);
-        this.removed = true;
+        self.removed = true;
     }
 
     @Override
@@ -209,7 +256,7 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
     @Override
     public Iterator<Edge> edges(final Direction direction, final String... edgeLabels) {
         final Iterator<Edge> edgeIterator = isTxMode
-                ? (Iterator) TinkerHelper.getEdgesTx(this, direction, edgeLabels)
+                ? (Iterator) TinkerHelper.getEdgesTx(visible(), direction, edgeLabels)
                 : (Iterator) TinkerHelper.getEdges(this, direction, edgeLabels);
         return TinkerHelper.inComputerMode(this.graph) ?
                 IteratorUtils.filter(edgeIterator, edge -> this.graph.graphComputerView.legalEdge(this, edge)) :
@@ -226,30 +273,50 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
                     IteratorUtils.map(this.edges(direction, edgeLabels), edge -> edge.vertices(direction.opposite()).next());
 
         return isTxMode
-                ? (Iterator) TinkerHelper.getVerticesTx(this, direction, edgeLabels)
+                ? (Iterator) TinkerHelper.getVerticesTx(visible(), direction, edgeLabels)
                 : (Iterator) TinkerHelper.getVertices(this, direction, edgeLabels);
     }
 
     @Override
     public <V> Iterator<VertexProperty<V>> properties(final String... propertyKeys) {
-        if (this.removed) return Collections.emptyIterator();
+        final TinkerVertex self = visible();
+        if (self.removed) return Collections.emptyIterator();
         if (TinkerHelper.inComputerMode((AbstractTinkerGraph) graph()))
-            return (Iterator) ((AbstractTinkerGraph) graph()).graphComputerView.getProperties(TinkerVertex.this).stream().filter(p -> ElementHelper.keyExists(p.key(), propertyKeys)).iterator();
+            return (Iterator) IteratorUtils.filter(((AbstractTinkerGraph) graph()).graphComputerView.getProperties(TinkerVertex.this).iterator(), p -> ElementHelper.keyExists(p.key(), propertyKeys));
         else {
-            if (null == this.properties) return Collections.emptyIterator();
+            if (null == self.properties) return Collections.emptyIterator();
             if (propertyKeys.length == 1) {
                 if (null == propertyKeys[0])
                     return Collections.emptyIterator();
-                final List<VertexProperty> properties = this.properties.getOrDefault(propertyKeys[0], Collections.emptyList());
+                final List<VertexProperty> properties = self.properties.getOrDefault(propertyKeys[0], Collections.emptyList());
                 if (properties.size() == 1) {
                     return IteratorUtils.of(properties.get(0));
                 } else if (properties.isEmpty()) {
                     return Collections.emptyIterator();
                 } else {
-                    return (Iterator) new ArrayList<>(properties).iterator();
+                    return (Iterator) new ArrayIterator<>(properties.toArray());
                 }
-            } else
-                return (Iterator) this.properties.entrySet().stream().filter(entry -> ElementHelper.keyExists(entry.getKey(), propertyKeys)).flatMap(entry -> entry.getValue().stream()).collect(Collectors.toList()).iterator();
+            } else {
+                // size the copy in a first pass over the keys so that the properties are copied only once
+                int size = 0;
+                for (final Map.Entry<String, List<VertexProperty>> entry : self.properties.entrySet()) {
+                    if (ElementHelper.keyExists(entry.getKey(), propertyKeys)) size += entry.getValue().size();
+                }
+                if (0 == size)
+                    return Collections.emptyIterator();
+
+                final Object[] properties = new Object[size];
+                int offset = 0;
+                for (final Map.Entry<String, List<VertexProperty>> entry : self.properties.entrySet()) {
+                    if (ElementHelper.keyExists(entry.getKey(), propertyKeys)) {
+                        final List<VertexProperty> values = entry.getValue();
+                        for (int i = 0; i < values.size() && offset < size; i++) {
+                            properties[offset++] = values.get(i);
+                        }
+                    }
+                }
+                return (Iterator) new ArrayIterator<>(offset == size ? properties : Arrays.copyOf(properties, offset));
+            }
         }
     }
 }
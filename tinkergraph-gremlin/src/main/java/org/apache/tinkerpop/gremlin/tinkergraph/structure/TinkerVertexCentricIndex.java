@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The edges of a {@link TinkerVertex} in one direction sorted by the value of a property key, kept for the edge
+ * labels and keys that {@link TinkerGraph#createVertexCentricIndex(String, String)} was called for. A vertex with
+ * many edges of a label can then answer a range of values, or its edges in the order of the value, without going
+ * through all of its edges. Edges without a value for the key are not kept, as a range or an order on the key
+ * filters them anyway.
+ */
+final class TinkerVertexCentricIndex {
+
+    /**
+     * The edges by label, then by key, then by the value they have for the key in Gremlin order.
+     */
+    private final Map<String, Map<String, NavigableMap<Object, Set<Edge>>>> edges = new HashMap<>(2);
+
+    void add(final Edge edge, final String key, final Object value) {
+        edges.computeIfAbsent(edge.label(), l -> new HashMap<>(2))
+                .computeIfAbsent(key, k -> new TreeMap<>(AbstractTinkerIndex.SORTED_INDEX_COMPARATOR))
+                .computeIfAbsent(AbstractTinkerIndex.indexable(value), v -> new LinkedHashSet<>()).add(edge);
+    }
+
+    void remove(final Edge edge, final String key, final Object value) {
+        final Map<String, NavigableMap<Object, Set<Edge>>> keys = edges.get(edge.label());
+        if (null == keys)
+            return;
+        final NavigableMap<Object, Set<Edge>> values = keys.get(key);
+        if (null == values)
+            return;
+
+        final Object indexable = AbstractTinkerIndex.indexable(value);
+        final Set<Edge> valued = values.get(indexable);
+        if (null == valued || !valued.remove(edge))
+            return;
+        if (valued.isEmpty())
+            values.remove(indexable);
+        if (values.isEmpty())
+            keys.remove(key);
+        if (keys.isEmpty())
+            edges.remove(edge.label());
+    }
+
+    /**
+     * Stops keeping the edges with the label by the value of the key.
+     */
+    void drop(final String label, final String key) {
+        final Map<String, NavigableMap<Object, Set<Edge>>> keys = edges.get(label);
+        if (null != keys && null != keys.remove(key) && keys.isEmpty())
+            edges.remove(label);
+    }
+
+    boolean isEmpty() {
+        return edges.isEmpty();
+    }
+
+    /**
+     * Gets the edges with the label by the value they have for the key.
+     *
+     * @return the edges or {@code null} if no edge with the label has a value for the key
+     */
+    NavigableMap<Object, Set<Edge>> get(final String label, final String key) {
+        final Map<String, NavigableMap<Object, Set<Edge>>> keys = edges.get(label);
+        return null == keys ? null : keys.get(key);
+    }
+}
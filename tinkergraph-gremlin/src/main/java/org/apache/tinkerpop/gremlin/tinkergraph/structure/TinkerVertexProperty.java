@@ -44,7 +44,7 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
     protected Map<String, Property> properties;
     private final TinkerVertex vertex;
     private final String key;
-    private final V value;
+    protected V value;
     private final boolean allowNullPropertyValues;
 
     /**
@@ -61,14 +61,14 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
      * can be explicitly set and validated against the expected data type.
      */
     public TinkerVertexProperty(final Object id, final TinkerVertex vertex, final String key, final V value, final Object... propertyKeyValues) {
-        super(id, key);
+        super(id, TinkerPropertyKeys.intern((AbstractTinkerGraph) vertex.graph(), key));
         this.allowNullPropertyValues = vertex.graph().features().vertex().properties().supportsNullPropertyValues();
         if (!allowNullPropertyValues && null == value)
             throw new IllegalArgumentException("value cannot be null as feature supportsNullPropertyValues is false");
 
         this.vertex = vertex;
-        this.key = key;
-        this.value = value;
+        this.key = this.label;
+        this.value = (V) TinkerValueStore.store((AbstractTinkerGraph) vertex.graph(), value);
         ElementHelper.legalPropertyKeyValueArray(propertyKeyValues);
         ElementHelper.attachProperties(this, propertyKeyValues);
     }
@@ -80,7 +80,7 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public V value() {
-        return this.value;
+        return (V) TinkerValueStore.load(this.value);
     }
 
     @Override
@@ -95,13 +95,14 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public Object clone() {
-        final TinkerVertexProperty vp = new TinkerVertexProperty(id, vertex, key, value);
+        // the value is loaded so that a value kept off-heap is stored again rather than shared with this property
+        final TinkerVertexProperty vp = new TinkerVertexProperty(id, vertex, key, TinkerValueStore.load(value));
         vp.properties = properties;
         return vp;
     }
 
     public TinkerVertexProperty copy(final TinkerVertex newOwner) {
-        final TinkerVertexProperty vp = new TinkerVertexProperty(id, newOwner, key, value);
+        final TinkerVertexProperty vp = new TinkerVertexProperty(id, newOwner, key, TinkerValueStore.load(value));
 
         if (null != properties) {
             final Map<String, Property> cloned = new ConcurrentHashMap<>(properties.size());
@@ -124,31 +125,63 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
         return ElementHelper.areEqual(this, object);
     }
 
+    /**
+     * Gets the state of this property that the current transaction reads, which is kept by the state of the vertex
+     * that the transaction reads.
+     */
+    TinkerVertexProperty<V> visible() {
+        return TinkerHelper.inComputerMode((AbstractTinkerGraph) vertex.graph()) ? this : of(vertex.visible());
+    }
+
+    /**
+     * Gets the state of this property that the current transaction changes, which is kept by the state of the vertex
+     * that the transaction changes.
+     */
+    TinkerVertexProperty<V> writable() {
+        return TinkerHelper.inComputerMode((AbstractTinkerGraph) vertex.graph()) ? this : of(vertex.writable());
+    }
+
+    private TinkerVertexProperty<V> of(final TinkerVertex owner) {
+        if (owner == this.vertex) return this;
+        if (null != owner.properties) {
+            for (final VertexProperty vertexProperty : owner.properties.getOrDefault(key, Collections.emptyList())) {
+                if (vertexProperty.id().equals(id)) return (TinkerVertexProperty<V>) vertexProperty;
+            }
+        }
+        final TinkerVertexProperty<V> vertexProperty = new TinkerVertexProperty<>(id, owner, key, value);
+        vertexProperty.removed = true;
+        return vertexProperty;
+    }
+
     @Override
     public Set<String> keys() {
-        return null == this.properties ? Collections.emptySet() : this.properties.keySet();
+        final TinkerVertexProperty<V> self = visible();
+        return null == self.properties ? Collections.emptySet() : self.properties.keySet();
     }
 
     @Override
     public <U> Property<U> property(final String key) {
-        return null == this.properties ? Property.<U>empty() : this.properties.getOrDefault(key, Property.<U>empty());
+        final TinkerVertexProperty<V> self = visible();
+        return null == self.properties ? Property.<U>empty() : self.properties.getOrDefault(key, Property.<U>empty());
     }
 
     @Override
     public <U> Property<U> property(final String key, final U value) {
-        // in most cases vertex should already be touched, but let's play safe
-        ((AbstractTinkerGraph)vertex.graph()).touch(vertex);
+        final TinkerVertexProperty<V> self = writable();
 
-        if (this.removed) throw elementAlreadyRemoved(VertexProperty.class, id);
+        if (self.removed) throw elementAlreadyRemoved(VertexProperty.class, id);
 
         if ((!allowNullPropertyValues && null == value)) {
-            properties(key).forEachRemaining(Property::remove);
+            self.properties(key).forEachRemaining(Property::remove);
             return Property.empty();
         }
 
-        final Property<U> property = new TinkerProperty<>(this, key, value);
-        if (this.properties == null) this.properties = new HashMap<>();
-        this.properties.put(key, property);
+        final Property<U> property = new TinkerProperty<>(self, key, value);
+        if (self.properties == null) self.properties = TinkerPropertyMap.create((AbstractTinkerGraph) graph(), HashMap::new);
+        final Property<?> oldProperty = self.properties.put(key, property);
+        if (null != oldProperty)
+            ((TinkerProperty<?>) oldProperty).release();
+        TinkerMutationLog.logMetaProperty(self, property);
         return property;
     }
 
@@ -159,33 +192,45 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public void remove() {
-        if (null != this.vertex.properties && this.vertex.properties.containsKey(this.key)) {
-            ((AbstractTinkerGraph)vertex.graph()).touch(vertex);
-
-            this.vertex.properties.get(this.key).remove(this);
-            if (this.vertex.properties.get(this.key).size() == 0) {
-                this.vertex.properties.remove(this.key);
-                TinkerIndexHelper.removeIndex(this.vertex, this.key, this.value);
+        final TinkerVertexProperty<V> self = writable();
+        final TinkerVertex vertex = self.vertex;
+        if (null != vertex.properties && vertex.properties.containsKey(this.key)) {
+            vertex.properties.get(this.key).remove(self);
+            self.release();
+            if (vertex.properties.get(this.key).size() == 0) {
+                vertex.properties.remove(this.key);
+                TinkerIndexHelper.removeIndex(vertex, this.key, self.value);
             }
             final AtomicBoolean delete = new AtomicBoolean(true);
-            this.vertex.properties(this.key).forEachRemaining(property -> {
+            vertex.properties(this.key).forEachRemaining(property -> {
                 final Object currentPropertyValue = property.value();
-                if ((currentPropertyValue != null && currentPropertyValue.equals(this.value) || null == currentPropertyValue && null == this.value))
+                if ((currentPropertyValue != null && currentPropertyValue.equals(self.value) || null == currentPropertyValue && null == self.value))
                     delete.set(false);
             });
-            if (delete.get()) TinkerIndexHelper.removeIndex(this.vertex, this.key, this.value);
-            this.properties = null;
-            this.removed = true;
+            if (delete.get()) TinkerIndexHelper.removeIndex(vertex, this.key, self.value);
+            self.properties = null;
+            self.removed = true;
+            TinkerMutationLog.logRemoveVertexProperty(self);
         }
     }
 
+    /**
+     * Moves values kept off-heap back onto the heap once the property is no longer part of the graph.
+     */
+    void release() {
+        this.value = (V) TinkerValueStore.release(this.value);
+        if (null != this.properties)
+            this.properties.values().forEach(p -> ((TinkerProperty<?>) p).release());
+    }
+
     @Override
     public <U> Iterator<Property<U>> properties(final String... propertyKeys) {
-        if (null == this.properties) return Collections.emptyIterator();
+        final TinkerVertexProperty<V> self = visible();
+        if (null == self.properties) return Collections.emptyIterator();
         if (propertyKeys.length == 1) {
-            final Property<U> property = this.properties.get(propertyKeys[0]);
+            final Property<U> property = self.properties.get(propertyKeys[0]);
             return null == property ? Collections.emptyIterator() : IteratorUtils.of(property);
         } else
-            return (Iterator) this.properties.entrySet().stream().filter(entry -> ElementHelper.keyExists(entry.getKey(), propertyKeys)).map(entry -> entry.getValue()).collect(Collectors.toList()).iterator();
+            return (Iterator) self.properties.entrySet().stream().filter(entry -> ElementHelper.keyExists(entry.getKey(), propertyKeys)).map(entry -> entry.getValue()).collect(Collectors.toList()).iterator();
     }
 }
@@ -18,18 +18,27 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect;
 
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphStepStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.AbstractTinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.util.iterator.StoreIteratorCounter;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class TinkerGraphStepTest {
 
@@ -55,4 +64,80 @@ public class TinkerGraphStepTest {
         assertEquals(1, count);
     }
 
+    @Test
+    public void shouldHandleComparisonsWithNaNWithLazyIteration() {
+        final GraphTraversalSource g = openLazy().traversal();
+        g.addV("v1").property("age", Double.NaN).next();
+        g.addV("v1").property("age", 3).next();
+        int count = g.V().has("age", P.gt(1)).count().next().intValue();
+        assertEquals(1, count);
+    }
+
+    @Test
+    public void shouldOnlyTestConsumedElementsWithLazyIteration() {
+        final GraphTraversalSource g = openLazy().traversal();
+        for (int i = 0; i < 100; i++) {
+            g.addV("person").property("x", i).iterate();
+        }
+
+        final AtomicInteger tested = new AtomicInteger(0);
+        final List<Vertex> vertices = g.V().has("x", P.test((t, u) -> {
+            tested.incrementAndGet();
+            return true;
+        }, 0)).limit(2).toList();
+
+        assertEquals(2, vertices.size());
+        assertTrue(tested.get() < 100);
+    }
+
+    @Test
+    public void shouldTestAllElementsWithoutLazyIteration() {
+        for (int i = 0; i < 100; i++) {
+            g.addV("person").property("x", i).iterate();
+        }
+
+        final AtomicInteger tested = new AtomicInteger(0);
+        final List<Vertex> vertices = g.V().has("x", P.test((t, u) -> {
+            tested.incrementAndGet();
+            return true;
+        }, 0)).limit(2).toList();
+
+        assertEquals(2, vertices.size());
+        assertEquals(100, tested.get());
+    }
+
+    @Test
+    public void shouldMaterializeForMutatingTraversalWithLazyIteration() {
+        final GraphTraversalSource g = openLazy().traversal();
+        for (int i = 0; i < 100; i++) {
+            g.addV("person").iterate();
+        }
+
+        g.V().addV("person").iterate();
+        assertEquals(200, g.V().count().next().intValue());
+    }
+
+    @Test
+    public void shouldCloseIteratorsWithLazyIteration() throws Exception {
+        final GraphTraversalSource g = openLazy().traversal();
+        for (int i = 0; i < 100; i++) {
+            g.addV("person").property("x", i).iterate();
+        }
+
+        StoreIteratorCounter.INSTANCE.reset();
+        final Traversal<Vertex, Vertex> t = g.V().has("x", P.gte(0));
+        t.next();
+        assertEquals(1, StoreIteratorCounter.INSTANCE.getOpenIteratorCount());
+        t.close();
+        assertEquals(0, StoreIteratorCounter.INSTANCE.getOpenIteratorCount());
+
+        g.V().has("x", P.gte(0)).toList();
+        assertEquals(0, StoreIteratorCounter.INSTANCE.getOpenIteratorCount());
+    }
+
+    private static TinkerGraph openLazy() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(AbstractTinkerGraph.GREMLIN_TINKERGRAPH_LAZY_ITERATION, true);
+        return TinkerGraph.open(conf);
+    }
 }
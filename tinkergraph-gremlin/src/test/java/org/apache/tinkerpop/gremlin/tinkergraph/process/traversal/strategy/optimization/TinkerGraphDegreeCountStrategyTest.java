@@ -0,0 +1,88 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.util.EmptyTraversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerDegreeCountGlobalStep;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+public class TinkerGraphDegreeCountStrategyTest {
+
+    @Parameterized.Parameter(value = 0)
+    public Traversal original;
+
+    @Parameterized.Parameter(value = 1)
+    public Traversal optimized;
+
+    @Parameterized.Parameter(value = 2)
+    public Collection<TraversalStrategy> otherStrategies;
+
+    @Test
+    public void doTest() {
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(TinkerGraphDegreeCountStrategy.instance());
+        for (final TraversalStrategy strategy : this.otherStrategies) {
+            strategies.addStrategies(strategy);
+        }
+        if (this.optimized == null) {
+            this.optimized = this.original.asAdmin().clone();
+            this.optimized.asAdmin().setStrategies(strategies);
+            this.optimized.asAdmin().applyStrategies();
+        }
+        this.original.asAdmin().setStrategies(strategies);
+        this.original.asAdmin().applyStrategies();
+        assertEquals(this.optimized, this.original);
+    }
+
+    private static Traversal.Admin<?, ?> degreeStep(final Traversal.Admin<?, ?> traversal, final Direction direction, final String... edgeLabels) {
+        return traversal.addStep(new TinkerDegreeCountGlobalStep(EmptyTraversal.instance(), direction, edgeLabels));
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Iterable<Object[]> generateTestParameters() {
+        return Arrays.asList(new Object[][]{
+                {__.out().count(), degreeStep(new DefaultGraphTraversal<>(), Direction.OUT), Collections.emptyList()},
+                {__.inE("knows").count(), degreeStep(new DefaultGraphTraversal<>(), Direction.IN, "knows"), Collections.emptyList()},
+                {__.V(1).both("knows", "created").count(), degreeStep(__.V(1).asAdmin(), Direction.BOTH, "knows", "created"), Collections.emptyList()},
+                {__.V().project("d").by(__.outE().count()), __.V().project("d").by(degreeStep(new DefaultGraphTraversal<>(), Direction.OUT)), Collections.emptyList()},
+                //
+                {__.out().as("a").count(), null, Collections.emptyList()},
+                {__.out().out().count(), __.out().asAdmin().addStep(new TinkerDegreeCountGlobalStep(EmptyTraversal.instance(), Direction.OUT)), Collections.emptyList()},
+                {__.out().limit(2).count(), null, Collections.emptyList()},
+                {__.out().values("name").count(), null, Collections.emptyList()},
+                {__.V().count(), null, Collections.emptyList()},
+        });
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerParallelReducingStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TinkerGraphParallelStrategyTest {
+
+    private TinkerGraph graph;
+    private GraphTraversalSource g;
+    private GraphTraversalSource parallel;
+
+    @Before
+    public void setup() {
+        graph = TinkerGraph.open();
+        Vertex previous = null;
+        for (int i = 0; i < 1000; i++) {
+            final Vertex v = graph.addVertex(T.label, i % 3 == 0 ? "a" : "b", "n", i);
+            if (null != previous)
+                previous.addEdge("next", v, "w", i % 10);
+            previous = v;
+        }
+        g = graph.traversal();
+        parallel = graph.traversal().with(TinkerGraphParallelStrategy.PARALLELISM, 4);
+    }
+
+    @Test
+    public void shouldCountInParallel() {
+        assertParallel(s -> s.V().has("n", P.gt(100)).count(), 899L);
+        assertParallel(s -> s.V().hasLabel("a").out("next").has("n", P.gt(0)).count(), 333L);
+        assertParallel(s -> s.E().has("w", P.lt(5)).count(), 499L);
+    }
+
+    @Test
+    public void shouldSumInParallel() {
+        assertParallel(s -> s.V().values("n").sum(), g.V().values("n").sum().next());
+        assertEquals(499500L, ((Number) g.V().values("n").sum().next()).longValue());
+        assertParallel(s -> s.V().where(__.outE("next").has("w", 9)).values("n").sum(), g.V().where(__.outE("next").has("w", 9)).values("n").sum().next());
+    }
+
+    @Test
+    public void shouldGroupCountInParallel() {
+        final Object expected = g.V().groupCount().by(T.label).next();
+        assertParallel(s -> s.V().groupCount().by(T.label), expected);
+    }
+
+    @Test
+    public void shouldFoldInParallelInOrder() {
+        final Object expected = g.V().values("n").fold().next();
+        assertParallel(s -> s.V().values("n").fold(), expected);
+    }
+
+    @Test
+    public void shouldReduceNothing() {
+        assertParallel(s -> s.V().has("n", P.lt(0)).count(), 0L);
+        assertParallel(s -> s.V().has("n", P.lt(0)).fold(), Collections.emptyList());
+        assertFalse(parallel.V().has("n", P.lt(0)).values("n").sum().hasNext());
+    }
+
+    @Test
+    public void shouldNotRunInParallel() {
+        assertSequential(g.V().has("n", P.gt(100)).count());
+        assertSequential(graph.traversal().with(TinkerGraphParallelStrategy.PARALLELISM, 1).V().has("n", P.gt(100)).count());
+        assertSequential(parallel.V().limit(10).count());
+        assertSequential(parallel.V().dedup().count());
+        assertSequential(parallel.V().as("a").out().count());
+        assertSequential(parallel.V().map(t -> t.get()).count());
+        assertSequential(parallel.V().aggregate("x").count());
+        assertSequential(parallel.V().values("n").max());
+        assertSequential(parallel.V().has("n", P.gt(100)).order().by("n").fold());
+    }
+
+    private void assertParallel(final Function<GraphTraversalSource, Traversal<?, ?>> traversal, final Object expected) {
+        final Traversal<?, ?> sequential = traversal.apply(g);
+        assertEquals(expected, sequential.next());
+
+        final Traversal<?, ?> partitioned = traversal.apply(parallel);
+        partitioned.asAdmin().applyStrategies();
+        assertTrue(TraversalHelper.hasStepOfClass(TinkerParallelReducingStep.class, partitioned.asAdmin()));
+        assertEquals(expected, partitioned.next());
+        assertFalse(partitioned.hasNext());
+    }
+
+    private static void assertSequential(final Traversal<?, ?> traversal) {
+        traversal.asAdmin().applyStrategies();
+        assertFalse(TraversalHelper.hasStepOfAssignableClassRecursively(TinkerParallelReducingStep.class, traversal.asAdmin()));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class TinkerGraphSelectivityStrategyTest {
+
+    private GraphTraversalSource g;
+
+    @Before
+    public void setup() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.createIndex("name", Vertex.class);
+        for (int i = 0; i < 100; i++) {
+            graph.addVertex(T.label, i < 10 ? "person" : "thing", "name", "v" + i, "age", i);
+        }
+        g = graph.traversal();
+    }
+
+    @Test
+    public void shouldTestMostSelectiveContainersFirst() {
+        // an indexed equality lets a single vertex through where a range on an unindexed key is only guessed at
+        assertEquals(Arrays.asList("name", "age"), keysOf(g.V().has("age", P.gt(20)).has("name", "v1")));
+        // a tenth of the vertices are persons
+        assertEquals(Arrays.asList(T.label.getAccessor(), "age"), keysOf(g.V().has("age", P.gt(20)).hasLabel("person")));
+        // most vertices are things
+        assertEquals(Arrays.asList("age", T.label.getAccessor()), keysOf(g.V().hasLabel("thing").has("age", P.gt(20))));
+        assertEquals(Arrays.asList("name", T.label.getAccessor()), keysOf(g.V().has(T.label, P.neq("person")).has("name", P.within("v1", "v2"))));
+    }
+
+    @Test
+    public void shouldTestLambdasLast() {
+        assertEquals(Arrays.asList("age", "name"), keysOf(g.V().has("name", P.test((t, u) -> true, 0)).has("age", P.neq(20))));
+    }
+
+    @Test
+    public void shouldOrderContainersOfHasStep() {
+        assertEquals(Arrays.asList(T.label.getAccessor(), "age"), keysOf(g.V().out().has("age", P.gt(20)).hasLabel("person")));
+        assertEquals(Arrays.asList("name", "age"), keysOf(g.E().inV().has("age", P.gt(20)).has("name", "v1")));
+    }
+
+    @Test
+    public void shouldNotOrderContainersUnderFilter() {
+        assertEquals(Arrays.asList("age", T.label.getAccessor()), keysOf(g.V().where(__.out().has("age", P.gt(20)).hasLabel("person"))));
+    }
+
+    @Test
+    public void shouldKeepOrderOfEquallySelectiveContainers() {
+        assertEquals(Arrays.asList("age", "weight"), keysOf(g.V().has("age", P.gt(20)).has("weight", P.lt(5))));
+    }
+
+    /**
+     * Gets the keys of the containers of the step holding several of them once strategies are applied.
+     */
+    private static List<String> keysOf(final Traversal<?, ?> traversal) {
+        traversal.asAdmin().applyStrategies();
+        final HasContainerHolder holder = TraversalHelper.getStepsOfAssignableClassRecursively(HasContainerHolder.class, traversal.asAdmin()).stream().
+                filter(h -> h.getHasContainers().size() > 1).findFirst().get();
+        return holder.getHasContainers().stream().map(HasContainer::getKey).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerVertexCentricStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TinkerGraphVertexCentricStrategyTest {
+
+    private GraphTraversalSource g;
+
+    @Before
+    public void setup() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.createVertexCentricIndex("rated", "ts");
+        final Vertex v = graph.addVertex();
+        v.addEdge("rated", v, "ts", 1);
+        g = graph.traversal();
+    }
+
+    @Test
+    public void shouldFoldRangeOnIndexedKey() {
+        final TinkerVertexCentricStep step = vertexCentricStep(g.V().outE("rated").has("ts", P.gt(10)).has("stars", 5));
+        assertEquals(Direction.OUT, step.getDirection());
+        assertEquals("rated", step.getEdgeLabel());
+        assertEquals("ts", step.getKey());
+        assertEquals(2, step.getHasContainers().size());
+        assertNull(step.getOrder());
+        assertEquals(Long.MAX_VALUE, step.getLimit());
+    }
+
+    @Test
+    public void shouldSplitBetween() {
+        final TinkerVertexCentricStep step = vertexCentricStep(g.V().inE("rated").has("ts", P.between(10, 20)));
+        assertEquals(Direction.IN, step.getDirection());
+        assertEquals(2, step.getHasContainers().size());
+    }
+
+    @Test
+    public void shouldFoldOrderAndLimitForSingleVertex() {
+        final Traversal.Admin<?, ?> traversal = g.V(1).outE("rated").has("ts", P.gt(10)).order().by("ts", Order.desc).limit(3).asAdmin();
+        final TinkerVertexCentricStep step = vertexCentricStep(traversal);
+        assertEquals(Order.desc, step.getOrder());
+        assertEquals(3, step.getLimit());
+        assertTrue(TraversalHelper.getStepsOfClass(OrderGlobalStep.class, traversal).isEmpty());
+    }
+
+    @Test
+    public void shouldFoldOrderAndLimitWithinLocal() {
+        final TinkerVertexCentricStep step = vertexCentricStep(g.V().local(__.inE("rated").order().by("ts").limit(1)));
+        assertEquals(Order.asc, step.getOrder());
+        assertEquals(1, step.getLimit());
+    }
+
+    @Test
+    public void shouldNotFoldOrderForManyVertices() {
+        final Traversal.Admin<?, ?> traversal = g.V().outE("rated").has("ts", P.gt(10)).order().by("ts").limit(3).asAdmin();
+        final TinkerVertexCentricStep step = vertexCentricStep(traversal);
+        assertNull(step.getOrder());
+        assertEquals(Long.MAX_VALUE, step.getLimit());
+        assertEquals(1, TraversalHelper.getStepsOfClass(OrderGlobalStep.class, traversal).size());
+    }
+
+    @Test
+    public void shouldLimitUnorderedEdges() {
+        assertEquals(5, vertexCentricStep(g.V().outE("rated").has("ts", P.lte(10)).limit(5)).getLimit());
+    }
+
+    @Test
+    public void shouldNotReplaceStepWithoutIndex() {
+        assertNoVertexCentricStep(g.V().outE("rated").has("stars", P.gt(10)));
+        assertNoVertexCentricStep(g.V().outE("knows").has("ts", P.gt(10)));
+        assertNoVertexCentricStep(g.V().outE("rated", "knows").has("ts", P.gt(10)));
+        assertNoVertexCentricStep(g.V().bothE("rated").has("ts", P.gt(10)));
+        assertNoVertexCentricStep(g.V().out("rated").has("ts", P.gt(10)));
+        assertNoVertexCentricStep(g.V().outE("rated").as("a").has("ts", P.gt(10)));
+        assertNoVertexCentricStep(g.V().outE("rated").order().by("ts"));
+    }
+
+    private static TinkerVertexCentricStep vertexCentricStep(final Traversal<?, ?> traversal) {
+        traversal.asAdmin().applyStrategies();
+        final List<TinkerVertexCentricStep> steps = TraversalHelper.getStepsOfAssignableClassRecursively(TinkerVertexCentricStep.class, traversal.asAdmin());
+        assertEquals(1, steps.size());
+        assertTrue(TraversalHelper.getStepsOfAssignableClassRecursively(HasStep.class, traversal.asAdmin()).isEmpty());
+        return steps.get(0);
+    }
+
+    private static void assertNoVertexCentricStep(final Traversal<?, ?> traversal) {
+        traversal.asAdmin().applyStrategies();
+        assertTrue(TraversalHelper.getStepsOfAssignableClassRecursively(TinkerVertexCentricStep.class, traversal.asAdmin()).isEmpty());
+    }
+}
@@ -164,6 +164,39 @@ public class TinkerGraphServiceTest {
 
     }
 
+    /**
+     * Demonstrate / test the full text query against a TEXT index.
+     */
+    @Test
+    public void g_call_search_query() {
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.getServiceRegistry().registerService(new TinkerTextSearchFactory(graph));
+        graph.createIndex("desc", Vertex.class, TinkerIndexType.TEXT);
+        final GraphTraversalSource g = graph.traversal();
+        g.addV().property("desc", "gremlin traversal language").
+          addV().property("desc", "graph traversal machine traversal").
+          addV().property("desc", "the running gremlins").
+          addV().property("desc", "graph database").iterate();
+
+        /*
+         * Best match first.
+         */
+        assertEquals(Arrays.asList("graph traversal machine traversal", "gremlin traversal language"),
+                g.call("tinker.search", asMap("query", "traversal")).values("desc").toList());
+
+        /*
+         * Tokens only match tokens with the same stem if asked to.
+         */
+        assertEquals(1L, (long) g.call("tinker.search", asMap("query", "Gremlin")).count().next());
+        assertEquals(2L, (long) g.call("tinker.search").with("query", "Gremlin").with("stem", true).count().next());
+
+        /*
+         * Updates are seen by the index.
+         */
+        g.V().has("desc", "graph database").property("desc", "gremlin database").iterate();
+        assertEquals(2L, (long) g.call("tinker.search").with("query", "gremlin").with("key", "desc").with("type", "Vertex").count().next());
+    }
+
     @Test
     public void g_V_call_degree_centrality() {
         assertArrayEquals(new String[] {
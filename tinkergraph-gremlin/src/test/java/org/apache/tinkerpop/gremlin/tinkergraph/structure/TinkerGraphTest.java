@@ -23,15 +23,35 @@ import org.apache.commons.configuration2.Configuration;
 import org.apache.tinkerpop.gremlin.GraphHelper;
 import org.apache.tinkerpop.gremlin.TestHelper;
 import org.apache.tinkerpop.gremlin.process.computer.Computer;
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.process.computer.Memory;
+import org.apache.tinkerpop.gremlin.process.computer.MemoryComputeKey;
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.computer.Messenger;
+import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.computer.clustering.connected.ConnectedComponentVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.clustering.peerpressure.PeerPressureVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.util.StaticVertexProgram;
+import org.apache.tinkerpop.gremlin.process.traversal.IO;
+import org.apache.tinkerpop.gremlin.process.traversal.Operator;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.TextP;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.IdentityRemovalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ReservedKeysVerificationStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.T;
@@ -50,6 +70,14 @@ import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoClassResolverV1;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoVersion;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoWriter;
+import org.apache.tinkerpop.gremlin.structure.util.reference.ReferenceVertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerComputerResult;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerWorkerMetrics;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerDegreeCountGlobalStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect.TinkerGraphStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphSelectivityStrategy;
+import org.apache.tinkerpop.gremlin.util.function.TriConsumer;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.apache.tinkerpop.shaded.jackson.databind.ObjectMapper;
 import org.apache.tinkerpop.shaded.kryo.ClassResolver;
@@ -67,26 +95,36 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import static org.apache.tinkerpop.gremlin.process.traversal.AnonymousTraversalSource.traversal;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.core.StringContains.containsString;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeThat;
@@ -320,6 +358,708 @@ public class TinkerGraphTest {
         }, 0.5)).has("oid", "1").count().next());
     }
 
+    @Test
+    public void shouldUseSortedVertexIndexForRangeQueries() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class, TinkerIndexType.SORTED);
+        assertEquals(TinkerIndexType.SORTED, g.getIndexType("age", Vertex.class));
+
+        for (int i = 0; i < 50; i++) {
+            g.addVertex("name", "v" + i, "age", i);
+        }
+        g.addVertex("name", "unknown", "age", "unknown");
+        g.addVertex("name", "none");
+
+        // spy into the pipeline as in the equality index tests - only ages in the range should ever be tested
+        assertEquals(new Long(19), g.traversal().V().has("age", P.gt(30)).has("age", P.test((t, u) -> {
+            assertTrue((int) t > 30);
+            return true;
+        }, 0)).count().next());
+        assertEquals(new Long(10), g.traversal().V().has("age", P.between(10, 20)).has("age", P.test((t, u) -> {
+            assertTrue((int) t >= 10 && (int) t < 20);
+            return true;
+        }, 0)).count().next());
+        assertEquals(new Long(6), g.traversal().V().has("age", P.lte(5)).has("age", P.test((t, u) -> {
+            assertTrue((int) t <= 5);
+            return true;
+        }, 0)).count().next());
+        assertEquals(new Long(0), g.traversal().V().has("age", P.gt(30)).has("age", P.lt(20)).count().next());
+        assertEquals(new Long(1), g.traversal().V().has("age", P.gte(30L)).has("age", P.lte(30.0d)).count().next());
+
+        // index is kept up to date as values change
+        g.traversal().V().has("age", 49).property("age", -1).iterate();
+        assertEquals(new Long(18), g.traversal().V().has("age", P.gt(30)).count().next());
+        assertEquals(new Long(7), g.traversal().V().has("age", P.lte(5)).count().next());
+    }
+
+    @Test
+    public void shouldUseSortedVertexIndexForPrefixAndWithinQueries() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("name", Vertex.class, TinkerIndexType.SORTED);
+        g.createIndex("lang", Vertex.class);
+
+        g.addVertex("name", "marko", "age", 29);
+        g.addVertex("name", "mark", "age", 30);
+        g.addVertex("name", "stephen", "age", 35);
+        g.addVertex("name", "josh", "lang", "java", "age", 32);
+        g.addVertex("name", "peter", "lang", "gremlin", "age", 35);
+        g.addVertex("name", "ripple", "lang", "groovy", "age", 33);
+
+        assertEquals(Arrays.asList("mark", "marko"), g.traversal().V().has("name", TextP.startingWith("mar")).has("age", P.test((t, u) -> {
+            assertTrue(t.equals(29) || t.equals(30));
+            return true;
+        }, 0)).values("name").toList());
+        assertEquals(new Long(0), g.traversal().V().has("name", TextP.startingWith("z")).count().next());
+
+        // within can use either type of index
+        assertEquals(new Long(2), g.traversal().V().has("name", P.within("marko", "stephen", "nobody")).has("age", P.test((t, u) -> {
+            assertTrue(t.equals(29) || t.equals(35));
+            return true;
+        }, 0)).count().next());
+        assertEquals(new Long(2), g.traversal().V().has("lang", P.within("java", "groovy")).has("age", P.test((t, u) -> {
+            assertTrue(t.equals(32) || t.equals(33));
+            return true;
+        }, 0)).count().next());
+    }
+
+    @Test
+    public void shouldUseSortedEdgeIndexForRangeQueries() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("weight", Edge.class, TinkerIndexType.SORTED);
+
+        final Vertex v = g.addVertex();
+        for (int i = 0; i < 10; i++) {
+            v.addEdge("self", v, "weight", i / 10d, "oid", i);
+        }
+
+        assertEquals(new Long(3), g.traversal().E().has("weight", P.inside(0.3d, 0.7d)).has("oid", P.test((t, u) -> {
+            assertTrue((int) t > 3 && (int) t < 7);
+            return true;
+        }, 0)).count().next());
+        assertEquals(Arrays.asList(9, 8), g.traversal().E().order().by("weight", Order.desc).limit(2).values("oid").toList());
+    }
+
+    @Test
+    public void shouldChooseCheapestIndexLookup() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class, TinkerIndexType.SORTED);
+        for (int i = 0; i < 50; i++) {
+            g.addVertex(T.label, "person", "age", i, "kind", "person");
+        }
+        g.addVertex(T.label, "robot", "age", 40, "kind", "robot");
+        g.addVertex(T.label, "robot", "age", 45, "kind", "robot");
+
+        assertEquals(52, g.count(Vertex.class));
+        assertEquals(2, g.count(Vertex.class, "robot"));
+        assertEquals(22, g.estimate(Vertex.class, new HasContainer("age", P.gte(30))));
+        assertEquals(3, g.estimate(Vertex.class, new HasContainer("age", P.within(45, 46))));
+        assertEquals(-1, g.estimate(Vertex.class, new HasContainer("kind", P.eq("robot"))));
+
+        // the estimates taken when the strategy ordered the containers are kept for the index lookup
+        final Traversal.Admin<Vertex, Vertex> traversal = g.traversal().V().has("kind", "robot").has("age", P.gte(30)).asAdmin();
+        traversal.applyStrategies();
+        final TinkerGraphStep<?, ?> step = (TinkerGraphStep<?, ?>) traversal.getStartStep();
+        final HasContainer age = step.getHasContainers().stream().filter(c -> c.getKey().equals("age")).findFirst().get();
+        final Vertex added = g.addVertex(T.label, "person", "age", 60, "kind", "person");
+        assertEquals(22, step.estimate(age));
+        added.remove();
+
+        // spy into the pipeline with the containers kept in the order written, so the spy sees what the index returns
+        final GraphTraversalSource gts = g.traversal().withoutStrategies(TinkerGraphSelectivityStrategy.class);
+
+        // the range holds 22 vertices and the label 2 so the label index is used
+        assertEquals(new Long(2), gts.V().hasLabel("robot").has("kind", P.test((t, u) -> {
+            assertEquals("robot", t);
+            return true;
+        }, 0)).has("age", P.gte(30)).count().next());
+        // the range holds 6 vertices and the label 50 so the sorted index is used
+        assertEquals(new Long(5), gts.V().hasLabel("person").has("age", P.test((t, u) -> {
+            assertTrue((int) t >= 45);
+            return true;
+        }, 0)).has("age", P.gte(45)).count().next());
+    }
+
+    @Test
+    public void shouldUseVertexCentricIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createVertexCentricIndex("rated", "ts");
+        assertEquals(Collections.singleton("ts"), g.getVertexCentricIndexKeys("rated"));
+
+        final Vertex v = g.addVertex();
+        final List<Edge> edges = new ArrayList<>();
+        final List<Vertex> others = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            others.add(g.addVertex());
+            edges.add(v.addEdge("rated", others.get(i), "ts", i));
+        }
+        v.addEdge("rated", others.get(0));
+        v.addEdge("knows", others.get(0), "ts", 100);
+
+        // the spy only sees the edges the index returns for the range
+        final GraphTraversalSource gts = g.traversal();
+        assertEquals(Arrays.asList(7, 8, 9), gts.V(v.id()).outE("rated").has("ts", P.test((t, u) -> {
+            assertTrue((int) t > 6);
+            return true;
+        }, 0)).has("ts", P.gt(6)).values("ts").toList());
+        assertEquals(Arrays.asList(9, 8), gts.V(v.id()).outE("rated").order().by("ts", Order.desc).limit(2).values("ts").toList());
+        assertEquals(Collections.singletonList(9), gts.V(v.id()).local(__.outE("rated").order().by("ts", Order.desc).limit(1)).values("ts").toList());
+        assertEquals(Arrays.asList(3, 4), gts.V(v.id()).outE("rated").has("ts", P.between(3, 5)).values("ts").toList());
+        assertEquals(new Long(1), gts.V(others.get(3).id()).inE("rated").has("ts", P.lt(5)).count().next());
+
+        // the index follows changes to the edges
+        edges.get(5).property("ts", 50);
+        edges.get(9).remove();
+        assertEquals(Arrays.asList(7, 8, 50), gts.V(v.id()).outE("rated").has("ts", P.gt(6)).values("ts").toList());
+        assertEquals(new Long(0), gts.V(others.get(5).id()).inE("rated").has("ts", P.lt(6)).count().next());
+
+        // without the index the edges are filtered and sorted instead
+        g.dropVertexCentricIndex("rated", "ts");
+        assertTrue(g.getVertexCentricIndexKeys("rated").isEmpty());
+        assertEquals(Arrays.asList(50, 8), gts.V(v.id()).outE("rated").order().by("ts", Order.desc).limit(2).values("ts").toList());
+    }
+
+    @Test
+    public void shouldUseTextIndexForTextQueries() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("desc", Vertex.class, TinkerIndexType.TEXT);
+        assertEquals(TinkerIndexType.TEXT, g.getIndexType("desc", Vertex.class));
+
+        final Vertex fox = g.addVertex("desc", "The quick brown fox");
+        g.addVertex("desc", "Quick thinking");
+        g.addVertex("desc", "brownie points");
+        final Vertex turtle = g.addVertex("desc", "slow turtle");
+        g.addVertex("desc", 42);
+        g.addVertex("name", "none");
+
+        // spy into the pipeline as in the other index tests - only values with tokens for the text are ever tested
+        assertEquals(new Long(1), g.traversal().V().has("desc", TextP.containing("quick")).has("desc", P.test((t, u) -> {
+            assertTrue(((String) t).toLowerCase().contains("quick"));
+            return true;
+        }, 0)).count().next());
+        assertEquals(new Long(1), g.traversal().V().has("desc", TextP.containing("own f")).has("desc", P.test((t, u) -> {
+            assertEquals("The quick brown fox", t);
+            return true;
+        }, 0)).count().next());
+        assertEquals(Collections.singletonList("brownie points"), g.traversal().V().has("desc", TextP.startingWith("brown")).has("desc", P.test((t, u) -> {
+            assertTrue(((String) t).contains("brown"));
+            return true;
+        }, 0)).values("desc").toList());
+        assertEquals(new Long(1), g.traversal().V().has("desc", TextP.endingWith("fox")).count().next());
+        assertEquals(new Long(1), g.traversal().V().has("desc", TextP.regex("^b.*s$")).count().next());
+        assertEquals(new Long(0), g.traversal().V().has("desc", TextP.containing("zebra")).count().next());
+        // no tokens to look up so all the values are tested
+        assertEquals(new Long(4), g.traversal().V().has("desc", TextP.containing(" ")).count().next());
+        // equality still uses the index as a hash index would
+        assertEquals(new Long(1), g.traversal().V().has("desc", "slow turtle").count().next());
+
+        // index is kept up to date as values change
+        turtle.property("desc", "quick turtle");
+        assertEquals(new Long(2), g.traversal().V().has("desc", TextP.containing("quick")).count().next());
+        assertEquals(new Long(0), g.traversal().V().has("desc", TextP.containing("slow")).count().next());
+        fox.remove();
+        assertEquals(new Long(1), g.traversal().V().has("desc", TextP.containing("quick")).count().next());
+        turtle.property("desc").remove();
+        assertEquals(new Long(0), g.traversal().V().has("desc", TextP.containing("quick")).count().next());
+
+        g.dropIndex("desc", Vertex.class);
+        assertEquals(new Long(1), g.traversal().V().has("desc", TextP.containing("brown")).count().next());
+    }
+
+    @Test
+    public void shouldCountDegreeFromVertex() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final GraphTraversalSource g = graph.traversal();
+
+        final Traversal<Vertex, Long> t = g.V(1).out().count();
+        assertEquals(3L, (long) t.next());
+        assertThat(t.asAdmin().getSteps().stream().anyMatch(s -> s instanceof TinkerDegreeCountGlobalStep), is(true));
+        assertEquals(2L, (long) g.V(1).outE("knows").count().next());
+        assertEquals(3L, (long) g.V(3).in().count().next());
+        assertEquals(8L, (long) g.V().both("created").count().next());
+        assertEquals(0L, (long) g.V(2).out().count().next());
+        assertEquals(0L, (long) g.V(100).out().count().next());
+        assertEquals(Arrays.asList(3L, 0L, 0L, 2L, 0L, 1L), g.V().order().by(T.id).map(__.outE().count()).toList());
+
+        // a self-loop counts twice in both directions as it is traversed twice
+        g.V(1).as("a").addE("self").to("a").iterate();
+        assertEquals(5L, (long) g.V(1).both().count().next());
+        assertEquals(5L, (long) g.V(1).both().toList().size());
+
+        g.E(7).drop().iterate();
+        assertEquals(3L, (long) g.V(1).out().count().next());
+        assertEquals(1L, (long) g.V(1).out("knows").count().next());
+        g.V(4).drop().iterate();
+        assertEquals(0L, (long) g.V(1).out("knows").count().next());
+        assertEquals(2L, (long) g.V(3).in().count().next());
+    }
+
+    @Test
+    public void shouldFoldOrderIntoGraphStepWithSortedIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class, TinkerIndexType.SORTED);
+
+        final Random random = TestHelper.RANDOM;
+        final List<Integer> ages = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final int age = random.nextInt(1000);
+            ages.add(age);
+            g.addVertex("age", age, "name", "v" + i);
+        }
+        g.addVertex("name", "none");
+        Collections.sort(ages);
+
+        final Traversal<Vertex, Object> t = g.traversal().V().order().by("age").limit(5).values("age");
+        assertEquals(ages.subList(0, 5), t.toList());
+        assertThat(t.asAdmin().getSteps().stream().noneMatch(s -> s instanceof OrderGlobalStep), is(true));
+        assertEquals("age", ((TinkerGraphStep<?, ?>) t.asAdmin().getStartStep()).getOrderKey());
+        assertEquals(5, ((TinkerGraphStep<?, ?>) t.asAdmin().getStartStep()).getOrderLimit());
+
+        Collections.reverse(ages);
+        assertEquals(ages.subList(0, 10), g.traversal().V().order().by("age", Order.desc).limit(10).values("age").toList());
+        assertEquals(ages.subList(0, 10), g.traversal().V().has("age", P.gt(-1)).order().by("age", Order.desc).limit(10).values("age").toList());
+        assertEquals(ages, g.traversal().V().order().by("age", Order.desc).values("age").toList());
+
+        // an equality lookup on another index is sorted in memory and the order is still respected
+        g.createIndex("name", Vertex.class);
+        final List<Object> expected = g.traversal().V().has("name", P.within("v1", "v2", "v3")).values("age").order().by(Order.desc).toList();
+        assertEquals(expected, g.traversal().V().has("name", P.within("v1", "v2", "v3")).order().by("age", Order.desc).values("age").toList());
+
+        // order on a key without a sorted index is left alone
+        assertThat(g.traversal().V().order().by("name").limit(1).asAdmin().getSteps().stream().anyMatch(s -> s instanceof OrderGlobalStep), is(true));
+    }
+
+    @Test
+    public void shouldRebuildIndexWhenTypeChanges() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.addVertex("age", 29);
+        g.addVertex("age", 35);
+
+        g.createIndex("age", Vertex.class);
+        assertEquals(TinkerIndexType.HASH, g.getIndexType("age", Vertex.class));
+        assertEquals(new Long(1), g.traversal().V().has("age", P.gt(30)).count().next());
+
+        g.createIndex("age", Vertex.class, TinkerIndexType.SORTED);
+        assertEquals(TinkerIndexType.SORTED, g.getIndexType("age", Vertex.class));
+        assertEquals(new Long(1), g.traversal().V().has("age", 35).count().next());
+        assertEquals(new Long(1), g.traversal().V().has("age", P.gt(30)).count().next());
+
+        g.dropIndex("age", Vertex.class);
+        assertNull(g.getIndexType("age", Vertex.class));
+        assertEquals(new Long(1), g.traversal().V().has("age", P.gt(30)).count().next());
+    }
+
+    @Test
+    public void shouldUseCompositeVertexIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("tenant", Vertex.class);
+        g.createCompositeIndex(Vertex.class, "person", "tenant", "externalId");
+        assertEquals(1, g.getCompositeIndices(Vertex.class).size());
+
+        for (int i = 0; i < 100; i++) {
+            g.addVertex(T.label, "person", "tenant", "t" + (i % 2), "externalId", i, "age", i);
+        }
+        g.addVertex(T.label, "software", "tenant", "t0", "externalId", 10, "age", 1000);
+
+        // the composite index is more selective than the one on "tenant" so only a single age should be tested
+        assertEquals(new Long(1), g.traversal().V().hasLabel("person").has("tenant", "t0").has("externalId", 10).has("age", P.test((t, u) -> {
+            assertEquals(10, t);
+            return true;
+        }, 0)).count().next());
+        assertEquals(new Long(0), g.traversal().V().hasLabel("person").has("tenant", "t1").has("externalId", 10).count().next());
+
+        // without the label the composite index can't be used but the "tenant" index still is
+        assertEquals(new Long(2), g.traversal().V().has("tenant", "t0").has("externalId", 10).has("age", P.test((t, u) -> {
+            assertTrue((int) t % 2 == 0 || t.equals(1000));
+            return true;
+        }, 0)).count().next());
+
+        // index is kept up to date as values change
+        g.traversal().V().hasLabel("person").has("tenant", "t0").has("externalId", 10).property("externalId", 1000).iterate();
+        assertEquals(new Long(0), g.traversal().V().hasLabel("person").has("tenant", "t0").has("externalId", 10).count().next());
+        assertEquals(new Long(1), g.traversal().V().hasLabel("person").has("tenant", "t0").has("externalId", 1000).count().next());
+        g.traversal().V().hasLabel("person").has("tenant", "t0").has("externalId", 1000).properties("tenant").drop().iterate();
+        assertEquals(new Long(0), g.traversal().V().hasLabel("person").has("tenant", "t0").has("externalId", 1000).count().next());
+        g.traversal().V().hasLabel("person").has("tenant", "t1").has("externalId", 11).drop().iterate();
+        assertEquals(new Long(0), g.traversal().V().hasLabel("person").has("tenant", "t1").has("externalId", 11).count().next());
+
+        g.dropCompositeIndex(Vertex.class, "person", "tenant", "externalId");
+        assertEquals(0, g.getCompositeIndices(Vertex.class).size());
+        assertEquals(new Long(1), g.traversal().V().hasLabel("person").has("tenant", "t0").has("externalId", 12).count().next());
+    }
+
+    @Test
+    public void shouldUseCompositeEdgeIndexInExistingGraph() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex v = g.addVertex();
+        for (int i = 0; i < 10; i++) {
+            v.addEdge(i % 2 == 0 ? "knows" : "likes", v, "oid", i % 5, "weight", i);
+        }
+
+        g.createCompositeIndex(Edge.class, null, "oid", "weight");
+        assertEquals(new Long(1), g.traversal().E().has("oid", 3).has("weight", 8).count().next());
+        assertEquals(new Long(1), g.traversal().E().has("oid", 3).has("weight", 3).has("oid", P.test((t, u) -> {
+            assertEquals(3, t);
+            return true;
+        }, 0)).count().next());
+        assertEquals(new Long(0), g.traversal().E().has("oid", 3).has("weight", 4).count().next());
+    }
+
+    @Test
+    public void shouldUseLabelIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        for (int i = 0; i < 100; i++) {
+            g.addVertex(T.label, i < 10 ? "person" : i < 20 ? "software" : "other", "age", i);
+        }
+
+        // only vertices of the label should be tested
+        assertEquals(new Long(10), g.traversal().V().hasLabel("person").has("age", P.test((t, u) -> {
+            assertTrue((int) t < 10);
+            return true;
+        }, 0)).count().next());
+        assertEquals(new Long(20), g.traversal().V().hasLabel("person", "software", "missing").has("age", P.test((t, u) -> {
+            assertTrue((int) t < 20);
+            return true;
+        }, 0)).count().next());
+        assertEquals(10, g.getVerticesCount("person"));
+        assertEquals(0, g.getVerticesCount("missing"));
+        assertEquals(new Long(10), g.traversal().V().hasLabel("person").count().next());
+        assertEquals(new Long(20), g.traversal().V().hasLabel("person", "software").count().next());
+        assertEquals(new Long(10), g.traversal().V().hasLabel("person", "software").hasLabel("software").count().next());
+
+        final Vertex v = g.traversal().V().hasLabel("person").has("age", 0).next();
+        v.addEdge("knows", v);
+        v.addEdge("knows", v);
+        v.addEdge("created", v);
+        assertEquals(new Long(2), g.traversal().E().hasLabel("knows").count().next());
+        assertEquals(2, IteratorUtils.count(g.edgesByLabel("knows")));
+
+        // index is kept up to date as elements are removed
+        g.traversal().E().hasLabel("knows").limit(1).drop().iterate();
+        assertEquals(new Long(1), g.traversal().E().hasLabel("knows").count().next());
+        v.remove();
+        assertEquals(new Long(0), g.traversal().E().hasLabel("knows", "created").count().next());
+        assertEquals(new Long(9), g.traversal().V().hasLabel("person").count().next());
+        assertEquals(9, IteratorUtils.count(g.verticesByLabel("person")));
+
+        g.clear();
+        assertEquals(new Long(0), g.traversal().V().hasLabel("software").count().next());
+    }
+
+    @Test
+    public void shouldUseCompactAdjacency() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPACT_ADJACENCY, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final GraphTraversalSource g = graph.traversal();
+
+        final Vertex a = graph.addVertex("a");
+        final Vertex b = graph.addVertex("b");
+        for (int i = 0; i < 10; i++) {
+            a.addEdge(new String("knows"), b, "i", i);
+            a.addEdge("likes", a, "i", i);
+        }
+        final TinkerVertex tv = (TinkerVertex) a;
+        assertNull(tv.outEdges);
+        assertEquals(20, tv.outAdjacency.size());
+        assertEquals(10, tv.outAdjacency.size("knows"));
+        // labels are interned so that all edges share the same string
+        final List<Edge> knows = g.V(a).outE("knows").toList();
+        assertTrue(knows.stream().allMatch(e -> e.label() == knows.get(0).label()));
+
+        assertEquals(10, IteratorUtils.count(a.vertices(Direction.OUT, "knows")));
+        assertEquals(20, IteratorUtils.count(a.vertices(Direction.OUT)));
+        assertEquals(30, IteratorUtils.count(a.edges(Direction.BOTH)));
+        assertEquals(20, IteratorUtils.count(a.edges(Direction.BOTH, "likes")));
+        assertEquals(20, IteratorUtils.count(a.edges(Direction.OUT, "knows", "likes", "missing")));
+        assertEquals(0, IteratorUtils.count(b.edges(Direction.OUT)));
+        assertEquals(Collections.singletonList(a), g.V(b).in("knows").dedup().toList());
+
+        // edges can be removed while they are iterated
+        g.V(a).outE("knows").has("i", P.lt(5)).drop().iterate();
+        assertEquals(5L, (long) g.V(a).outE("knows").count().next());
+        assertEquals(5L, (long) g.V(b).inE().count().next());
+        assertEquals(Arrays.asList(5, 6, 7, 8, 9), g.V(b).inE("knows").values("i").order().toList());
+        g.V(a).bothE("likes").drop().iterate();
+        assertEquals(0L, (long) g.V(a).both("likes").count().next());
+        assertEquals(0, IteratorUtils.count(a.edges(Direction.IN, "knows", "likes")));
+
+        a.remove();
+        assertEquals(0L, (long) g.V(b).bothE().count().next());
+        assertEquals(0L, (long) g.E().count().next());
+    }
+
+    @Test
+    public void shouldStoreValuesOffHeap() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP, true);
+        assertValuesOffHeap(TinkerGraph.open(conf));
+    }
+
+    @Test
+    public void shouldStoreValuesInMemoryMappedSegments() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_LOCATION, TestHelper.makeTestDataDirectory(TinkerGraphTest.class, "offHeap"));
+        assertValuesOffHeap(TinkerGraph.open(conf));
+    }
+
+    @Test
+    public void shouldKeepOffHeapValuesOfCopiesApart() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final String description = "a description that is long enough to be kept off-heap";
+
+        final Vertex v = graph.addVertex("description", description);
+        final TinkerVertexProperty<String> vp = (TinkerVertexProperty<String>) v.<String>property("description");
+        vp.property("note", "a note that is long enough to be kept off-heap as well");
+        final TinkerVertexProperty<String> copy = vp.copy((TinkerVertex) v);
+        final TinkerVertexProperty<String> clone = (TinkerVertexProperty<String>) vp.clone();
+        assertTrue(copy.value instanceof TinkerValueStore.Ref);
+        assertNotSame(vp.value, copy.value);
+        assertNotSame(vp.value, clone.value);
+        assertNotSame(((TinkerProperty) vp.property("note")).value, ((TinkerProperty) copy.property("note")).value);
+
+        // releasing the original leaves the copies with values of their own
+        vp.remove();
+        assertEquals(description, copy.value());
+        assertEquals(description, clone.value());
+
+        // the values are released along with the graph
+        graph.close();
+        try {
+            copy.value();
+            fail("The off-heap values should have been released when the graph was closed");
+        } catch (IllegalStateException ignored) {
+        }
+    }
+
+    private static void assertValuesOffHeap(final TinkerGraph graph) {
+        final GraphTraversalSource g = graph.traversal();
+        graph.createIndex("name", Vertex.class);
+        final String description = "a description that is long enough to be kept off-heap \u00e9\u4e2d";
+
+        final Vertex v = graph.addVertex(T.label, "person", "name", "marko", "description", description);
+        final VertexProperty<String> vp = v.property("description");
+        assertEquals(description, vp.value());
+        assertTrue(((TinkerVertexProperty) vp).value instanceof TinkerValueStore.Ref);
+        vp.property("note", "meta-properties are kept off-heap as well");
+        final Edge e = v.addEdge("knows", v, "text", description);
+        assertTrue(((TinkerProperty) e.property("text")).value instanceof TinkerValueStore.Ref);
+
+        assertEquals(description, g.V().has("description", description).values("description").next());
+        assertEquals("meta-properties are kept off-heap as well", g.V(v).properties("description").values("note").next());
+        assertEquals(description, g.E().has("text", TextP.startingWith("a description")).values("text").next());
+
+        // removed properties are still readable
+        vp.remove();
+        assertEquals(description, vp.value());
+        assertFalse(((TinkerVertexProperty) vp).value instanceof TinkerValueStore.Ref);
+        e.property("text", "a replacement that is long enough as well");
+        assertEquals("a replacement that is long enough as well", g.E(e).values("text").next());
+
+        // space of released values is reused
+        for (int i = 0; i < 1000; i++) {
+            final Vertex u = graph.addVertex("description", description + i);
+            assertEquals(description + i, u.value("description"));
+            u.remove();
+        }
+        assertEquals(1L, (long) g.V().count().next());
+        assertEquals("marko", g.V().has("name", "marko").values("name").next());
+
+        graph.clear();
+        assertEquals(description, graph.addVertex("description", description).value("description"));
+    }
+
+    @Test
+    public void shouldStorePropertiesCompactly() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPACT_PROPERTIES, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final GraphTraversalSource g = graph.traversal();
+        graph.createIndex("name", Vertex.class);
+
+        final Vertex v = graph.addVertex(T.label, "person", new String("name"), "marko", new String("age"), 29);
+        final Vertex u = graph.addVertex(T.label, "person", new String("name"), "vadas", new String("age"), 27);
+        v.property(VertexProperty.Cardinality.list, "location", "san diego", "startTime", 1997);
+        v.property(VertexProperty.Cardinality.list, "location", "santa cruz", "startTime", 2001);
+        final Edge e = v.addEdge("knows", u, new String("weight"), 0.5d);
+
+        assertTrue(((TinkerVertex) v).properties instanceof TinkerPropertyMap);
+        assertTrue(((TinkerEdge) e).properties instanceof TinkerPropertyMap);
+        // keys are interned so that all properties of a key share the same string
+        assertSame(v.property("name").key(), u.property("name").key());
+        assertSame(v.property("age").key(), u.property("age").key());
+
+        assertEquals(new HashSet<>(Arrays.asList("name", "age", "location")), v.keys());
+        assertEquals(Arrays.asList("marko", "vadas"), g.V().values("name").order().toList());
+        assertEquals(Arrays.asList("san diego", "santa cruz"), g.V(v).values("location").toList());
+        assertEquals(Arrays.asList(1997, 2001), g.V(v).properties("location").values("startTime").toList());
+        assertEquals(0.5d, g.E(e).values("weight").next());
+        assertEquals("marko", g.V().has("name", "marko").values("name").next());
+
+        v.property("age", 30);
+        assertEquals(30, (int) v.value("age"));
+        g.V(v).properties("location").hasValue("san diego").drop().iterate();
+        assertEquals(Collections.singletonList("santa cruz"), g.V(v).values("location").toList());
+        g.V(v).properties("name").drop().iterate();
+        assertEquals(new HashSet<>(Arrays.asList("age", "location")), v.keys());
+        assertEquals(0L, (long) g.V().has("name", "marko").count().next());
+        e.property("weight").remove();
+        assertEquals(Collections.emptySet(), e.keys());
+
+        // graph computer properties are kept alongside
+        assertEquals(2L, (long) g.withComputer().V().pageRank().values(PageRankVertexProgram.PAGE_RANK).count().next());
+    }
+
+    @Test
+    public void shouldBulkLoadVerticesAndEdges() {
+        final TinkerGraph source = TinkerFactory.createTheCrew();
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPACT_ADJACENCY, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, "list");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        graph.createIndex("name", Vertex.class);
+        graph.createIndex("since", Edge.class);
+        final GraphTraversalSource g = graph.traversal();
+
+        try (final TinkerBulkLoader loader = graph.bulkLoader()) {
+            loader.addVertices(source.traversal().V().toStream()).addEdges(source.traversal().E().toList().toArray(new Edge[0]));
+
+            // the adjacency is only built on close
+            assertEquals(6L, (long) g.V().count().next());
+            assertEquals(0L, (long) g.V().outE().count().next());
+        }
+
+        assertEquals(6L, (long) g.V().count().next());
+        assertEquals(14L, (long) g.E().count().next());
+        assertEquals(source.traversal().V().outE().count().next(), g.V().outE().count().next());
+        assertEquals(Arrays.asList("gremlin", "tinkergraph"), g.V().has("name", "marko").out("uses").order().by("name").values("name").toList());
+        assertEquals(Arrays.asList("daniel", "marko", "matthias", "stephen"), g.V().has("name", "gremlin").in("uses").order().by("name").values("name").toList());
+        assertEquals(4L, (long) g.V().has("name", "marko").properties("location").count().next());
+        assertEquals(1997, (int) g.V().has("name", "marko").properties("location").hasValue("san diego").values("startTime").next());
+        assertEquals(2L, (long) g.E().has("since", 2010).count().next());
+        assertEquals(1, TinkerIndexHelper.queryVertexIndex(graph, "name", "stephen").size());
+        assertEquals(2, TinkerIndexHelper.queryEdgeIndex(graph, "since", 2010).size());
+
+        try (final TinkerBulkLoader loader = graph.bulkLoader()) {
+            loader.addVertices(source.vertex(1));
+            fail("Should not load a vertex with an id that is in the graph");
+        } catch (IllegalArgumentException iae) {
+            assertThat(iae.getMessage(), containsString("already exists"));
+        }
+    }
+
+    @Test
+    public void shouldBulkLoadWithIoStep() throws Exception {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldBulkLoadWithIoStep.kryo");
+        final TinkerGraph source = TinkerFactory.createModern();
+        source.traversal().io(graphLocation).write().iterate();
+
+        final TinkerGraph graph = TinkerGraph.open();
+        graph.createIndex("name", Vertex.class);
+        final GraphReader reader = TinkerBulkLoader.reader(graph.io(IoCore.gryo()).reader().create());
+        graph.traversal().io(graphLocation).with(IO.reader, reader).read().iterate();
+
+        IoTest.assertModernGraph(graph, true, false);
+        assertEquals(1, TinkerIndexHelper.queryVertexIndex(graph, "name", "josh").size());
+    }
+
+    @Test
+    public void shouldKeepElementsOfNumericIdsInIdMap() {
+        for (TinkerGraph.DefaultIdManager idManager : Arrays.asList(TinkerGraph.DefaultIdManager.LONG, TinkerGraph.DefaultIdManager.INTEGER)) {
+            final Configuration conf = new BaseConfiguration();
+            conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_VERTEX_ID_MANAGER, idManager.name());
+            conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, idManager.name());
+            final TinkerGraph graph = TinkerGraph.open(conf);
+            assertThat(graph.vertices, instanceOf(TinkerIdMap.class));
+            assertThat(graph.edges, instanceOf(TinkerIdMap.class));
+            final GraphTraversalSource g = graph.traversal();
+
+            // enough elements for the tables to grow a few times
+            for (int i = 0; i < 1000; i++) {
+                g.addV("person").property(T.id, i).property("name", "p" + i).iterate();
+            }
+            for (int i = 1; i < 1000; i++) {
+                g.V(i - 1).addE("next").to(__.V(i)).iterate();
+            }
+
+            assertEquals(1000L, (long) g.V().count().next());
+            assertEquals(999L, (long) g.E().count().next());
+            assertEquals("p500", g.V(500).values("name").next());
+            assertEquals("p500", g.V(500L).values("name").next());
+            assertEquals("p500", g.V("500").values("name").next());
+            assertEquals(idManager.convert(500), g.V(500).id().next());
+            assertEquals(Arrays.asList("p1", "p2"), g.V(1, 1000, 2).values("name").toList());
+            assertEquals("p501", g.V(500).out("next").values("name").next());
+            assertFalse(g.V(-1).hasNext());
+            assertFalse(g.V(1000).hasNext());
+
+            g.V().has("name", P.within("p1", "p2", "p3")).drop().iterate();
+            assertEquals(997L, (long) g.V().count().next());
+            assertEquals(993L, (long) g.E().count().next());
+            assertFalse(g.V(2).hasNext());
+            g.addV("person").property(T.id, 2).property("name", "again").iterate();
+            assertEquals("again", g.V(2).values("name").next());
+
+            // drops while iterating the map
+            g.V().drop().iterate();
+            assertEquals(0L, (long) g.V().count().next());
+            assertEquals(0L, (long) g.E().count().next());
+            g.addV().property(T.id, 7).iterate();
+            assertEquals(idManager.convert(7), g.V().id().next());
+        }
+
+        assertThat(TinkerGraph.open().vertices, instanceOf(ConcurrentHashMap.class));
+    }
+
+    @Test
+    public void shouldNotMixUpKeysAndValuesOfIdMapUnderConcurrentWrites() throws Exception {
+        final TinkerIdMap<Long> map = (TinkerIdMap<Long>) TinkerIdMap.<Long>create(TinkerGraph.DefaultIdManager.LONG);
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final AtomicReference<String> mismatch = new AtomicReference<>();
+
+        // the writer keeps moving a window of keys along so that the slots it frees are taken by other keys
+        final Thread writer = new Thread(() -> {
+            for (long round = 0; round < 20000 && null == mismatch.get(); round++) {
+                for (long k = round; k < round + 32; k++) {
+                    map.put(k, k);
+                }
+                for (long k = round; k < round + 32; k++) {
+                    map.remove(k);
+                }
+            }
+            done.set(true);
+        });
+
+        final List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            readers.add(new Thread(() -> {
+                final Random random = new Random();
+                while (!done.get()) {
+                    final long k = random.nextInt(20032);
+                    final Long value = map.get(k);
+                    if (value != null && value != k)
+                        mismatch.compareAndSet(null, String.format("get(%s) returned %s", k, value));
+                    for (Map.Entry<Object, Long> entry : map.entrySet()) {
+                        if (!entry.getKey().equals(entry.getValue()))
+                            mismatch.compareAndSet(null, String.format("iterated %s=%s", entry.getKey(), entry.getValue()));
+                    }
+                }
+            }));
+        }
+
+        readers.forEach(Thread::start);
+        writer.start();
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(mismatch.get(), mismatch.get());
+        assertEquals(0, map.size());
+    }
+
     @Test
     public void shouldSerializeTinkerGraphToGryo() throws Exception {
         final TinkerGraph graph = TinkerFactory.createModern();
@@ -526,6 +1266,187 @@ public class TinkerGraphTest {
         reloadedGraph.close();
     }
 
+    @Test
+    public void shouldRecoverFromMutationLog() {
+        final Configuration conf = createMutationLogConfiguration("shouldRecoverFromMutationLog.kryo");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateTheCrew(graph);
+        graph.close();
+
+        // changes after the snapshot are only in the log as the graph is not closed
+        final TinkerGraph changedGraph = TinkerGraph.open(conf);
+        final GraphTraversalSource g = changedGraph.traversal();
+        g.V().has("name", "stephen").drop().iterate();
+        g.V().has("name", "marko").property("name", "mark").iterate();
+        g.V().has("name", "matthias").properties("location").has("startTime", 2007).properties("endTime").drop().iterate();
+        g.V().has("name", "daniel").properties("location").hasValue("spremberg").drop().iterate();
+        g.V().has("name", "daniel").property(VertexProperty.Cardinality.list, "location", "berlin", "startTime", 2011).iterate();
+        g.E().hasLabel("uses").has("skill", 5).property("skill", 4).iterate();
+        g.E().hasLabel("develops").limit(1).properties("since").drop().iterate();
+        g.addV("software").property(T.id, 100).property("name", "titan").as("t").
+                V().has("name", "mark").addE("develops").to("t").property(T.id, 101).property("since", 2012).iterate();
+
+        final TinkerGraph recoveredGraph = TinkerGraph.open(conf);
+        assertGraphsEqual(changedGraph, recoveredGraph);
+        recoveredGraph.close();
+    }
+
+    @Test
+    public void shouldSnapshotOnceMutationLogGrows() {
+        final Configuration conf = createMutationLogConfiguration("shouldSnapshotOnceMutationLogGrows.kryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG_SNAPSHOT_SIZE, 4096);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final GraphTraversalSource g = graph.traversal();
+        for (int i = 0; i < 1000; i++) {
+            g.addV("person").property("name", "person" + i).property("age", i).iterate();
+        }
+        g.V().has("age", P.lt(100)).drop().iterate();
+
+        final File log = new File(conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION) + ".log");
+        assertTrue(new File(conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION)).isFile());
+        assertThat(log.length() < 4096, is(true));
+
+        final TinkerGraph recoveredGraph = TinkerGraph.open(conf);
+        assertEquals(900L, recoveredGraph.traversal().V().count().next().longValue());
+        assertGraphsEqual(graph, recoveredGraph);
+        recoveredGraph.close();
+    }
+
+    @Test
+    public void shouldOnlySnapshotOnCloseWhenMutationLogSnapshotsAreOff() {
+        final Configuration conf = createMutationLogConfiguration("shouldOnlySnapshotOnCloseWhenMutationLogSnapshotsAreOff.kryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG_SNAPSHOT_SIZE, 0);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final GraphTraversalSource g = graph.traversal();
+        for (int i = 0; i < 1000; i++) {
+            g.addV("person").property("name", "person" + i).iterate();
+        }
+
+        final File snapshot = new File(conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION));
+        final File log = new File(snapshot.getPath() + ".log");
+        assertFalse(snapshot.exists());
+        assertThat(log.length() > 4096, is(true));
+
+        graph.close();
+        assertTrue(snapshot.isFile());
+        assertEquals(0L, log.length());
+    }
+
+    @Test
+    public void shouldDiscardTornFrameOfMutationLog() throws Exception {
+        final Configuration conf = createMutationLogConfiguration("shouldDiscardTornFrameOfMutationLog.kryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG_SYNC, "always");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+
+        final File log = new File(conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION) + ".log");
+        final long length = log.length();
+        try (final FileOutputStream out = new FileOutputStream(log, true)) {
+            out.write(new byte[]{0, 0, 0, 64, 1, 2, 3, 4, 5});
+        }
+
+        final TinkerGraph recoveredGraph = TinkerGraph.open(conf);
+        IoTest.assertModernGraph(recoveredGraph, true, false);
+        assertEquals(length, log.length());
+        recoveredGraph.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRequireGraphLocationForMutationLog() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG, true);
+        TinkerGraph.open(conf);
+    }
+
+    private static Configuration createMutationLogConfiguration(final String fileName) {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, fileName);
+        new File(graphLocation).delete();
+        new File(graphLocation + ".log").delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.list.name());
+        return conf;
+    }
+
+    private static void assertGraphsEqual(final Graph expected, final Graph actual) {
+        assertEquals(IteratorUtils.count(expected.vertices()), IteratorUtils.count(actual.vertices()));
+        assertEquals(IteratorUtils.count(expected.edges()), IteratorUtils.count(actual.edges()));
+        expected.vertices().forEachRemaining(v -> {
+            final Vertex other = actual.vertices(v.id()).next();
+            assertEquals(v.label(), other.label());
+            assertEquals(vertexPropertiesOf(v), vertexPropertiesOf(other));
+        });
+        expected.edges().forEachRemaining(e -> {
+            final Edge other = actual.edges(e.id()).next();
+            assertEquals(e.label(), other.label());
+            assertEquals(e.outVertex().id(), other.outVertex().id());
+            assertEquals(e.inVertex().id(), other.inVertex().id());
+            assertEquals(IteratorUtils.set(e.properties()), IteratorUtils.set(other.properties()));
+        });
+    }
+
+    private static Set<List<Object>> vertexPropertiesOf(final Vertex vertex) {
+        final Set<List<Object>> vertexProperties = new HashSet<>();
+        vertex.properties().forEachRemaining(vp -> vertexProperties.add(
+                Arrays.asList(vp.id(), vp.key(), vp.value() instanceof byte[] ? Arrays.toString((byte[]) vp.value()) : vp.value(),
+                        IteratorUtils.set(vp.properties()))));
+        return vertexProperties;
+    }
+
+    @Test
+    public void shouldLoadGryoInParallel() {
+        assertParallelLoad("shouldLoadGryoInParallel.kryo", "gryo", false);
+    }
+
+    @Test
+    public void shouldLoadGraphSONInParallel() {
+        assertParallelLoad("shouldLoadGraphSONInParallel.json", "graphson", false);
+    }
+
+    @Test
+    public void shouldLoadGryoInParallelWithHeaderInValues() {
+        assertParallelLoad("shouldLoadGryoInParallelWithHeaderInValues.kryo", "gryo", true);
+    }
+
+    private static void assertParallelLoad(final String fileName, final String graphFormat, final boolean headerInValues) {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, fileName);
+        new File(graphLocation).delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, graphFormat);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.list.name());
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final Random random = new Random(8675309L);
+        final List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            final Vertex v = graph.addVertex(T.label, "person", "name", "person" + i);
+            v.property(VertexProperty.Cardinality.list, "location", "city" + random.nextInt(100), "startTime", i);
+            if (headerInValues) v.property("data", GryoMapper.HEADER);
+            vertices.add(v);
+        }
+        for (int i = 0; i < 10000; i++) {
+            vertices.get(random.nextInt(vertices.size())).addEdge(i % 2 == 0 ? "knows" : "likes",
+                    vertices.get(random.nextInt(vertices.size())), "weight", random.nextDouble());
+        }
+        graph.close();
+
+        final TinkerGraph sequentialGraph = TinkerGraph.open(conf);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_LOAD_THREADS, 4);
+        final TinkerGraph parallelGraph = TinkerGraph.open(conf);
+        assertEquals(2000, parallelGraph.getVerticesCount());
+        assertEquals(10000, parallelGraph.getEdgesCount());
+        assertGraphsEqual(sequentialGraph, parallelGraph);
+        sequentialGraph.vertices().forEachRemaining(v -> {
+            final Vertex other = parallelGraph.vertex(v.id());
+            assertEquals(IteratorUtils.set(v.edges(Direction.OUT)), IteratorUtils.set(other.edges(Direction.OUT)));
+            assertEquals(IteratorUtils.set(v.edges(Direction.IN)), IteratorUtils.set(other.edges(Direction.IN)));
+        });
+    }
+
     @Test
     public void shouldPersistToAnyGraphFormat() {
         final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldPersistToAnyGraphFormat.dat");
@@ -720,6 +1641,245 @@ public class TinkerGraphTest {
         assertEquals(expected, g.withComputer(Computer.compute().workers(4)).V(1, 2).optional(__.bothE().dedup()).order().by(T.id).toList());
     }
 
+    @Test
+    public void shouldSpreadVerticesOfSkewedGraphOverWorkers() throws Exception {
+        assumeThat(Runtime.getRuntime().availableProcessors(), greaterThan(1));
+
+        // a star with one vertex adjacent to all others, which would leave the worker with that vertex the busiest
+        final TinkerGraph graph = TinkerGraph.open();
+        final Vertex center = graph.addVertex();
+        for (int i = 0; i < 1000; i++) {
+            center.addEdge("link", graph.addVertex());
+        }
+
+        final TinkerComputerResult result = (TinkerComputerResult) graph.compute(TinkerGraphComputer.class).workers(2).
+                program(PageRankVertexProgram.build().iterations(3).create(graph)).submit().get();
+        final TinkerWorkerMetrics metrics = result.getWorkerMetrics();
+        assertEquals(2, metrics.getWorkers());
+
+        // every vertex is executed once an iteration by one of the workers out of many more chunks than workers
+        final long vertices = metrics.getVertices(0) + metrics.getVertices(1);
+        assertTrue(vertices > 0);
+        assertEquals(0, vertices % 1001);
+        assertTrue(metrics.getChunks(0) + metrics.getChunks(1) > 2 * vertices / 1001);
+        for (int i = 0; i < 2; i++) {
+            assertTrue(metrics.getUtilization(i) >= 0d && metrics.getUtilization(i) <= 1d);
+        }
+    }
+
+    @Test
+    public void shouldKeepIdsAndMetaPropertiesOfComputeKeys() throws Exception {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final long currentId = graph.currentId.get();
+        final Vertex marko = graph.vertices(1).next();
+
+        TinkerHelper.createGraphComputerView(graph, new GraphFilter(), new HashSet<>(Arrays.asList(
+                VertexComputeKey.of("rank", false), VertexComputeKey.of("score", false))));
+        try {
+            // the property made from a kept number has the same identifier whenever it is read
+            final VertexProperty<Double> rank = marko.property(VertexProperty.Cardinality.single, "rank", 0.5d);
+            assertEquals(rank.id(), marko.property("rank").id());
+            assertEquals(marko.property("rank").id(), marko.property("rank").id());
+            marko.property("rank").remove();
+            assertFalse(marko.property("rank").isPresent());
+
+            // a meta-property attached once the property was added stays with it
+            final VertexProperty<Double> score = marko.property(VertexProperty.Cardinality.single, "score", 1.5d);
+            score.property("source", "test");
+            assertEquals(score.id(), marko.property("score").id());
+            assertEquals("test", marko.property("score").value("source"));
+            assertEquals(1.5d, marko.<Double>property("score").value(), 0d);
+
+            assertEquals(currentId, graph.currentId.get());
+        } finally {
+            TinkerHelper.dropGraphComputerView(graph);
+        }
+
+        // nor does a whole job use up identifiers of the graph
+        graph.compute(TinkerGraphComputer.class).program(PageRankVertexProgram.build().iterations(3).create(graph)).submit().get();
+        assertEquals(currentId, graph.currentId.get());
+    }
+
+    @Test
+    public void shouldFindComponentsWhenHaltedVerticesAreSentMessages() throws Exception {
+        // a long chain keeps the program iterating well after the pairs have found their components and halted
+        final TinkerGraph graph = TinkerGraph.open();
+        Vertex previous = graph.addVertex(T.id, "c99");
+        for (int i = 98; i >= 0; i--) {
+            final Vertex next = graph.addVertex(T.id, String.format("c%02d", i));
+            previous.addEdge("link", next);
+            previous = next;
+        }
+        for (int i = 0; i < 100; i++) {
+            graph.addVertex(T.id, "p" + i + "a").addEdge("link", graph.addVertex(T.id, "p" + i + "b"));
+        }
+
+        final ComputerResult result = graph.compute(TinkerGraphComputer.class).workers(2).
+                program(ConnectedComponentVertexProgram.build().create(graph)).submit().get();
+        assertTrue(result.memory().getIteration() > 50);
+        result.graph().vertices().forEachRemaining(v -> {
+            final String id = (String) v.id();
+            final String component = v.value(ConnectedComponentVertexProgram.COMPONENT);
+            assertEquals(id.startsWith("c") ? "c00" : id.substring(0, id.length() - 1) + "a", component);
+        });
+    }
+
+    @Test
+    public void shouldNotExecuteHaltedVerticesUntilSentMessages() throws Exception {
+        // a chain of ten vertices among ninety unconnected ones, all of which halt after the first iteration
+        final TinkerGraph graph = TinkerGraph.open();
+        Vertex previous = graph.addVertex(T.id, 0, "start", true);
+        for (int i = 1; i < 10; i++) {
+            final Vertex next = graph.addVertex(T.id, i);
+            previous.addEdge("link", next);
+            previous = next;
+        }
+        for (int i = 10; i < 100; i++) {
+            graph.addVertex(T.id, i);
+        }
+
+        final ComputerResult result = graph.compute(TinkerGraphComputer.class).workers(2).
+                program(new ChainVertexProgram()).submit().get();
+        assertEquals(10, result.memory().getIteration());
+
+        // every vertex in the first iteration and then only the one vertex of the chain sent a message
+        assertEquals(109L, result.memory().<Long>get(ChainVertexProgram.EXECUTIONS).longValue());
+        result.graph().vertices().forEachRemaining(v ->
+                assertEquals((Integer) v.id() < 10, v.property(ChainVertexProgram.REACHED).isPresent()));
+    }
+
+    @Test
+    public void shouldCombineMessagesAgainWhenCombinerChangesTheirType() throws Exception {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final Vertex marko = graph.vertices(1).next();
+        // the sum of two Long messages is a BigInteger, which is kept apart from the Long that comes after it until
+        // the two are combined when received
+        final MessageCombiner<Object> combiner = (a, b) -> new BigInteger(a.toString()).add(new BigInteger(b.toString()));
+        final ComputerResult result = graph.compute(TinkerGraphComputer.class).workers(2).
+                program(new MessagingVertexProgram(2, combiner, (vertex, messenger, iteration) -> {
+                    if (!vertex.id().equals(1))
+                        messenger.sendMessage(MessageScope.Global.of(marko), ((Integer) vertex.id()).longValue());
+                })).submit().get();
+
+        final Map<Object, List<String>> received = receivedMessages(result);
+        assertEquals(Collections.singletonList("1:20"), received.get(1));
+        for (int i = 2; i <= 6; i++) {
+            assertEquals(Collections.emptyList(), received.get(i));
+        }
+    }
+
+    @Test
+    public void shouldKeepAllMessagesOfAVertexWithoutCombiner() throws Exception {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final Vertex vadas = graph.vertices(2).next();
+        final MessageScope.Local<Object> outE = MessageScope.Local.of(__::outE);
+        final ComputerResult result = graph.compute(TinkerGraphComputer.class).workers(2).
+                program(new MessagingVertexProgram(2, null, (vertex, messenger, iteration) -> {
+                    final int id = (Integer) vertex.id();
+                    messenger.sendMessage(outE, id);
+                    messenger.sendMessage(outE, -id);
+                    messenger.sendMessage(MessageScope.Global.of(vadas), "v" + id);
+                })).submit().get();
+
+        final Map<Object, List<String>> received = receivedMessages(result);
+        assertEquals(Collections.emptyList(), received.get(1));
+        assertEquals(Arrays.asList("1:-1", "1:1", "1:v1", "1:v2", "1:v3", "1:v4", "1:v5", "1:v6"), received.get(2));
+        assertEquals(Arrays.asList("1:-1", "1:-4", "1:-6", "1:1", "1:4", "1:6"), received.get(3));
+        assertEquals(Arrays.asList("1:-1", "1:1"), received.get(4));
+        assertEquals(Arrays.asList("1:-4", "1:4"), received.get(5));
+        assertEquals(Collections.emptyList(), received.get(6));
+    }
+
+    @Test
+    public void shouldDropGlobalMessagesToVerticesNotInTheGraph() throws Exception {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final ComputerResult result = graph.compute(TinkerGraphComputer.class).workers(2).
+                program(new MessagingVertexProgram(2, null, (vertex, messenger, iteration) ->
+                        messenger.sendMessage(MessageScope.Global.of(new ReferenceVertex(1), new ReferenceVertex(100)), vertex.id()))).
+                submit().get();
+
+        // the reference is resolved to the vertex of the graph with its id and there is no vertex with the other id
+        final Map<Object, List<String>> received = receivedMessages(result);
+        assertEquals(Arrays.asList("1:1", "1:2", "1:3", "1:4", "1:5", "1:6"), received.get(1));
+        for (int i = 2; i <= 6; i++) {
+            assertEquals(Collections.emptyList(), received.get(i));
+        }
+        assertEquals(6, received.size());
+    }
+
+    @Test
+    public void shouldClearMessagesOfAnEqualLocalScopeBeforeSendingAgain() throws Exception {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        // every send uses an equal but different scope, and the messages received in the second iteration are sent to
+        // again in the third, where only marko sends
+        final ComputerResult result = graph.compute(TinkerGraphComputer.class).workers(2).
+                program(new MessagingVertexProgram(4, (a, b) -> (Long) a + (Long) b, (vertex, messenger, iteration) -> {
+                    if (iteration < 2 || vertex.id().equals(1))
+                        messenger.sendMessage(MessageScope.Local.of(__::outE), (long) iteration);
+                })).submit().get();
+
+        final Map<Object, List<String>> received = receivedMessages(result);
+        assertEquals(Collections.emptyList(), received.get(1));
+        assertEquals(Arrays.asList("1:0", "2:1", "3:2"), received.get(2));
+        assertEquals(Arrays.asList("1:0", "1:0", "1:0", "2:1", "2:1", "2:1", "3:2"), received.get(3));
+        assertEquals(Arrays.asList("1:0", "2:1", "3:2"), received.get(4));
+        assertEquals(Arrays.asList("1:0", "2:1"), received.get(5));
+        assertEquals(Collections.emptyList(), received.get(6));
+    }
+
+    private static Map<Object, List<String>> receivedMessages(final ComputerResult result) {
+        final Map<Object, List<String>> received = new HashMap<>();
+        result.graph().vertices().forEachRemaining(v -> {
+            final List<String> messages = new ArrayList<>(v.<List<String>>property(MessagingVertexProgram.RECEIVED).orElse(Collections.emptyList()));
+            Collections.sort(messages);
+            received.put(v.id(), messages);
+        });
+        return received;
+    }
+
+    @Test
+    public void shouldExecuteHaltedVerticesAsynchronouslyOnceSentMessages() throws Exception {
+        // the same chain as when executed synchronously, where a vertex may now be executed in the iteration it is sent
+        // a message in, but still only once and the unconnected vertices not at all after the first iteration
+        final TinkerGraph graph = TinkerGraph.open();
+        Vertex previous = graph.addVertex(T.id, 0, "start", true);
+        for (int i = 1; i < 10; i++) {
+            final Vertex next = graph.addVertex(T.id, i);
+            previous.addEdge("link", next);
+            previous = next;
+        }
+        for (int i = 10; i < 100; i++) {
+            graph.addVertex(T.id, i);
+        }
+
+        final ComputerResult result = graph.compute(TinkerGraphComputer.class).workers(2).execution(GraphComputer.Execution.ASYNCHRONOUS).
+                program(new ChainVertexProgram()).submit().get();
+        assertEquals(109L, result.memory().<Long>get(ChainVertexProgram.EXECUTIONS).longValue());
+        result.graph().vertices().forEachRemaining(v ->
+                assertEquals((Integer) v.id() < 10, v.property(ChainVertexProgram.REACHED).isPresent()));
+    }
+
+    @Test
+    public void shouldComputeSameComponentsAsynchronously() throws Exception {
+        final TinkerGraph graph = TinkerFactory.createTheCrew();
+        final ComputerResult synchronous = graph.compute(TinkerGraphComputer.class).
+                program(ConnectedComponentVertexProgram.build().create(graph)).submit().get();
+        final ComputerResult asynchronous = graph.compute(TinkerGraphComputer.class).execution(GraphComputer.Execution.ASYNCHRONOUS).
+                program(ConnectedComponentVertexProgram.build().create(graph)).submit().get();
+
+        final Map<Object, String> components = new HashMap<>();
+        synchronous.graph().vertices().forEachRemaining(v -> components.put(v.id(), v.value(ConnectedComponentVertexProgram.COMPONENT)));
+        asynchronous.graph().vertices().forEachRemaining(v ->
+                assertEquals(components.get(v.id()), v.value(ConnectedComponentVertexProgram.COMPONENT)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotExecuteVertexProgramAsynchronouslyWithoutSupport() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        graph.compute(TinkerGraphComputer.class).execution(GraphComputer.Execution.ASYNCHRONOUS).
+                program(PeerPressureVertexProgram.build().create(graph)).submit();
+    }
+
     @Test
     public void shouldReservedKeyVerify() {
         final Set<String> reserved = new HashSet<>(Arrays.asList("something", "id", "label"));
@@ -923,6 +2083,142 @@ public class TinkerGraphTest {
         assertEquals(3, g.V(100, "1000", uuid).count().next().intValue());
     }
 
+    /**
+     * Passes a message down a chain from the vertex with the "start" property, where every vertex votes to halt on
+     * each execution, and counts the executions of the vertices.
+     */
+    public static class ChainVertexProgram extends StaticVertexProgram<Boolean> {
+        public static final String EXECUTIONS = "executions";
+        public static final String REACHED = "reached";
+
+        private static final MessageScope.Local<Boolean> SCOPE = MessageScope.Local.of(__::outE);
+
+        @Override
+        public void setup(final Memory memory) {
+            memory.set(EXECUTIONS, 0L);
+        }
+
+        @Override
+        public void execute(final Vertex vertex, final Messenger<Boolean> messenger, final Memory memory) {
+            memory.add(EXECUTIONS, 1L);
+            if (memory.isInitialIteration() ? vertex.property("start").isPresent() : messenger.receiveMessages().hasNext()) {
+                vertex.property(REACHED, true);
+                messenger.sendMessage(SCOPE, true);
+            }
+            messenger.voteToHalt();
+        }
+
+        @Override
+        public boolean terminate(final Memory memory) {
+            return memory.getIteration() == 9;
+        }
+
+        @Override
+        public boolean allowsVoteToHalt(final Memory memory) {
+            return true;
+        }
+
+        @Override
+        public Set<VertexComputeKey> getVertexComputeKeys() {
+            return Collections.singleton(VertexComputeKey.of(REACHED, false));
+        }
+
+        @Override
+        public Features getFeatures() {
+            // a vertex passes the message on whenever it receives it
+            return new Features() {
+                @Override
+                public boolean supportsAsynchronousExecution() {
+                    return true;
+                }
+            };
+        }
+
+        @Override
+        public Set<MemoryComputeKey> getMemoryComputeKeys() {
+            return Collections.singleton(MemoryComputeKey.of(EXECUTIONS, Operator.sum, false, false));
+        }
+
+        @Override
+        public Set<MessageScope> getMessageScopes(final Memory memory) {
+            return Collections.singleton(SCOPE);
+        }
+
+        @Override
+        public GraphComputer.ResultGraph getPreferredResultGraph() {
+            return GraphComputer.ResultGraph.ORIGINAL;
+        }
+
+        @Override
+        public GraphComputer.Persist getPreferredPersist() {
+            return GraphComputer.Persist.VERTEX_PROPERTIES;
+        }
+    }
+
+    /**
+     * Sends the messages of the sender in every iteration but the last and keeps the messages each vertex received,
+     * prefixed with the iteration they were received in.
+     */
+    public static class MessagingVertexProgram extends StaticVertexProgram<Object> {
+        public static final String RECEIVED = "received";
+
+        private final int iterations;
+        private final MessageCombiner<Object> combiner;
+        private final TriConsumer<Vertex, Messenger<Object>, Integer> sender;
+
+        public MessagingVertexProgram(final int iterations, final MessageCombiner<Object> combiner,
+                                      final TriConsumer<Vertex, Messenger<Object>, Integer> sender) {
+            this.iterations = iterations;
+            this.combiner = combiner;
+            this.sender = sender;
+        }
+
+        @Override
+        public void setup(final Memory memory) {
+        }
+
+        @Override
+        public void execute(final Vertex vertex, final Messenger<Object> messenger, final Memory memory) {
+            if (!memory.isInitialIteration()) {
+                final List<String> received = new ArrayList<>(vertex.<List<String>>property(RECEIVED).orElse(Collections.emptyList()));
+                messenger.receiveMessages().forEachRemaining(m -> received.add(memory.getIteration() + ":" + m));
+                vertex.property(VertexProperty.Cardinality.single, RECEIVED, received);
+            }
+            if (memory.getIteration() < this.iterations - 1)
+                this.sender.accept(vertex, messenger, memory.getIteration());
+        }
+
+        @Override
+        public boolean terminate(final Memory memory) {
+            return memory.getIteration() == this.iterations - 1;
+        }
+
+        @Override
+        public Optional<MessageCombiner<Object>> getMessageCombiner() {
+            return Optional.ofNullable(this.combiner);
+        }
+
+        @Override
+        public Set<VertexComputeKey> getVertexComputeKeys() {
+            return Collections.singleton(VertexComputeKey.of(RECEIVED, false));
+        }
+
+        @Override
+        public Set<MessageScope> getMessageScopes(final Memory memory) {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public GraphComputer.ResultGraph getPreferredResultGraph() {
+            return GraphComputer.ResultGraph.ORIGINAL;
+        }
+
+        @Override
+        public GraphComputer.Persist getPreferredPersist() {
+            return GraphComputer.Persist.VERTEX_PROPERTIES;
+        }
+    }
+
     /**
      * Coerces a {@code Color} to a {@link TinkerGraph} during serialization.  Demonstrates how custom serializers
      * can be developed that can coerce one value to another during serialization.
@@ -18,22 +18,36 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.tinkerpop.gremlin.TestHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.TransactionException;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.junit.Test;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class TinkerTransactionGraphTest {
@@ -467,6 +481,484 @@ public class TinkerTransactionGraphTest {
         assertEquals(0, index.size());
     }
 
+    @Test
+    public void shouldUseSortedIndexWithUncommittedChanges() throws InterruptedException {
+        final TinkerTransactionGraph g = TinkerTransactionGraph.open();
+        g.createIndex("test-property", Vertex.class, TinkerIndexType.SORTED);
+
+        final GraphTraversalSource gtx = g.tx().begin();
+        for (int i = 0; i < 10; i++) {
+            gtx.addV().property("test-property", i).iterate();
+        }
+        gtx.tx().commit();
+
+        final GraphTraversalSource gtx2 = g.tx().begin();
+        gtx2.V().has("test-property", 2).property("test-property", 20).iterate();
+        gtx2.addV().property("test-property", 15).iterate();
+
+        assertEquals(Arrays.asList(5, 6, 7, 8, 9, 15, 20), gtx2.V().has("test-property", P.gte(5)).values("test-property").toList());
+        assertEquals(Arrays.asList(20, 15, 9), gtx2.V().order().by("test-property", Order.desc).limit(3).values("test-property").toList());
+        assertEquals(Arrays.asList(0, 1, 3), gtx2.V().order().by("test-property").limit(3).values("test-property").toList());
+        // counted from the index entries rather than the elements the transaction sees
+        assertEquals(7, g.estimate(Vertex.class, new HasContainer("test-property", P.gte(5))));
+
+        final Thread thread = new Thread(() -> {
+            final GraphTraversalSource gtx3 = g.tx().begin();
+            assertEquals(Arrays.asList(5, 6, 7, 8, 9), gtx3.V().has("test-property", P.gte(5)).values("test-property").toList());
+            assertEquals(Arrays.asList(0, 1, 2), gtx3.V().order().by("test-property").limit(3).values("test-property").toList());
+        });
+        thread.start();
+        thread.join();
+
+        gtx2.tx().commit();
+
+        final GraphTraversalSource gtx4 = g.tx().begin();
+        assertEquals(Arrays.asList(5, 6, 7, 8, 9, 15, 20), gtx4.V().has("test-property", P.gte(5)).values("test-property").toList());
+        assertEquals(Arrays.asList(0, 1, 3), gtx4.V().order().by("test-property").limit(3).values("test-property").toList());
+    }
+
+    @Test
+    public void shouldUseCompositeIndexWithUncommittedChanges() throws InterruptedException {
+        final TinkerTransactionGraph g = TinkerTransactionGraph.open();
+        g.createCompositeIndex(Vertex.class, "person", "tenant", "externalId");
+
+        final GraphTraversalSource gtx = g.tx().begin();
+        for (int i = 0; i < 10; i++) {
+            gtx.addV("person").property("tenant", "t" + (i % 2)).property("externalId", i).iterate();
+        }
+        assertEquals(1L, (long) gtx.V().hasLabel("person").has("tenant", "t0").has("externalId", 4).count().next());
+        gtx.tx().commit();
+
+        final GraphTraversalSource gtx2 = g.tx().begin();
+        assertEquals(1L, (long) gtx2.V().hasLabel("person").has("tenant", "t0").has("externalId", 4).count().next());
+        gtx2.V().hasLabel("person").has("tenant", "t0").has("externalId", 4).property("externalId", 40).iterate();
+        assertEquals(0L, (long) gtx2.V().hasLabel("person").has("tenant", "t0").has("externalId", 4).count().next());
+        assertEquals(1L, (long) gtx2.V().hasLabel("person").has("tenant", "t0").has("externalId", 40).count().next());
+
+        final Thread thread = new Thread(() -> {
+            final GraphTraversalSource gtx3 = g.tx().begin();
+            assertEquals(1L, (long) gtx3.V().hasLabel("person").has("tenant", "t0").has("externalId", 4).count().next());
+            assertEquals(0L, (long) gtx3.V().hasLabel("person").has("tenant", "t0").has("externalId", 40).count().next());
+        });
+        thread.start();
+        thread.join();
+
+        gtx2.tx().commit();
+
+        final GraphTraversalSource gtx4 = g.tx().begin();
+        assertEquals(0L, (long) gtx4.V().hasLabel("person").has("tenant", "t0").has("externalId", 4).count().next());
+        assertEquals(1L, (long) gtx4.V().hasLabel("person").has("tenant", "t0").has("externalId", 40).count().next());
+
+        final Map<List<Object>, Set<TinkerElementContainer<?>>> index = (Map<List<Object>, Set<TinkerElementContainer<?>>>)
+                (Map) ((TinkerTransactionalIndex) g.vertexIndex).compositeIndex.get(new AbstractTinkerIndex.CompositeKey("person", Arrays.asList("tenant", "externalId")));
+        assertEquals(10, index.size());
+        assertNull(index.get(Arrays.asList("t0", 4)));
+    }
+
+    @Test
+    public void shouldUseLabelIndexWithUncommittedChanges() throws InterruptedException {
+        final TinkerTransactionGraph g = TinkerTransactionGraph.open();
+
+        final GraphTraversalSource gtx = g.tx().begin();
+        for (int i = 0; i < 10; i++) {
+            gtx.addV(i % 2 == 0 ? "person" : "software").property(T.id, i).iterate();
+        }
+        gtx.addE("knows").from(__.V(0)).to(__.V(2)).iterate();
+        assertEquals(5L, (long) gtx.V().hasLabel("person").count().next());
+        assertEquals(1L, (long) gtx.E().hasLabel("knows").count().next());
+
+        final AtomicLong uncommitted = new AtomicLong(-1);
+        final Thread thread = new Thread(() -> uncommitted.set(g.traversal().V().hasLabel("person").count().next()));
+        thread.start();
+        thread.join();
+        assertEquals(0L, uncommitted.get());
+
+        gtx.tx().commit();
+
+        final GraphTraversalSource gtx2 = g.tx().begin();
+        assertEquals(5L, (long) gtx2.V().hasLabel("person").count().next());
+        gtx2.V(0).drop().iterate();
+        gtx2.addV("software").property(T.id, 10).iterate();
+        assertEquals(4L, (long) gtx2.V().hasLabel("person").count().next());
+        assertEquals(6L, (long) gtx2.V().hasLabel("software").count().next());
+        assertEquals(0L, (long) gtx2.E().hasLabel("knows").count().next());
+        gtx2.tx().commit();
+
+        final GraphTraversalSource gtx3 = g.tx().begin();
+        assertEquals(4L, (long) gtx3.V().hasLabel("person").count().next());
+        assertEquals(10L, (long) gtx3.V().hasLabel("person", "software").count().next());
+        assertEquals(4L, IteratorUtils.count(g.verticesByLabel("person")));
+        gtx3.V().hasLabel("software").drop().iterate();
+        gtx3.tx().rollback();
+
+        assertEquals(6, g.getVerticesCount("software"));
+    }
+
+    @Test
+    public void shouldRecoverCommittedTransactionsFromMutationLog() {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerTransactionGraphTest.class, "shouldRecoverCommittedTransactionsFromMutationLog.kryo");
+        new File(graphLocation).delete();
+        new File(graphLocation + ".log").delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerTransactionGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerTransactionGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerTransactionGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG, true);
+        final TinkerTransactionGraph graph = TinkerTransactionGraph.open(conf);
+        final GraphTraversalSource gtx = graph.tx().begin();
+
+        gtx.addV("person").property(T.id, 1).property("name", "marko").as("a").
+                addV("software").property(T.id, 2).property("name", "lop").as("b").
+                addE("created").from("a").to("b").property(T.id, 3).property("weight", 0.4d).iterate();
+        gtx.addV("person").property(T.id, 4).property("name", "vadas").iterate();
+        gtx.tx().commit();
+
+        gtx.V(1).property("age", 29).iterate();
+        gtx.E(3).property("weight", 0.5d).iterate();
+        gtx.V(4).drop().iterate();
+        gtx.tx().commit();
+
+        gtx.addV("person").property(T.id, 5).property("name", "josh").iterate();
+        gtx.V(1).properties("age").drop().iterate();
+        gtx.tx().rollback();
+
+        // the graph is not closed so the data is recovered from the log alone
+        final TinkerTransactionGraph recoveredGraph = TinkerTransactionGraph.open(conf);
+        final GraphTraversalSource g = recoveredGraph.traversal();
+        assertEquals(2L, (long) g.V().count().next());
+        assertEquals(Arrays.asList(1, 2), g.V().id().order().toList());
+        assertEquals(29, g.V(1).values("age").next());
+        assertEquals(0.5d, g.E(3).values("weight").next());
+        assertEquals("lop", g.V(1).out("created").values("name").next());
+        recoveredGraph.tx().rollback();
+        recoveredGraph.close();
+    }
+
+    @Test
+    public void shouldSnapshotInBackgroundOnceMutationLogGrows() throws Exception {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerTransactionGraphTest.class, "shouldSnapshotInBackgroundOnceMutationLogGrows.kryo");
+        new File(graphLocation).delete();
+        new File(graphLocation + ".log").delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerTransactionGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerTransactionGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerTransactionGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG, true);
+        conf.setProperty(TinkerTransactionGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG_SNAPSHOT_SIZE, 4096);
+        final TinkerTransactionGraph graph = TinkerTransactionGraph.open(conf);
+        final GraphTraversalSource gtx = graph.tx().begin();
+        for (int i = 0; i < 200; i++) {
+            gtx.addV("person").property(T.id, i).property("name", "person" + i).iterate();
+            gtx.tx().commit();
+        }
+
+        // the commits return before the snapshot is written
+        final File snapshot = new File(graphLocation);
+        for (int i = 0; i < 100 && !snapshot.isFile(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(snapshot.isFile());
+
+        final TinkerTransactionGraph recoveredGraph = TinkerTransactionGraph.open(conf);
+        assertEquals(200L, (long) recoveredGraph.traversal().V().count().next());
+        recoveredGraph.tx().rollback();
+        graph.close();
+    }
+
+    @Test
+    public void shouldReadSnapshotAtTransactionBegin() throws InterruptedException {
+        final TinkerTransactionGraph g = TinkerTransactionGraph.open();
+        final GraphTraversalSource gtx = g.tx().begin();
+        gtx.addV().property(T.id, 1).property("name", "marko").as("a").
+                addV().property(T.id, 2).property("name", "vadas").as("b").
+                addE("knows").from("a").to("b").iterate();
+        gtx.tx().commit();
+
+        final GraphTraversalSource gtx2 = g.tx().begin();
+        assertEquals("marko", gtx2.V(1).values("name").next());
+
+        final Thread thread = new Thread(() -> {
+            final GraphTraversalSource gtx3 = g.tx().begin();
+            gtx3.V(1).property("name", "stephen").iterate();
+            gtx3.V(2).drop().iterate();
+            gtx3.addV().property(T.id, 3).property("name", "josh").iterate();
+            gtx3.tx().commit();
+        });
+        thread.start();
+        thread.join();
+
+        // the transaction keeps reading the versions committed when it started
+        assertEquals("marko", gtx2.V(1).values("name").next());
+        assertEquals(Arrays.asList(1, 2), gtx2.V().id().order().toList());
+        assertEquals("vadas", gtx2.V(1).out("knows").values("name").next());
+        gtx2.tx().rollback();
+
+        final GraphTraversalSource gtx4 = g.tx().begin();
+        assertEquals("stephen", gtx4.V(1).values("name").next());
+        assertEquals(Arrays.asList(1, 3), gtx4.V().id().order().toList());
+        assertEquals(0L, (long) gtx4.E().count().next());
+        gtx4.tx().rollback();
+    }
+
+    @Test
+    public void shouldReadSnapshotFromIndex() throws InterruptedException {
+        final TinkerTransactionGraph g = TinkerTransactionGraph.open();
+        g.createIndex("name", Vertex.class);
+        final GraphTraversalSource gtx = g.tx().begin();
+        gtx.addV().property(T.id, 1).property("name", "marko").iterate();
+        gtx.addV().property(T.id, 2).property("name", "vadas").iterate();
+        gtx.tx().commit();
+
+        final GraphTraversalSource gtx2 = g.tx().begin();
+        assertEquals(1L, (long) gtx2.V().has("name", "marko").count().next());
+
+        final Thread thread = new Thread(() -> {
+            final GraphTraversalSource gtx3 = g.tx().begin();
+            gtx3.V(1).property("name", "stephen").iterate();
+            gtx3.V(2).drop().iterate();
+            gtx3.tx().commit();
+        });
+        thread.start();
+        thread.join();
+
+        assertEquals(1L, (long) gtx2.V().has("name", "marko").count().next());
+        assertEquals(0L, (long) gtx2.V().has("name", "stephen").count().next());
+        assertEquals(1L, (long) gtx2.V().has("name", "vadas").count().next());
+        assertEquals(Arrays.asList("marko", "vadas"), gtx2.V().has("name", P.gte("a")).values("name").order().toList());
+        gtx2.tx().rollback();
+
+        final GraphTraversalSource gtx4 = g.tx().begin();
+        assertEquals(0L, (long) gtx4.V().has("name", "marko").count().next());
+        assertEquals(1L, (long) gtx4.V().has("name", "stephen").count().next());
+        assertEquals(0L, (long) gtx4.V().has("name", "vadas").count().next());
+        gtx4.tx().rollback();
+    }
+
+    @Test
+    public void shouldKeepDeletedVertexWhileTransactionReadsIt() throws InterruptedException {
+        final TinkerTransactionGraph g = TinkerTransactionGraph.open();
+        final GraphTraversalSource gtx = g.tx().begin();
+        gtx.addV().property(T.id, vid).iterate();
+        gtx.tx().commit();
+
+        final GraphTraversalSource gtx2 = g.tx().begin();
+        assertEquals(1L, (long) gtx2.V().count().next());
+
+        final Thread thread = new Thread(() -> {
+            final GraphTraversalSource gtx3 = g.tx().begin();
+            gtx3.V(vid).drop().iterate();
+            gtx3.tx().commit();
+        });
+        thread.start();
+        thread.join();
+
+        // the deleted vertex is still read by the open transaction
+        assertEquals(1, g.getVertices().size());
+        assertEquals(1L, (long) gtx2.V(vid).count().next());
+        gtx2.tx().rollback();
+
+        g.versions.collect();
+        assertEquals(0, g.getVertices().size());
+    }
+
+    @Test
+    public void shouldNotCommitAnyChangeOfConflictingTransaction() throws InterruptedException {
+        final TinkerTransactionGraph g = TinkerTransactionGraph.open();
+        final GraphTraversalSource gtx = g.tx().begin();
+        for (int i = 1; i <= 10; i++) {
+            gtx.addV().property(T.id, i).property("age", 0).iterate();
+        }
+        gtx.tx().commit();
+
+        final GraphTraversalSource gtx2 = g.tx().begin();
+        gtx2.V().property("age", 1).iterate();
+
+        final Thread thread = new Thread(() -> {
+            final GraphTraversalSource gtx3 = g.tx().begin();
+            gtx3.V(5).property("age", 2).iterate();
+            gtx3.tx().commit();
+        });
+        thread.start();
+        thread.join();
+
+        try {
+            gtx2.tx().commit();
+            fail("should throw TransactionException");
+        } catch (TransactionException ex) {
+        }
+
+        final GraphTraversalSource gtx4 = g.tx().begin();
+        assertEquals(Arrays.asList(0, 0, 0, 0, 2, 0, 0, 0, 0, 0), gtx4.V().order().by(T.id).values("age").toList());
+        gtx4.tx().rollback();
+
+        // a later transaction on the same elements commits
+        gtx4.V().property("age", 3).iterate();
+        gtx4.tx().commit();
+        assertEquals(10L, (long) gtx4.V().has("age", 3).count().next());
+        gtx4.tx().rollback();
+
+        assertEquals(1, g.getTransactionMetrics().getConflictCount());
+    }
+
+    @Test
+    public void shouldRetryConflictingTransaction() {
+        final TinkerTransactionGraph g = TinkerTransactionGraph.open();
+        g.submit(gtx -> gtx.addV().property(T.id, vid).property("age", 0).iterate());
+
+        final AtomicLong runs = new AtomicLong(0);
+        final Object age = g.submit(gtx -> {
+            final int current = (int) gtx.V(vid).values("age").next();
+            if (runs.incrementAndGet() == 1) {
+                // another transaction changes the vertex after this one read it
+                final Thread thread = new Thread(() -> g.submit(gtx2 -> gtx2.V(vid).property("age", 10).iterate()));
+                thread.start();
+                try {
+                    thread.join();
+                } catch (InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+            gtx.V(vid).property("age", current + 1).iterate();
+            return current + 1;
+        });
+
+        assertEquals(2L, runs.get());
+        assertEquals(11, age);
+        assertEquals(11, g.traversal().V(vid).values("age").next());
+        g.tx().rollback();
+
+        final TinkerTransactionMetrics metrics = g.getTransactionMetrics();
+        assertEquals(3, metrics.getCommitCount());
+        assertEquals(1, metrics.getConflictCount());
+        assertEquals(1, metrics.getRetryCount());
+        assertEquals(0.25d, metrics.getConflictRate(), 0.0001d);
+    }
+
+    @Test
+    public void shouldReadSnapshotWhileChangesAreCommitted() throws InterruptedException {
+        final TinkerTransactionGraph g = TinkerTransactionGraph.open();
+        g.submit(gtx -> gtx.addV().property(T.id, vid).property("age", 0).addV().property(T.id, 101).iterate());
+
+        final long version;
+        try (final TinkerSnapshot snapshot = g.snapshot()) {
+            version = snapshot.version();
+            g.submit(gtx -> {
+                gtx.V(vid).property("age", 1).iterate();
+                gtx.V(101).drop().iterate();
+                return gtx.addV().property(T.id, 102).iterate();
+            });
+
+            assertEquals(0, snapshot.read(gtx -> gtx.V(vid).values("age").next()));
+            assertEquals(Arrays.asList(vid, 101), snapshot.read(gtx -> gtx.V().id().order().toList()));
+            assertEquals(version, g.versions.getOldestReadVersion());
+
+            // other threads read the same snapshot
+            final AtomicLong count = new AtomicLong(0);
+            final Thread thread = new Thread(() -> count.set(snapshot.read(gtx -> gtx.V().count().next())));
+            thread.start();
+            thread.join();
+            assertEquals(2L, count.get());
+
+            try {
+                snapshot.read(gtx -> gtx.V(vid).property("age", 2).iterate());
+                fail("should throw UnsupportedOperationException");
+            } catch (UnsupportedOperationException ex) {
+            }
+            try {
+                snapshot.read(gtx -> gtx.addV().iterate());
+                fail("should throw UnsupportedOperationException");
+            } catch (UnsupportedOperationException ex) {
+            }
+            assertFalse(g.tx().isOpen());
+
+            assertEquals(1, g.traversal().V(vid).values("age").next());
+            assertEquals(Arrays.asList(vid, 102), g.traversal().V().id().order().toList());
+            g.tx().rollback();
+        }
+
+        assertTrue(g.versions.getOldestReadVersion() > version);
+        final TinkerSnapshot closed = g.snapshot();
+        closed.close();
+        try {
+            closed.read(gtx -> gtx.V().count().next());
+            fail("should throw IllegalStateException");
+        } catch (IllegalStateException ex) {
+        }
+        assertFalse(g.tx().isOpen());
+    }
+
+    @Test
+    public void shouldThrowWhenRetriesAreExhausted() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerTransactionGraph.GREMLIN_TINKERGRAPH_TX_RETRIES, 0);
+        final TinkerTransactionGraph g = TinkerTransactionGraph.open(conf);
+        g.submit(gtx -> gtx.addV().property(T.id, vid).property("age", 0).iterate());
+
+        try {
+            g.submit(gtx -> {
+                gtx.V(vid).property("age", 1).iterate();
+                final Thread thread = new Thread(() -> g.submit(gtx2 -> gtx2.V(vid).property("age", 2).iterate()));
+                thread.start();
+                try {
+                    thread.join();
+                } catch (InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+                return null;
+            });
+            fail("should throw TransactionException");
+        } catch (TransactionException ex) {
+        }
+
+        assertEquals(2, g.traversal().V(vid).values("age").next());
+        g.tx().rollback();
+        assertEquals(0, g.getTransactionMetrics().getRetryCount());
+        assertEquals(1, g.getTransactionMetrics().getConflictCount());
+    }
+
+    @Test
+    public void shouldKeepEdgeIdsOfNumericIdsInIdSet() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerTransactionGraph.GREMLIN_TINKERGRAPH_EDGE_ID_MANAGER, TinkerTransactionGraph.DefaultIdManager.LONG.name());
+        final TinkerTransactionGraph g = TinkerTransactionGraph.open(conf);
+        final GraphTraversalSource gtx = g.traversal();
+
+        gtx.addV().property(T.id, 1).as("a").addV().property(T.id, 2).as("b").iterate();
+        for (long i = 1000; i < 1100; i++) {
+            gtx.V(1).addE(i % 2 == 0 ? "even" : "odd").to(__.V(2)).property(T.id, i).iterate();
+        }
+        gtx.tx().commit();
+
+        assertTrue(((TinkerVertex) g.vertex(1)).outEdgesId.get("even") instanceof TinkerIdSet);
+        assertEquals(50L, (long) gtx.V(1).outE("even").count().next());
+        assertEquals(100L, (long) gtx.V(2).in().count().next());
+
+        gtx.E(1000L, 1001L, 1099L).drop().iterate();
+        assertEquals(97L, (long) gtx.V(1).outE().count().next());
+        assertEquals(97L, (long) gtx.V(2).inE().count().next());
+        gtx.tx().rollback();
+
+        gtx.E(1000L, 1001L, 1099L).drop().iterate();
+        gtx.tx().commit();
+        assertEquals(97L, (long) gtx.V(1).outE().count().next());
+        assertEquals(49L, (long) gtx.V(2).inE("even").count().next());
+    }
+
+    @Test
+    public void shouldFollowEdgesOnceWhenLabelIsRepeated() {
+        final TinkerTransactionGraph g = TinkerTransactionGraph.open();
+        final GraphTraversalSource gtx = g.traversal();
+        gtx.addV().property(T.id, 1).as("a").addV().property(T.id, 2).as("b").
+                addE("knows").from("a").to("b").addE("likes").from("a").to("b").iterate();
+        gtx.tx().commit();
+
+        final Vertex v1 = gtx.V(1).next();
+        assertEquals(2, IteratorUtils.count(v1.vertices(Direction.OUT, "knows", "likes")));
+        assertEquals(1, IteratorUtils.count(v1.vertices(Direction.OUT, "knows", "knows")));
+        assertEquals(1, IteratorUtils.count(gtx.V(2).next().vertices(Direction.IN, "likes", "likes")));
+        assertEquals(2, IteratorUtils.count(gtx.V(2).next().vertices(Direction.IN, "likes", "knows", "likes")));
+    }
+
     // index tests for edge
 
     @Test